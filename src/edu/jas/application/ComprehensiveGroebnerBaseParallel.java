@@ -0,0 +1,217 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.application;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.poly.GenPolynomial;
+import edu.jas.structure.GcdRingElem;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * Comprehensive Groebner Base parallel algorithm. Implements faithful
+ * comprehensive Groebner bases via Groebner systems. The branches of the
+ * Groebner system, i.e. the colored systems, are completed in parallel on a
+ * work-stealing pool. Colored systems with the same condition and
+ * polynomials are only completed once.
+ * @param <C> coefficient type
+ * @author agent
+ */
+
+public class ComprehensiveGroebnerBaseParallel<C extends GcdRingElem<C>> extends
+                ComprehensiveGroebnerBaseSeq<C> {
+
+
+    private static final Logger logger = Logger.getLogger(ComprehensiveGroebnerBaseParallel.class);
+
+
+    /**
+     * Number of threads to use.
+     */
+    protected final int threads;
+
+
+    /**
+     * Work-stealing pool of threads to use.
+     */
+    protected transient final ForkJoinPool pool;
+
+
+    /**
+     * Constructor.
+     * @param rf base coefficient ring factory.
+     */
+    public ComprehensiveGroebnerBaseParallel(RingFactory<C> rf) {
+        this(rf, 2);
+    }
+
+
+    /**
+     * Constructor.
+     * @param rf base coefficient ring factory.
+     * @param threads number of threads to use.
+     */
+    public ComprehensiveGroebnerBaseParallel(RingFactory<C> rf, int threads) {
+        this(new CReductionSeq<C>(rf), rf, threads);
+    }
+
+
+    /**
+     * Constructor.
+     * @param red C-pseudo-Reduction engine
+     * @param rf base coefficient ring factory.
+     * @param threads number of threads to use.
+     */
+    public ComprehensiveGroebnerBaseParallel(CReductionSeq<C> red, RingFactory<C> rf, int threads) {
+        super(red, rf);
+        if (threads < 1) {
+            threads = 1;
+        }
+        this.threads = threads;
+        this.pool = new ForkJoinPool(threads);
+    }
+
+
+    /**
+     * Cleanup and terminate pool.
+     */
+    public void terminate() {
+        if (pool == null) {
+            return;
+        }
+        pool.shutdownNow();
+    }
+
+
+    /**
+     * Comprehensive Groebner base system, branches are completed in parallel.
+     * @param F polynomial list.
+     * @return GBsys(F) a Comprehensive Groebner system of F.
+     */
+    @Override
+    public GroebnerSystem<C> GBsys(List<GenPolynomial<GenPolynomial<C>>> F) {
+        if (F == null) {
+            return null;
+        }
+        List<ColoredSystem<C>> CSp = new ArrayList<ColoredSystem<C>>();
+        if (F.size() == 0) {
+            return new GroebnerSystem<C>(CSp);
+        }
+        // determine polynomials and setup pair lists
+        List<ColoredSystem<C>> CSs = determinePairlists(F);
+        Set<List<Object>> seen = ConcurrentHashMap.<List<Object>> newKeySet();
+        List<BranchTask> tasks = new ArrayList<BranchTask>(CSs.size());
+        for (ColoredSystem<C> cs : CSs) {
+            if (seen.add(key(cs))) {
+                tasks.add(new BranchTask(cs, seen));
+            }
+        }
+        List<ColoredSystem<C>> CSb = pool.invoke(new BranchesTask(tasks));
+        logger.info("#parallel branches done = " + CSb.size());
+        return new GroebnerSystem<C>(CSb);
+    }
+
+
+    /**
+     * Key for deduplication of colored systems, as in
+     * ColoredSystem.addToList().
+     * @param cs colored system.
+     * @return key with condition and polynomial list of cs.
+     */
+    static List<Object> key(ColoredSystem<?> cs) {
+        return Arrays.<Object> asList(cs.condition, cs.list);
+    }
+
+
+    /**
+     * Task to run the initial branches and to collect their results in
+     * order.
+     */
+    class BranchesTask extends RecursiveTask<List<ColoredSystem<C>>> {
+
+
+        private static final long serialVersionUID = 1L;
+
+
+        final List<BranchTask> tasks;
+
+
+        BranchesTask(List<BranchTask> tasks) {
+            this.tasks = tasks;
+        }
+
+
+        @Override
+        protected List<ColoredSystem<C>> compute() {
+            invokeAll(tasks);
+            List<ColoredSystem<C>> CSb = new ArrayList<ColoredSystem<C>>();
+            for (BranchTask t : tasks) {
+                CSb.addAll(t.join());
+            }
+            return CSb;
+        }
+    }
+
+
+    /**
+     * Task to complete one branch. New branches split off during completion
+     * are forked as new tasks, if no branch with the same condition and
+     * polynomials has been seen before.
+     */
+    class BranchTask extends RecursiveTask<List<ColoredSystem<C>>> {
+
+
+        private static final long serialVersionUID = 1L;
+
+
+        final ColoredSystem<C> cs;
+
+
+        final Set<List<Object>> seen;
+
+
+        BranchTask(ColoredSystem<C> cs, Set<List<Object>> seen) {
+            this.cs = cs;
+            this.seen = seen;
+        }
+
+
+        @Override
+        protected List<ColoredSystem<C>> compute() {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new RuntimeException("interrupt in GBsys branch");
+            }
+            List<ColoredSystem<C>> ncs = new ArrayList<ColoredSystem<C>>();
+            ColoredSystem<C> x = completeBranch(cs, ncs);
+            List<BranchTask> tasks = new ArrayList<BranchTask>(ncs.size());
+            for (ColoredSystem<C> n : ncs) {
+                if (seen.add(key(n))) {
+                    tasks.add(new BranchTask(n, seen));
+                }
+            }
+            logger.info("#new systems forked = " + tasks.size() + ", done with = " + x.condition);
+            for (BranchTask t : tasks) {
+                t.fork();
+            }
+            List<ColoredSystem<C>> CSb = new ArrayList<ColoredSystem<C>>();
+            CSb.add(minimalBranch(x));
+            for (BranchTask t : tasks) {
+                CSb.addAll(t.join());
+            }
+            return CSb;
+        }
+    }
+
+}
@@ -388,6 +388,51 @@ public class ComprehensiveGroebnerBaseSeq<C extends GcdRingElem<C>>
         if (F.size() == 0) {
             return new GroebnerSystem<C>(CSp);
         }
+        // determine polynomials and setup pair lists
+        List<ColoredSystem<C>> CSs = determinePairlists(F);
+
+        // main loop
+        List<ColoredSystem<C>> CSb = new ArrayList<ColoredSystem<C>>();
+        List<ColoredSystem<C>> ncs;
+        List<ColoredSystem<C>> CSh; //, CSbh;
+        ColoredSystem<C> cs;
+        int si = 0;
+        while (CSs.size() > 0) {
+            cs = CSs.get(0); // remove(0);
+            si++;
+            logger.info("poped GBsys number    " + si + " with condition = " + cs.condition);
+            logger.info("poped GBsys (remaining " + (CSs.size() - 1) + ") with pairlist  = " + cs.pairlist);
+            ncs = new ArrayList<ColoredSystem<C>>();
+            cs = completeBranch(cs, ncs);
+            int yi = CSs.size();
+            for (ColoredSystem<C> x : ncs) {
+                CSs = x.addToList(CSs);
+            }
+            logger.info("#new systems added = " + (CSs.size() - yi));
+            CSb.add(cs);
+            CSs.remove(0);
+            logger.info("done with = " + cs.condition);
+        }
+        // all branches done
+        CSh = new ArrayList<ColoredSystem<C>>();
+        for (ColoredSystem<C> x : CSb) {
+            cs = minimalBranch(x);
+            CSh.add(cs);
+            logger.info("#sequential done = " + x.condition);
+            logger.info(x.pairlist.toString());
+        }
+        CSb = new ArrayList<ColoredSystem<C>>(CSh);
+        return new GroebnerSystem<C>(CSb);
+    }
+
+
+    /**
+     * Determine polynomials and setup pair lists.
+     * @param F polynomial list, non empty.
+     * @return list of colored systems with pair lists for the determined
+     *         polynomials of F.
+     */
+    public List<ColoredSystem<C>> determinePairlists(List<GenPolynomial<GenPolynomial<C>>> F) {
         // extract coefficient factory
         GenPolynomial<GenPolynomial<C>> f = F.get(0);
         GenPolynomialRing<GenPolynomial<C>> fac = f.ring;
@@ -411,120 +456,116 @@ public class ComprehensiveGroebnerBaseSeq<C extends GcdRingElem<C>>
             css = new ColoredSystem<C>(cs.condition, cs.list, pairlist);
             CSs.add(css);
         }
+        return CSs;
+    }
 
-        // main loop
-        List<ColoredSystem<C>> CSb = new ArrayList<ColoredSystem<C>>();
+
+    /**
+     * Complete one branch of a Comprehensive Groebner system. All S-polynomials
+     * of the branch are reduced, the case distinctions for new polynomials
+     * continue this branch with the first condition and return the other
+     * conditions as new branches.
+     * @param cs colored system with pair list.
+     * @param nsys list to which the new determined colored systems are
+     *            added.
+     * @return colored system with all S-polynomials reducing to zero.
+     */
+    public ColoredSystem<C> completeBranch(ColoredSystem<C> cs, List<ColoredSystem<C>> nsys) {
+        if (!cs.isDetermined()) {
+            cs = cs.reDetermine();
+        }
+        OrderedCPairlist<C> pairlist = cs.pairlist;
+        List<ColorPolynomial<C>> G = cs.list;
+        Condition<C> cond = cs.condition;
         List<ColoredSystem<C>> ncs;
-        List<ColoredSystem<C>> CSh; //, CSbh;
-        ColoredSystem<C> cs;
-        List<ColorPolynomial<C>> G;
-        OrderedCPairlist<C> pairlist;
-        Condition<C> cond;
-        int si = 0;
-        while (CSs.size() > 0) {
-            cs = CSs.get(0); // remove(0);
-            si++;
-            logger.info("poped GBsys number    " + si + " with condition = " + cs.condition);
-            logger.info("poped GBsys (remaining " + (CSs.size() - 1) + ") with pairlist  = " + cs.pairlist);
-            if (!cs.isDetermined()) {
-                cs = cs.reDetermine();
+        // logger.info( pairlist.toString() );
+
+        CPair<C> pair;
+        ColorPolynomial<C> pi;
+        ColorPolynomial<C> pj;
+        ColorPolynomial<C> S;
+        // GenPolynomial<GenPolynomial<C>> H;
+        ColorPolynomial<C> H;
+        while (pairlist.hasNext()) {
+            pair = pairlist.removeNext();
+            if (pair == null)
+                continue;
+
+            pi = pair.pi;
+            pj = pair.pj;
+            if (debug) {
+                logger.info("pi    = " + pi);
+                logger.info("pj    = " + pj);
             }
-            pairlist = cs.pairlist;
-            G = cs.list;
-            cond = cs.condition;
-            // logger.info( pairlist.toString() );
-
-            CPair<C> pair;
-            ColorPolynomial<C> pi;
-            ColorPolynomial<C> pj;
-            ColorPolynomial<C> S;
-            // GenPolynomial<GenPolynomial<C>> H;
-            ColorPolynomial<C> H;
-            while (pairlist.hasNext()) {
-                pair = pairlist.removeNext();
-                if (pair == null)
-                    continue;
 
-                pi = pair.pi;
-                pj = pair.pj;
-                if (debug) {
-                    logger.info("pi    = " + pi);
-                    logger.info("pj    = " + pj);
-                }
+            S = cred.SPolynomial(pi, pj);
+            if (S.isZERO()) {
+                pair.setZero();
+                continue;
+            }
+            if (debug) {
+                // logger.info("ht(S) = " + S.leadingExpVector() );
+                logger.info("S = " + S);
+            }
 
-                S = cred.SPolynomial(pi, pj);
-                if (S.isZERO()) {
-                    pair.setZero();
-                    continue;
-                }
-                if (debug) {
-                    // logger.info("ht(S) = " + S.leadingExpVector() );
-                    logger.info("S = " + S);
-                }
+            H = cred.normalform(cond, G, S);
+            if (H.isZERO()) {
+                pair.setZero();
+                continue;
+            }
+            if (debug) {
+                logger.info("ht(H) = " + H.leadingExpVector());
+            }
 
-                H = cred.normalform(cond, G, S);
-                if (H.isZERO()) {
-                    pair.setZero();
+            H = H.abs();
+            if (debug) {
+                logger.debug("H = " + H);
+            }
+            logger.info("H = " + H);
+            if (!H.isZERO()) {
+                ncs = determineAddPairs(cs, H);
+                if (ncs.size() == 0) {
                     continue;
                 }
-                if (debug) {
-                    logger.info("ht(H) = " + H.leadingExpVector());
-                }
-
-                H = H.abs();
-                if (debug) {
-                    logger.debug("H = " + H);
-                }
-                logger.info("H = " + H);
-                if (!H.isZERO()) {
-                    //CSh = new ArrayList<ColoredSystem<C>>();
-                    ncs = determineAddPairs(cs, H);
-                    if (ncs.size() == 0) {
-                        continue;
+                cs = ncs.remove(0); // remove other?
+                pairlist = cs.pairlist;
+                G = cs.list;
+                cond = cs.condition;
+                logger.info("replaced main branch = " + cond);
+                logger.info("#new systems       = " + ncs.size());
+                for (ColoredSystem<C> x : ncs) {
+                    if (!x.isDetermined()) {
+                        x = x.reDetermine();
                     }
-                    cs = ncs.remove(0); // remove other?
-                    pairlist = cs.pairlist;
-                    G = cs.list;
-                    cond = cs.condition;
-                    logger.info("replaced main branch = " + cond);
-                    logger.info("#new systems       = " + ncs.size());
-                    int yi = CSs.size();
-                    for (ColoredSystem<C> x : ncs) {
-                        if (!x.isDetermined()) {
-                            x = x.reDetermine();
-                        }
-                        CSs = x.addToList(CSs);
-                    }
-                    logger.info("#new systems added = " + (CSs.size() - yi));
+                    nsys.add(x);
                 }
             }
-            // all s-pols reduce to zero in this branch
-            if (!cs.isDetermined()) {
-                cs = cs.reDetermine();
-            }
-            CSb.add(cs);
-            CSs.remove(0);
-            logger.info("done with = " + cs.condition);
         }
-        // all branches done
-        CSh = new ArrayList<ColoredSystem<C>>();
-        for (ColoredSystem<C> x : CSb) {
-            // System.out.println("G = " + x.list );
-            if (!x.isDetermined()) {
-                x = x.reDetermine();
-            }
-            cs = minimalGB(x);
-            // System.out.println("min(G) = " + cs.list );
-            if (!cs.isDetermined()) {
-                cs = cs.reDetermine();
-            }
-            // cs = new ColoredSystem<C>( x.condition, G, x.pairlist );
-            CSh.add(cs);
-            logger.info("#sequential done = " + x.condition);
-            logger.info(x.pairlist.toString());
+        // all s-pols reduce to zero in this branch
+        if (!cs.isDetermined()) {
+            cs = cs.reDetermine();
         }
-        CSb = new ArrayList<ColoredSystem<C>>(CSh);
-        return new GroebnerSystem<C>(CSb);
+        return cs;
+    }
+
+
+    /**
+     * Minimal Groebner base of a completed branch.
+     * @param x colored system with all S-polynomials reducing to zero.
+     * @return determined colored system with minimal Groebner base.
+     */
+    public ColoredSystem<C> minimalBranch(ColoredSystem<C> x) {
+        // System.out.println("G = " + x.list );
+        if (!x.isDetermined()) {
+            x = x.reDetermine();
+        }
+        ColoredSystem<C> cs = minimalGB(x);
+        // System.out.println("min(G) = " + cs.list );
+        if (!cs.isDetermined()) {
+            cs = cs.reDetermine();
+        }
+        // cs = new ColoredSystem<C>( x.condition, G, x.pairlist );
+        return cs;
     }
 
 
@@ -6,15 +6,26 @@ package edu.jas.application;
 
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.apache.log4j.Logger;
 
 import edu.jas.arith.BigInteger;
 import edu.jas.arith.BigRational;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
 import edu.jas.gb.GBOptimized;
 import edu.jas.gb.GBProxy;
 import edu.jas.gb.GroebnerBaseAbstract;
 import edu.jas.gb.GroebnerBaseParallel;
+import edu.jas.gb.GroebnerBaseSeq;
 import edu.jas.gb.GroebnerBaseSeqIter;
 import edu.jas.gb.GroebnerBaseF5zSigSeqIter;
 import edu.jas.gb.GroebnerBaseGGVSigSeqIter;
@@ -33,6 +44,8 @@ import edu.jas.gbufd.GroebnerBaseRational;
 import edu.jas.kern.ComputerThreads;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.Monomial;
+import edu.jas.poly.TermOrder;
 import edu.jas.structure.GcdRingElem;
 import edu.jas.structure.RingFactory;
 import edu.jas.ufd.Quotient;
@@ -78,6 +91,10 @@ import edu.jas.ufd.QuotientRing;
  *        base,</li>
  *        <li><code>domainAlgorithm(Algo)</code> for computing a d- or
  *        e-Gr&ouml;bner base,</li>
+ *        <li><code>auto(List)</code> for selecting the pair-list strategy,
+ *        fraction free, FGLM, walk and parallel algorithms from features of
+ *        the input polynomials and timed probes on a modular image, the
+ *        reasons are available with <code>getReason()</code>,</li>
  *        </ul>
  *        Finally call the method <code>build()</code> to obtain an
  *        implementaton of class <code>GroebnerBaseAbstract</code>. For example
@@ -113,12 +130,44 @@ public class GBAlgorithmBuilder<C extends GcdRingElem<C>> implements Serializabl
     private static final Logger logger = Logger.getLogger(GBAlgorithmBuilder.class);
 
 
+    /**
+     * Default time limit for the probes of auto() in milliseconds.
+     */
+    public static final long PROBE_TIME = 1000L;
+
+
+    /**
+     * Probe time in milliseconds above which auto() selects a parallel
+     * algorithm.
+     */
+    public static final long PARALLEL_TIME = 100L;
+
+
+    /**
+     * Input size above which auto() selects a parallel algorithm without
+     * probes.
+     */
+    public static final long PARALLEL_SIZE = 1000L;
+
+
+    /**
+     * Prime for the modular images of the probes.
+     */
+    protected static final long PROBE_PRIME = 2147483647L; // 2^31-1
+
+
     /**
      * The current GB algorithm implementation.
      */
     private GroebnerBaseAbstract<C> algo;
 
 
+    /**
+     * Reasons for the selection of auto(), null if not used.
+     */
+    private String reason;
+
+
     /**
      * The current polynomial ring.
      */
@@ -266,11 +315,20 @@ public class GBAlgorithmBuilder<C extends GcdRingElem<C>> implements Serializabl
      * coefficients denominators are cleared and pseudo reduction is used.
      * @return GBAlgorithmBuilder object.
      */
-    @SuppressWarnings({"cast", "unchecked"})
     public GBAlgorithmBuilder<C> fractionFree() {
         if (algo != null) {
             logger.warn("selected algorithm ignored: " + algo + ", use fractionFree before");
         }
+        return fractionFreeAlgorithm();
+    }
+
+
+    /**
+     * Fraction free algorithm for the requested strategy.
+     * @return GBAlgorithmBuilder object.
+     */
+    @SuppressWarnings({"cast", "unchecked"})
+    private GBAlgorithmBuilder<C> fractionFreeAlgorithm() {
         if (((Object) ring.coFac) instanceof BigRational) {
             BigRational cf = (BigRational) (Object) ring.coFac;
             PairList<BigRational> sty = (PairList) strategy;
@@ -536,6 +594,226 @@ public class GBAlgorithmBuilder<C extends GcdRingElem<C>> implements Serializabl
     }
 
 
+    /**
+     * Request automatic selection of the algorithm with probes limited to
+     * PROBE_TIME milliseconds.
+     * @param F list of input polynomials.
+     * @return GBAlgorithmBuilder object.
+     */
+    public GBAlgorithmBuilder<C> auto(List<GenPolynomial<C>> F) {
+        return auto(F, PROBE_TIME);
+    }
+
+
+    /**
+     * Request automatic selection of the algorithm. The input polynomials
+     * are inspected for the number of variables, degrees, homogeneity, number
+     * of terms and coefficient size. For BigRational, BigInteger and ModLong
+     * coefficients short probes are run on a modular image to compare the
+     * pair-list strategies and, for lexicographical term orders, the graded
+     * Gr&ouml;bner base with FGLM or Gr&ouml;bner walk. A parallel algorithm
+     * is added for large or slow inputs. The reasons for the selection can be
+     * obtained with <code>getReason()</code>.
+     * @param F list of input polynomials.
+     * @param probeTime time limit in milliseconds for each probe, 0 for no
+     *            probes.
+     * @return GBAlgorithmBuilder object.
+     */
+    @SuppressWarnings("unchecked")
+    public GBAlgorithmBuilder<C> auto(List<GenPolynomial<C>> F, long probeTime) {
+        if (algo != null) {
+            logger.warn("selected algorithm ignored: " + algo + ", use auto before");
+        }
+        GBInputFeatures ft = new GBInputFeatures(ring, F);
+        StringBuffer why = new StringBuffer(ft.toString());
+        boolean syz = ft.homogeneous || ft.npolys > ft.nvars;
+        boolean fglm = false;
+        boolean walk = ft.lex && ft.field && ft.nvars > 2;
+        boolean expensive = ft.size() > PARALLEL_SIZE;
+        List<GenPolynomial<ModLong>> Fp = null;
+        if (probeTime > 0L && ft.npolys > 1 && !ComputerThreads.NO_THREADS) {
+            Fp = modularImage(ring, F);
+        }
+        if (Fp == null) {
+            why.append(", no probes");
+        } else {
+            long tn = probe(new GroebnerBaseSeq<ModLong>(new OrderedPairlist<ModLong>()), Fp, probeTime, null);
+            long ts = probe(new GroebnerBaseSeq<ModLong>(new OrderedSyzPairlist<ModLong>()), Fp, probeTime,
+                            null);
+            why.append(", probe normal=" + time(tn) + ", syzygy=" + time(ts));
+            long tl = -1L;
+            if (tn >= 0L || ts >= 0L) {
+                syz = (tn < 0L) || (ts >= 0L && ts < tn);
+                tl = syz ? ts : tn;
+                expensive = tl > PARALLEL_TIME;
+            } else {
+                expensive = true;
+            }
+            if (ft.lex && ft.field && ft.nvars > 1) {
+                GenPolynomialRing<ModLong> pfac = Fp.get(0).ring;
+                GenPolynomialRing<ModLong> gfac = new GenPolynomialRing<ModLong>(pfac, new TermOrder(
+                                TermOrder.IGRLEX));
+                GroebnerBaseAbstract<ModLong> bb;
+                if (syz) {
+                    bb = new GroebnerBaseSeq<ModLong>(new OrderedSyzPairlist<ModLong>());
+                } else {
+                    bb = new GroebnerBaseSeq<ModLong>(new OrderedPairlist<ModLong>());
+                }
+                List<List<GenPolynomial<ModLong>>> G = new ArrayList<List<GenPolynomial<ModLong>>>(1);
+                long tg = probe(bb, gfac.copy(Fp), probeTime, G);
+                why.append(", graded=" + time(tg));
+                if (tg >= 0L) {
+                    walk = false;
+                    if (tl < 0L || tg < tl) {
+                        int z = bb.commonZeroTest(G.get(0));
+                        why.append(", dimension " + (z == 0 ? "zero" : "not zero"));
+                        if (z == 0) {
+                            fglm = true;
+                        } else {
+                            walk = true;
+                        }
+                        expensive = tg > PARALLEL_TIME;
+                    }
+                }
+            }
+        }
+        GBAlgorithmBuilder<C> b;
+        if (syz) {
+            b = new GBAlgorithmBuilder<C>(ring, null, new OrderedSyzPairlist<C>());
+            why.append(": syzygy pairlist");
+        } else {
+            b = new GBAlgorithmBuilder<C>(ring, null, new OrderedPairlist<C>());
+            why.append(": normal pairlist");
+        }
+        if (((Object) ring.coFac) instanceof BigRational && !walk) {
+            b = b.fractionFreeAlgorithm();
+            why.append(", fraction free");
+        }
+        if (fglm) {
+            b = b.graded();
+            why.append(", FGLM");
+        } else if (walk) {
+            b = b.walk();
+            why.append(", walk");
+        }
+        if (expensive && ComputerThreads.N_CPUS > 1 && !ComputerThreads.NO_THREADS) {
+            b = b.parallel();
+            why.append(", parallel");
+        }
+        b.reason = why.toString();
+        logger.info("auto: " + b.reason);
+        return b;
+    }
+
+
+    /**
+     * Get the reasons for the selection of auto().
+     * @return description of the input features, probe times and selected
+     *         algorithms, or null if auto() was not used.
+     */
+    public String getReason() {
+        return reason;
+    }
+
+
+    /**
+     * Run a timed GB probe.
+     * @param bb GB algorithm.
+     * @param F list of polynomials.
+     * @param limit time limit in milliseconds.
+     * @param result list to add the GB to, or null.
+     * @return run time in milliseconds, or -1 if the time limit was exceeded.
+     */
+    protected static <D extends GcdRingElem<D>> long probe(final GroebnerBaseAbstract<D> bb,
+                    final List<GenPolynomial<D>> F, long limit, List<List<GenPolynomial<D>>> result) {
+        ExecutorService pool = ComputerThreads.getPool();
+        long t = System.currentTimeMillis();
+        Future<List<GenPolynomial<D>>> f = pool.submit(new Callable<List<GenPolynomial<D>>>() {
+
+
+            public List<GenPolynomial<D>> call() {
+                return bb.GB(F);
+            }
+        });
+        try {
+            List<GenPolynomial<D>> G = f.get(limit, TimeUnit.MILLISECONDS);
+            t = System.currentTimeMillis() - t;
+            if (result != null) {
+                result.add(G);
+            }
+            return t;
+        } catch (TimeoutException e) {
+            f.cancel(true);
+        } catch (InterruptedException e) {
+            f.cancel(true);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.info("probe failed: " + e.getCause());
+        }
+        return -1L;
+    }
+
+
+    private static String time(long t) {
+        return (t < 0L) ? "timeout" : (t + " ms");
+    }
+
+
+    /**
+     * Modular image of a list of polynomials for the probes.
+     * @param ring polynomial ring.
+     * @param F list of polynomials.
+     * @return image of F with ModLong coefficients, or null if not available.
+     */
+    protected static <C extends GcdRingElem<C>> List<GenPolynomial<ModLong>> modularImage(
+                    GenPolynomialRing<C> ring, List<GenPolynomial<C>> F) {
+        Object cf = ring.coFac;
+        ModLongRing mr;
+        if (cf instanceof ModLongRing) {
+            mr = (ModLongRing) cf;
+        } else if (cf instanceof BigRational || cf instanceof BigInteger) {
+            mr = new ModLongRing(PROBE_PRIME, true);
+        } else {
+            return null;
+        }
+        GenPolynomialRing<ModLong> mfac = new GenPolynomialRing<ModLong>(mr, ring);
+        List<GenPolynomial<ModLong>> Fp = new ArrayList<GenPolynomial<ModLong>>(F.size());
+        for (GenPolynomial<C> p : F) {
+            GenPolynomial<ModLong> q = mfac.getZERO().copy();
+            for (Monomial<C> m : p) {
+                ModLong c = modularImage(mr, m.c);
+                if (c == null) { // bad prime
+                    return null;
+                }
+                q.doPutToMap(m.e, c);
+            }
+            if (!q.isZERO()) {
+                Fp.add(q);
+            }
+        }
+        if (Fp.size() <= 1) {
+            return null;
+        }
+        return Fp;
+    }
+
+
+    private static ModLong modularImage(ModLongRing mr, Object c) {
+        if (c instanceof ModLong) {
+            return (ModLong) c;
+        }
+        if (c instanceof BigInteger) {
+            return mr.fromInteger(((BigInteger) c).getVal());
+        }
+        BigRational r = (BigRational) c;
+        ModLong d = mr.fromInteger(r.denominator());
+        if (d.isZERO()) {
+            return null;
+        }
+        return mr.fromInteger(r.numerator()).divide(d);
+    }
+
+
     /**
      * String representation of the GB algorithm implementation.
      * @see java.lang.Object#toString()
@@ -0,0 +1,185 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.application;
+
+
+import java.io.Serializable;
+import java.util.List;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigRational;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.TermOrder;
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Features of an input polynomial list for Gr&ouml;bner base computations.
+ * Used by <code>GBAlgorithmBuilder.auto()</code> to select an algorithm.
+ * @author agent
+ */
+
+public class GBInputFeatures implements Serializable {
+
+
+    private static final long serialVersionUID = 1L;
+
+
+    /**
+     * Number of variables.
+     */
+    public final int nvars;
+
+
+    /**
+     * Number of non-zero polynomials.
+     */
+    public final int npolys;
+
+
+    /**
+     * Total number of terms.
+     */
+    public final long terms;
+
+
+    /**
+     * Maximal total degree.
+     */
+    public final long maxDegree;
+
+
+    /**
+     * True, if all polynomials are homogeneous.
+     */
+    public final boolean homogeneous;
+
+
+    /**
+     * Maximal bit length of integral coefficients, numerators and
+     * denominators, 0 for other coefficients.
+     */
+    public final long maxBits;
+
+
+    /**
+     * True, if the coefficients are from a field.
+     */
+    public final boolean field;
+
+
+    /**
+     * True, if the coefficients are BigRational or BigInteger.
+     */
+    public final boolean integral;
+
+
+    /**
+     * True, if the term order is lexicographical.
+     */
+    public final boolean lex;
+
+
+    /**
+     * Constructor.
+     * @param ring polynomial ring.
+     * @param F list of polynomials.
+     */
+    public <C extends RingElem<C>> GBInputFeatures(GenPolynomialRing<C> ring, List<GenPolynomial<C>> F) {
+        nvars = ring.nvar;
+        field = ring.coFac.isField();
+        Object cf = ring.coFac;
+        integral = (cf instanceof BigRational) || (cf instanceof BigInteger);
+        lex = isLex(ring.tord);
+        int n = 0;
+        long t = 0L;
+        long d = 0L;
+        long b = 0L;
+        boolean h = true;
+        if (F != null) {
+            for (GenPolynomial<C> p : F) {
+                if (p == null || p.isZERO()) {
+                    continue;
+                }
+                n++;
+                t += p.length();
+                d = Math.max(d, p.totalDegree());
+                h = h && p.isHomogeneous();
+                if (integral) {
+                    for (C c : p.getMap().values()) {
+                        b = Math.max(b, bitLength(c));
+                    }
+                }
+            }
+        }
+        npolys = n;
+        terms = t;
+        maxDegree = d;
+        homogeneous = h;
+        maxBits = b;
+    }
+
+
+    /**
+     * Test for lexicographical term orders.
+     * @param to term order.
+     * @return true, if to is a lexicographical term order without weights.
+     */
+    public static boolean isLex(TermOrder to) {
+        if (to.getWeight() != null || to.isSplit()) {
+            return false;
+        }
+        int e = to.getEvord();
+        return e == TermOrder.LEX || e == TermOrder.INVLEX;
+    }
+
+
+    /**
+     * Bit length of integral coefficients.
+     * @param c BigRational or BigInteger coefficient.
+     * @return maximal bit length of numerator and denominator.
+     */
+    static long bitLength(Object c) {
+        if (c instanceof BigRational) {
+            BigRational r = (BigRational) c;
+            return Math.max(r.numerator().bitLength(), r.denominator().bitLength());
+        }
+        if (c instanceof BigInteger) {
+            return ((BigInteger) c).bitLength();
+        }
+        return 0L;
+    }
+
+
+    /**
+     * Estimate for the size of the input.
+     * @return number of terms times the maximal degree.
+     */
+    public long size() {
+        return terms * Math.max(1L, maxDegree);
+    }
+
+
+    /**
+     * String representation of the features.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuffer s = new StringBuffer("GBInputFeatures(");
+        s.append("nvars=" + nvars);
+        s.append(", npolys=" + npolys);
+        s.append(", terms=" + terms);
+        s.append(", maxDegree=" + maxDegree);
+        s.append(", homogeneous=" + homogeneous);
+        s.append(", maxBits=" + maxBits);
+        s.append(", field=" + field);
+        s.append(", lex=" + lex);
+        s.append(")");
+        return s.toString();
+    }
+
+}
@@ -17,6 +17,7 @@ import java.lang.reflect.Method;
 import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
@@ -25,6 +26,7 @@ import org.apache.log4j.BasicConfigurator;
 import edu.jas.gb.GroebnerBaseAbstract;
 import edu.jas.gb.GroebnerBaseDistributedEC;
 import edu.jas.gb.GroebnerBaseDistributedHybridEC;
+import edu.jas.gb.GroebnerBaseDistributedStealEC;
 import edu.jas.gb.GroebnerBaseParallel;
 import edu.jas.gb.GroebnerBaseSeq;
 import edu.jas.gb.OrderedSyzPairlist;
@@ -33,17 +35,24 @@ import edu.jas.gb.ReductionSeq;
 import edu.jas.gbufd.GBFactory;
 import edu.jas.gbufd.GroebnerBasePseudoParallel;
 import edu.jas.kern.ComputerThreads;
+import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
-import edu.jas.poly.GenPolynomialTokenizer;
+import edu.jas.poly.GenPolynomialStreamParser;
 import edu.jas.poly.PolynomialList;
+import edu.jas.structure.RingElem;
 import edu.jas.util.CatReader;
 import edu.jas.util.ExecutableServer;
+import edu.jas.util.LocalCluster;
 
 
 /**
  * Simple setup to run a GB example. <br>
- * Usage: RunGB [seq(+)|par(+)|build=string|disthyb|cli] &lt;file&gt;
- * #procs/#threadsPerNode [machinefile] &lt;check&gt; &lt;nolog&gt; <br>
+ * Usage: RunGB [seq(+)|par(+)|build=string|disthyb|diststeal|cli] &lt;file&gt;
+ * #procs/#threadsPerNode [machinefile|local|local:fork] &lt;check&gt;
+ * &lt;nolog&gt; <br>
+ * Machine file local starts #procs ExecutableServers in this JVM, local:fork
+ * starts them in forked JVMs, see LocalCluster. Per node timings and message
+ * volumes are printed after the run. <br>
  * Build string can be any combination of method calls from GBAlgorithmBuilder.
  * Method polynomialRing() is called based on declaration from "file". Method
  * build() is called automatically. For example <br>
@@ -68,17 +77,18 @@ public class RunGB {
 
     /**
      * main method to be called from commandline <br>
-     * Usage: RunGB [seq|par(+)|build=string|disthyb(+)|cli] &lt;file&gt;
-     * #procs/#threadsPerNode [machinefile] &lt;check&gt; &lt;nolog&gt;
+     * Usage: RunGB [seq|par(+)|build=string|disthyb(+)|diststeal|cli]
+     * &lt;file&gt; #procs/#threadsPerNode [machinefile|local|local:fork]
+     * &lt;check&gt; &lt;nolog&gt;
      */
     @SuppressWarnings("unchecked")
     public static void main(String[] args) {
 
         String[] allkinds = new String[] { "seq", "seq+", "par", "par+", "build=", "disthyb", "disthyb+",
-                "cli" }; // must be last
+                "diststeal", "cli" }; // must be last
 
         String usage = "Usage: RunGB [ " + join(allkinds, " | ") + "[port] ] " + "<file> "
-                        + "#procs/#threadsPerNode " + "[machinefile] " + "[check] [nolog]";
+                        + "#procs/#threadsPerNode " + "[machinefile|local|local:fork] " + "[check] [nolog]";
 
         if (args.length < 1) {
             System.out.println("args: " + Arrays.toString(args));
@@ -208,10 +218,9 @@ public class RunGB {
         }
         Reader polyreader = new CatReader(new StringReader("("), problem); // ( has gone
         //Reader polyreader = problem; 
-        GenPolynomialTokenizer tok = new GenPolynomialTokenizer(pfac, polyreader);
         PolynomialList S = null;
         try {
-            S = new PolynomialList(pfac, tok.nextPolynomialList());
+            S = parsePolynomialList(pfac, polyreader);
         } catch (IOException e) {
             e.printStackTrace();
             return;
@@ -235,8 +244,12 @@ public class RunGB {
             runSequential(S, plusextra);
         } else if (kind.startsWith("par")) {
             runParallel(S, threads, plusextra);
+        } else if (kind.startsWith("dist") && mfile.startsWith("local")) {
+            runLocalCluster(kind, S, threads, threadsPerNode, mfile.endsWith(":fork"), plusextra);
         } else if (kind.startsWith("disthyb")) {
             runMasterHyb(S, threads, threadsPerNode, mfile, port, plusextra);
+        } else if (kind.startsWith("diststeal")) {
+            runMasterSteal(S, threads, threadsPerNode, mfile, port);
             //} else if (kind.startsWith("dist")) {
             //runMaster(S, threads, mfile, port, plusextra);
         } else if (kind.startsWith("build")) {
@@ -339,6 +352,79 @@ public class RunGB {
     }
 
 
+    /**
+     * Parse a polynomial list with the stream parser.
+     * @param pfac polynomial ring.
+     * @param in reader positioned at the polynomial list.
+     * @return list of the parsed polynomials.
+     */
+    static <C extends RingElem<C>> PolynomialList<C> parsePolynomialList(GenPolynomialRing<C> pfac, Reader in)
+                    throws IOException {
+        GenPolynomialStreamParser<C> parser = new GenPolynomialStreamParser<C>(pfac, in);
+        return new PolynomialList<C>(pfac, parser.nextPolynomialList());
+    }
+
+
+    static <C extends RingElem<C>> void runMasterSteal(PolynomialList<C> S, int threads, int threadsPerNode,
+                    String mfile, int port) {
+        List<GenPolynomial<C>> L = S.list;
+        List<GenPolynomial<C>> G = null;
+        long t, t1;
+        GroebnerBaseDistributedStealEC<C> gbd = null;
+
+        System.out.println("\nGroebner base distributed work stealing (" + threads + "/" + threadsPerNode
+                        + ", " + mfile + ", " + port + ") ...");
+        t = System.currentTimeMillis();
+        gbd = new GroebnerBaseDistributedStealEC<C>(mfile, threads, threadsPerNode, port);
+        t1 = System.currentTimeMillis();
+        G = gbd.GB(L);
+        t1 = System.currentTimeMillis() - t1;
+        gbd.terminate();
+        t = System.currentTimeMillis() - t;
+        if (G == null) {
+            System.out.println("distributed GB failed");
+            return;
+        }
+        S = new PolynomialList<C>(S.ring, G);
+        System.out.println("G =\n" + S);
+        System.out.println("G.size() = " + G.size());
+        System.out.println("ds = " + threads + ", ppn = " + threadsPerNode + ", time = " + t1
+                        + " milliseconds, " + (t - t1) + " start-up " + ", total = " + t);
+        checkGB(S);
+        System.out.println("");
+    }
+
+
+    @SuppressWarnings("unchecked")
+    static void runLocalCluster(final String kind, final PolynomialList S, final int threads,
+                    final int threadsPerNode, boolean fork, final boolean plusextra) {
+        LocalCluster lc = new LocalCluster(threads, fork);
+        try {
+            lc.start();
+            final String mfile = lc.getMachineFile();
+            final int port = LocalCluster.freePort();
+            System.out.println("\nlocal cluster " + lc);
+            lc.run(new Callable<Object>() {
+
+
+                public Object call() {
+                    if (kind.startsWith("disthyb")) {
+                        runMasterHyb(S, threads, threadsPerNode, mfile, port, plusextra);
+                    } else if (kind.startsWith("diststeal")) {
+                        runMasterSteal(S, threads, threadsPerNode, mfile, port);
+                    }
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            lc.terminate();
+        }
+        System.out.println("statistics " + lc);
+    }
+
+
     static void runClient(int port) {
         System.out.println("\nGroebner base distributed client (" + port + ") ...");
         ExecutableServer es = new ExecutableServer(port);
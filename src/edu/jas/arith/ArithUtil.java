@@ -0,0 +1,235 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.arith;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.jas.structure.NotInvertibleException;
+
+
+/**
+ * Arithmetic utilities for modular algorithms with primitive long residues.
+ * Provides word size primes, inverses modulo primes, Chinese remaindering
+ * and rational reconstruction.
+ * @author agent
+ */
+
+public class ArithUtil {
+
+
+    /**
+     * Certainty for the probable primes.
+     */
+    private static final int PRIME_CERTAINTY = 30;
+
+
+    /**
+     * Primes for modular algorithms, computed on demand.
+     */
+    private static final List<Long> primes = new ArrayList<Long>();
+
+
+    /**
+     * Last prime searched below 2<sup>31</sup>.
+     */
+    private static long nextPrime;
+
+
+    /**
+     * No public constructor.
+     */
+    protected ArithUtil() {
+    }
+
+
+    /**
+     * Prime for modular algorithms. The primes of PrimeList below the ModLong
+     * bound are used first, further primes are searched downwards from
+     * 2<sup>31</sup>. The product of two residues fits in a long.
+     * @param i index.
+     * @return i-th prime.
+     */
+    public static long prime(int i) {
+        synchronized (primes) {
+            if (primes.isEmpty()) {
+                for (java.math.BigInteger p : new PrimeList(PrimeList.Range.medium)) {
+                    if (p.compareTo(ModLongRing.MAX_LONG) >= 0) {
+                        break;
+                    }
+                    primes.add(p.longValue());
+                }
+                nextPrime = (1L << 31) + 1L;
+            }
+            while (primes.size() <= i) {
+                do {
+                    nextPrime -= 2L;
+                } while (!java.math.BigInteger.valueOf(nextPrime).isProbablePrime(PRIME_CERTAINTY)
+                                || primes.contains(nextPrime));
+                primes.add(nextPrime);
+            }
+            return primes.get(i);
+        }
+    }
+
+
+    /**
+     * Inverse modulo a prime.
+     * @param a number.
+     * @param p prime.
+     * @return a<sup>-1</sup> mod p with 0 &lt; a<sup>-1</sup> &lt; p.
+     * @throws NotInvertibleException if a = 0 mod p.
+     */
+    public static long modInverse(long a, long p) {
+        long r0 = p;
+        long r1 = a % p;
+        if (r1 < 0L) {
+            r1 += p;
+        }
+        long s0 = 0L;
+        long s1 = 1L;
+        while (r1 != 0L) {
+            long q = r0 / r1;
+            long t = r0 - q * r1;
+            r0 = r1;
+            r1 = t;
+            t = s0 - q * s1;
+            s0 = s1;
+            s1 = t;
+        }
+        if (r0 != 1L) {
+            throw new NotInvertibleException("not invertible " + a + " mod " + p);
+        }
+        return s0 < 0L ? s0 + p : s0;
+    }
+
+
+    /**
+     * Least common multiple.
+     * @param a positive integer.
+     * @param b positive integer.
+     * @return lcm(a,b).
+     */
+    public static java.math.BigInteger lcm(java.math.BigInteger a, java.math.BigInteger b) {
+        return a.multiply(b.divide(a.gcd(b)));
+    }
+
+
+    /**
+     * Least common multiple of denominators.
+     * @param L rational numbers, e.g. the coefficients of a polynomial.
+     * @return lcm of the denominators of L.
+     */
+    public static java.math.BigInteger commonDenominator(Iterable<BigRational> L) {
+        java.math.BigInteger d = java.math.BigInteger.ONE;
+        for (BigRational c : L) {
+            java.math.BigInteger cd = c.denominator();
+            if (!cd.equals(java.math.BigInteger.ONE)) {
+                d = lcm(d, cd);
+            }
+        }
+        return d;
+    }
+
+
+    /**
+     * Chinese remainder.
+     * @param X residue modulo P.
+     * @param P modulus.
+     * @param x residue modulo p.
+     * @param p prime, coprime to P.
+     * @return Y with Y = X mod P, Y = x mod p and 0 &le; Y &lt; P p, if
+     *         0 &le; X &lt; P.
+     */
+    public static java.math.BigInteger chineseRemainder(java.math.BigInteger X, java.math.BigInteger P,
+                    long x, long p) {
+        java.math.BigInteger pp = java.math.BigInteger.valueOf(p);
+        long pi = modInverse(P.mod(pp).longValue(), p);
+        return chineseRemainder(X, P, x, p, pp, pi);
+    }
+
+
+    /**
+     * Chinese remainder of a vector, B is updated in place.
+     * @param B residues modulo P.
+     * @param P modulus of B.
+     * @param b residues modulo p.
+     * @param p prime, coprime to P.
+     */
+    public static void chineseRemainder(java.math.BigInteger[] B, java.math.BigInteger P, long[] b, long p) {
+        java.math.BigInteger pp = java.math.BigInteger.valueOf(p);
+        long pi = modInverse(P.mod(pp).longValue(), p);
+        for (int j = 0; j < B.length; j++) {
+            B[j] = chineseRemainder(B[j], P, b[j], p, pp, pi);
+        }
+    }
+
+
+    /**
+     * Chinese remainder with Garner's formula.
+     * @param X residue modulo P.
+     * @param P modulus.
+     * @param x residue modulo p.
+     * @param p prime, coprime to P.
+     * @param pp p as big integer.
+     * @param pi P<sup>-1</sup> mod p.
+     * @return X + P ((x - X) P<sup>-1</sup> mod p).
+     */
+    static java.math.BigInteger chineseRemainder(java.math.BigInteger X, java.math.BigInteger P, long x,
+                    long p, java.math.BigInteger pp, long pi) {
+        long u = (x - X.mod(pp).longValue()) % p;
+        if (u < 0L) {
+            u += p;
+        }
+        u = u * pi % p;
+        if (u == 0L) {
+            return X;
+        }
+        return X.add(P.multiply(java.math.BigInteger.valueOf(u)));
+    }
+
+
+    /**
+     * Bound for rational reconstruction.
+     * @param P modulus.
+     * @return bound b with 2 b<sup>2</sup> &le; P.
+     */
+    public static java.math.BigInteger reconstructionBound(java.math.BigInteger P) {
+        return java.math.BigInteger.ONE.shiftLeft((P.bitLength() - 2) / 2);
+    }
+
+
+    /**
+     * Rational reconstruction.
+     * @param u number modulo P.
+     * @param P modulus.
+     * @param bound bound for numerator and denominator.
+     * @return r/s with r = s*u modulo P and |r|, s &le; bound, or null if no
+     *         such number exists.
+     */
+    public static BigRational rationalReconstruction(java.math.BigInteger u, java.math.BigInteger P,
+                    java.math.BigInteger bound) {
+        java.math.BigInteger r0 = P, r1 = u;
+        java.math.BigInteger t0 = java.math.BigInteger.ZERO, t1 = java.math.BigInteger.ONE;
+        while (r1.compareTo(bound) > 0) {
+            java.math.BigInteger[] qr = r0.divideAndRemainder(r1);
+            r0 = r1;
+            r1 = qr[1];
+            java.math.BigInteger t = t0.subtract(qr[0].multiply(t1));
+            t0 = t1;
+            t1 = t;
+        }
+        if (t1.abs().compareTo(bound) > 0 || !r1.gcd(t1).equals(java.math.BigInteger.ONE)) {
+            return null;
+        }
+        if (t1.signum() < 0) {
+            r1 = r1.negate();
+            t1 = t1.negate();
+        }
+        return BigRational.RNRED(r1, t1);
+    }
+
+}
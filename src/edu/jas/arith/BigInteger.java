@@ -56,6 +56,29 @@ public final class BigInteger
     public final static BigInteger TWO = new BigInteger(2);
 
 
+    /**
+     * Largest absolute value of the cached small integers.
+     */
+    final static int SMALL = 1024;
+
+
+    /**
+     * Cache of the integers -SMALL, ..., SMALL, shared by all results of the
+     * long fast paths.
+     */
+    private final static BigInteger[] smallCache = new BigInteger[2 * SMALL + 1];
+
+
+    static {
+        for (int i = -SMALL; i <= SMALL; i++) {
+            smallCache[i + SMALL] = new BigInteger(java.math.BigInteger.valueOf(i));
+        }
+        smallCache[SMALL] = ZERO;
+        smallCache[SMALL + 1] = ONE;
+        smallCache[SMALL + 2] = TWO;
+    }
+
+
     /**
      * Constructor for BigInteger from math.BigInteger.
      * @param a java.math.BigInteger.
@@ -70,7 +93,7 @@ public final class BigInteger
      * @param a long.
      */
     public BigInteger(long a) {
-        val = new java.math.BigInteger(String.valueOf(a));
+        val = java.math.BigInteger.valueOf(a);
     }
 
 
@@ -246,15 +269,33 @@ public final class BigInteger
 
 
     /**
-     * Get a BigInteger element from long.
+     * Get a BigInteger element from long. Small values are taken from a
+     * cache and not allocated.
      * @param a long.
      * @return a as BigInteger.
      */
     public static BigInteger valueOf(long a) {
+        if (-SMALL <= a && a <= SMALL) {
+            return smallCache[(int) a + SMALL];
+        }
         return new BigInteger(a);
     }
 
 
+    /**
+     * Get a math.BigInteger from long. Small values are taken from a cache
+     * and not allocated.
+     * @param a long.
+     * @return a as math.BigInteger.
+     */
+    static java.math.BigInteger smallValueOf(long a) {
+        if (-SMALL <= a && a <= SMALL) {
+            return smallCache[(int) a + SMALL].val;
+        }
+        return java.math.BigInteger.valueOf(a);
+    }
+
+
     /**
      * Is BigInteger number zero.
      * @return If this is 0 then true is returned, else false.
@@ -435,6 +476,16 @@ public final class BigInteger
      * @return this-S.
      */
     public BigInteger subtract(BigInteger S) {
+        if (S.val.signum() == 0) {
+            return this;
+        }
+        if (isSmall(val) && isSmall(S.val)) {
+            try {
+                return valueOf(Math.subtractExact(val.longValue(), S.val.longValue()));
+            } catch (ArithmeticException e) {
+                // overflow, use java.math.BigInteger
+            }
+        }
         return new BigInteger(val.subtract(S.val));
     }
 
@@ -552,6 +603,10 @@ public final class BigInteger
      * @return gcd(this,S).
      */
     public BigInteger gcd(BigInteger S) {
+        if (isSmall(val) && isSmall(S.val)) {
+            long g = gcd(Math.abs(val.longValue()), Math.abs(S.val.longValue()));
+            return valueOf(g);
+        }
         return new BigInteger(val.gcd(S.val));
     }
 
@@ -664,6 +719,21 @@ public final class BigInteger
      * @return this*S.
      */
     public BigInteger multiply(BigInteger S) {
+        if (isSmall(val) && isSmall(S.val)) {
+            long a = val.longValue();
+            long b = S.val.longValue();
+            if (a == 0L || b == 1L) {
+                return this;
+            }
+            if (b == 0L || a == 1L) {
+                return S;
+            }
+            try {
+                return valueOf(Math.multiplyExact(a, b));
+            } catch (ArithmeticException e) {
+                // overflow, use java.math.BigInteger
+            }
+        }
         return new BigInteger(val.multiply(S.val));
     }
 
@@ -698,10 +768,50 @@ public final class BigInteger
      * @return this+S.
      */
     public BigInteger sum(BigInteger S) {
+        if (S.val.signum() == 0) {
+            return this;
+        }
+        if (val.signum() == 0) {
+            return S;
+        }
+        if (isSmall(val) && isSmall(S.val)) {
+            try {
+                return valueOf(Math.addExact(val.longValue(), S.val.longValue()));
+            } catch (ArithmeticException e) {
+                // overflow, use java.math.BigInteger
+            }
+        }
         return new BigInteger(val.add(S.val));
     }
 
 
+    /**
+     * Test if a java.math.BigInteger can be handled with long arithmetic.
+     * @param a java.math.BigInteger.
+     * @return true, if |a| &le; 2<sup>62</sup>, so that abs and negate of the
+     *         long value do not overflow, else false.
+     */
+    static boolean isSmall(java.math.BigInteger a) {
+        return a.bitLength() < 63;
+    }
+
+
+    /**
+     * Greatest common divisor of non-negative longs.
+     * @param a long, a &ge; 0.
+     * @param b long, b &ge; 0.
+     * @return gcd(a,b).
+     */
+    static long gcd(long a, long b) {
+        while (b != 0L) {
+            long r = a % b;
+            a = b;
+            b = r;
+        }
+        return a;
+    }
+
+
     /**
      * BigInteger addition.
      * @param A BigInteger.
@@ -580,6 +580,18 @@ public final class BigRational implements GcdRingElem<BigRational>, RingFactory<
             den = BigInteger.ONE;
             return new BigRational(num, den);
         }
+        if (isSmall(n, d)) {
+            long nl = n.longValue();
+            long dl = d.longValue();
+            long cl = edu.jas.arith.BigInteger.gcd(Math.abs(nl), Math.abs(dl));
+            nl = nl / cl;
+            dl = dl / cl;
+            if (dl < 0L) {
+                nl = -nl;
+                dl = -dl;
+            }
+            return new BigRational(smallValueOf(nl), smallValueOf(dl));
+        }
         BigInteger c = n.gcd(d);
         if (c.equals(BigInteger.ONE)) {
             num = n;
@@ -666,6 +678,15 @@ public final class BigRational implements GcdRingElem<BigRational>, RingFactory<
         if (TL != 0) {
             return TL;
         }
+        if (isSmall(R1, R2) && isSmall(S1, S2)) {
+            try {
+                long a = Math.multiplyExact(R1.longValue(), S2.longValue());
+                long b = Math.multiplyExact(R2.longValue(), S1.longValue());
+                return Long.compare(a, b);
+            } catch (ArithmeticException e) {
+                // overflow, use BigInteger
+            }
+        }
         J3Y = R1.multiply(S2);
         J2Y = R2.multiply(S1);
         TL = J3Y.compareTo(J2Y);
@@ -839,7 +860,7 @@ public final class BigRational implements GcdRingElem<BigRational>, RingFactory<
         BigRational T;
         BigInteger T1;
         BigInteger T2;
-        if (this.equals(ZERO) || S.equals(ZERO)) {
+        if (num.signum() == 0 || S.num.signum() == 0) {
             T = ZERO;
             return T;
         }
@@ -847,6 +868,12 @@ public final class BigRational implements GcdRingElem<BigRational>, RingFactory<
         R2 = den; //this.denominator();
         S1 = S.num;
         S2 = S.den;
+        if (isSmall(R1, R2) && isSmall(S1, S2)) {
+            T = multiplySmall(R1.longValue(), R2.longValue(), S1.longValue(), S2.longValue());
+            if (T != null) {
+                return T;
+            }
+        }
         if (R2.equals(BigInteger.ONE) && S2.equals(BigInteger.ONE)) {
             T1 = R1.multiply(S1);
             T = new BigRational(T1, BigInteger.ONE);
@@ -1042,16 +1069,22 @@ public final class BigRational implements GcdRingElem<BigRational>, RingFactory<
         BigInteger SB2 = null;
         BigInteger T1;
         BigInteger T2;
-        if (this.equals(ZERO)) {
+        if (num.signum() == 0) {
             return S;
         }
-        if (S.equals(ZERO)) {
+        if (S.num.signum() == 0) {
             return this;
         }
         R1 = num; //this.numerator(); 
         R2 = den; //this.denominator();
         S1 = S.num;
         S2 = S.den;
+        if (isSmall(R1, R2) && isSmall(S1, S2)) {
+            T = sumSmall(R1.longValue(), R2.longValue(), S1.longValue(), S2.longValue());
+            if (T != null) {
+                return T;
+            }
+        }
         if (R2.equals(BigInteger.ONE) && S2.equals(BigInteger.ONE)) {
             T1 = R1.add(S1);
             T = new BigRational(T1, BigInteger.ONE);
@@ -1118,6 +1151,81 @@ public final class BigRational implements GcdRingElem<BigRational>, RingFactory<
     }
 
 
+    /**
+     * Test if a rational number can be handled with long arithmetic.
+     * @param n numerator.
+     * @param d denominator.
+     * @return true, if n and d fit into longs without overflow of abs().
+     */
+    private static boolean isSmall(BigInteger n, BigInteger d) {
+        return edu.jas.arith.BigInteger.isSmall(n) && edu.jas.arith.BigInteger.isSmall(d);
+    }
+
+
+    /**
+     * Get a BigInteger from a long without allocation for small values.
+     * @param a long.
+     * @return a as BigInteger.
+     */
+    private static BigInteger smallValueOf(long a) {
+        return edu.jas.arith.BigInteger.smallValueOf(a);
+    }
+
+
+    /**
+     * Rational number product with long arithmetic.
+     * @param r1 numerator of R.
+     * @param r2 denominator of R, r2 &gt; 0.
+     * @param s1 numerator of S.
+     * @param s2 denominator of S, s2 &gt; 0.
+     * @return R*S, or null on overflow.
+     */
+    private static BigRational multiplySmall(long r1, long r2, long s1, long s2) {
+        long d1 = edu.jas.arith.BigInteger.gcd(Math.abs(r1), s2);
+        long d2 = edu.jas.arith.BigInteger.gcd(Math.abs(s1), r2);
+        try {
+            long t1 = Math.multiplyExact(r1 / d1, s1 / d2);
+            long t2 = Math.multiplyExact(r2 / d2, s2 / d1);
+            return new BigRational(smallValueOf(t1), smallValueOf(t2));
+        } catch (ArithmeticException e) {
+            return null;
+        }
+    }
+
+
+    /**
+     * Rational number sum with long arithmetic.
+     * @param r1 numerator of R.
+     * @param r2 denominator of R, r2 &gt; 0.
+     * @param s1 numerator of S.
+     * @param s2 denominator of S, s2 &gt; 0.
+     * @return R+S, or null on overflow.
+     */
+    private static BigRational sumSmall(long r1, long r2, long s1, long s2) {
+        try {
+            if (r2 == 1L && s2 == 1L) {
+                return new BigRational(smallValueOf(Math.addExact(r1, s1)), BigInteger.ONE);
+            }
+            long d = edu.jas.arith.BigInteger.gcd(r2, s2);
+            long rb2 = r2 / d;
+            long sb2 = s2 / d;
+            long t1 = Math.addExact(Math.multiplyExact(r1, sb2), Math.multiplyExact(rb2, s1));
+            if (t1 == 0L) {
+                return ZERO;
+            }
+            if (d != 1L) {
+                long e = edu.jas.arith.BigInteger.gcd(Math.abs(t1), d);
+                t1 = t1 / e;
+                r2 = r2 / e;
+            }
+            long t2 = Math.multiplyExact(r2, sb2);
+            return new BigRational(smallValueOf(t1), smallValueOf(t2));
+        } catch (ArithmeticException e) {
+            return null;
+        }
+    }
+
+
     /**
      * Parse rational number from String.
      * @param s String.
@@ -0,0 +1,172 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.kern.PortfolioRunner;
+import edu.jas.kern.PreemptingException;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.structure.GcdRingElem;
+
+
+/**
+ * Groebner bases parallel portfolio. Races any number of Groebner base
+ * engines with staggered starts and returns the result from the fastest run.
+ * The losing engines are cancelled and the wins are recorded to start the
+ * most successful engine first in future races.
+ * @see edu.jas.kern.PortfolioRunner
+ * @author agent
+ */
+
+public class GBPortfolio<C extends GcdRingElem<C>> extends GroebnerBaseAbstract<C> {
+
+
+    private static final long serialVersionUID = 1L;
+
+
+    private static final Logger logger = Logger.getLogger(GBPortfolio.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Key for the win statistics.
+     */
+    public static final String KEY = "GB";
+
+
+    /**
+     * GB engines.
+     */
+    public final List<GroebnerBaseAbstract<C>> engines;
+
+
+    /**
+     * Portfolio runner.
+     */
+    protected final PortfolioRunner runner;
+
+
+    /**
+     * Portfolio constructor.
+     * @param engines list of Groebner base engines.
+     */
+    public GBPortfolio(List<GroebnerBaseAbstract<C>> engines) {
+        this(engines, PortfolioRunner.DEFAULT_STAGGER);
+    }
+
+
+    /**
+     * Portfolio constructor.
+     * @param engines list of Groebner base engines.
+     * @param stagger delay in milliseconds between the start of the engines.
+     */
+    public GBPortfolio(List<GroebnerBaseAbstract<C>> engines, long stagger) {
+        if (engines == null || engines.isEmpty()) {
+            throw new IllegalArgumentException("engines must be non empty");
+        }
+        this.engines = new ArrayList<GroebnerBaseAbstract<C>>(engines);
+        runner = new PortfolioRunner(KEY, stagger);
+    }
+
+
+    /**
+     * Get the String representation with GB engines.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "GBPortfolio" + engines;
+    }
+
+
+    /**
+     * Cleanup and terminate ThreadPool.
+     */
+    @Override
+    public void terminate() {
+        for (GroebnerBaseAbstract<C> e : engines) {
+            e.terminate();
+        }
+    }
+
+
+    /**
+     * Cancel ThreadPool.
+     */
+    @Override
+    public int cancel() {
+        int s = 0;
+        for (GroebnerBaseAbstract<C> e : engines) {
+            s += e.cancel();
+        }
+        return s;
+    }
+
+
+    /**
+     * Groebner base.
+     * @param modv module variable number.
+     * @param F polynomial list.
+     * @return GB(F) a Groebner base of F.
+     */
+    @Override
+    public List<GenPolynomial<C>> GB(final int modv, final List<GenPolynomial<C>> F) {
+        if (F == null || F.isEmpty()) {
+            return F;
+        }
+        List<String> names = new ArrayList<String>(engines.size());
+        List<Callable<List<GenPolynomial<C>>>> cs = new ArrayList<Callable<List<GenPolynomial<C>>>>(
+                        engines.size());
+        List<Runnable> cancels = new ArrayList<Runnable>(engines.size());
+        for (final GroebnerBaseAbstract<C> e : engines) {
+            names.add(e.toString());
+            cs.add(new Callable<List<GenPolynomial<C>>>() {
+
+
+                public List<GenPolynomial<C>> call() {
+                    List<GenPolynomial<C>> G = e.GB(modv, F);
+                    if (debug) {
+                        logger.info("GBPortfolio done " + e);
+                    }
+                    return G;
+                }
+            });
+            cancels.add(new Runnable() {
+
+
+                public void run() {
+                    e.cancel();
+                }
+            });
+        }
+        try {
+            return runner.race(names, cs, cancels);
+        } catch (PreemptingException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            return failed(F, e);
+        }
+    }
+
+
+    /**
+     * Failure of all engines.
+     * @param F polynomial list.
+     * @param e exception from the last failing engine.
+     * @return replacement result, this implementation throws e.
+     */
+    protected List<GenPolynomial<C>> failed(List<GenPolynomial<C>> F, RuntimeException e) {
+        throw e;
+    }
+
+}
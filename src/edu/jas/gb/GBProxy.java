@@ -7,32 +7,24 @@ package edu.jas.gb;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
 
 import org.apache.log4j.Logger;
 
-import edu.jas.kern.ComputerThreads;
-import edu.jas.kern.PreemptingException;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.structure.GcdRingElem;
 
 
 /**
- * Groebner bases parallel proxy.
+ * Groebner bases parallel proxy. Portfolio of two Groebner base engines.
  * @author Heinz Kredel
  */
 
-public class GBProxy<C extends GcdRingElem<C>> extends GroebnerBaseAbstract<C> {
+public class GBProxy<C extends GcdRingElem<C>> extends GBPortfolio<C> {
 
 
     private static final Logger logger = Logger.getLogger(GBProxy.class);
 
 
-    private static final boolean debug = logger.isDebugEnabled(); //logger.isInfoEnabled();
-
-
     /**
      * GB engines.
      */
@@ -42,126 +34,52 @@ public class GBProxy<C extends GcdRingElem<C>> extends GroebnerBaseAbstract<C> {
     public final GroebnerBaseAbstract<C> e2;
 
 
-    /**
-     * Thread pool.
-     */
-    protected transient ExecutorService pool;
-
-
     /**
      * Proxy constructor.
      * @param e1 Groebner base engine.
      * @param e2 Groebner base engine.
      */
     public GBProxy(GroebnerBaseAbstract<C> e1, GroebnerBaseAbstract<C> e2) {
+        super(pair(e1, e2));
         this.e1 = e1;
         this.e2 = e2;
-        pool = ComputerThreads.getPool();
-        //System.out.println("pool 2 = "+pool);
     }
 
 
     /**
-     * Get the String representation with GB engines.
-     * @see java.lang.Object#toString()
+     * List of two engines.
      */
-    @Override
-    public String toString() {
-        return "GBProxy[ " + e1.toString() + ", " + e2.toString() + " ]";
+    static <C extends GcdRingElem<C>> List<GroebnerBaseAbstract<C>> pair(GroebnerBaseAbstract<C> e1,
+                    GroebnerBaseAbstract<C> e2) {
+        List<GroebnerBaseAbstract<C>> es = new ArrayList<GroebnerBaseAbstract<C>>(2);
+        es.add(e1);
+        es.add(e2);
+        return es;
     }
 
 
     /**
-     * Cleanup and terminate ThreadPool.
-     */
-    @Override
-    public void terminate() {
-        e1.terminate();
-        e2.terminate();
-    }
-
-
-    /**
-     * Cancel ThreadPool.
+     * Get the String representation with GB engines.
+     * @see java.lang.Object#toString()
      */
     @Override
-    public int cancel() {
-        int s = e1.cancel();
-        s += e2.cancel();
-        return s;
+    public String toString() {
+        return "GBProxy[ " + e1.toString() + ", " + e2.toString() + " ]";
     }
 
 
     /**
-     * Groebner base.
-     * @param modv module variable number.
+     * Failure of both engines.
      * @param F polynomial list.
-     * @return GB(F) a Groebner base of F.
+     * @param e exception from the last failing engine.
+     * @return null and the current thread is interrupted.
      */
     @Override
-    public List<GenPolynomial<C>> GB(final int modv, final List<GenPolynomial<C>> F) {
-        if (F == null || F.isEmpty()) {
-            return F;
-        }
-        // parallel case
-        List<GenPolynomial<C>> G = null;
-        List<Callable<List<GenPolynomial<C>>>> cs = new ArrayList<Callable<List<GenPolynomial<C>>>>(2);
-        cs.add(new Callable<List<GenPolynomial<C>>>() {
-
-
-            public List<GenPolynomial<C>> call() {
-                try {
-                    //System.out.println("starting e1 " + e1.getClass().getName());
-                    List<GenPolynomial<C>> G = e1.GB(modv, F);
-                    if (debug) {
-                        logger.info("GBProxy done e1 " + e1.getClass().getName());
-                    }
-                    return G;
-                } catch (PreemptingException e) {
-                    throw new RuntimeException("GBProxy e1 preempted " + e);
-                    //return P.ring.getONE();
-                } catch (Exception e) {
-                    //e.printStackTrace();
-                    logger.info("GBProxy e1 " + e);
-                    logger.info("Exception GBProxy F = " + F);
-                    throw new RuntimeException("GBProxy e1 " + e);
-                    //return P.ring.getONE();
-                }
-            }
-        });
-        cs.add(new Callable<List<GenPolynomial<C>>>() {
-
-
-            public List<GenPolynomial<C>> call() {
-                try {
-                    //System.out.println("starting e2 " + e2.getClass().getName());
-                    List<GenPolynomial<C>> G = e2.GB(modv, F);
-                    if (debug) {
-                        logger.info("GBProxy done e2 " + e2.getClass().getName());
-                    }
-                    return G;
-                } catch (PreemptingException e) {
-                    throw new RuntimeException("GBProxy e2 preempted " + e);
-                    //return P.ring.getONE();
-                } catch (Exception e) {
-                    //e.printStackTrace();
-                    logger.info("GBProxy e2 " + e);
-                    logger.info("Exception GBProxy F = " + F);
-                    throw new RuntimeException("GBProxy e2 " + e);
-                    //return P.ring.getONE();
-                }
-            }
-        });
-        try {
-            G = pool.invokeAny(cs);
-        } catch (InterruptedException ignored) {
-            logger.info("InterruptedException " + ignored);
-            Thread.currentThread().interrupt();
-        } catch (ExecutionException e) {
-            logger.info("ExecutionException " + e);
-            Thread.currentThread().interrupt();
-        }
-        return G;
+    protected List<GenPolynomial<C>> failed(List<GenPolynomial<C>> F, RuntimeException e) {
+        logger.info("GBProxy failed " + e);
+        logger.info("Exception GBProxy F = " + F);
+        Thread.currentThread().interrupt();
+        return null;
     }
 
 }
@@ -106,7 +106,7 @@ public class GroebnerBaseDistributedHybridEC<C extends RingElem<C>> extends Groe
     /**
      * Distributed thread pool to use.
      */
-    private final transient DistThreadPool dtp;
+    protected final transient DistThreadPool dtp;
 
 
     /**
@@ -0,0 +1,1170 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.PolyUtil;
+import edu.jas.structure.RingElem;
+import edu.jas.util.DistHashTable;
+import edu.jas.util.FrameChannel;
+import edu.jas.util.FrameHandler;
+import edu.jas.util.FrameSelector;
+import edu.jas.util.RemoteExecutable;
+
+
+/**
+ * Groebner Base distributed work stealing algorithm. Implements a distributed
+ * memory with multi-core CPUs parallel version of Groebner bases without a
+ * central pair list. Each node keeps a local queue of pairs and creates the
+ * pairs of new polynomials it owns. Idle nodes steal pairs from other nodes.
+ * The master only arbitrates the insertion of polynomials into the basis and
+ * detects termination. Polynomials are distributed by a DistHashTable, pairs
+ * and results are exchanged by non blocking FrameChannels.
+ * @param <C> coefficient type
+ * @author agent
+ */
+
+public class GroebnerBaseDistributedStealEC<C extends RingElem<C>> extends GroebnerBaseDistributedHybridEC<C> {
+
+
+    private static final long serialVersionUID = 1L;
+
+
+    private static final Logger logger = Logger.getLogger(GroebnerBaseDistributedStealEC.class);
+
+
+    /**
+     * Constructor.
+     * @param mfile name of the machine file.
+     */
+    public GroebnerBaseDistributedStealEC(String mfile) {
+        this(mfile, DEFAULT_THREADS, DEFAULT_PORT);
+    }
+
+
+    /**
+     * Constructor.
+     * @param mfile name of the machine file.
+     * @param threads number of nodes to use.
+     */
+    public GroebnerBaseDistributedStealEC(String mfile, int threads) {
+        this(mfile, threads, DEFAULT_PORT);
+    }
+
+
+    /**
+     * Constructor.
+     * @param mfile name of the machine file.
+     * @param threads number of nodes to use.
+     * @param port server port to use.
+     */
+    public GroebnerBaseDistributedStealEC(String mfile, int threads, int port) {
+        this(mfile, threads, DEFAULT_THREADS_PER_NODE, port);
+    }
+
+
+    /**
+     * Constructor.
+     * @param mfile name of the machine file.
+     * @param threads number of nodes to use.
+     * @param threadsPerNode reducer threads per node to use.
+     * @param port server port to use.
+     */
+    public GroebnerBaseDistributedStealEC(String mfile, int threads, int threadsPerNode, int port) {
+        super(mfile, threads, threadsPerNode, port);
+    }
+
+
+    /**
+     * Distributed Groebner base.
+     * @param modv number of module variables.
+     * @param F polynomial list.
+     * @return GB(F) a Groebner base of F or null, if a IOException occurs.
+     */
+    @Override
+    public List<GenPolynomial<C>> GB(int modv, List<GenPolynomial<C>> F) {
+        List<GenPolynomial<C>> Fp = normalizeZerosOnes(F);
+        Fp = PolyUtil.<C> monic(Fp);
+        if (Fp.size() <= 1) {
+            return Fp;
+        }
+        if (!Fp.get(0).ring.coFac.isField()) {
+            throw new IllegalArgumentException("coefficients not from a field");
+        }
+        return GBMaster(modv, Fp);
+    }
+
+
+    /**
+     * Distributed work stealing Groebner base.
+     * @param modv number of module variables.
+     * @param F non empty monic polynomial list without zeros.
+     * @return GB(F) a Groebner base of F or null, if a IOException occurs.
+     */
+    @Override
+    List<GenPolynomial<C>> GBMaster(int modv, List<GenPolynomial<C>> F) {
+        long t = System.currentTimeMillis();
+        FrameSelector fs;
+        try {
+            fs = new FrameSelector();
+        } catch (IOException e) {
+            logger.warn("no selector " + e);
+            return null;
+        }
+        fs.start();
+        DistHashTable<Integer, GenPolynomial<C>> theList = new DistHashTable<Integer, GenPolynomial<C>>(
+                        "localhost", DHT_PORT);
+        theList.init();
+        StealMasterEC<C> master = new StealMasterEC<C>(threads, F, theList);
+        for (int i = 0; i < F.size(); i++) {
+            theList.put(Integer.valueOf(i), F.get(i));
+        }
+        try {
+            fs.listen(port, master);
+        } catch (IOException e) {
+            logger.warn("listen on port " + port + ": " + e);
+            fs.terminate();
+            theList.terminate();
+            return null;
+        }
+        String host = dtp.getEC().getMasterHost();
+        GBStealExerClient<C> gbc = new GBStealExerClient<C>(host, threadsPerNode, port, DHT_PORT, modv);
+        for (int i = 0; i < threads; i++) {
+            dtp.addJob(gbc);
+        }
+        List<GenPolynomial<C>> G = master.waitDone();
+        fs.terminate();
+        if (G != null) {
+            long time = System.currentTimeMillis();
+            G = minimalGB(G);
+            time = System.currentTimeMillis() - time;
+            logger.debug("parallel gbmi time = " + time);
+        }
+        theList.clear();
+        theList.terminate();
+        t = System.currentTimeMillis() - t;
+        logger.info("server GB end, time = " + t + ", " + master);
+        return G;
+    }
+
+
+    /**
+     * GB distributed client part.
+     * @param host the master runs on.
+     * @param threadsPerNode number of reducer threads.
+     * @param port the master listens on.
+     * @param dhtport of the DHT server.
+     * @param modv number of module variables.
+     * @throws IOException
+     */
+    public static <C extends RingElem<C>> void clientPart(String host, int threadsPerNode, int port,
+                    int dhtport, int modv) throws IOException {
+        logger.info("clientPart connecting to " + host + ", port = " + port + ", dhtport = " + dhtport);
+        StealNodeEC<C> node = new StealNodeEC<C>(host, threadsPerNode, port, dhtport, modv);
+        node.run();
+        logger.info("clientPart done " + node);
+    }
+
+}
+
+
+/**
+ * Pair of basis polynomial indexes with least common multiple of the leading
+ * terms.
+ */
+class StealPair implements Serializable {
+
+
+    private static final long serialVersionUID = 1L;
+
+
+    public final int i;
+
+
+    public final int j;
+
+
+    public final ExpVector lcm;
+
+
+    /**
+     * StealPair.
+     * @param i first index.
+     * @param j second index, i &lt; j.
+     * @param lcm of the leading exponents.
+     */
+    public StealPair(int i, int j, ExpVector lcm) {
+        this.i = i;
+        this.j = j;
+        this.lcm = lcm;
+    }
+
+
+    /**
+     * toString.
+     */
+    @Override
+    public String toString() {
+        return "StealPair(" + i + "," + j + ")";
+    }
+
+}
+
+
+/**
+ * Comparator for StealPairs, ascending by lcm, then by indexes.
+ */
+class StealPairComparator implements Comparator<StealPair>, Serializable {
+
+
+    private static final long serialVersionUID = 1L;
+
+
+    private final Comparator<ExpVector> cmp;
+
+
+    StealPairComparator(Comparator<ExpVector> cmp) {
+        this.cmp = cmp;
+    }
+
+
+    public int compare(StealPair p, StealPair q) {
+        int s = cmp.compare(p.lcm, q.lcm);
+        if (s != 0) {
+            return s;
+        }
+        if (p.j != q.j) {
+            return p.j < q.j ? -1 : 1;
+        }
+        return p.i < q.i ? -1 : (p.i == q.i ? 0 : 1);
+    }
+
+}
+
+
+/**
+ * Distributed GB transport message to register a node at the master.
+ */
+final class GBTransportMessStealHello extends GBTransportMess {
+
+
+    private static final long serialVersionUID = 1L;
+
+
+    /**
+     * Port for steal requests.
+     */
+    public final int port;
+
+
+    public GBTransportMessStealHello(int port) {
+        this.port = port;
+    }
+}
+
+
+/**
+ * Distributed GB transport message with the addresses of all nodes.
+ */
+final class GBTransportMessStealNodes extends GBTransportMess {
+
+
+    private static final long serialVersionUID = 1L;
+
+
+    /**
+     * Number of the receiving node.
+     */
+    public final int id;
+
+
+    public final String[] hosts;
+
+
+    public final int[] ports;
+
+
+    public GBTransportMessStealNodes(int id, String[] hosts, int[] ports) {
+        this.id = id;
+        this.hosts = hosts;
+        this.ports = ports;
+    }
+
+
+    /**
+     * toString.
+     */
+    @Override
+    public String toString() {
+        return super.toString() + "(" + id + ", #" + hosts.length + ")";
+    }
+}
+
+
+/**
+ * Distributed GB transport message for a reduced polynomial and the number of
+ * finished pairs.
+ */
+final class GBTransportMessStealResult<C extends RingElem<C>> extends GBTransportMess {
+
+
+    private static final long serialVersionUID = 1L;
+
+
+    /**
+     * The polynomial to insert or null.
+     */
+    public final GenPolynomial<C> pol;
+
+
+    /**
+     * Number of finished pairs.
+     */
+    public final long done;
+
+
+    public GBTransportMessStealResult(GenPolynomial<C> p, long done) {
+        this.pol = p;
+        this.done = done;
+    }
+
+
+    /**
+     * toString.
+     */
+    @Override
+    public String toString() {
+        return super.toString() + "(" + (pol == null ? "null" : pol.leadingExpVector()) + ", " + done + ")";
+    }
+}
+
+
+/**
+ * Distributed GB transport message to request pairs from another node.
+ */
+final class GBTransportMessStealReq extends GBTransportMess {
+
+
+    private static final long serialVersionUID = 1L;
+
+
+    public GBTransportMessStealReq() {
+    }
+}
+
+
+/**
+ * Distributed GB transport message to stop a node.
+ */
+final class GBTransportMessStealEnd extends GBTransportMess {
+
+
+    private static final long serialVersionUID = 1L;
+
+
+    public GBTransportMessStealEnd() {
+    }
+}
+
+
+/**
+ * Distributed GB transport message with stolen pairs.
+ */
+final class GBTransportMessStealPairs extends GBTransportMess {
+
+
+    private static final long serialVersionUID = 1L;
+
+
+    public final ArrayList<StealPair> pairs;
+
+
+    public GBTransportMessStealPairs(ArrayList<StealPair> pairs) {
+        this.pairs = pairs;
+    }
+
+
+    /**
+     * toString.
+     */
+    @Override
+    public String toString() {
+        return super.toString() + "(#" + pairs.size() + ")";
+    }
+}
+
+
+/**
+ * Master of the work stealing GB. Registers the nodes, inserts polynomials
+ * into the basis in the order of arrival after reduction by the polynomials
+ * inserted meanwhile and detects termination. A basis of
+ * n polynomials has n(n-1)/2 pairs, the computation is finished when the
+ * nodes reported that many finished pairs. Runs in the selector thread.
+ * @param <C> coefficient type
+ */
+class StealMasterEC<C extends RingElem<C>> implements FrameHandler {
+
+
+    private static final Logger logger = Logger.getLogger(StealMasterEC.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    private final int nodes;
+
+
+    private final List<GenPolynomial<C>> G;
+
+
+    private final DistHashTable<Integer, GenPolynomial<C>> theList;
+
+
+    private final List<FrameChannel> channels;
+
+
+    private final List<String> hosts;
+
+
+    private final List<Integer> ports;
+
+
+    private final CountDownLatch done;
+
+
+    private final Reduction<C> red;
+
+
+    private long finished = 0L;
+
+
+    private long results = 0L;
+
+
+    private boolean aborted = false;
+
+
+    /**
+     * Constructor.
+     * @param nodes number of nodes.
+     * @param F initial basis.
+     * @param dl distributed hash table.
+     */
+    StealMasterEC(int nodes, List<GenPolynomial<C>> F, DistHashTable<Integer, GenPolynomial<C>> dl) {
+        this.nodes = nodes;
+        G = new ArrayList<GenPolynomial<C>>(F);
+        theList = dl;
+        channels = new ArrayList<FrameChannel>(nodes);
+        hosts = new ArrayList<String>(nodes);
+        ports = new ArrayList<Integer>(nodes);
+        done = new CountDownLatch(1);
+        red = new ReductionSeq<C>();
+    }
+
+
+    /**
+     * Number of pairs of the current basis.
+     */
+    private long pairs() {
+        long n = G.size();
+        return n * (n - 1) / 2;
+    }
+
+
+    /**
+     * Wait for termination.
+     * @return the basis or null if a node was lost.
+     */
+    List<GenPolynomial<C>> waitDone() {
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        synchronized (this) {
+            if (aborted) {
+                return null;
+            }
+            return new ArrayList<GenPolynomial<C>>(G);
+        }
+    }
+
+
+    public void opened(FrameChannel ch) {
+        if (debug) {
+            logger.debug("opened " + ch);
+        }
+    }
+
+
+    @SuppressWarnings("unchecked")
+    public synchronized void received(FrameChannel ch, Object o) {
+        if (done.getCount() == 0) {
+            return;
+        }
+        if (o instanceof GBTransportMessStealResult) {
+            GBTransportMessStealResult<C> r = (GBTransportMessStealResult<C>) o;
+            GenPolynomial<C> H = r.pol;
+            if (H != null) {
+                results++;
+                H = red.normalform(G, H); // reduce by polynomials inserted meanwhile
+                if (!H.isZERO()) {
+                    H = H.monic();
+                } else {
+                    H = null;
+                }
+            }
+            if (H != null) {
+                if (H.isONE()) {
+                    G.clear();
+                    G.add(H);
+                    finish();
+                    return;
+                }
+                Integer k = Integer.valueOf(G.size());
+                G.add(H);
+                theList.put(k, H);
+                if (debug) {
+                    logger.debug("inserted " + k + " = " + H.leadingExpVector());
+                }
+            }
+            finished += r.done;
+            if (finished >= pairs()) {
+                finish();
+            }
+        } else if (o instanceof GBTransportMessStealHello) {
+            GBTransportMessStealHello h = (GBTransportMessStealHello) o;
+            SocketAddress sa = ch.getRemoteAddress();
+            String host = "localhost";
+            if (sa instanceof InetSocketAddress) {
+                host = ((InetSocketAddress) sa).getAddress().getHostAddress();
+            }
+            ch.attachment = Integer.valueOf(channels.size());
+            channels.add(ch);
+            hosts.add(host);
+            ports.add(h.port);
+            logger.info("node " + ch.attachment + " registered at " + host + ":" + h.port);
+            if (channels.size() == nodes) {
+                String[] hs = hosts.toArray(new String[nodes]);
+                int[] ps = new int[nodes];
+                for (int i = 0; i < nodes; i++) {
+                    ps[i] = ports.get(i);
+                }
+                for (int i = 0; i < nodes; i++) {
+                    send(channels.get(i), new GBTransportMessStealNodes(i, hs, ps));
+                }
+            }
+        } else {
+            logger.warn("wrong message " + o);
+        }
+    }
+
+
+    public synchronized void closed(FrameChannel ch) {
+        if (done.getCount() == 0 || ch.attachment == null) {
+            return;
+        }
+        logger.warn("node " + ch.attachment + " lost, aborting");
+        aborted = true;
+        finish();
+    }
+
+
+    /**
+     * Send end to all nodes and release waitDone().
+     */
+    private void finish() {
+        for (FrameChannel ch : channels) {
+            send(ch, new GBTransportMessStealEnd());
+            ch.closeAfterFlush();
+        }
+        logger.info("finished " + finished + " pairs, " + results + " results, #G = " + G.size());
+        done.countDown();
+    }
+
+
+    private void send(FrameChannel ch, Object o) {
+        try {
+            ch.send(o);
+        } catch (IOException e) {
+            logger.info("send to " + ch + ": " + e);
+        }
+    }
+
+
+    /**
+     * toString.
+     */
+    @Override
+    public synchronized String toString() {
+        return "StealMasterEC(nodes=" + nodes + ", #G=" + G.size() + ", finished=" + finished + ", results="
+                        + results + ")";
+    }
+
+}
+
+
+/**
+ * Node of the work stealing GB. Creates the pairs (i,k) with (i+k) mod nodes
+ * == id for each new polynomial k, reduces pairs from the local queue and
+ * steals pairs from random other nodes when the queue is empty.
+ * @param <C> coefficient type
+ */
+class StealNodeEC<C extends RingElem<C>> implements FrameHandler {
+
+
+    private static final Logger logger = Logger.getLogger(StealNodeEC.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Maximal time in milliseconds between unsuccessful steal requests.
+     */
+    static final long MAX_BACKOFF = 200L;
+
+
+    private final String host;
+
+
+    private final int port;
+
+
+    private final int threadsPerNode;
+
+
+    private final int modv;
+
+
+    private final FrameSelector fs;
+
+
+    private final DistHashTable<Integer, GenPolynomial<C>> theList;
+
+
+    private final ReductionPar<C> red;
+
+
+    private FrameChannel master;
+
+
+    private FrameChannel[] peers;
+
+
+    private TreeSet<StealPair> queue;
+
+
+    private final CountDownLatch started;
+
+
+    private final CountDownLatch ended;
+
+
+    private final Random random;
+
+
+    private int id = -1;
+
+
+    private volatile boolean goon = true;
+
+
+    private boolean stealing = false;
+
+
+    private long nextSteal = 0L;
+
+
+    private long backoff = 1L;
+
+
+    private int idle = 0;
+
+
+    private final AtomicLong zeros;
+
+
+    private final AtomicLong reductions;
+
+
+    private final AtomicLong stolen;
+
+
+    private final AtomicLong given;
+
+
+    /**
+     * Constructor.
+     * @param host of the master.
+     * @param threadsPerNode number of reducer threads.
+     * @param port of the master.
+     * @param dhtport port of the DHT server.
+     * @param modv number of module variables.
+     */
+    StealNodeEC(String host, int threadsPerNode, int port, int dhtport, int modv) throws IOException {
+        this.host = host;
+        this.port = port;
+        this.threadsPerNode = threadsPerNode;
+        this.modv = modv;
+        fs = new FrameSelector();
+        theList = new DistHashTable<Integer, GenPolynomial<C>>(host, dhtport);
+        red = new ReductionPar<C>();
+        started = new CountDownLatch(1);
+        ended = new CountDownLatch(1);
+        random = new Random();
+        zeros = new AtomicLong();
+        reductions = new AtomicLong();
+        stolen = new AtomicLong();
+        given = new AtomicLong();
+    }
+
+
+    /**
+     * Register at the master, run creator and reducers until the end message.
+     */
+    void run() throws IOException {
+        fs.start();
+        theList.init();
+        try {
+            int sport = fs.listen(0, this);
+            master = fs.connect(host, port, this);
+            master.send(new GBTransportMessStealHello(sport));
+            started.await();
+            if (goon) {
+                compute();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            goon = false;
+            theList.terminate();
+            fs.terminate();
+        }
+    }
+
+
+    /**
+     * Start creator and reducer threads and wait for the end.
+     */
+    private void compute() throws IOException, InterruptedException {
+        GenPolynomial<C> p0 = theList.getWait(Integer.valueOf(0));
+        if (p0 == null) {
+            return;
+        }
+        synchronized (this) {
+            queue = new TreeSet<StealPair>(new StealPairComparator(p0.ring.tord.getAscendComparator()));
+        }
+        for (int k = 0; k < peers.length; k++) {
+            if (k != id) {
+                peers[k] = fs.connect(hosts[k], ports[k], this);
+            }
+        }
+        Thread creator = new Thread() {
+
+
+            @Override
+            public void run() {
+                create();
+            }
+        };
+        creator.start();
+        Thread[] reducers = new Thread[threadsPerNode];
+        for (int k = 0; k < reducers.length; k++) {
+            reducers[k] = new Thread() {
+
+
+                @Override
+                public void run() {
+                    reduce();
+                }
+            };
+            reducers[k].start();
+        }
+        ended.await();
+        goon = false;
+        synchronized (this) {
+            notifyAll();
+        }
+        theList.terminate(); // releases getWait()
+        creator.join();
+        for (int k = 0; k < reducers.length; k++) {
+            reducers[k].join();
+        }
+        logger.info("node " + id + " terminated, " + reductions + " reductions, " + stolen + " stolen, "
+                        + given + " given pairs");
+    }
+
+
+    private String[] hosts;
+
+
+    private int[] ports;
+
+
+    /**
+     * Create the owned pairs of each new polynomial.
+     */
+    void create() {
+        List<ExpVector> lts = new ArrayList<ExpVector>();
+        int nodes = peers.length;
+        for (int k = 0; goon; k++) {
+            GenPolynomial<C> p = theList.getWait(Integer.valueOf(k));
+            if (p == null || !goon) {
+                break;
+            }
+            ExpVector e = p.leadingExpVector();
+            lts.add(e);
+            long skipped = 0L;
+            List<StealPair> np = new ArrayList<StealPair>();
+            for (int i = (nodes + id - (k % nodes)) % nodes; i < k; i += nodes) {
+                ExpVector f = lts.get(i);
+                if (modv > 0 && !red.moduleCriterion(modv, e, f)) {
+                    skipped++;
+                    continue;
+                }
+                ExpVector g = e.lcm(f);
+                if (!red.criterion4(f, e, g)) {
+                    skipped++;
+                    continue;
+                }
+                np.add(new StealPair(i, k, g));
+            }
+            if (!np.isEmpty()) {
+                synchronized (this) {
+                    queue.addAll(np);
+                    notifyAll();
+                }
+            }
+            if (skipped > 0) {
+                zeros.addAndGet(skipped);
+                synchronized (this) {
+                    if (queue.isEmpty()) {
+                        flushZeros();
+                    }
+                }
+            }
+        }
+        logger.debug("creator terminated");
+    }
+
+
+    /**
+     * Reduce pairs until the end. A failing reduction aborts the computation,
+     * since the pair would be lost otherwise.
+     */
+    void reduce() {
+        try {
+            reducePairs();
+        } catch (RuntimeException e) {
+            logger.warn("reducer failed, aborting: " + e);
+            e.printStackTrace();
+            master.close();
+        }
+    }
+
+
+    /**
+     * Reduce pairs from the local queue.
+     */
+    private void reducePairs() {
+        while (goon) {
+            StealPair p = take();
+            if (p == null) {
+                break;
+            }
+            GenPolynomial<C> pi = theList.getWait(Integer.valueOf(p.i));
+            GenPolynomial<C> pj = theList.getWait(Integer.valueOf(p.j));
+            if (pi == null || pj == null) {
+                break;
+            }
+            GenPolynomial<C> H = null;
+            if (!chainCriterion(p, pi.leadingExpVector(), pj.leadingExpVector())) {
+                GenPolynomial<C> S = red.SPolynomial(pi, pj);
+                if (!S.isZERO()) {
+                    H = red.normalform(theList, S);
+                    reductions.incrementAndGet();
+                    if (H.isZERO()) {
+                        H = null;
+                    } else {
+                        H = H.monic();
+                        if (debug) {
+                            logger.debug("ht(H) = " + H.leadingExpVector());
+                        }
+                    }
+                }
+            }
+            if (H == null) {
+                zeros.incrementAndGet();
+                continue;
+            }
+            send(master, new GBTransportMessStealResult<C>(H, 1L + zeros.getAndSet(0L)));
+        }
+        logger.debug("reducer terminated");
+    }
+
+
+    /**
+     * Buchberger chain criterion. The pair (i,j) is not required if some
+     * polynomial l has a leading term dividing lcm(i,j) and the lcms of (i,l)
+     * and (j,l) are proper divisors of lcm(i,j). The pairs (i,l), (j,l) are
+     * then treated with smaller lcm, independent of the order of processing.
+     * @return true, if the pair can be skipped.
+     */
+    boolean chainCriterion(StealPair p, ExpVector ei, ExpVector ej) {
+        ExpVector e = p.lcm;
+        for (Map.Entry<Integer, GenPolynomial<C>> me : theList.getList().entrySet()) {
+            int l = me.getKey();
+            if (l == p.i || l == p.j) {
+                continue;
+            }
+            ExpVector f = me.getValue().leadingExpVector();
+            if (!e.multipleOf(f)) {
+                continue;
+            }
+            if (e.equals(ei.lcm(f)) || e.equals(ej.lcm(f))) {
+                continue;
+            }
+            return true;
+        }
+        return false;
+    }
+
+
+    /**
+     * Take a pair from the local queue. Steals from other nodes if the queue
+     * is empty.
+     * @return next pair or null at the end.
+     */
+    synchronized StealPair take() {
+        idle++;
+        try {
+            while (goon) {
+                if (!queue.isEmpty()) {
+                    return queue.pollFirst();
+                }
+                flushZeros();
+                long now = System.currentTimeMillis();
+                if (!stealing && now >= nextSteal && peers.length > 1) {
+                    int v = random.nextInt(peers.length - 1);
+                    if (v >= id) {
+                        v++;
+                    }
+                    stealing = true;
+                    send(peers[v], new GBTransportMessStealReq());
+                }
+                try {
+                    if (stealing || now >= nextSteal) {
+                        wait();
+                    } else {
+                        wait(nextSteal - now);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+            }
+            return null;
+        } finally {
+            idle--;
+        }
+    }
+
+
+    /**
+     * Report skipped and zero reduced pairs to the master.
+     */
+    private void flushZeros() {
+        long z = zeros.getAndSet(0L);
+        if (z > 0) {
+            send(master, new GBTransportMessStealResult<C>(null, z));
+        }
+    }
+
+
+    private void send(FrameChannel ch, Object o) {
+        if (ch == null) {
+            return;
+        }
+        try {
+            ch.send(o);
+        } catch (IOException e) {
+            if (goon) {
+                logger.info("send to " + ch + ": " + e);
+            }
+        }
+    }
+
+
+    public void opened(FrameChannel ch) {
+        if (debug) {
+            logger.debug("opened " + ch);
+        }
+    }
+
+
+    public void received(FrameChannel ch, Object o) {
+        if (o instanceof GBTransportMessStealReq) {
+            ArrayList<StealPair> sp = new ArrayList<StealPair>();
+            synchronized (this) {
+                if (queue != null) {
+                    int n = queue.size();
+                    n = (idle > 0) ? n / 2 : (n + 1) / 2;
+                    for (int k = 0; k < n; k++) {
+                        sp.add(queue.pollLast());
+                    }
+                }
+            }
+            given.addAndGet(sp.size());
+            send(ch, new GBTransportMessStealPairs(sp));
+        } else if (o instanceof GBTransportMessStealPairs) {
+            GBTransportMessStealPairs sp = (GBTransportMessStealPairs) o;
+            synchronized (this) {
+                stealing = false;
+                if (sp.pairs.isEmpty()) {
+                    nextSteal = System.currentTimeMillis() + backoff;
+                    backoff = Math.min(2 * backoff, MAX_BACKOFF);
+                } else {
+                    backoff = 1L;
+                    queue.addAll(sp.pairs);
+                    stolen.addAndGet(sp.pairs.size());
+                }
+                notifyAll();
+            }
+        } else if (o instanceof GBTransportMessStealNodes) {
+            GBTransportMessStealNodes nm = (GBTransportMessStealNodes) o;
+            id = nm.id;
+            hosts = nm.hosts;
+            ports = nm.ports;
+            peers = new FrameChannel[hosts.length];
+            logger.info("node " + id + " of " + hosts.length + " started");
+            started.countDown();
+        } else if (o instanceof GBTransportMessStealEnd) {
+            end();
+        } else {
+            logger.warn("wrong message " + o);
+        }
+    }
+
+
+    public void closed(FrameChannel ch) {
+        if (ch == master) {
+            end();
+        }
+    }
+
+
+    /**
+     * End of computation.
+     */
+    private void end() {
+        goon = false;
+        synchronized (this) {
+            notifyAll();
+        }
+        started.countDown();
+        ended.countDown();
+    }
+
+
+    /**
+     * toString.
+     */
+    @Override
+    public String toString() {
+        return "StealNodeEC(" + id + ", reductions=" + reductions + ", stolen=" + stolen + ", given=" + given
+                        + ")";
+    }
+
+}
+
+
+/**
+ * Objects of this class are to be send to a ExecutableServer.
+ */
+class GBStealExerClient<C extends RingElem<C>> implements RemoteExecutable {
+
+
+    private static final long serialVersionUID = 1L;
+
+
+    String host;
+
+
+    int port;
+
+
+    int dhtport;
+
+
+    int threadsPerNode;
+
+
+    int modv;
+
+
+    /**
+     * GBStealExerClient.
+     * @param host
+     * @param threadsPerNode
+     * @param port
+     * @param dhtport
+     * @param modv
+     */
+    public GBStealExerClient(String host, int threadsPerNode, int port, int dhtport, int modv) {
+        this.host = host;
+        this.threadsPerNode = threadsPerNode;
+        this.port = port;
+        this.dhtport = dhtport;
+        this.modv = modv;
+    }
+
+
+    /**
+     * run.
+     */
+    public void run() {
+        try {
+            GroebnerBaseDistributedStealEC.<C> clientPart(host, threadsPerNode, port, dhtport, modv);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+
+    /**
+     * String representation.
+     */
+    @Override
+    public String toString() {
+        StringBuffer s = new StringBuffer("GBStealExerClient(");
+        s.append("host=" + host);
+        s.append(", threadsPerNode=" + threadsPerNode);
+        s.append(", port=" + port);
+        s.append(", dhtport=" + dhtport);
+        s.append(", modv=" + modv);
+        s.append(")");
+        return s.toString();
+    }
+
+}
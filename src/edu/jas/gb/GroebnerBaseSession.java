@@ -0,0 +1,421 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.PolyUtil;
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Groebner base session. Sequential Buchberger algorithm which can be run
+ * step by step, can be interrupted and can be resumed. The state of the
+ * computation, i.e. the polynomials and the reduction matrix of the pair
+ * list, is periodically saved to a checkpoint file. A computation can be
+ * restored from the checkpoint file, also in another JVM, and continues with
+ * the remaining pairs. Requires OrderedPairlist or one of its subclasses
+ * OrderedMinPairlist or OrderedSyzPairlist as pair selection strategy.
+ * @param <C> coefficient type
+ * @author agent
+ * @see edu.jas.gb.GroebnerBaseSeq
+ */
+
+public class GroebnerBaseSession<C extends RingElem<C>> {
+
+
+    private static final Logger logger = Logger.getLogger(GroebnerBaseSession.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Identification of checkpoint files.
+     */
+    public static final String MAGIC = "JAS-GB-session";
+
+
+    /**
+     * Version of the checkpoint file format.
+     */
+    public static final int VERSION = 1;
+
+
+    /**
+     * Groebner base engine, provides reduction, pair list strategy and
+     * minimal GB.
+     */
+    public final GroebnerBaseAbstract<C> bb;
+
+
+    /**
+     * Number of module variables.
+     */
+    public final int modv;
+
+
+    /**
+     * Current polynomial list.
+     */
+    protected final List<GenPolynomial<C>> G;
+
+
+    /**
+     * Pair list, null if there is nothing to compute.
+     */
+    protected final OrderedPairlist<C> pairlist;
+
+
+    /**
+     * Checkpoint file or null.
+     */
+    protected File checkpoint;
+
+
+    /**
+     * Minimal time between checkpoints in milliseconds.
+     */
+    protected long interval;
+
+
+    /**
+     * Time of the last checkpoint.
+     */
+    protected long lastCheckpoint;
+
+
+    /**
+     * Number of pairs processed, also before restoring.
+     */
+    protected long steps;
+
+
+    /**
+     * Indicator if the computation is finished.
+     */
+    protected boolean done;
+
+
+    /**
+     * Constructor.
+     * @param F polynomial list.
+     */
+    public GroebnerBaseSession(List<GenPolynomial<C>> F) {
+        this(new GroebnerBaseSeq<C>(), 0, F);
+    }
+
+
+    /**
+     * Constructor.
+     * @param bb Groebner base engine with reduction and pair list strategy.
+     * @param modv module variable number.
+     * @param F polynomial list.
+     */
+    public GroebnerBaseSession(GroebnerBaseAbstract<C> bb, int modv, List<GenPolynomial<C>> F) {
+        this.bb = bb;
+        this.modv = modv;
+        List<GenPolynomial<C>> Gp = bb.normalizeZerosOnes(F);
+        G = PolyUtil.<C> monic(Gp);
+        steps = 0L;
+        if (G.size() <= 1) {
+            pairlist = null;
+            done = true;
+            return;
+        }
+        GenPolynomialRing<C> ring = G.get(0).ring;
+        if (!ring.coFac.isField()) {
+            throw new IllegalArgumentException("coefficients not from a field");
+        }
+        pairlist = createPairlist(ring);
+        pairlist.put(G);
+        done = false;
+        logger.info("start " + pairlist);
+    }
+
+
+    /**
+     * Constructor for restored sessions.
+     * @param bb Groebner base engine with reduction and pair list strategy.
+     * @param modv module variable number.
+     * @param G polynomial list.
+     * @param R reduction matrix, or null if the computation is finished.
+     * @param steps number of pairs processed.
+     */
+    protected GroebnerBaseSession(GroebnerBaseAbstract<C> bb, int modv, List<GenPolynomial<C>> G,
+                    List<BitSet> R, long steps) {
+        this.bb = bb;
+        this.modv = modv;
+        this.G = G;
+        this.steps = steps;
+        if (R == null || G.size() <= 1) {
+            pairlist = null;
+            done = true;
+            return;
+        }
+        pairlist = createPairlist(G.get(0).ring);
+        pairlist.setList(G);
+        pairlist.setReductionMatrix(R);
+        done = false;
+        logger.info("resume " + pairlist + ", #G = " + G.size() + ", steps = " + steps);
+    }
+
+
+    /**
+     * Create a pair list with the strategy of the Groebner base engine.
+     * @param ring polynomial ring.
+     * @return a new empty pair list.
+     */
+    protected OrderedPairlist<C> createPairlist(GenPolynomialRing<C> ring) {
+        PairList<C> pl = bb.strategy.create(modv, ring);
+        if (!(pl instanceof OrderedPairlist) || pl instanceof CriticalPairList) {
+            throw new IllegalArgumentException("pair list strategy not supported: "
+                            + pl.getClass().getName());
+        }
+        return (OrderedPairlist<C>) pl;
+    }
+
+
+    /**
+     * String representation of the session.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "GroebnerBaseSession(#G = " + G.size() + ", steps = " + steps + ", done = " + done + ", "
+                        + pairlist + ")";
+    }
+
+
+    /**
+     * Set the checkpoint file.
+     * @param file checkpoint file or null for no checkpoints.
+     * @param interval minimal time between checkpoints in milliseconds.
+     */
+    public synchronized void setCheckpoint(File file, long interval) {
+        this.checkpoint = file;
+        this.interval = interval;
+        this.lastCheckpoint = System.currentTimeMillis();
+    }
+
+
+    /**
+     * Get the current polynomial list. If the computation is finished this
+     * is a Groebner base, but in general not a minimal one.
+     * @return a copy of the polynomial list.
+     */
+    public synchronized List<GenPolynomial<C>> getList() {
+        return new ArrayList<GenPolynomial<C>>(G);
+    }
+
+
+    /**
+     * Get the number of pairs processed so far.
+     * @return the number of steps.
+     */
+    public synchronized long getSteps() {
+        return steps;
+    }
+
+
+    /**
+     * Test if the computation is finished.
+     * @return true if there are no more pairs to process, else false.
+     */
+    public synchronized boolean isDone() {
+        return done;
+    }
+
+
+    /**
+     * Process the next pair.
+     * @return true if further pairs may exist, false if the computation is
+     *         finished.
+     */
+    public synchronized boolean step() {
+        if (done) {
+            return false;
+        }
+        if (!pairlist.hasNext()) {
+            done = true;
+            return false;
+        }
+        Pair<C> pair = pairlist.removeNext();
+        if (pair == null) {
+            return true;
+        }
+        steps++;
+        GenPolynomial<C> S = bb.red.SPolynomial(pair.pi, pair.pj);
+        if (S.isZERO()) {
+            pair.setZero();
+            return true;
+        }
+        GenPolynomial<C> H = bb.red.normalform(G, S);
+        if (H.isZERO()) {
+            pair.setZero();
+            return true;
+        }
+        H = H.monic();
+        if (debug) {
+            logger.info("ht(H) = " + H.leadingExpVector());
+        }
+        if (H.isONE()) {
+            G.clear();
+            G.add(H);
+            pairlist.putOne();
+            done = true;
+            logger.info("end " + pairlist);
+            return false;
+        }
+        G.add(H);
+        pairlist.put(H);
+        return true;
+    }
+
+
+    /**
+     * Run the computation to the end. If a checkpoint file is set, the state
+     * is saved periodically. If the thread is interrupted, a checkpoint is
+     * written and a RuntimeException is thrown, the computation can then be
+     * continued with restore().
+     * @return GB(F) a minimal Groebner base of F.
+     */
+    public List<GenPolynomial<C>> GB() {
+        while (step()) {
+            if (Thread.currentThread().isInterrupted()) {
+                saveCheckpoint();
+                throw new RuntimeException("interrupt in GroebnerBaseSession, steps = " + getSteps());
+            }
+            if (checkpoint != null && System.currentTimeMillis() - lastCheckpoint >= interval) {
+                saveCheckpoint();
+            }
+        }
+        if (checkpoint != null) {
+            saveCheckpoint();
+        }
+        logger.info("end " + pairlist);
+        return bb.minimalGB(getList());
+    }
+
+
+    /**
+     * Write a checkpoint and log failures. A failed checkpoint does not
+     * abort the computation.
+     */
+    protected void saveCheckpoint() {
+        if (checkpoint == null) {
+            return;
+        }
+        try {
+            checkpoint(checkpoint);
+        } catch (IOException e) {
+            logger.warn("checkpoint to " + checkpoint + " failed: " + e);
+        }
+        lastCheckpoint = System.currentTimeMillis();
+    }
+
+
+    /**
+     * Write the state of the computation to a file. The state is first
+     * written to a temporary file in the same directory, which then replaces
+     * the file, so that an existing checkpoint is never left incomplete.
+     * @param file checkpoint file.
+     */
+    public synchronized void checkpoint(File file) throws IOException {
+        File tmp = new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".tmp");
+        ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+        try {
+            out.writeUTF(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(modv);
+            out.writeLong(steps);
+            out.writeObject(bb.strategy.getClass().getName());
+            out.writeObject(new ArrayList<GenPolynomial<C>>(G));
+            if (done) {
+                out.writeObject(null);
+            } else {
+                out.writeObject(pairlist.getReductionMatrix());
+            }
+        } finally {
+            out.close();
+        }
+        try {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (debug) {
+            logger.debug("checkpoint " + file + ", #G = " + G.size() + ", steps = " + steps);
+        }
+    }
+
+
+    /**
+     * Restore a computation from a checkpoint file.
+     * @param file checkpoint file.
+     * @return session with the saved state.
+     */
+    public static <C extends RingElem<C>> GroebnerBaseSession<C> restore(File file) throws IOException {
+        return GroebnerBaseSession.<C> restore(file, new GroebnerBaseSeq<C>());
+    }
+
+
+    /**
+     * Restore a computation from a checkpoint file.
+     * @param file checkpoint file.
+     * @param bb Groebner base engine with reduction and pair list strategy,
+     *            the strategy must be the same as for the saved computation.
+     * @return session with the saved state.
+     */
+    @SuppressWarnings("unchecked")
+    public static <C extends RingElem<C>> GroebnerBaseSession<C> restore(File file,
+                    GroebnerBaseAbstract<C> bb) throws IOException {
+        ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            String m = in.readUTF();
+            if (!MAGIC.equals(m)) {
+                throw new IOException("not a Groebner base checkpoint: " + file);
+            }
+            int v = in.readInt();
+            if (v != VERSION) {
+                throw new IOException("unsupported checkpoint version " + v);
+            }
+            int modv = in.readInt();
+            long steps = in.readLong();
+            String sname = (String) in.readObject();
+            if (!bb.strategy.getClass().getName().equals(sname)) {
+                throw new IllegalArgumentException("pair list strategy " + sname + " expected, but was "
+                                + bb.strategy.getClass().getName());
+            }
+            List<GenPolynomial<C>> G = (List<GenPolynomial<C>>) in.readObject();
+            List<BitSet> R = (List<BitSet>) in.readObject();
+            return new GroebnerBaseSession<C>(bb, modv, G, R, steps);
+        } catch (ClassNotFoundException e) {
+            throw new IOException("invalid checkpoint: " + e);
+        } finally {
+            in.close();
+        }
+    }
+
+}
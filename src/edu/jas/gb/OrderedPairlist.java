@@ -300,6 +300,60 @@ public class OrderedPairlist<C extends RingElem<C>> implements PairList<C> {
     }
 
 
+    /**
+     * Get the reduction matrix. Bit i of row j is set, if the pair (i,j) is
+     * still to be considered.
+     * @return a copy of the reduction matrix.
+     */
+    public synchronized List<BitSet> getReductionMatrix() {
+        List<BitSet> R = new ArrayList<BitSet>(red.size());
+        for (BitSet b : red) {
+            R.add((BitSet) b.clone());
+        }
+        return R;
+    }
+
+
+    /**
+     * Set the reduction matrix and rebuild the pairlist from it. Used to
+     * resume a computation after setList() with the polynomials of a
+     * previously saved state.
+     * @param R reduction matrix as returned by getReductionMatrix().
+     */
+    public synchronized void setReductionMatrix(List<BitSet> R) {
+        if (R.size() != P.size()) {
+            throw new IllegalArgumentException("reduction matrix does not match polynomial list");
+        }
+        pairlist.clear();
+        red.clear();
+        for (BitSet b : R) {
+            red.add((BitSet) b.clone());
+        }
+        for (int j = 0; j < P.size(); j++) {
+            GenPolynomial<C> pj = P.get(j);
+            ExpVector e = pj.leadingExpVector();
+            BitSet redj = red.get(j);
+            for (int i = redj.nextSetBit(0); i >= 0 && i < j; i = redj.nextSetBit(i + 1)) {
+                GenPolynomial<C> pi = P.get(i);
+                ExpVector f = pi.leadingExpVector();
+                if (moduleVars > 0) {
+                    if (!reduction.moduleCriterion(moduleVars, e, f)) {
+                        continue; // skip pair
+                    }
+                }
+                ExpVector g = e.lcm(f);
+                Pair<C> pair = new Pair<C>(pi, pj, i, j);
+                LinkedList<Pair<C>> xl = pairlist.get(g);
+                if (xl == null) {
+                    xl = new LinkedList<Pair<C>>();
+                }
+                xl.addFirst(pair); // same order as in put()
+                pairlist.put(g, xl);
+            }
+        }
+    }
+
+
     /**
      * Get the size of the list of polynomials.
      * @return size of the polynomial list.
@@ -148,11 +148,11 @@ public class ReductionPar<C extends RingElem<C>> extends ReductionAbstract<C> {
             return Ap;
         }
         int l;
+        @SuppressWarnings("unchecked")
+        GenPolynomial<C>[] E = (GenPolynomial<C>[]) new GenPolynomial[0];
         GenPolynomial<C>[] P;
         //synchronized ( mp ) { // no more required
-        l = mp.size();
-        P = (GenPolynomial<C>[]) new GenPolynomial[l];
-        P = mp.values().toArray(P);
+        P = mp.values().toArray(E); // exact size, map may be concurrent
         l = P.length;
         //}
 
@@ -171,7 +171,7 @@ public class ReductionPar<C extends RingElem<C>> extends ReductionAbstract<C> {
             if (mp.size() != l) {
                 //long t = System.currentTimeMillis();
                 //synchronized ( mp ) { // no more required, ok in distributed
-                P = mp.values().toArray(P);
+                P = mp.values().toArray(E);
                 l = P.length;
                 //}
                 //t = System.currentTimeMillis()-t;
@@ -0,0 +1,370 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gbufd;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.kern.ComputerThreads;
+import edu.jas.kern.ParallelMap;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.OrderedPolynomialList;
+import edu.jas.poly.PolyUtil;
+import edu.jas.structure.GcdRingElem;
+import edu.jas.ufd.GCDFactory;
+import edu.jas.ufd.GreatestCommonDivisorAbstract;
+import edu.jas.util.LRUCache;
+
+
+/**
+ * Characteristic Set class acccording to Wu with parallel pseudo division.
+ * In each step all polynomials of positive degree in the main variable are
+ * pseudo divided in parallel by the polynomial of lowest degree. The
+ * recursive representations of the polynomials of characteristic sets are
+ * cached, so that repeated reductions with respect to the same characteristic
+ * set do not convert them again.
+ * @param <C> coefficient type
+ * @author agent
+ */
+public class CharacteristicSetParallel<C extends GcdRingElem<C>> extends CharacteristicSetWu<C> {
+
+
+    private static final long serialVersionUID = 1L;
+
+
+    private static final Logger logger = Logger.getLogger(CharacteristicSetParallel.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Number of threads to use for the pseudo divisions.
+     */
+    protected final int threads;
+
+
+    /**
+     * Capacity of the caches for recursive representations.
+     */
+    protected final int size;
+
+
+    /**
+     * Caches for recursive representations, one for each polynomial ring.
+     */
+    protected final transient Map<GenPolynomialRing<C>,
+                    LRUCache<GenPolynomial<C>, GenPolynomial<GenPolynomial<C>>>> caches;
+
+
+    /**
+     * Constructor.
+     */
+    public CharacteristicSetParallel() {
+        this(ComputerThreads.N_CPUS);
+    }
+
+
+    /**
+     * Constructor.
+     * @param threads number of threads to use.
+     */
+    public CharacteristicSetParallel(int threads) {
+        this(threads, 1024);
+    }
+
+
+    /**
+     * Constructor.
+     * @param threads number of threads to use.
+     * @param size capacity of the cache for recursive representations.
+     */
+    public CharacteristicSetParallel(int threads, int size) {
+        if (threads < 1) {
+            threads = 1;
+        }
+        this.threads = threads;
+        this.size = size;
+        caches = new ConcurrentHashMap<GenPolynomialRing<C>,
+                        LRUCache<GenPolynomial<C>, GenPolynomial<GenPolynomial<C>>>>();
+    }
+
+
+    /**
+     * Get the String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() + "(" + threads + ", " + caches.values() + ")";
+    }
+
+
+    /**
+     * Cache for recursive representations of polynomials of a ring.
+     * @param pfac polynomial ring factory.
+     * @return the cache for pfac.
+     */
+    protected LRUCache<GenPolynomial<C>, GenPolynomial<GenPolynomial<C>>> cache(GenPolynomialRing<C> pfac) {
+        LRUCache<GenPolynomial<C>, GenPolynomial<GenPolynomial<C>>> c = caches.get(pfac);
+        if (c == null) {
+            c = new LRUCache<GenPolynomial<C>, GenPolynomial<GenPolynomial<C>>>(size);
+            LRUCache<GenPolynomial<C>, GenPolynomial<GenPolynomial<C>>> o = caches.putIfAbsent(pfac, c);
+            if (o != null) {
+                c = o;
+            }
+        }
+        return c;
+    }
+
+
+    /**
+     * Recursive representation with respect to the main variable, cached.
+     * @param rfac recursive polynomial ring factory.
+     * @param f polynomial.
+     * @return recursive representation of f in rfac.
+     */
+    public GenPolynomial<GenPolynomial<C>> recursive(GenPolynomialRing<GenPolynomial<C>> rfac,
+                    GenPolynomial<C> f) {
+        if (f.ring.nvar <= 1) { // univariate ones are not repeatedly converted
+            return PolyUtil.<C> recursive(rfac, f);
+        }
+        LRUCache<GenPolynomial<C>, GenPolynomial<GenPolynomial<C>>> cache = cache(f.ring);
+        GenPolynomial<GenPolynomial<C>> fr = cache.get(f);
+        if (fr != null && fr.ring.equals(rfac)) {
+            return fr;
+        }
+        fr = PolyUtil.<C> recursive(rfac, f);
+        cache.put(f, fr);
+        return fr;
+    }
+
+
+    /**
+     * Characteristic set. According to Wu's algorithm with rereduction of
+     * leading coefficients and parallel pseudo division.
+     * @param A list of generic polynomials.
+     * @return charSetWu(A).
+     */
+    @Override
+    public List<GenPolynomial<C>> characteristicSet(List<GenPolynomial<C>> A) {
+        List<GenPolynomial<C>> S = new ArrayList<GenPolynomial<C>>();
+        if (A == null || A.isEmpty()) {
+            return S;
+        }
+        GenPolynomialRing<C> pfac = A.get(0).ring;
+        if (pfac.nvar <= 1) { // take gcd
+            GreatestCommonDivisorAbstract<C> ufd = GCDFactory.<C> getImplementation(pfac.coFac);
+            GenPolynomial<C> g = ufd.gcd(A).monic();
+            logger.info("charSet base gcd = " + g);
+            S.add(g);
+            return S;
+        }
+        // sort polynomials according to the main variable
+        GenPolynomialRing<GenPolynomial<C>> rfac = pfac.recursive(1);
+        List<GenPolynomial<GenPolynomial<C>>> positiveDeg = new ArrayList<GenPolynomial<GenPolynomial<C>>>();
+        List<GenPolynomial<C>> zeroDeg = new ArrayList<GenPolynomial<C>>();
+        for (GenPolynomial<C> f : A) {
+            if (f.isZERO()) {
+                continue;
+            }
+            f = f.monic();
+            if (f.isONE()) {
+                S.add(f);
+                return S;
+            }
+            GenPolynomial<GenPolynomial<C>> fr = PolyUtil.<C> recursive(rfac, f);
+            if (fr.degree(0) == 0) {
+                zeroDeg.add(fr.leadingBaseCoefficient());
+            } else {
+                positiveDeg.add(fr);
+            }
+        }
+        if (positiveDeg.isEmpty() && zeroDeg.isEmpty()) {
+            return S;
+        }
+        // do pseudo division wrt. the main variable
+        List<GenPolynomial<GenPolynomial<C>>> pd = OrderedPolynomialList.sort(rfac, positiveDeg);
+        while (pd.size() > 1) {
+            // divide all others by the polynomial of lowest degree
+            final GenPolynomial<GenPolynomial<C>> qr = pd.get(0);
+            final List<GenPolynomial<GenPolynomial<C>>> fs = pd.subList(1, pd.size());
+            logger.info("pseudo remainders of " + fs.size() + " by deg = " + qr.degree() + " in variable "
+                            + rfac.getVars()[0]);
+            List<GenPolynomial<GenPolynomial<C>>> rs = ParallelMap.map(fs.size(), threads,
+                            new ParallelMap.Task<GenPolynomial<GenPolynomial<C>>>() {
+
+
+                                public GenPolynomial<GenPolynomial<C>> compute(int i) {
+                                    return PolyUtil.<C> recursiveSparsePseudoRemainder(fs.get(i), qr);
+                                }
+                            });
+            List<GenPolynomial<GenPolynomial<C>>> npd = new ArrayList<GenPolynomial<GenPolynomial<C>>>();
+            npd.add(qr);
+            for (GenPolynomial<GenPolynomial<C>> rr : rs) {
+                if (rr.isZERO()) {
+                    logger.warn("variety is reducible, remainder zero mod " + qr);
+                    continue;
+                }
+                if (rr.degree(0) == 0) {
+                    zeroDeg.add(rr.leadingBaseCoefficient().monic());
+                } else {
+                    npd.add(rr);
+                }
+            }
+            pd = OrderedPolynomialList.sort(rfac, npd);
+        }
+        // recursion for degree zero polynomials
+        List<GenPolynomial<C>> Sp = characteristicSet(zeroDeg); // recursion
+        for (GenPolynomial<C> f : Sp) {
+            GenPolynomial<C> fp = f.extend(pfac, 0, 0L);
+            S.add(fp);
+        }
+        if (pd.isEmpty()) {
+            return S;
+        }
+        // rereduction of leading coefficient wrt. characteristic set according to Wu
+        GenPolynomial<GenPolynomial<C>> rr = pd.get(0);
+        GenPolynomial<C> sr = PolyUtil.<C> distribute(pfac, rr);
+        sr = PolyGBUtil.<C> topCoefficientPseudoRemainder(Sp, sr);
+        logger.info("charSet rereduced sr = " + sr);
+        if (sr.isZERO()) {
+            return S;
+        }
+        long d = sr.degree(pfac.nvar - 1);
+        if (d == 0) { // deg zero, invalid characteristic set, restart
+            S.add(0, sr);
+            logger.warn("reducible characteristic set, restarting with S = " + S);
+            return characteristicSet(S);
+        }
+        sr = sr.monic();
+        S.add(0, sr);
+        return S;
+    }
+
+
+    /**
+     * Characteristic set reduction. Pseudo remainder wrt. the main variable
+     * with further pseudo reduction of the leading coefficient. The recursive
+     * representations of the polynomials in A are cached.
+     * @param P generic polynomial.
+     * @param A list of generic polynomials as characteristic set.
+     * @return
+     *         characteristicSetReductionCoeff(A,characteristicSetRemainder(A,P))
+     */
+    @Override
+    public GenPolynomial<C> characteristicSetReduction(List<GenPolynomial<C>> A, GenPolynomial<C> P) {
+        if (A == null || A.isEmpty()) {
+            return P.monic();
+        }
+        if (P.isZERO()) {
+            return P;
+        }
+        GenPolynomial<C> R = topPseudoRemainder(A, P);
+        if (R.isZERO()) {
+            return R;
+        }
+        List<GenPolynomial<C>> Ap = zeroDegrees(A);
+        R = PolyGBUtil.<C> topCoefficientPseudoRemainder(Ap, R);
+        return R;
+    }
+
+
+    /**
+     * Characteristic set reduction of a list of polynomials in parallel.
+     * @param A list of generic polynomials as characteristic set.
+     * @param P list of generic polynomials.
+     * @return list of characteristicSetReduction(A,p) for p in P.
+     */
+    public List<GenPolynomial<C>> characteristicSetReduction(final List<GenPolynomial<C>> A,
+                    final List<GenPolynomial<C>> P) {
+        if (P == null || P.isEmpty()) {
+            return P;
+        }
+        return ParallelMap.map(P.size(), threads, new ParallelMap.Task<GenPolynomial<C>>() {
+
+
+            public GenPolynomial<C> compute(int i) {
+                return characteristicSetReduction(A, P.get(i));
+            }
+        });
+    }
+
+
+    /**
+     * Top pseudo remainder with cached recursive representations, see
+     * PolyGBUtil.topPseudoRemainder().
+     * @param P generic polynomial.
+     * @param A list of generic polynomials as characteristic set.
+     * @return pseudo remainder of the top term of P wrt. A.
+     */
+    protected GenPolynomial<C> topPseudoRemainder(List<GenPolynomial<C>> A, GenPolynomial<C> P) {
+        if (A == null || A.isEmpty()) {
+            return P.monic();
+        }
+        if (P.isZERO()) {
+            return P;
+        }
+        GenPolynomialRing<C> pfac = A.get(0).ring;
+        if (pfac.nvar <= 1) { // recursion base
+            GenPolynomial<C> R = PolyUtil.<C> baseSparsePseudoRemainder(P, A.get(0));
+            return R.monic();
+        }
+        GenPolynomialRing<GenPolynomial<C>> rfac = pfac.recursive(1);
+        GenPolynomial<GenPolynomial<C>> qr = recursive(rfac, A.get(0));
+        if (qr.isONE()) {
+            return P.ring.getZERO();
+        }
+        GenPolynomial<GenPolynomial<C>> pr = PolyUtil.<C> recursive(rfac, P);
+        GenPolynomial<GenPolynomial<C>> rr;
+        if (qr.degree(0) > 0) {
+            rr = PolyUtil.<C> recursiveSparsePseudoRemainder(pr, qr);
+        } else {
+            rr = pr;
+        }
+        if (rr.degree(0) > 0) {
+            GenPolynomial<C> R = PolyUtil.<C> distribute(pfac, rr);
+            return R.monic();
+        }
+        List<GenPolynomial<C>> zeroDeg = zeroDegrees(A);
+        GenPolynomial<C> R = topPseudoRemainder(zeroDeg, rr.leadingBaseCoefficient());
+        R = R.extend(pfac, 0, 0L);
+        return R.monic();
+    }
+
+
+    /**
+     * Polynomials of degree zero in the main variable with cached recursive
+     * representations, see PolyGBUtil.zeroDegrees().
+     * @param A list of generic polynomials.
+     * @return list of the leading base coefficients of the polynomials of
+     *         degree zero in the main variable.
+     */
+    protected List<GenPolynomial<C>> zeroDegrees(List<GenPolynomial<C>> A) {
+        if (A == null || A.isEmpty()) {
+            return A;
+        }
+        GenPolynomialRing<C> pfac = A.get(0).ring;
+        GenPolynomialRing<GenPolynomial<C>> rfac = pfac.recursive(1);
+        List<GenPolynomial<C>> zeroDeg = new ArrayList<GenPolynomial<C>>(A.size());
+        for (GenPolynomial<C> q : A) {
+            GenPolynomial<GenPolynomial<C>> fr = recursive(rfac, q);
+            if (fr.degree(0) == 0) {
+                zeroDeg.add(fr.leadingBaseCoefficient());
+            }
+        }
+        if (debug) {
+            logger.debug("zeroDeg = " + zeroDeg + ", cache = " + caches.get(pfac));
+        }
+        return zeroDeg;
+    }
+
+}
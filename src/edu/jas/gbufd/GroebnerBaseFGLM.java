@@ -44,7 +44,7 @@ public class GroebnerBaseFGLM<C extends GcdRingElem<C>> extends GroebnerBaseAbst
     /**
      * The backing GB algorithm implementation.
      */
-    private GroebnerBaseAbstract<C> sgb;
+    protected GroebnerBaseAbstract<C> sgb;
 
 
     /**
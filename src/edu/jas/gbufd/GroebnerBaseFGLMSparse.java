@@ -0,0 +1,1071 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gbufd;
+
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.arith.ArithUtil;
+import edu.jas.arith.BigRational;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.gb.GroebnerBaseAbstract;
+import edu.jas.gb.ReductionSeq;
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.Monomial;
+import edu.jas.poly.TermOrder;
+import edu.jas.structure.GcdRingElem;
+
+
+/**
+ * Groebner Base FGLM algorithm with sparse multiplication matrices. The
+ * multiplication matrices of the quotient algebra are computed once from the
+ * graded Groebner base, the lexicographical Groebner base is then obtained by
+ * linear algebra on coefficient vectors modulo word size primes. For ideals
+ * in shape position the minimal polynomial of the smallest variable is
+ * computed with the Berlekamp-Massey algorithm from a scalar Krylov sequence
+ * (Wiedemann) and the other variables are expressed by univariate
+ * polynomials without any matrix elimination. Coefficients
+ * <code>ModLong</code> are used directly, rational coefficients are lifted
+ * from several primes by Chinese remaindering and rational reconstruction
+ * until the result is stable and verified to be a Groebner base. Other
+ * coefficient fields use the algorithm of <code>GroebnerBaseFGLM</code>.
+ * @param <C> coefficient type
+ * @author agent
+ *
+ * @see edu.jas.gbufd.GroebnerBaseFGLM
+ */
+public class GroebnerBaseFGLMSparse<C extends GcdRingElem<C>> extends GroebnerBaseFGLM<C> {
+
+
+    private static final long serialVersionUID = 1L;
+
+
+    private static final Logger logger = Logger.getLogger(GroebnerBaseFGLMSparse.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Use the Berlekamp-Massey algorithm for ideals in shape position.
+     */
+    public boolean shape = true;
+
+
+    /**
+     * Constructor.
+     */
+    public GroebnerBaseFGLMSparse() {
+        super();
+    }
+
+
+    /**
+     * Constructor.
+     * @param gb backing GB algorithm.
+     */
+    public GroebnerBaseFGLMSparse(GroebnerBaseAbstract<C> gb) {
+        super(gb);
+    }
+
+
+    /**
+     * Get the String representation with GB engine.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        if (sgb == null) {
+            return "GroebnerBaseFGLMSparse()";
+        }
+        return "GroebnerBaseFGLMSparse( " + sgb.toString() + " )";
+    }
+
+
+    /**
+     * Converts a Groebner base w.r.t. a graded term order into a Groebner base
+     * w.r.t. the inverse lexicographical term order using multiplication
+     * matrices.
+     * @param groebnerBasis Groebner base of a zero dimensional ideal.
+     * @return Groebner base w.r.t to inverse lexicographical term order.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<GenPolynomial<C>> convGroebnerToLex(List<GenPolynomial<C>> groebnerBasis) {
+        if (groebnerBasis == null || groebnerBasis.size() == 0) {
+            throw new IllegalArgumentException("G may not be null or empty");
+        }
+        GenPolynomialRing<C> ring = groebnerBasis.get(0).ring;
+        if (!ring.coFac.isField()) {
+            throw new IllegalArgumentException("coefficients not from a field: " + ring.coFac);
+        }
+        List<GenPolynomial<C>> G = red.irreducibleSet(groebnerBasis);
+        int z = commonZeroTest(G);
+        if (z != 0) {
+            throw new IllegalArgumentException("ideal(G) not zero dimensional, dim =  " + z);
+        }
+        TermOrder invlex = new TermOrder(TermOrder.INVLEX);
+        GenPolynomialRing<C> ufac = new GenPolynomialRing<C>(ring.coFac, ring.nvar, invlex, ring.getVars());
+        if (ring.coFac instanceof ModLongRing) {
+            return (List<GenPolynomial<C>>) (List) convModLong((List<GenPolynomial<ModLong>>) (List) G,
+                            (GenPolynomialRing<ModLong>) (GenPolynomialRing) ufac);
+        }
+        if (ring.coFac instanceof BigRational) {
+            return (List<GenPolynomial<C>>) (List) convBigRational((List<GenPolynomial<BigRational>>) (List) G,
+                            (GenPolynomialRing<BigRational>) (GenPolynomialRing) ufac);
+        }
+        return super.convGroebnerToLex(G);
+    }
+
+
+    /**
+     * Conversion modulo the prime of the coefficient ring.
+     * @param G reduced graded Groebner base.
+     * @param ufac polynomial ring with inverse lexicographical term order.
+     * @return inverse lexicographical Groebner base of ideal(G).
+     */
+    List<GenPolynomial<ModLong>> convModLong(List<GenPolynomial<ModLong>> G, GenPolynomialRing<ModLong> ufac) {
+        ModLongRing cfac = (ModLongRing) ufac.coFac;
+        long p = cfac.getModul().longValue();
+        ExpVector[][] exps = new ExpVector[G.size()][];
+        long[][] coeffs = new long[G.size()][];
+        for (int i = 0; i < G.size(); i++) {
+            GenPolynomial<ModLong> g = G.get(i);
+            exps[i] = new ExpVector[g.length()];
+            coeffs[i] = new long[g.length()];
+            int j = 0;
+            for (Monomial<ModLong> m : g) {
+                exps[i][j] = m.exponent();
+                coeffs[i][j] = m.coefficient().getVal();
+                j++;
+            }
+        }
+        Quotient A = new Quotient(G.get(0).ring, exps, coeffs, p);
+        LexBase B = lexBase(A);
+        List<GenPolynomial<ModLong>> L = new ArrayList<GenPolynomial<ModLong>>(B.leads.size());
+        for (int i = 0; i < B.leads.size(); i++) {
+            GenPolynomial<ModLong> g = ufac.valueOf(B.leads.get(i));
+            long[] c = B.coeffs.get(i);
+            for (int k = 0; k < c.length; k++) {
+                if (c[k] != 0L) {
+                    g = g.sum(cfac.fromInteger(c[k]), B.stair.get(k));
+                }
+            }
+            L.add(g);
+        }
+        return L;
+    }
+
+
+    /**
+     * Conversion by Chinese remaindering and rational reconstruction of the
+     * conversions modulo several primes. Primes where the structure of the
+     * lexicographical base differs from the majority are skipped. A stable
+     * reconstruction is only returned if it is verified to be a Groebner
+     * base of ideal(G), else further primes are used.
+     * @param G reduced graded Groebner base.
+     * @param ufac polynomial ring with inverse lexicographical term order.
+     * @return inverse lexicographical Groebner base of ideal(G).
+     */
+    List<GenPolynomial<BigRational>> convBigRational(List<GenPolynomial<BigRational>> G,
+                    GenPolynomialRing<BigRational> ufac) {
+        GenPolynomialRing<BigRational> ring = G.get(0).ring;
+        ExpVector[][] exps = new ExpVector[G.size()][];
+        BigRational[][] rc = new BigRational[G.size()][];
+        for (int i = 0; i < G.size(); i++) {
+            GenPolynomial<BigRational> g = G.get(i);
+            exps[i] = new ExpVector[g.length()];
+            rc[i] = new BigRational[g.length()];
+            int j = 0;
+            for (Monomial<BigRational> m : g) {
+                exps[i][j] = m.exponent();
+                rc[i][j] = m.coefficient();
+                j++;
+            }
+        }
+        LexBase ref = null;
+        java.math.BigInteger[][] R = null;
+        java.math.BigInteger P = null;
+        List<GenPolynomial<BigRational>> last = null;
+        List<GenPolynomial<BigRational>> rejected = null;
+        int matched = 0;
+        int conflicts = 0;
+        for (int pi = 0;; pi++) {
+            long p = ArithUtil.prime(pi);
+            java.math.BigInteger pp = java.math.BigInteger.valueOf(p);
+            long[][] coeffs = modular(rc, p);
+            if (coeffs == null) {
+                continue; // p divides a denominator
+            }
+            Quotient A = new Quotient(ring, exps, coeffs, p);
+            int dim = A.dimension();
+            LexBase B = lexBase(A);
+            if (ref == null || !ref.sameStructure(B)) {
+                if (ref != null) {
+                    conflicts++;
+                    logger.info("unlucky prime " + p + ", conflicts = " + conflicts + ", matched = " + matched);
+                    if (conflicts <= matched) {
+                        continue;
+                    }
+                }
+                ref = B;
+                matched = 0;
+                conflicts = 0;
+                P = java.math.BigInteger.ONE;
+                R = new java.math.BigInteger[B.coeffs.size()][];
+                for (int i = 0; i < R.length; i++) {
+                    R[i] = new java.math.BigInteger[B.stair.size()];
+                    for (int k = 0; k < R[i].length; k++) {
+                        R[i][k] = java.math.BigInteger.ZERO;
+                    }
+                }
+                last = null;
+            }
+            for (int i = 0; i < R.length; i++) {
+                ArithUtil.chineseRemainder(R[i], P, B.coeffs.get(i), p);
+            }
+            P = P.multiply(pp);
+            matched++;
+            List<GenPolynomial<BigRational>> L = rationalReconstruction(ufac, ref, R, P);
+            if (L == null) {
+                continue;
+            }
+            if (L.equals(last) && !L.equals(rejected)) {
+                if (isLexBase(G, L, dim)) {
+                    if (debug) {
+                        logger.info("stable after " + matched + " primes, bits = " + P.bitLength());
+                    }
+                    return L;
+                }
+                logger.info("reconstruction is no Groebner base after " + matched + " primes");
+                rejected = L;
+            }
+            last = L;
+        }
+    }
+
+
+    /**
+     * Coefficients modulo a prime.
+     * @param rc rational coefficients.
+     * @param p prime.
+     * @return rc modulo p, or null if p divides a denominator.
+     */
+    static long[][] modular(BigRational[][] rc, long p) {
+        java.math.BigInteger pp = java.math.BigInteger.valueOf(p);
+        long[][] coeffs = new long[rc.length][];
+        for (int i = 0; i < rc.length; i++) {
+            coeffs[i] = new long[rc[i].length];
+            for (int j = 0; j < rc[i].length; j++) {
+                long b = rc[i][j].denominator().mod(pp).longValue();
+                if (b == 0L) {
+                    return null;
+                }
+                long a = rc[i][j].numerator().mod(pp).longValue();
+                coeffs[i][j] = a * ArithUtil.modInverse(b, p) % p;
+            }
+        }
+        return coeffs;
+    }
+
+
+    /**
+     * Test if a lexicographical base candidate is a Groebner base of
+     * ideal(G). This is the case if all elements reduce to zero modulo G and
+     * the number of standard monomials of the leading terms is the dimension
+     * of the quotient algebra.
+     * @param G reduced graded Groebner base.
+     * @param L candidate lexicographical base.
+     * @param dim vector space dimension of the quotient modulo ideal(G).
+     * @return true if L is a Groebner base of ideal(G), else false.
+     */
+    static boolean isLexBase(List<GenPolynomial<BigRational>> G, List<GenPolynomial<BigRational>> L,
+                    int dim) {
+        GenPolynomialRing<BigRational> ring = G.get(0).ring;
+        List<ExpVector> leads = new ArrayList<ExpVector>(L.size());
+        for (GenPolynomial<BigRational> l : L) {
+            leads.add(l.leadingExpVector());
+        }
+        if (standardMonomials(leads, ring.nvar, dim + 1) != dim) {
+            return false;
+        }
+        ReductionSeq<BigRational> rred = new ReductionSeq<BigRational>();
+        for (GenPolynomial<BigRational> l : L) {
+            if (!rred.normalform(G, ring.copy(l)).isZERO()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Number of standard monomials.
+     * @param leads leading exponents.
+     * @param nvar number of variables.
+     * @param max bound for the count.
+     * @return number of exponents not divisible by leads, at most max.
+     */
+    static int standardMonomials(List<ExpVector> leads, int nvar, int max) {
+        ExpVector[] vars = new ExpVector[nvar];
+        for (int k = 0; k < nvar; k++) {
+            vars[k] = ExpVector.create(nvar, k, 1L);
+        }
+        ExpVector zero = ExpVector.create(nvar);
+        if (Quotient.reducible(leads, zero)) {
+            return 0;
+        }
+        Set<ExpVector> B = new HashSet<ExpVector>();
+        List<ExpVector> todo = new ArrayList<ExpVector>();
+        B.add(zero);
+        todo.add(zero);
+        while (!todo.isEmpty() && B.size() < max) {
+            ExpVector b = todo.remove(todo.size() - 1);
+            for (int k = 0; k < nvar; k++) {
+                ExpVector u = b.sum(vars[k]);
+                if (!B.contains(u) && !Quotient.reducible(leads, u)) {
+                    B.add(u);
+                    todo.add(u);
+                }
+            }
+        }
+        return Math.min(B.size(), max);
+    }
+
+
+    /**
+     * Rational reconstruction of a lexicographical base.
+     * @param ufac polynomial ring with inverse lexicographical term order.
+     * @param B structure of the base.
+     * @param R coefficients modulo P.
+     * @param P modulus.
+     * @return polynomials with rational coefficients congruent to R, or null
+     *         if some coefficient has no reconstruction.
+     */
+    static List<GenPolynomial<BigRational>> rationalReconstruction(GenPolynomialRing<BigRational> ufac,
+                    LexBase B, java.math.BigInteger[][] R, java.math.BigInteger P) {
+        java.math.BigInteger bound = ArithUtil.reconstructionBound(P);
+        List<GenPolynomial<BigRational>> L = new ArrayList<GenPolynomial<BigRational>>(R.length);
+        for (int i = 0; i < R.length; i++) {
+            GenPolynomial<BigRational> g = ufac.valueOf(B.leads.get(i));
+            for (int k = 0; k < R[i].length; k++) {
+                if (R[i][k].signum() == 0) {
+                    continue;
+                }
+                BigRational c = ArithUtil.rationalReconstruction(R[i][k], P, bound);
+                if (c == null) {
+                    return null;
+                }
+                g = g.sum(c, B.stair.get(k));
+            }
+            L.add(g);
+        }
+        return L;
+    }
+
+
+    /**
+     * Lexicographical base modulo a prime, shape position or linear algebra
+     * FGLM.
+     * @param A quotient algebra.
+     * @return inverse lexicographical base.
+     */
+    LexBase lexBase(Quotient A) {
+        if (shape) {
+            LexBase B = A.shapeBase();
+            if (B != null) {
+                return B;
+            }
+            if (debug) {
+                logger.info("not in shape position, using linear algebra");
+            }
+        }
+        return A.lexBase();
+    }
+
+
+    /**
+     * Lexicographical Groebner base modulo a prime. Element i is
+     * leads.get(i) + sum_k coeffs.get(i)[k] stair.get(k).
+     */
+    static final class LexBase {
+
+
+        final List<ExpVector> leads;
+
+
+        final List<ExpVector> stair;
+
+
+        final List<long[]> coeffs;
+
+
+        LexBase(List<ExpVector> leads, List<ExpVector> stair, List<long[]> coeffs) {
+            this.leads = leads;
+            this.stair = stair;
+            this.coeffs = coeffs;
+        }
+
+
+        /**
+         * Test for equal leading terms and standard monomials.
+         * @param B other base.
+         * @return true if B has the same structure as this.
+         */
+        boolean sameStructure(LexBase B) {
+            return leads.equals(B.leads) && stair.equals(B.stair);
+        }
+    }
+
+
+    /**
+     * Quotient algebra modulo a prime given by a reduced Groebner base. The
+     * multiplication matrices are stored column wise as sparse vectors.
+     */
+    static final class Quotient {
+
+
+        final long p;
+
+
+        final int nvar;
+
+
+        /**
+         * Standard monomials in ascending graded order, basis[0] = 1.
+         */
+        final ExpVector[] basis;
+
+
+        final SortedMap<ExpVector, Integer> index;
+
+
+        /**
+         * Multiplication matrices, column j of variable k is (mi[k][j],
+         * mv[k][j]).
+         */
+        final int[][][] mi;
+
+
+        final long[][][] mv;
+
+
+        final ExpVector[] vars;
+
+
+        final Comparator<ExpVector> cmp;
+
+
+        /**
+         * Constructor.
+         * @param ring polynomial ring with graded term order.
+         * @param exps exponents of the reduced monic Groebner base,
+         *            exps[i][0] is the leading exponent.
+         * @param coeffs coefficients modulo p.
+         * @param p prime.
+         */
+        Quotient(GenPolynomialRing<?> ring, ExpVector[][] exps, long[][] coeffs, long p) {
+            this.p = p;
+            nvar = ring.nvar;
+            cmp = ring.tord.getAscendComparator();
+            vars = new ExpVector[nvar];
+            for (int k = 0; k < nvar; k++) {
+                vars[k] = ExpVector.create(nvar, k, 1L);
+            }
+            SortedMap<ExpVector, Integer> leads = new TreeMap<ExpVector, Integer>(cmp);
+            for (int i = 0; i < exps.length; i++) {
+                leads.put(exps[i][0], i);
+            }
+            // standard monomials
+            SortedSet<ExpVector> B = new TreeSet<ExpVector>(cmp);
+            List<ExpVector> todo = new ArrayList<ExpVector>();
+            todo.add(ring.evzero);
+            B.add(ring.evzero);
+            while (!todo.isEmpty()) {
+                ExpVector b = todo.remove(todo.size() - 1);
+                for (int k = 0; k < nvar; k++) {
+                    ExpVector u = b.sum(vars[k]);
+                    if (!B.contains(u) && !reducible(leads.keySet(), u)) {
+                        B.add(u);
+                        todo.add(u);
+                    }
+                }
+            }
+            basis = B.toArray(new ExpVector[B.size()]);
+            index = new TreeMap<ExpVector, Integer>(cmp);
+            for (int j = 0; j < basis.length; j++) {
+                index.put(basis[j], j);
+            }
+            int D = basis.length;
+            // normal forms of the border terms in ascending order
+            SortedSet<ExpVector> border = new TreeSet<ExpVector>(cmp);
+            for (ExpVector b : basis) {
+                for (int k = 0; k < nvar; k++) {
+                    ExpVector u = b.sum(vars[k]);
+                    if (!index.containsKey(u)) {
+                        border.add(u);
+                    }
+                }
+            }
+            SortedMap<ExpVector, int[]> nfi = new TreeMap<ExpVector, int[]>(cmp);
+            SortedMap<ExpVector, long[]> nfv = new TreeMap<ExpVector, long[]>(cmp);
+            long[] acc = new long[D];
+            boolean[] used = new boolean[D];
+            int[] touched = new int[D];
+            for (ExpVector u : border) {
+                Integer gi = leads.get(u);
+                int nt = 0;
+                if (gi != null) {
+                    ExpVector[] e = exps[gi];
+                    for (int t = 1; t < e.length; t++) {
+                        Integer j = index.get(e[t]);
+                        if (j == null) {
+                            throw new IllegalArgumentException("not a reduced Groebner base");
+                        }
+                        long c = coeffs[gi][t] % p;
+                        if (c != 0L) {
+                            acc[j] = p - c;
+                            used[j] = true;
+                            touched[nt++] = j;
+                        }
+                    }
+                } else {
+                    int k = 0;
+                    ExpVector w = null;
+                    for (; k < nvar; k++) {
+                        if (u.getVal(k) > 0L) {
+                            w = u.subtract(vars[k]);
+                            if (!index.containsKey(w)) {
+                                break;
+                            }
+                        }
+                    }
+                    if (k == nvar) {
+                        throw new IllegalArgumentException("not a Groebner base, term " + u);
+                    }
+                    int[] wi = nfi.get(w);
+                    long[] wv = nfv.get(w);
+                    for (int l = 0; l < wi.length; l++) {
+                        ExpVector v = basis[wi[l]].sum(vars[k]);
+                        Integer j = index.get(v);
+                        if (j != null) {
+                            nt = add(acc, used, touched, nt, j, wv[l]);
+                        } else {
+                            int[] vi = nfi.get(v);
+                            long[] vv = nfv.get(v);
+                            for (int s = 0; s < vi.length; s++) {
+                                nt = add(acc, used, touched, nt, vi[s], wv[l] * vv[s] % p);
+                            }
+                        }
+                    }
+                }
+                int n = 0;
+                for (int t = 0; t < nt; t++) {
+                    if (acc[touched[t]] != 0L) {
+                        n++;
+                    }
+                }
+                int[] ri = new int[n];
+                long[] rv = new long[n];
+                n = 0;
+                for (int t = 0; t < nt; t++) {
+                    int j = touched[t];
+                    if (acc[j] != 0L) {
+                        ri[n] = j;
+                        rv[n] = acc[j];
+                        n++;
+                    }
+                    acc[j] = 0L;
+                    used[j] = false;
+                }
+                nfi.put(u, ri);
+                nfv.put(u, rv);
+            }
+            // multiplication matrices
+            mi = new int[nvar][D][];
+            mv = new long[nvar][D][];
+            long nnz = 0L;
+            for (int k = 0; k < nvar; k++) {
+                for (int j = 0; j < D; j++) {
+                    ExpVector u = basis[j].sum(vars[k]);
+                    Integer i = index.get(u);
+                    if (i != null) {
+                        mi[k][j] = new int[] { i };
+                        mv[k][j] = new long[] { 1L };
+                    } else {
+                        mi[k][j] = nfi.get(u);
+                        mv[k][j] = nfv.get(u);
+                    }
+                    nnz += mi[k][j].length;
+                }
+            }
+            if (debug) {
+                logger.info("quotient dimension = " + D + ", border = " + border.size() + ", nnz = " + nnz);
+            }
+        }
+
+
+        /**
+         * Add to a sparse accumulator.
+         * @return new number of touched indexes.
+         */
+        int add(long[] acc, boolean[] used, int[] touched, int nt, int j, long c) {
+            if (!used[j]) {
+                used[j] = true;
+                touched[nt++] = j;
+            }
+            acc[j] = (acc[j] + c) % p;
+            return nt;
+        }
+
+
+        /**
+         * Test if a term is a multiple of a leading term.
+         */
+        static boolean reducible(Iterable<ExpVector> leads, ExpVector u) {
+            for (ExpVector e : leads) {
+                if (u.multipleOf(e)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+
+        /**
+         * Dimension of the quotient algebra.
+         * @return number of standard monomials.
+         */
+        int dimension() {
+            return basis.length;
+        }
+
+
+        /**
+         * Multiplication of a dense vector by a variable.
+         * @param k variable index.
+         * @param v coordinate vector.
+         * @return coordinate vector of x_k v.
+         */
+        long[] multiply(int k, long[] v) {
+            long[] r = new long[v.length];
+            int[][] ci = mi[k];
+            long[][] cv = mv[k];
+            for (int j = 0; j < v.length; j++) {
+                long a = v[j];
+                if (a == 0L) {
+                    continue;
+                }
+                int[] ii = ci[j];
+                long[] vv = cv[j];
+                for (int l = 0; l < ii.length; l++) {
+                    r[ii[l]] = (r[ii[l]] + a * vv[l]) % p;
+                }
+            }
+            return r;
+        }
+
+
+        /**
+         * Scalar product modulo p.
+         */
+        long dot(long[] a, long[] b) {
+            long s = 0L;
+            for (int j = 0; j < a.length; j++) {
+                if (b[j] != 0L) {
+                    s = (s + a[j] * b[j]) % p;
+                }
+            }
+            return s;
+        }
+
+
+        /**
+         * Variable indexes in the order used by the lexicographical
+         * enumeration, smallest variable first.
+         * @return variable indexes.
+         */
+        int[] lexVariables() {
+            int[] v = new int[nvar];
+            for (int i = 0; i < nvar; i++) {
+                v[i] = nvar - 1 - i;
+            }
+            return v;
+        }
+
+
+        /**
+         * Next term in inverse lexicographical order which is not a multiple
+         * of a leading term, see <code>GroebnerBaseFGLM.lMinterm()</code>.
+         * @param H leading terms.
+         * @param t current term.
+         * @return next term or null.
+         */
+        ExpVector nextTerm(List<ExpVector> H, ExpVector t) {
+            ExpVector u = t;
+            for (int k : lexVariables()) {
+                u = u.sum(vars[k]);
+                if (!reducible(H, u)) {
+                    return u;
+                }
+                u = u.subst(k, 0L);
+            }
+            return null;
+        }
+
+
+        /**
+         * Lexicographical base by linear algebra on the coordinate vectors.
+         * @return inverse lexicographical base.
+         */
+        LexBase lexBase() {
+            int D = basis.length;
+            List<ExpVector> H = new ArrayList<ExpVector>();
+            List<ExpVector> stair = new ArrayList<ExpVector>();
+            SortedMap<ExpVector, long[]> vec = new TreeMap<ExpVector, long[]>(cmp);
+            List<long[]> rows = new ArrayList<long[]>();
+            List<long[]> comb = new ArrayList<long[]>();
+            List<Integer> pivots = new ArrayList<Integer>();
+            List<long[]> coeffs = new ArrayList<long[]>();
+            ExpVector t = basis[0];
+            while (t != null) {
+                long[] v = null;
+                if (t.isZERO()) {
+                    v = new long[D];
+                    v[0] = 1L;
+                } else {
+                    for (int k : lexVariables()) {
+                        if (t.getVal(k) > 0L) {
+                            long[] w = vec.get(t.subtract(vars[k]));
+                            if (w != null) {
+                                v = multiply(k, w);
+                                break;
+                            }
+                        }
+                    }
+                    if (v == null) {
+                        throw new RuntimeException("no predecessor for " + t);
+                    }
+                }
+                long[] w = v.clone();
+                long[] c = new long[D];
+                for (int r = 0; r < rows.size(); r++) {
+                    long a = w[pivots.get(r)];
+                    if (a == 0L) {
+                        continue;
+                    }
+                    a = p - a;
+                    long[] row = rows.get(r);
+                    for (int j = 0; j < D; j++) {
+                        if (row[j] != 0L) {
+                            w[j] = (w[j] + a * row[j]) % p;
+                        }
+                    }
+                    long[] cr = comb.get(r);
+                    for (int j = 0; j < D; j++) {
+                        if (cr[j] != 0L) {
+                            c[j] = (c[j] + a * cr[j]) % p;
+                        }
+                    }
+                }
+                int q = 0;
+                while (q < D && w[q] == 0L) {
+                    q++;
+                }
+                if (q == D) { // t = - sum c_k stair_k
+                    H.add(t);
+                    coeffs.add(c);
+                } else {
+                    long a = ArithUtil.modInverse(w[q], p);
+                    c[stair.size()] = 1L;
+                    for (int j = 0; j < D; j++) {
+                        w[j] = w[j] * a % p;
+                        c[j] = c[j] * a % p;
+                    }
+                    rows.add(w);
+                    comb.add(c);
+                    pivots.add(q);
+                    stair.add(t);
+                    vec.put(t, v);
+                }
+                t = nextTerm(H, t);
+            }
+            for (int i = 0; i < coeffs.size(); i++) {
+                long[] c = coeffs.get(i);
+                long[] d = new long[stair.size()];
+                System.arraycopy(c, 0, d, 0, d.length);
+                coeffs.set(i, d);
+            }
+            return new LexBase(H, stair, coeffs);
+        }
+
+
+        /**
+         * Lexicographical base for ideals in shape position. The minimal
+         * polynomial f of the smallest variable x is computed by the
+         * Berlekamp-Massey algorithm from the sequence r M_x^i e_1. If deg(f)
+         * is the dimension, each other variable y is equal to g_y(x) = Psi_y
+         * / Psi_1 mod f, with Psi_y computed from the sequence r M_x^i M_y
+         * e_1.
+         * @return inverse lexicographical base or null if not in shape
+         *         position.
+         */
+        LexBase shapeBase() {
+            int D = basis.length;
+            int[] lv = lexVariables();
+            int x = lv[0];
+            Random rnd = new Random(p);
+            long[] r = new long[D];
+            for (int j = 0; j < D; j++) {
+                r[j] = 1L + (rnd.nextLong() >>> 1) % (p - 1L);
+            }
+            long[] s = new long[2 * D];
+            long[] v = new long[D];
+            v[0] = 1L;
+            for (int i = 0; i < s.length; i++) {
+                s[i] = dot(r, v);
+                if (i + 1 < s.length) {
+                    v = multiply(x, v);
+                }
+            }
+            long[] f = berlekampMassey(s, p);
+            if (f.length - 1 != D) {
+                return null;
+            }
+            long[] psi1 = psi(f, s, p);
+            long[] inv = polyInverse(psi1, f, p);
+            if (inv == null) {
+                return null;
+            }
+            List<ExpVector> leads = new ArrayList<ExpVector>(nvar);
+            List<ExpVector> stair = new ArrayList<ExpVector>(D);
+            List<long[]> coeffs = new ArrayList<long[]>(nvar);
+            for (int i = 0; i < D; i++) {
+                stair.add(vars[x].scalarMultiply(i));
+            }
+            leads.add(vars[x].scalarMultiply(D));
+            coeffs.add(java.util.Arrays.copyOf(f, D));
+            long[] t = new long[D];
+            for (int l = 1; l < lv.length; l++) {
+                int y = lv[l];
+                v = new long[D];
+                int[] ii = mi[y][0];
+                long[] vv = mv[y][0];
+                for (int j = 0; j < ii.length; j++) {
+                    v[ii[j]] = vv[j];
+                }
+                for (int i = 0; i < D; i++) {
+                    t[i] = dot(r, v);
+                    if (i + 1 < D) {
+                        v = multiply(x, v);
+                    }
+                }
+                long[] g = polyRemainder(polyMultiply(psi(f, t, p), inv, p), f, p);
+                long[] c = new long[D];
+                for (int i = 0; i < g.length; i++) {
+                    c[i] = g[i] == 0L ? 0L : p - g[i];
+                }
+                leads.add(vars[y]);
+                coeffs.add(c);
+            }
+            return new LexBase(leads, stair, coeffs);
+        }
+    }
+
+
+    /**
+     * Berlekamp-Massey algorithm.
+     * @param s sequence modulo p of length 2 D.
+     * @param p prime.
+     * @return coefficients of the monic minimal polynomial of s, lowest
+     *         degree first.
+     */
+    static long[] berlekampMassey(long[] s, long p) {
+        int n = s.length;
+        long[] C = new long[n + 1];
+        long[] B = new long[n + 1];
+        C[0] = 1L;
+        B[0] = 1L;
+        int L = 0;
+        int m = 1;
+        long b = 1L;
+        for (int i = 0; i < n; i++) {
+            long d = s[i];
+            for (int j = 1; j <= L; j++) {
+                d = (d + C[j] * s[i - j]) % p;
+            }
+            if (d == 0L) {
+                m++;
+                continue;
+            }
+            long coef = d * ArithUtil.modInverse(b, p) % p;
+            if (2 * L <= i) {
+                long[] T = C.clone();
+                for (int j = m; j <= n; j++) {
+                    C[j] = (C[j] + (p - coef) * B[j - m]) % p;
+                }
+                L = i + 1 - L;
+                B = T;
+                b = d;
+                m = 1;
+            } else {
+                for (int j = m; j <= n; j++) {
+                    C[j] = (C[j] + (p - coef) * B[j - m]) % p;
+                }
+                m++;
+            }
+        }
+        // f(x) = x^L C(1/x)
+        long[] f = new long[L + 1];
+        for (int j = 0; j <= L; j++) {
+            f[L - j] = C[j];
+        }
+        return f;
+    }
+
+
+    /**
+     * Polynomial Psi(x) = sum_j (sum_{i &lt; D-j} f_{i+j+1} s_i) x^j of a
+     * linear form with values s_i on the powers of x.
+     * @param f monic polynomial of degree D.
+     * @param s sequence of length at least D.
+     * @param p prime.
+     * @return coefficients of Psi, lowest degree first.
+     */
+    static long[] psi(long[] f, long[] s, long p) {
+        int D = f.length - 1;
+        long[] r = new long[D];
+        for (int j = 0; j < D; j++) {
+            long a = 0L;
+            for (int i = 0; i < D - j; i++) {
+                a = (a + f[i + j + 1] * s[i]) % p;
+            }
+            r[j] = a;
+        }
+        return r;
+    }
+
+
+    /**
+     * Degree of a dense polynomial.
+     */
+    static int degree(long[] a) {
+        int d = a.length - 1;
+        while (d >= 0 && a[d] == 0L) {
+            d--;
+        }
+        return d;
+    }
+
+
+    /**
+     * Product of dense polynomials modulo p.
+     */
+    static long[] polyMultiply(long[] a, long[] b, long p) {
+        int da = degree(a);
+        int db = degree(b);
+        if (da < 0 || db < 0) {
+            return new long[0];
+        }
+        long[] c = new long[da + db + 1];
+        for (int i = 0; i <= da; i++) {
+            if (a[i] == 0L) {
+                continue;
+            }
+            for (int j = 0; j <= db; j++) {
+                c[i + j] = (c[i + j] + a[i] * b[j]) % p;
+            }
+        }
+        return c;
+    }
+
+
+    /**
+     * Remainder of dense polynomials modulo p.
+     * @param a dividend.
+     * @param f monic divisor.
+     * @return a mod f with length deg(f).
+     */
+    static long[] polyRemainder(long[] a, long[] f, long p) {
+        int df = f.length - 1;
+        long[] r = java.util.Arrays.copyOf(a, Math.max(a.length, df));
+        for (int i = r.length - 1; i >= df; i--) {
+            long c = r[i];
+            if (c == 0L) {
+                continue;
+            }
+            c = p - c;
+            for (int j = 0; j <= df; j++) {
+                r[i - df + j] = (r[i - df + j] + c * f[j]) % p;
+            }
+        }
+        return java.util.Arrays.copyOf(r, df);
+    }
+
+
+    /**
+     * Inverse of a dense polynomial modulo f and p.
+     * @param a polynomial.
+     * @param f monic polynomial.
+     * @return b with a b = 1 mod f, or null if gcd(a,f) != 1.
+     */
+    static long[] polyInverse(long[] a, long[] f, long p) {
+        long[] r0 = f.clone();
+        long[] r1 = polyRemainder(a, f, p);
+        long[] t0 = new long[] { 0L };
+        long[] t1 = new long[] { 1L };
+        while (degree(r1) > 0) {
+            int d0 = degree(r0);
+            int d1 = degree(r1);
+            long li = ArithUtil.modInverse(r1[d1], p);
+            long[] q = new long[d0 - d1 + 1];
+            long[] r = java.util.Arrays.copyOf(r0, d0 + 1);
+            for (int i = d0; i >= d1; i--) {
+                long c = r[i] * li % p;
+                q[i - d1] = c;
+                if (c == 0L) {
+                    continue;
+                }
+                c = p - c;
+                for (int j = 0; j <= d1; j++) {
+                    r[i - d1 + j] = (r[i - d1 + j] + c * r1[j]) % p;
+                }
+            }
+            long[] qt = polyMultiply(q, t1, p);
+            long[] t = java.util.Arrays.copyOf(t0, Math.max(t0.length, qt.length));
+            for (int i = 0; i < qt.length; i++) {
+                t[i] = (t[i] - qt[i] + p) % p;
+            }
+            r0 = r1;
+            r1 = r;
+            t0 = t1;
+            t1 = t;
+        }
+        if (degree(r1) < 0) {
+            return null;
+        }
+        long c = ArithUtil.modInverse(r1[0], p);
+        long[] b = new long[t1.length];
+        for (int i = 0; i < b.length; i++) {
+            b[i] = t1[i] * c % p;
+        }
+        return polyRemainder(b, f, p);
+    }
+
+}
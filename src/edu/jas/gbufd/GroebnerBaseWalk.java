@@ -263,7 +263,7 @@ public class GroebnerBaseWalk<C extends GcdRingElem<C>> extends GroebnerBaseAbst
             }
 
             // INVLEX / target term order GB of inOmega
-            List<GenPolynomial<C>> inOG = sgb.GB(modv, inOmega);
+            List<GenPolynomial<C>> inOG = initialGB(modv, inOmega);
             if (debug) {
                 logger.info("GB(inOmega) = " + inOG);
             }
@@ -348,6 +348,37 @@ public class GroebnerBaseWalk<C extends GcdRingElem<C>> extends GroebnerBaseAbst
     }
 
 
+    /**
+     * Groebner base of the initial forms with respect to the target term
+     * order.
+     * @param modv module variable number.
+     * @param inOmega list of initial form polynomials for the facet normal.
+     * @return GB(inOmega) with respect to the target term order.
+     */
+    protected List<GenPolynomial<C>> initialGB(int modv, List<GenPolynomial<C>> inOmega) {
+        return sgb.GB(modv, inOmega);
+    }
+
+
+    /**
+     * Normalforms with respect to marked polynomials.
+     * @param sred reduction engine.
+     * @param Mp leading monomial list of polynomials as marks.
+     * @param Gp polynomial list with removed marks.
+     * @param A polynomial list to reduce.
+     * @return list of normalformMarked(Mp,Gp,a) for a in A.
+     */
+    protected List<GenPolynomial<C>> reductas(ReductionAbstract<C> sred, List<Monomial<C>> Mp,
+                    List<GenPolynomial<C>> Gp, List<GenPolynomial<C>> A) {
+        List<GenPolynomial<C>> red = new ArrayList<GenPolynomial<C>>(A.size());
+        for (GenPolynomial<C> a : A) {
+            GenPolynomial<C> r = sred.normalformMarked(Mp, Gp, a);
+            red.add(r);
+        }
+        return red;
+    }
+
+
     /**
      * Cleanup and terminate ThreadPool.
      */
@@ -414,14 +445,8 @@ public class GroebnerBaseWalk<C extends GcdRingElem<C>> extends GroebnerBaseAbst
         List<GenPolynomial<C>> Ap = A; //oring.copy(A);
         //logger.info("to lift Ap = " + Ap);
         ReductionAbstract<C> sred = (ReductionAbstract<C>) sgb.red; //new ReductionSeq<C>();
-        List<GenPolynomial<C>> red = new ArrayList<GenPolynomial<C>>();
+        List<GenPolynomial<C>> red = reductas(sred, Mp, Gp, Ap);
         GenPolynomialRing<C> tring = A.get(0).ring;
-        len = Ap.size();
-        for (i = 0; i < len; i++) {
-            GenPolynomial<C> a = Ap.get(i);
-            GenPolynomial<C> r = sred.normalformMarked(Mp, Gp, a);
-            red.add(r);
-        }
         logger.info("liftReductas: red(A) = " + red.size());
         // combine f - f^Gp in tring
         if (debug) {
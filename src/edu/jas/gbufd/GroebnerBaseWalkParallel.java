@@ -0,0 +1,219 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gbufd;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.gb.GroebnerBaseAbstract;
+import edu.jas.gb.GroebnerBaseParallel;
+import edu.jas.gb.GroebnerBaseSeq;
+import edu.jas.gb.ReductionAbstract;
+import edu.jas.gb.ReductionSeq;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.kern.ParallelMap;
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.Monomial;
+import edu.jas.poly.PolyUtil;
+import edu.jas.poly.TermOrder;
+import edu.jas.poly.TermOrderByName;
+import edu.jas.structure.GcdRingElem;
+
+
+/**
+ * Groebner Base parallel Groebner Walk algorithm. The start Groebner base and
+ * large initial form ideals are computed with a parallel Groebner base
+ * algorithm, small initial form ideals with the sequential algorithm. Initial
+ * forms which are already a minimal Groebner base with respect to the target
+ * term order, by the product criterion or since they are monomials, are used
+ * without a Groebner base computation. The reductas of the initial form
+ * Groebner bases are lifted in parallel.
+ * @param <C> coefficient type
+ * @author agent
+ * @see edu.jas.gbufd.GroebnerBaseWalk
+ */
+public class GroebnerBaseWalkParallel<C extends GcdRingElem<C>> extends GroebnerBaseWalk<C> {
+
+
+    private static final long serialVersionUID = 1L;
+
+
+    private static final Logger logger = Logger.getLogger(GroebnerBaseWalkParallel.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Number of threads to use.
+     */
+    protected final int threads;
+
+
+    /**
+     * Sequential GB algorithm for small initial form ideals.
+     */
+    protected final GroebnerBaseAbstract<C> seqgb;
+
+
+    /**
+     * Minimal number of non monomial initial forms to use the parallel GB
+     * algorithm.
+     */
+    public int parallelThreshold = 8;
+
+
+    /**
+     * Number of initial form ideals used without Groebner base computation.
+     */
+    protected int reused = 0;
+
+
+    /**
+     * Constructor.
+     */
+    public GroebnerBaseWalkParallel() {
+        this(ComputerThreads.N_CPUS);
+    }
+
+
+    /**
+     * Constructor.
+     * @param threads number of threads to use.
+     */
+    public GroebnerBaseWalkParallel(int threads) {
+        this(threads, TermOrderByName.IGRLEX);
+    }
+
+
+    /**
+     * Constructor.
+     * @param threads number of threads to use.
+     * @param t1 start term order.
+     */
+    public GroebnerBaseWalkParallel(int threads, TermOrder t1) {
+        this(threads, t1, new ReductionSeq<C>());
+    }
+
+
+    /**
+     * Constructor.
+     * @param threads number of threads to use.
+     * @param t1 start term order.
+     * @param red reduction engine with normalformMarked().
+     */
+    protected GroebnerBaseWalkParallel(int threads, TermOrder t1, ReductionAbstract<C> red) {
+        super(new GroebnerBaseParallel<C>(threads < 1 ? 1 : threads, red), t1);
+        if (threads < 1) {
+            threads = 1;
+        }
+        this.threads = threads;
+        seqgb = new GroebnerBaseSeq<C>(red);
+    }
+
+
+    /**
+     * Get the String representation with GB engine.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "GroebnerBaseWalkParallel( " + sgb.toString() + ", " + startTO.toScript() + ", " + threads
+                        + " )";
+    }
+
+
+    /**
+     * Groebner base of the initial forms with respect to the target term
+     * order.
+     * @param modv module variable number.
+     * @param inOmega list of initial form polynomials for the facet normal.
+     * @return GB(inOmega) with respect to the target term order.
+     */
+    @Override
+    protected List<GenPolynomial<C>> initialGB(int modv, List<GenPolynomial<C>> inOmega) {
+        if (isMinimalInitialGB(inOmega)) {
+            reused++;
+            if (debug) {
+                logger.debug("initial forms are a minimal GB: " + inOmega);
+            }
+            return PolyUtil.<C> monic(new ArrayList<GenPolynomial<C>>(inOmega));
+        }
+        int nm = 0;
+        for (GenPolynomial<C> p : inOmega) {
+            if (p.length() > 1) {
+                nm++;
+            }
+        }
+        logger.info("initial forms: " + inOmega.size() + ", not monomials: " + nm + ", reused: " + reused);
+        if (nm < parallelThreshold) {
+            return seqgb.GB(modv, inOmega);
+        }
+        return sgb.GB(modv, inOmega);
+    }
+
+
+    /**
+     * Test for a minimal Groebner base by the product criterion. Sufficient
+     * condition: no head term divides another head term and every pair of
+     * polynomials has coprime head terms or consists of monomials.
+     * @param F polynomial list.
+     * @return true, if F is a minimal Groebner base by this criterion, else
+     *         false.
+     */
+    protected boolean isMinimalInitialGB(List<GenPolynomial<C>> F) {
+        int len = F.size();
+        List<ExpVector> ht = new ArrayList<ExpVector>(len);
+        for (GenPolynomial<C> p : F) {
+            if (p.isZERO() || p.isConstant()) {
+                return false;
+            }
+            ht.add(p.leadingExpVector());
+        }
+        for (int i = 0; i < len; i++) {
+            ExpVector e = ht.get(i);
+            boolean mi = (F.get(i).length() == 1);
+            for (int j = i + 1; j < len; j++) {
+                ExpVector f = ht.get(j);
+                if (e.multipleOf(f) || f.multipleOf(e)) {
+                    return false;
+                }
+                if (mi && F.get(j).length() == 1) {
+                    continue;
+                }
+                if (!e.gcd(f).isZERO()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Normalforms with respect to marked polynomials in parallel.
+     * @param sred reduction engine.
+     * @param Mp leading monomial list of polynomials as marks.
+     * @param Gp polynomial list with removed marks.
+     * @param A polynomial list to reduce.
+     * @return list of normalformMarked(Mp,Gp,a) for a in A.
+     */
+    @Override
+    protected List<GenPolynomial<C>> reductas(final ReductionAbstract<C> sred, final List<Monomial<C>> Mp,
+                    final List<GenPolynomial<C>> Gp, final List<GenPolynomial<C>> A) {
+        return ParallelMap.map(A.size(), threads, new ParallelMap.Task<GenPolynomial<C>>() {
+
+
+            public GenPolynomial<C> compute(int i) {
+                return sred.normalformMarked(Mp, Gp, A.get(i));
+            }
+        });
+    }
+
+}
@@ -0,0 +1,238 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gbufd;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.arith.Product;
+import edu.jas.arith.ProductRing;
+import edu.jas.gb.GroebnerBaseAbstract;
+import edu.jas.gb.GroebnerBaseSeq;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.kern.ParallelMap;
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.PolyUtil;
+import edu.jas.structure.GcdRingElem;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * Regular ring Groebner Base parallel algorithm for direct products. The ideal
+ * is projected to the components of the product ring, the Groebner bases of
+ * the components are computed in parallel and combined with the idempotents
+ * of the product ring. Polynomials of the component bases with equal head
+ * terms are combined into one polynomial, so the result is boolean closed.
+ * Components which are fields use Groebner bases, other components use
+ * pseudo reduction Groebner bases.
+ * @param <C> component coefficient type
+ * @author agent
+ */
+
+public class RGroebnerBaseParallel<C extends GcdRingElem<C>> extends RGroebnerBaseSeq<Product<C>> {
+
+
+    private static final long serialVersionUID = 1L;
+
+
+    private static final Logger logger = Logger.getLogger(RGroebnerBaseParallel.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Number of threads to use for the components.
+     */
+    protected final int threads;
+
+
+    /**
+     * Coefficient product ring factory.
+     */
+    protected final ProductRing<C> cofac;
+
+
+    /**
+     * Constructor.
+     * @param rf coefficient product ring factory.
+     */
+    public RGroebnerBaseParallel(ProductRing<C> rf) {
+        this(rf, ComputerThreads.N_CPUS);
+    }
+
+
+    /**
+     * Constructor.
+     * @param rf coefficient product ring factory.
+     * @param threads number of threads to use.
+     */
+    public RGroebnerBaseParallel(ProductRing<C> rf, int threads) {
+        super(rf.onlyFields() ? new RReductionPar<C>(threads) : new RPseudoReductionSeq<Product<C>>());
+        if (threads < 1) {
+            threads = 1;
+        }
+        this.threads = threads;
+        cofac = rf;
+    }
+
+
+    /**
+     * Get the String representation with GB engines.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() + "(" + threads + ")";
+    }
+
+
+    /**
+     * Groebner base engine for a component.
+     * @param cf component coefficient ring factory.
+     * @return Groebner base engine suitable for cf.
+     */
+    protected GroebnerBaseAbstract<C> componentGB(RingFactory<C> cf) {
+        if (cf.isField()) {
+            return new GroebnerBaseSeq<C>();
+        }
+        return new GroebnerBasePseudoSeq<C>(cf);
+    }
+
+
+    /**
+     * R-Groebner base test. Tests the projections to all components.
+     * @param modv module variable number.
+     * @param F polynomial list.
+     * @return true, if F is a R-Groebner base, else false.
+     */
+    @Override
+    public boolean isGB(final int modv, List<GenPolynomial<Product<C>>> F) {
+        if (F == null || F.isEmpty()) {
+            return true;
+        }
+        final GenPolynomialRing<Product<C>> pfac = F.get(0).ring;
+        final ProductRing<C> rfac = (ProductRing<C>) pfac.coFac;
+        final List<GenPolynomial<Product<C>>> Fp = F;
+        List<Boolean> t = ParallelMap.map(rfac.length(), threads,
+                        new ParallelMap.Task<Boolean>() {
+
+
+                            public Boolean compute(int i) {
+                                RingFactory<C> cf = rfac.getFactory(i);
+                                GenPolynomialRing<C> cfac = new GenPolynomialRing<C>(cf, pfac);
+                                List<GenPolynomial<C>> Fi = PolyUtil.<C> fromProductComponent(cfac, Fp, i);
+                                return componentGB(cf).isGB(modv, Fi);
+                            }
+                        });
+        for (int i = 0; i < t.size(); i++) {
+            if (!t.get(i)) {
+                if (debug) {
+                    logger.debug("not GB in component " + i);
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * R-Groebner base. The Groebner bases of the components are computed in
+     * parallel.
+     * @param modv module variable number.
+     * @param F polynomial list.
+     * @return GB(F) a R-Groebner base of F.
+     */
+    @Override
+    public List<GenPolynomial<Product<C>>> GB(final int modv, List<GenPolynomial<Product<C>>> F) {
+        if (F == null || F.isEmpty()) {
+            return F;
+        }
+        final GenPolynomialRing<Product<C>> pfac = F.get(0).ring;
+        final ProductRing<C> rfac = (ProductRing<C>) pfac.coFac;
+        final List<GenPolynomial<Product<C>>> Fp = F;
+        List<List<GenPolynomial<C>>> Gc = ParallelMap.map(rfac.length(), threads,
+                        new ParallelMap.Task<List<GenPolynomial<C>>>() {
+
+
+                            public List<GenPolynomial<C>> compute(int i) {
+                                RingFactory<C> cf = rfac.getFactory(i);
+                                GenPolynomialRing<C> cfac = new GenPolynomialRing<C>(cf, pfac);
+                                List<GenPolynomial<C>> Fi = PolyUtil.<C> fromProductComponent(cfac, Fp, i);
+                                if (Fi.isEmpty()) {
+                                    return Fi;
+                                }
+                                List<GenPolynomial<C>> Gi = componentGB(cf).GB(modv, Fi);
+                                if (debug) {
+                                    logger.debug("#G(" + i + ") = " + Gi.size());
+                                }
+                                return Gi;
+                            }
+                        });
+        List<GenPolynomial<Product<C>>> G = combine(pfac, Gc);
+        logger.info("#G = " + G.size() + ", components = " + rfac.length());
+        return G;
+    }
+
+
+    /**
+     * Combine component Groebner bases. Polynomials with equal head terms
+     * from different components are combined to one polynomial.
+     * @param pfac polynomial ring factory with Product coefficients.
+     * @param Gc list of the component Groebner bases.
+     * @return the combination of the polynomials of Gc.
+     */
+    protected List<GenPolynomial<Product<C>>> combine(GenPolynomialRing<Product<C>> pfac,
+                    List<List<GenPolynomial<C>>> Gc) {
+        int n = Gc.size();
+        SortedMap<ExpVector, List<List<GenPolynomial<C>>>> heads = new TreeMap<ExpVector, List<List<GenPolynomial<C>>>>(
+                        pfac.tord.getAscendComparator());
+        for (int i = 0; i < n; i++) {
+            for (GenPolynomial<C> g : Gc.get(i)) {
+                if (g.isZERO()) {
+                    continue;
+                }
+                ExpVector e = g.leadingExpVector();
+                List<List<GenPolynomial<C>>> layers = heads.get(e);
+                if (layers == null) {
+                    layers = new ArrayList<List<GenPolynomial<C>>>(1);
+                    heads.put(e, layers);
+                }
+                List<GenPolynomial<C>> layer = null;
+                for (List<GenPolynomial<C>> l : layers) {
+                    if (l.get(i) == null) {
+                        layer = l;
+                        break;
+                    }
+                }
+                if (layer == null) { // only if head terms are not unique
+                    layer = new ArrayList<GenPolynomial<C>>(n);
+                    for (int j = 0; j < n; j++) {
+                        layer.add(null);
+                    }
+                    layers.add(layer);
+                }
+                layer.set(i, g);
+            }
+        }
+        List<GenPolynomial<Product<C>>> G = new ArrayList<GenPolynomial<Product<C>>>(heads.size());
+        for (Map.Entry<ExpVector, List<List<GenPolynomial<C>>>> me : heads.entrySet()) {
+            for (List<GenPolynomial<C>> l : me.getValue()) {
+                G.add(PolyUtil.<C> toProductComponents(pfac, l));
+            }
+        }
+        return G;
+    }
+
+}
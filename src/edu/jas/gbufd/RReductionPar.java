@@ -0,0 +1,126 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gbufd;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.arith.Product;
+import edu.jas.arith.ProductRing;
+import edu.jas.gb.ReductionSeq;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.kern.ParallelMap;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.PolyUtil;
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Polynomial regular ring reduction for direct products of fields. The
+ * polynomials are projected to the components of the product ring, the
+ * normalforms are computed in parallel in the component polynomial rings and
+ * combined again. Products with components which are not fields are reduced
+ * with the sequential r-reduction.
+ * @param <C> component coefficient type
+ * @author agent
+ */
+
+public class RReductionPar<C extends RingElem<C>> extends RReductionSeq<Product<C>> {
+
+
+    private static final long serialVersionUID = 1L;
+
+
+    private static final Logger logger = Logger.getLogger(RReductionPar.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Number of threads to use for the components.
+     */
+    protected final int threads;
+
+
+    /**
+     * Component reduction engine.
+     */
+    protected final ReductionSeq<C> cred;
+
+
+    /**
+     * Constructor.
+     */
+    public RReductionPar() {
+        this(ComputerThreads.N_CPUS);
+    }
+
+
+    /**
+     * Constructor.
+     * @param threads number of threads to use.
+     */
+    public RReductionPar(int threads) {
+        if (threads < 1) {
+            threads = 1;
+        }
+        this.threads = threads;
+        cred = new ReductionSeq<C>();
+    }
+
+
+    /**
+     * Normalform using component wise reduction.
+     * @param Ap polynomial.
+     * @param Pp polynomial list.
+     * @return r-nf(Ap) with respect to Pp.
+     */
+    @Override
+    public GenPolynomial<Product<C>> normalform(List<GenPolynomial<Product<C>>> Pp,
+                    GenPolynomial<Product<C>> Ap) {
+        if (Pp == null || Pp.isEmpty()) {
+            return Ap;
+        }
+        if (Ap == null || Ap.isZERO()) {
+            return Ap;
+        }
+        final GenPolynomialRing<Product<C>> pfac = Ap.ring;
+        final ProductRing<C> rfac = (ProductRing<C>) pfac.coFac;
+        if (!rfac.onlyFields()) {
+            return super.normalform(Pp, Ap);
+        }
+        final List<GenPolynomial<Product<C>>> P;
+        synchronized (Pp) {
+            P = new ArrayList<GenPolynomial<Product<C>>>(Pp);
+        }
+        final GenPolynomial<Product<C>> A = Ap;
+        List<GenPolynomial<C>> R = ParallelMap.map(rfac.length(), threads,
+                        new ParallelMap.Task<GenPolynomial<C>>() {
+
+
+                            public GenPolynomial<C> compute(int i) {
+                                GenPolynomialRing<C> cfac = new GenPolynomialRing<C>(rfac.getFactory(i),
+                                                pfac);
+                                GenPolynomial<C> a = PolyUtil.<C> fromProductComponent(cfac, A, i);
+                                if (a.isZERO()) {
+                                    return a;
+                                }
+                                List<GenPolynomial<C>> p = PolyUtil.<C> fromProductComponent(cfac, P, i);
+                                return cred.normalform(p, a);
+                            }
+                        });
+        GenPolynomial<Product<C>> B = PolyUtil.<C> toProductComponents(pfac, R);
+        if (debug) {
+            logger.debug("nf = " + B);
+        }
+        return B;
+    }
+
+}
@@ -5,7 +5,6 @@
 package edu.jas.gbufd;
 
 
-import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -78,7 +77,23 @@ public abstract class SyzygyAbstract<C extends GcdRingElem<C>> implements Syzygy
      * @return syz(F), a basis for the module of syzygies for F.
      */
     public List<List<GenPolynomial<C>>> zeroRelations(int modv, List<GenPolynomial<C>> F) {
-        List<List<GenPolynomial<C>>> Z = new ArrayList<List<GenPolynomial<C>>>();
+        return zeroRelations(modv, F, new ArrayList<List<GenPolynomial<C>>>());
+    }
+
+
+    /**
+     * Syzygy module from Groebner base. F must be a Groebner base. The
+     * syzygies are appended to Z, which may be stored outside of the heap,
+     * e.g. a MappedModuleList.
+     * @param modv number of module variables.
+     * @param F a Groebner base.
+     * @param Z list for the syzygies, must support add().
+     * @return Z with syz(F) appended, a basis for the module of syzygies for
+     *         F.
+     * @see edu.jas.poly.MappedModuleList
+     */
+    public List<List<GenPolynomial<C>>> zeroRelations(int modv, List<GenPolynomial<C>> F,
+                    List<List<GenPolynomial<C>>> Z) {
         if (F == null) {
             return Z;
         }
@@ -95,7 +110,7 @@ public abstract class SyzygyAbstract<C extends GcdRingElem<C>> implements Syzygy
         }
         GenVector<GenPolynomial<C>> v = mfac.fromList(F);
         //System.out.println("F = " + F + " v = " + v);
-        return zeroRelations(modv, v);
+        return zeroRelations(modv, v, Z);
     }
 
 
@@ -106,7 +121,21 @@ public abstract class SyzygyAbstract<C extends GcdRingElem<C>> implements Syzygy
      * @return syz(v), a basis for the module of syzygies for v.
      */
     public List<List<GenPolynomial<C>>> zeroRelations(int modv, GenVector<GenPolynomial<C>> v) {
-        List<List<GenPolynomial<C>>> Z = new ArrayList<List<GenPolynomial<C>>>();
+        return zeroRelations(modv, v, new ArrayList<List<GenPolynomial<C>>>());
+    }
+
+
+    /**
+     * Syzygy module from Groebner base. v must be a Groebner base. The
+     * syzygies are appended to Z.
+     * @param modv number of module variables.
+     * @param v a Groebner base.
+     * @param Z list for the syzygies, must support add().
+     * @return Z with syz(v) appended, a basis for the module of syzygies for
+     *         v.
+     */
+    public List<List<GenPolynomial<C>>> zeroRelations(int modv, GenVector<GenPolynomial<C>> v,
+                    List<List<GenPolynomial<C>>> Z) {
         GenVectorModul<GenPolynomial<C>> mfac = v.modul;
         List<GenPolynomial<C>> F = v.val;
         GenVector<GenPolynomial<C>> S = mfac.getZERO();
@@ -312,90 +341,3 @@ public abstract class SyzygyAbstract<C extends GcdRingElem<C>> implements Syzygy
 
 }
 
-
-/**
- * Container for module resolution components.
- * @param <C> coefficient type
- */
-class ResPart<C extends RingElem<C>> implements Serializable {
-
-
-    public final ModuleList<C> module;
-
-
-    public final ModuleList<C> GB;
-
-
-    public final ModuleList<C> syzygy;
-
-
-    /**
-     * ResPart.
-     * @param m a module list.
-     * @param g a module list GB.
-     * @param z a syzygy module list.
-     */
-    public ResPart(ModuleList<C> m, ModuleList<C> g, ModuleList<C> z) {
-        module = m;
-        GB = g;
-        syzygy = z;
-    }
-
-
-    /**
-     * toString.
-     */
-    @Override
-    public String toString() {
-        StringBuffer s = new StringBuffer("ResPart(\n");
-        s.append("module = " + module);
-        s.append("\n GB = " + GB);
-        s.append("\n syzygy = " + syzygy);
-        s.append(")");
-        return s.toString();
-    }
-}
-
-
-/**
- * Container for polynomial resolution components.
- */
-class ResPolPart<C extends RingElem<C>> implements Serializable {
-
-
-    public final PolynomialList<C> ideal;
-
-
-    public final PolynomialList<C> GB;
-
-
-    public final ModuleList<C> syzygy;
-
-
-    /**
-     * ResPolPart.
-     * @param m a polynomial list.
-     * @param g a polynomial list GB.
-     * @param z a syzygy module list.
-     */
-    public ResPolPart(PolynomialList<C> m, PolynomialList<C> g, ModuleList<C> z) {
-        ideal = m;
-        GB = g;
-        syzygy = z;
-    }
-
-
-    /**
-     * toString.
-     */
-    @Override
-    public String toString() {
-        StringBuffer s = new StringBuffer("ResPolPart(\n");
-        s.append("ideal = " + ideal);
-        s.append("\n GB = " + GB);
-        s.append("\n syzygy = " + syzygy);
-        s.append(")");
-        return s.toString();
-    }
-
-}
@@ -0,0 +1,749 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gbufd;
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.kern.ComputerThreads;
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.ModuleList;
+import edu.jas.poly.PolynomialList;
+import edu.jas.structure.GcdRingElem;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * SyzygySchreyer class. Implements free resolutions with Schreyer orders. The
+ * generators of each level form a Groebner base with respect to the module
+ * order induced by the leading terms of the previous level. The leading terms
+ * of the next level, the Schreyer frame, are determined by the leading terms
+ * alone, the syzygies are read off from the reductions of the S-pairs, which
+ * are independent and computed in parallel. No module Groebner bases are
+ * computed after the first level. Only for coefficient fields.
+ * @param <C> coefficient type
+ * @author agent
+ */
+
+public class SyzygySchreyer<C extends GcdRingElem<C>> extends SyzygySeq<C> {
+
+
+    private static final long serialVersionUID = 1L;
+
+
+    private static final Logger logger = Logger.getLogger(SyzygySchreyer.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Number of threads to use for the syzygies of a level.
+     */
+    protected final int threads;
+
+
+    /**
+     * Constructor.
+     * @param cf coefficient field.
+     */
+    public SyzygySchreyer(RingFactory<C> cf) {
+        this(cf, ComputerThreads.N_CPUS);
+    }
+
+
+    /**
+     * Constructor.
+     * @param cf coefficient field.
+     * @param threads number of threads to use.
+     */
+    public SyzygySchreyer(RingFactory<C> cf, int threads) {
+        super(cf);
+        if (!cf.isField()) {
+            throw new IllegalArgumentException("coefficients must be a field: " + cf);
+        }
+        if (threads < 1) {
+            threads = 1;
+        }
+        this.threads = threads;
+    }
+
+
+    /**
+     * Level of a Schreyer resolution. The generators are sorted by leading
+     * component and by decreasing leading exponent with respect to the
+     * inverse lexicographical order.
+     */
+    protected static class Level<C extends GcdRingElem<C>> {
+
+
+        /**
+         * Generators, may be null for frame computations.
+         */
+        public final List<List<GenPolynomial<C>>> gens;
+
+
+        /**
+         * Leading component of each generator.
+         */
+        public final int[] comp;
+
+
+        /**
+         * Leading exponent of each generator.
+         */
+        public final ExpVector[] lead;
+
+
+        /**
+         * Weights of the components of the free module.
+         */
+        public final ExpVector[] mono;
+
+
+        /**
+         * Constructor.
+         * @param gens generators or null.
+         * @param comp leading components.
+         * @param lead leading exponents.
+         * @param mono component weights.
+         */
+        public Level(List<List<GenPolynomial<C>>> gens, int[] comp, ExpVector[] lead, ExpVector[] mono) {
+            this.gens = gens;
+            this.comp = comp;
+            this.lead = lead;
+            this.mono = mono;
+        }
+
+
+        /**
+         * Number of generators.
+         * @return rank of the next free module.
+         */
+        public int size() {
+            return comp.length;
+        }
+
+
+        /**
+         * Weights of the next free module.
+         * @return weights of the generators.
+         */
+        public ExpVector[] nextMono() {
+            ExpVector[] m = new ExpVector[comp.length];
+            for (int i = 0; i < m.length; i++) {
+                m[i] = lead[i].sum(mono[comp[i]]);
+            }
+            return m;
+        }
+    }
+
+
+    /**
+     * Schreyer frame pair. The syzygy from the S-pair of generators s and t
+     * has leading term m e_s.
+     */
+    protected static final class FramePair {
+
+
+        public final int s;
+
+
+        public final int t;
+
+
+        public final ExpVector m;
+
+
+        FramePair(int s, int t, ExpVector m) {
+            this.s = s;
+            this.t = t;
+            this.m = m;
+        }
+
+
+        @Override
+        public String toString() {
+            return "(" + s + "," + t + ": " + m + ")";
+        }
+    }
+
+
+    /**
+     * Leading component of a module element with respect to the Schreyer
+     * order. Ties are broken in favour of the smaller index.
+     * @param v a module element.
+     * @param mono component weights.
+     * @param cmp ascending term order comparator.
+     * @return index of leading component or -1 if v == 0.
+     */
+    protected int leadIndex(List<GenPolynomial<C>> v, ExpVector[] mono, Comparator<ExpVector> cmp) {
+        int j = -1;
+        ExpVector b = null;
+        for (int i = 0; i < v.size(); i++) {
+            GenPolynomial<C> p = v.get(i);
+            if (p.isZERO()) {
+                continue;
+            }
+            ExpVector e = p.leadingExpVector().sum(mono[i]);
+            if (j < 0 || cmp.compare(e, b) > 0) {
+                j = i;
+                b = e;
+            }
+        }
+        return j;
+    }
+
+
+    /**
+     * Top reduction with respect to the Schreyer order.
+     * @param S a module element, will be modified.
+     * @param L a level with generators.
+     * @param byComp generator indexes for each component.
+     * @param Q list of quotients, will be modified, or null.
+     * @param cmp ascending term order comparator.
+     * @return top reduced S.
+     */
+    protected List<GenPolynomial<C>> topReduce(List<GenPolynomial<C>> S, Level<C> L,
+                    List<List<Integer>> byComp, List<GenPolynomial<C>> Q, Comparator<ExpVector> cmp) {
+        while (true) {
+            int j = leadIndex(S, L.mono, cmp);
+            if (j < 0) {
+                return S;
+            }
+            GenPolynomial<C> p = S.get(j);
+            ExpVector e = p.leadingExpVector();
+            int u = -1;
+            for (Integer k : byComp.get(j)) {
+                if (e.multipleOf(L.lead[k])) {
+                    u = k;
+                    break;
+                }
+            }
+            if (u < 0) {
+                return S;
+            }
+            List<GenPolynomial<C>> g = L.gens.get(u);
+            ExpVector f = e.subtract(L.lead[u]);
+            C a = p.leadingBaseCoefficient().divide(g.get(j).leadingBaseCoefficient());
+            for (int i = 0; i < S.size(); i++) {
+                GenPolynomial<C> gi = g.get(i);
+                if (!gi.isZERO()) {
+                    S.set(i, S.get(i).subtractMultiple(a, f, gi));
+                }
+            }
+            if (Q != null) {
+                Q.set(u, Q.get(u).subtract(a, f));
+            }
+        }
+    }
+
+
+    /**
+     * Generator indexes for each component.
+     * @param L a level.
+     * @param cols number of components.
+     * @return list of generator indexes for each component.
+     */
+    protected static <C extends GcdRingElem<C>> List<List<Integer>> byComponent(Level<C> L, int cols) {
+        List<List<Integer>> bc = new ArrayList<List<Integer>>(cols);
+        for (int j = 0; j < cols; j++) {
+            bc.add(new ArrayList<Integer>());
+        }
+        for (int i = 0; i < L.size(); i++) {
+            bc.get(L.comp[i]).add(i);
+        }
+        return bc;
+    }
+
+
+    /**
+     * Schreyer frame of the next level. For each generator s the pairs with
+     * the generators t &gt; s of the same leading component are collected and
+     * only those with minimal leading terms lcm(lt(s),lt(t))/lt(s) are kept.
+     * The pairs are sorted by s and by decreasing leading term.
+     * @param L a level.
+     * @return list of frame pairs, the leading terms of the next level.
+     */
+    protected static <C extends GcdRingElem<C>> List<FramePair> frame(Level<C> L) {
+        List<FramePair> F = new ArrayList<FramePair>();
+        int r = L.size();
+        for (int s = 0; s < r; s++) {
+            List<FramePair> P = new ArrayList<FramePair>();
+            for (int t = s + 1; t < r; t++) {
+                if (L.comp[t] != L.comp[s]) {
+                    continue;
+                }
+                ExpVector m = L.lead[s].lcm(L.lead[t]).subtract(L.lead[s]);
+                P.add(new FramePair(s, t, m));
+            }
+            List<FramePair> M = new ArrayList<FramePair>(P.size());
+            for (int i = 0; i < P.size(); i++) {
+                ExpVector m = P.get(i).m;
+                boolean min = true;
+                for (int k = 0; k < P.size(); k++) {
+                    if (k == i) {
+                        continue;
+                    }
+                    ExpVector n = P.get(k).m;
+                    if (m.multipleOf(n) && (k < i || !m.equals(n))) {
+                        min = false;
+                        break;
+                    }
+                }
+                if (min) {
+                    M.add(P.get(i));
+                }
+            }
+            Collections.sort(M, new Comparator<FramePair>() {
+
+
+                public int compare(FramePair a, FramePair b) {
+                    return b.m.invLexCompareTo(a.m);
+                }
+            });
+            F.addAll(M);
+        }
+        return F;
+    }
+
+
+    /**
+     * Frame of the next level.
+     * @param L a level.
+     * @param F the frame pairs of L.
+     * @param gens generators of the next level or null.
+     * @return the next level.
+     */
+    protected static <C extends GcdRingElem<C>> Level<C> nextLevel(Level<C> L, List<FramePair> F,
+                    List<List<GenPolynomial<C>>> gens) {
+        int[] comp = new int[F.size()];
+        ExpVector[] lead = new ExpVector[F.size()];
+        for (int i = 0; i < comp.length; i++) {
+            comp[i] = F.get(i).s;
+            lead[i] = F.get(i).m;
+        }
+        return new Level<C>(gens, comp, lead, L.nextMono());
+    }
+
+
+    /**
+     * Syzygy of a frame pair.
+     * @param ring polynomial ring.
+     * @param L a level with generators.
+     * @param byComp generator indexes for each component.
+     * @param P a frame pair.
+     * @param cmp ascending term order comparator.
+     * @return the syzygy with leading term P.m e_P.s.
+     */
+    protected List<GenPolynomial<C>> syzygy(GenPolynomialRing<C> ring, Level<C> L,
+                    List<List<Integer>> byComp, FramePair P, Comparator<ExpVector> cmp) {
+        List<GenPolynomial<C>> gs = L.gens.get(P.s);
+        List<GenPolynomial<C>> gt = L.gens.get(P.t);
+        int j = L.comp[P.s];
+        ExpVector mt = P.m.sum(L.lead[P.s]).subtract(L.lead[P.t]);
+        C one = ring.coFac.getONE();
+        C a = gs.get(j).leadingBaseCoefficient().divide(gt.get(j).leadingBaseCoefficient());
+        List<GenPolynomial<C>> S = new ArrayList<GenPolynomial<C>>(gs.size());
+        for (int i = 0; i < gs.size(); i++) {
+            S.add(gs.get(i).multiply(one, P.m).subtractMultiple(a, mt, gt.get(i)));
+        }
+        List<GenPolynomial<C>> Q = new ArrayList<GenPolynomial<C>>(L.size());
+        for (int i = 0; i < L.size(); i++) {
+            Q.add(ring.getZERO());
+        }
+        Q.set(P.s, ring.valueOf(one, P.m));
+        Q.set(P.t, ring.valueOf(a.negate(), mt));
+        S = topReduce(S, L, byComp, Q, cmp);
+        if (leadIndex(S, L.mono, cmp) >= 0) {
+            throw new RuntimeException("S-pair " + P + " not reducible to zero, no Groebner base: " + S);
+        }
+        return Q;
+    }
+
+
+    /**
+     * Syzygies of a level. The frame pairs are reduced in parallel.
+     * @param ring polynomial ring.
+     * @param L a level with generators.
+     * @param cols number of components of the generators.
+     * @param F the frame pairs of L.
+     * @return the syzygies in the order of F.
+     */
+    protected List<List<GenPolynomial<C>>> syzygies(final GenPolynomialRing<C> ring, final Level<C> L,
+                    int cols, final List<FramePair> F) {
+        final List<List<Integer>> byComp = byComponent(L, cols);
+        final Comparator<ExpVector> cmp = ring.tord.getAscendComparator();
+        final List<List<GenPolynomial<C>>> Z = new ArrayList<List<GenPolynomial<C>>>(F.size());
+        for (int i = 0; i < F.size(); i++) {
+            Z.add(null);
+        }
+        int tn = ComputerThreads.NO_THREADS ? 1 : Math.min(threads, F.size());
+        if (tn <= 1) {
+            for (int i = 0; i < F.size(); i++) {
+                Z.set(i, syzygy(ring, L, byComp, F.get(i), cmp));
+            }
+            return Z;
+        }
+        ExecutorService pool = ComputerThreads.getPool();
+        List<Callable<Boolean>> cs = new ArrayList<Callable<Boolean>>(tn);
+        for (int t = 0; t < tn; t++) {
+            final int start = t;
+            final int step = tn;
+            cs.add(new Callable<Boolean>() {
+
+
+                public Boolean call() {
+                    for (int i = start; i < F.size(); i += step) {
+                        Z.set(i, syzygy(ring, L, byComp, F.get(i), cmp));
+                    }
+                    return true;
+                }
+            });
+        }
+        try {
+            List<Future<Boolean>> fs = pool.invokeAll(cs);
+            for (Future<Boolean> f : fs) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            logger.info("InterruptedException " + e);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("interrupted " + e);
+        } catch (ExecutionException e) {
+            logger.info("ExecutionException " + e);
+            throw new RuntimeException("syzygies " + e.getCause());
+        }
+        return Z;
+    }
+
+
+    /**
+     * Sorted first level of a Schreyer resolution.
+     * @param ring polynomial ring.
+     * @param G a Groebner base with respect to the Schreyer order of mono.
+     * @param mono component weights.
+     * @return the level of G.
+     */
+    protected Level<C> firstLevel(GenPolynomialRing<C> ring, List<List<GenPolynomial<C>>> G,
+                    ExpVector[] mono) {
+        Comparator<ExpVector> cmp = ring.tord.getAscendComparator();
+        final int[] c = new int[G.size()];
+        final ExpVector[] l = new ExpVector[G.size()];
+        List<Integer> ix = new ArrayList<Integer>(G.size());
+        for (int i = 0; i < G.size(); i++) {
+            c[i] = leadIndex(G.get(i), mono, cmp);
+            l[i] = G.get(i).get(c[i]).leadingExpVector();
+            ix.add(i);
+        }
+        Collections.sort(ix, new Comparator<Integer>() {
+
+
+            public int compare(Integer a, Integer b) {
+                if (c[a] != c[b]) {
+                    return c[a] < c[b] ? -1 : 1;
+                }
+                return l[b].invLexCompareTo(l[a]);
+            }
+        });
+        List<List<GenPolynomial<C>>> gens = new ArrayList<List<GenPolynomial<C>>>(G.size());
+        int[] comp = new int[G.size()];
+        ExpVector[] lead = new ExpVector[G.size()];
+        for (int i = 0; i < ix.size(); i++) {
+            int k = ix.get(i);
+            gens.add(G.get(k));
+            comp[i] = c[k];
+            lead[i] = l[k];
+        }
+        return new Level<C>(gens, comp, lead, mono);
+    }
+
+
+    /**
+     * Minimal module Groebner base with respect to the Schreyer order.
+     * @param ring polynomial ring.
+     * @param F list of module elements with cols components.
+     * @param mono component weights.
+     * @return a minimal Groebner base of F.
+     */
+    protected List<List<GenPolynomial<C>>> schreyerGB(GenPolynomialRing<C> ring,
+                    List<List<GenPolynomial<C>>> F, ExpVector[] mono) {
+        Comparator<ExpVector> cmp = ring.tord.getAscendComparator();
+        int cols = mono.length;
+        List<List<GenPolynomial<C>>> G = new ArrayList<List<GenPolynomial<C>>>();
+        List<int[]> pairs = new ArrayList<int[]>();
+        List<List<GenPolynomial<C>>> todo = new ArrayList<List<GenPolynomial<C>>>(F);
+        while (true) {
+            Level<C> L = firstLevel(ring, G, mono);
+            List<List<Integer>> byComp = byComponent(L, cols);
+            List<GenPolynomial<C>> h = null;
+            if (!todo.isEmpty()) {
+                h = new ArrayList<GenPolynomial<C>>(todo.remove(0));
+            } else if (!pairs.isEmpty()) {
+                int[] p = pairs.remove(0);
+                List<GenPolynomial<C>> gs = G.get(p[0]);
+                List<GenPolynomial<C>> gt = G.get(p[1]);
+                int j = leadIndex(gs, mono, cmp);
+                ExpVector es = gs.get(j).leadingExpVector();
+                ExpVector et = gt.get(j).leadingExpVector();
+                ExpVector lcm = es.lcm(et);
+                C a = gs.get(j).leadingBaseCoefficient().divide(gt.get(j).leadingBaseCoefficient());
+                h = new ArrayList<GenPolynomial<C>>(cols);
+                for (int i = 0; i < cols; i++) {
+                    h.add(gs.get(i).multiply(ring.coFac.getONE(), lcm.subtract(es))
+                                    .subtractMultiple(a, lcm.subtract(et), gt.get(i)));
+                }
+            } else {
+                break;
+            }
+            h = topReduce(h, L, byComp, null, cmp);
+            int j = leadIndex(h, mono, cmp);
+            if (j < 0) {
+                continue;
+            }
+            C lc = h.get(j).leadingBaseCoefficient().inverse();
+            for (int i = 0; i < cols; i++) {
+                h.set(i, h.get(i).multiply(lc));
+            }
+            int n = G.size();
+            for (int k = 0; k < n; k++) {
+                if (leadIndex(G.get(k), mono, cmp) == j) {
+                    pairs.add(new int[] { k, n });
+                }
+            }
+            G.add(h);
+        }
+        // minimal Groebner base
+        Level<C> L = firstLevel(ring, G, mono);
+        List<List<GenPolynomial<C>>> M = new ArrayList<List<GenPolynomial<C>>>(G.size());
+        for (int i = 0; i < L.size(); i++) {
+            boolean min = true;
+            for (int k = 0; k < L.size(); k++) {
+                if (k == i || L.comp[k] != L.comp[i]) {
+                    continue;
+                }
+                if (L.lead[i].multipleOf(L.lead[k]) && (k < i || !L.lead[i].equals(L.lead[k]))) {
+                    min = false;
+                    break;
+                }
+            }
+            if (min) {
+                M.add(L.gens.get(i));
+            }
+        }
+        return M;
+    }
+
+
+    /**
+     * Schreyer resolution starting with a first level.
+     * @param ring polynomial ring.
+     * @param MM module generated by the first level.
+     * @param L the first level.
+     * @param cols number of components of the first level.
+     * @return a resolution of MM.
+     */
+    protected List<ResPart<C>> resolution(GenPolynomialRing<C> ring, ModuleList<C> MM, Level<C> L, int cols) {
+        List<ResPart<C>> R = new ArrayList<ResPart<C>>();
+        ModuleList<C> GM = new ModuleList<C>(ring, L.gens);
+        while (true) {
+            List<FramePair> F = frame(L);
+            List<List<GenPolynomial<C>>> Z = syzygies(ring, L, cols, F);
+            if (debug) {
+                logger.info("level " + R.size() + ": generators = " + L.size() + ", syzygies = " + Z.size());
+            }
+            ModuleList<C> ZM = new ModuleList<C>(ring, Z);
+            R.add(new ResPart<C>(MM, GM, ZM));
+            if (Z.isEmpty()) {
+                break;
+            }
+            cols = L.size();
+            L = nextLevel(L, F, Z);
+            MM = ZM;
+            GM = ZM;
+        }
+        return R;
+    }
+
+
+    /**
+     * Resolution of a module with Schreyer orders. The GB component of each
+     * part is a Groebner base with respect to the Schreyer order of its
+     * level.
+     * @param M a module list.
+     * @return a resolution of M.
+     */
+    @Override
+    public List<ResPart<C>> resolution(ModuleList<C> M) {
+        if (M == null || M.list == null || M.rows <= 0) {
+            return new ArrayList<ResPart<C>>();
+        }
+        ExpVector[] mono = new ExpVector[M.cols];
+        for (int i = 0; i < mono.length; i++) {
+            mono[i] = M.ring.evzero;
+        }
+        List<List<GenPolynomial<C>>> G = schreyerGB(M.ring, M.list, mono);
+        return resolution(M.ring, M, firstLevel(M.ring, G, mono), M.cols);
+    }
+
+
+    /**
+     * Resolution of a polynomial list with Schreyer orders. The GB component
+     * of the first part is the sorted minimal Groebner base of F, the GB
+     * components of the other parts are Groebner bases with respect to the
+     * Schreyer order of their level.
+     * @param F a polynomial list.
+     * @return a resolution of F.
+     */
+    @Override
+    public List<Object> // <ResPart<C>|ResPolPart<C>>
+    resolution(PolynomialList<C> F) {
+        Level<C> L = firstLevel(F);
+        List<GenPolynomial<C>> G = new ArrayList<GenPolynomial<C>>(L.size());
+        for (List<GenPolynomial<C>> g : L.gens) {
+            G.add(g.get(0));
+        }
+        PolynomialList<C> Gl = new PolynomialList<C>(F.ring, G);
+        List<ResPart<C>> Rm = resolution(F.ring, new ModuleList<C>(F.ring, L.gens), L, 1);
+        List<Object> R = new ArrayList<Object>(Rm.size());
+        R.add(new ResPolPart<C>(F, Gl, Rm.get(0).syzygy));
+        R.addAll(Rm.subList(1, Rm.size()));
+        return R;
+    }
+
+
+    /**
+     * First level of a polynomial list.
+     * @param F a polynomial list.
+     * @return the sorted minimal Groebner base of F as level.
+     */
+    protected Level<C> firstLevel(PolynomialList<C> F) {
+        List<GenPolynomial<C>> G = bb.minimalGB(bb.GB(F.list));
+        List<List<GenPolynomial<C>>> V = new ArrayList<List<GenPolynomial<C>>>(G.size());
+        for (GenPolynomial<C> g : G) {
+            List<GenPolynomial<C>> v = new ArrayList<GenPolynomial<C>>(1);
+            v.add(g);
+            V.add(v);
+        }
+        return firstLevel(F.ring, V, new ExpVector[] { F.ring.evzero });
+    }
+
+
+    /**
+     * Ranks of the free modules of the Schreyer resolution of a polynomial
+     * list. Only the Groebner base of F is computed, the ranks are determined
+     * from the Schreyer frame without computing syzygies. The ranks are upper
+     * bounds for the Betti numbers of the minimal free resolution.
+     * @param F a polynomial list.
+     * @return list of ranks, starting with 1 for the polynomial ring.
+     */
+    public List<Integer> bettiNumbers(PolynomialList<C> F) {
+        List<Integer> B = new ArrayList<Integer>();
+        B.add(1);
+        for (SortedMap<Long, Integer> b : gradedBettiNumbers(firstLevel(F))) {
+            B.add(total(b));
+        }
+        return B;
+    }
+
+
+    /**
+     * Ranks of the free modules of the Schreyer resolution of a module. Only
+     * a Groebner base of M is computed, the ranks are determined from the
+     * Schreyer frame without computing syzygies. The ranks are upper bounds
+     * for the Betti numbers of the minimal free resolution.
+     * @param M a module list.
+     * @return list of ranks, starting with the number of columns of M.
+     */
+    public List<Integer> bettiNumbers(ModuleList<C> M) {
+        List<Integer> B = new ArrayList<Integer>();
+        if (M == null || M.list == null || M.rows <= 0) {
+            return B;
+        }
+        B.add(M.cols);
+        ExpVector[] mono = new ExpVector[M.cols];
+        for (int i = 0; i < mono.length; i++) {
+            mono[i] = M.ring.evzero;
+        }
+        List<List<GenPolynomial<C>>> G = schreyerGB(M.ring, M.list, mono);
+        for (SortedMap<Long, Integer> b : gradedBettiNumbers(firstLevel(M.ring, G, mono))) {
+            B.add(total(b));
+        }
+        return B;
+    }
+
+
+    /**
+     * Graded ranks of the free modules of the Schreyer resolution of a
+     * polynomial list. The degree of a generator is the total degree of its
+     * shifted leading term, for homogeneous F these are the degree shifts of
+     * the resolution.
+     * @param F a polynomial list.
+     * @return list of maps degree to number of generators, starting with the
+     *         Groebner base of F.
+     */
+    public List<SortedMap<Long, Integer>> gradedBettiNumbers(PolynomialList<C> F) {
+        return gradedBettiNumbers(firstLevel(F));
+    }
+
+
+    /**
+     * Graded ranks of the Schreyer frame.
+     * @param L the first level.
+     * @return list of maps degree to number of generators.
+     */
+    protected List<SortedMap<Long, Integer>> gradedBettiNumbers(Level<C> L) {
+        List<SortedMap<Long, Integer>> B = new ArrayList<SortedMap<Long, Integer>>();
+        while (L.size() > 0) {
+            SortedMap<Long, Integer> b = new TreeMap<Long, Integer>();
+            ExpVector[] m = L.nextMono();
+            for (int i = 0; i < m.length; i++) {
+                long d = m[i].totalDeg();
+                Integer c = b.get(d);
+                b.put(d, c == null ? 1 : c + 1);
+            }
+            B.add(b);
+            L = nextLevel(L, frame(L), null);
+        }
+        return B;
+    }
+
+
+    /**
+     * Total number of generators.
+     * @param b map degree to number of generators.
+     * @return sum of the numbers.
+     */
+    static int total(SortedMap<Long, Integer> b) {
+        int s = 0;
+        for (Integer c : b.values()) {
+            s += c;
+        }
+        return s;
+    }
+
+
+    /**
+     * String representation.
+     */
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(threads = " + threads + ", " + bb + ")";
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.kern;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.log4j.Logger;
+
+
+/**
+ * Parallel map over an index range. The indexes are distributed in strides
+ * to at most the given number of tasks in the thread pool from
+ * ComputerThreads, the results are returned in index order.
+ * @author agent
+ * @usage <code>List&lt;T&gt; r = ParallelMap.map(n, threads, f)</code> computes
+ *        <code>f.compute(i)</code> for <code>i = 0, ..., n-1</code>.
+ */
+
+public class ParallelMap {
+
+
+    private static final Logger logger = Logger.getLogger(ParallelMap.class);
+
+
+    /**
+     * Computation for one index.
+     * @param <T> result type
+     */
+    public interface Task<T> {
+
+
+        /**
+         * Compute the result for an index.
+         * @param i index.
+         * @return the result for index i.
+         */
+        T compute(int i);
+    }
+
+
+    /**
+     * No public constructor.
+     */
+    protected ParallelMap() {
+    }
+
+
+    /**
+     * Compute results for an index range in parallel. If threads are not
+     * available or only one thread is requested, the results are computed
+     * sequentially in the calling thread.
+     * @param n number of indexes.
+     * @param threads number of threads to use.
+     * @param f computation for one index.
+     * @return list of the n results f.compute(i), i = 0, ..., n-1.
+     */
+    public static <T> List<T> map(final int n, int threads, final Task<T> f) {
+        final List<T> R = new ArrayList<T>(n);
+        for (int i = 0; i < n; i++) {
+            R.add(null);
+        }
+        int tn = ComputerThreads.NO_THREADS ? 1 : Math.min(threads, n);
+        if (tn <= 1) {
+            for (int i = 0; i < n; i++) {
+                R.set(i, f.compute(i));
+            }
+            return R;
+        }
+        ExecutorService pool = ComputerThreads.getPool();
+        List<Callable<Boolean>> cs = new ArrayList<Callable<Boolean>>(tn);
+        for (int t = 0; t < tn; t++) {
+            final int start = t;
+            final int step = tn;
+            cs.add(new Callable<Boolean>() {
+
+
+                public Boolean call() {
+                    for (int i = start; i < n; i += step) {
+                        R.set(i, f.compute(i));
+                    }
+                    return true;
+                }
+            });
+        }
+        try {
+            List<Future<Boolean>> fs = pool.invokeAll(cs);
+            for (Future<Boolean> g : fs) {
+                g.get();
+            }
+        } catch (InterruptedException e) {
+            logger.info("InterruptedException " + e);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("interrupted " + e);
+        } catch (ExecutionException e) {
+            logger.info("ExecutionException " + e);
+            throw new RuntimeException("parallel map " + e.getCause());
+        }
+        return R;
+    }
+
+}
@@ -0,0 +1,325 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.kern;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.log4j.Logger;
+
+
+/**
+ * Portfolio runner. Races any number of implementations of the same
+ * computation on the ComputerThreads pool and returns the result of the
+ * first one to finish. The runs are started in the order of their past win
+ * rate, each further run is started only after a stagger delay if no result
+ * is available so far. Losing runs are cancelled cooperatively: their
+ * threads are interrupted, which stops polynomial arithmetic with a
+ * PreemptingException, and optional cancel actions are executed, for
+ * example to stop worker threads owned by an implementation. Wins and races
+ * are recorded per key and implementation name to bias future races.
+ * @author agent
+ */
+
+public class PortfolioRunner {
+
+
+    private static final Logger logger = Logger.getLogger(PortfolioRunner.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Default delay in milliseconds between the start of the runs.
+     */
+    public static final long DEFAULT_STAGGER = 5L;
+
+
+    /**
+     * Win statistics, key:name to {wins, races}.
+     */
+    private static final ConcurrentMap<String, AtomicLongArray> statistics = new ConcurrentHashMap<String, AtomicLongArray>();
+
+
+    /**
+     * Key for the statistics, for example "GB" or "GCD".
+     */
+    public final String key;
+
+
+    /**
+     * Delay in milliseconds between the start of the runs.
+     */
+    public final long stagger;
+
+
+    /**
+     * Constructor.
+     * @param key for the win statistics.
+     */
+    public PortfolioRunner(String key) {
+        this(key, DEFAULT_STAGGER);
+    }
+
+
+    /**
+     * Constructor.
+     * @param key for the win statistics.
+     * @param stagger delay in milliseconds between the start of the runs, 0
+     *            for simultaneous start.
+     */
+    public PortfolioRunner(String key, long stagger) {
+        this.key = key;
+        this.stagger = stagger;
+    }
+
+
+    /**
+     * Get the String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "PortfolioRunner(" + key + ", " + stagger + ")";
+    }
+
+
+    /**
+     * Race the tasks.
+     * @param names of the implementations, for the statistics.
+     * @param tasks to be raced.
+     * @return result of the first task to finish successfully.
+     */
+    public <T> T race(List<String> names, List<Callable<T>> tasks) {
+        return race(names, tasks, null);
+    }
+
+
+    /**
+     * Race the tasks. If all tasks fail, a RuntimeException with the cause of
+     * the last failure is thrown. If the calling thread is interrupted, all
+     * tasks are cancelled and a PreemptingException is thrown.
+     * @param names of the implementations, for the statistics.
+     * @param tasks to be raced.
+     * @param cancels actions to cancel the implementations of losing tasks,
+     *            may be null or contain null entries.
+     * @return result of the first task to finish successfully.
+     */
+    public <T> T race(List<String> names, List<Callable<T>> tasks, List<Runnable> cancels) {
+        final int n = tasks.size();
+        if (n == 0 || names.size() != n) {
+            throw new IllegalArgumentException("tasks and names must be non empty and of equal size");
+        }
+        Integer[] order = rank(names);
+        if (n == 1 || ComputerThreads.NO_THREADS) {
+            return sequential(names, tasks, order);
+        }
+        ExecutorService pool = ComputerThreads.getPool(); // may be renewed after terminate
+        ExecutorCompletionService<T> ecs = new ExecutorCompletionService<T>(pool);
+        List<Future<T>> futures = new ArrayList<Future<T>>(n);
+        int[] index = new int[n];
+        int winner = -1;
+        int failed = 0;
+        Throwable last = null;
+        try {
+            while (true) {
+                Future<T> f;
+                if (futures.size() < n) {
+                    int i = order[futures.size()];
+                    index[futures.size()] = i;
+                    futures.add(ecs.submit(tasks.get(i)));
+                    if (debug) {
+                        logger.info("started " + names.get(i));
+                    }
+                    if (futures.size() < n) {
+                        f = ecs.poll(stagger, TimeUnit.MILLISECONDS);
+                    } else {
+                        f = ecs.poll();
+                    }
+                } else {
+                    f = ecs.take();
+                }
+                while (f != null) {
+                    int i = index[futures.indexOf(f)];
+                    try {
+                        T r = f.get();
+                        winner = i;
+                        record(names, futures.size(), order, winner);
+                        if (debug) {
+                            logger.info("winner " + names.get(i));
+                        }
+                        return r;
+                    } catch (ExecutionException e) {
+                        failed++;
+                        last = e.getCause();
+                        logger.info(names.get(i) + " failed: " + last);
+                        if (failed == n) {
+                            throw new RuntimeException("all tasks failed, last: " + last, last);
+                        }
+                    }
+                    f = ecs.poll();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PreemptingException();
+        } finally {
+            for (int j = 0; j < futures.size(); j++) {
+                int i = index[j];
+                if (i == winner) {
+                    continue;
+                }
+                Future<T> f = futures.get(j);
+                if (f.isDone()) {
+                    continue;
+                }
+                f.cancel(true);
+                if (cancels != null && cancels.get(i) != null) {
+                    try {
+                        cancels.get(i).run();
+                    } catch (RuntimeException e) {
+                        logger.info("cancel " + names.get(i) + ": " + e);
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Run the tasks sequentially in the given order until one succeeds.
+     */
+    private <T> T sequential(List<String> names, List<Callable<T>> tasks, Integer[] order) {
+        RuntimeException last = null;
+        for (int k = 0; k < order.length; k++) {
+            int i = order[k];
+            try {
+                T r = tasks.get(i).call();
+                record(names, k + 1, order, i);
+                return r;
+            } catch (PreemptingException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                last = e;
+            } catch (Exception e) {
+                last = new RuntimeException(e);
+            }
+            logger.info(names.get(i) + " failed: " + last);
+        }
+        throw last;
+    }
+
+
+    /**
+     * Order of the tasks by descending win rate, ties keep the given order.
+     * @param names of the implementations.
+     * @return permutation of the task indexes.
+     */
+    protected Integer[] rank(List<String> names) {
+        final int n = names.size();
+        final double[] rate = new double[n];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+            AtomicLongArray s = statistics.get(key + ":" + names.get(i));
+            if (s == null) {
+                rate[i] = 0.5;
+            } else {
+                rate[i] = (s.get(0) + 1.0) / (s.get(1) + 2.0);
+            }
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+
+
+            public int compare(Integer a, Integer b) {
+                return Double.compare(rate[b], rate[a]);
+            }
+        });
+        return order;
+    }
+
+
+    /**
+     * Record the result of a race for the started implementations.
+     */
+    private void record(List<String> names, int started, Integer[] order, int winner) {
+        for (int k = 0; k < started; k++) {
+            int i = order[k];
+            String s = key + ":" + names.get(i);
+            AtomicLongArray st = statistics.get(s);
+            if (st == null) {
+                statistics.putIfAbsent(s, new AtomicLongArray(2));
+                st = statistics.get(s);
+            }
+            if (i == winner) {
+                st.incrementAndGet(0);
+            }
+            st.incrementAndGet(1);
+        }
+    }
+
+
+    /**
+     * Number of wins.
+     * @param key of the statistics.
+     * @param name of the implementation.
+     * @return number of races won by name.
+     */
+    public static long getWins(String key, String name) {
+        AtomicLongArray s = statistics.get(key + ":" + name);
+        return (s == null) ? 0L : s.get(0);
+    }
+
+
+    /**
+     * Number of races.
+     * @param key of the statistics.
+     * @param name of the implementation.
+     * @return number of races in which name was started.
+     */
+    public static long getRaces(String key, String name) {
+        AtomicLongArray s = statistics.get(key + ":" + name);
+        return (s == null) ? 0L : s.get(1);
+    }
+
+
+    /**
+     * Win statistics.
+     * @return sorted map of key:name to wins/races.
+     */
+    public static SortedMap<String, String> getStatistics() {
+        SortedMap<String, String> m = new TreeMap<String, String>();
+        for (Map.Entry<String, AtomicLongArray> me : statistics.entrySet()) {
+            AtomicLongArray s = me.getValue();
+            m.put(me.getKey(), s.get(0) + "/" + s.get(1));
+        }
+        return m;
+    }
+
+
+    /**
+     * Clear the win statistics.
+     */
+    public static void clearStatistics() {
+        statistics.clear();
+    }
+
+}
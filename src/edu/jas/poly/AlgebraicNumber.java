@@ -46,8 +46,23 @@ public class AlgebraicNumber<C extends RingElem<C>> implements GcdRingElem<Algeb
      * @param a value GenPolynomial<C>.
      */
     public AlgebraicNumber(AlgebraicNumberRing<C> r, GenPolynomial<C> a) {
+        this(r, a, false);
+    }
+
+
+    /**
+     * Internal constructor for AlgebraicNumber.
+     * @param r ring AlgebraicNumberRing<C>.
+     * @param a value GenPolynomial<C>.
+     * @param reduced true if a is already reduced modulo r.modul, else false.
+     */
+    /*package*/AlgebraicNumber(AlgebraicNumberRing<C> r, GenPolynomial<C> a, boolean reduced) {
         ring = r; // assert r != 0
-        val = a.remainder(ring.modul); //.monic() no go
+        if (reduced) {
+            val = a;
+        } else {
+            val = a.remainder(ring.modul); //.monic() no go
+        }
         if (val.isZERO()) {
             isunit = 0;
         }
@@ -338,6 +353,13 @@ public class AlgebraicNumber<C extends RingElem<C>> implements GcdRingElem<Algeb
      * @return S with S = 1/this if defined.
      */
     public AlgebraicNumber<C> inverse() {
+        AlgebraicNumberReduction<C> red = ring.getReduction();
+        if (red != null && red.isRational() && val.degree(0) > 1) { // else Euclid is cheap
+            GenPolynomial<C> x = red.modularInverse(val);
+            if (x != null) {
+                return new AlgebraicNumber<C>(ring, x, true);
+            }
+        }
         try {
             return new AlgebraicNumber<C>(ring, val.modInverse(ring.modul));
         } catch (AlgebraicNotInvertibleException e) {
@@ -386,6 +408,10 @@ public class AlgebraicNumber<C extends RingElem<C>> implements GcdRingElem<Algeb
      * @return this*S.
      */
     public AlgebraicNumber<C> multiply(AlgebraicNumber<C> S) {
+        AlgebraicNumberReduction<C> red = ring.getReduction();
+        if (red != null) {
+            return new AlgebraicNumber<C>(ring, red.multiply(val, S.val), true);
+        }
         GenPolynomial<C> x = val.multiply(S.val);
         return new AlgebraicNumber<C>(ring, x);
     }
@@ -0,0 +1,493 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import org.apache.log4j.Logger;
+
+import edu.jas.arith.ArithUtil;
+import edu.jas.arith.BigRational;
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Arithmetic engine for algebraic numbers. Products of reduced elements are
+ * computed in a dense accumulator and are reduced in place with the
+ * precomputed dense representation of x<sup>n</sup> modulo the defining
+ * polynomial of degree n, so no polynomial division with intermediate
+ * polynomials and no coefficient inversions are required. Inverses
+ * of algebraic numbers over the rational numbers are computed with extended
+ * Euclid in Z_p[x] for several primes p, Chinese remaindering and rational
+ * reconstruction. The results are verified, if this fails the callers use
+ * the generic methods.
+ * @param <C> coefficient type
+ * @author agent
+ */
+
+public class AlgebraicNumberReduction<C extends RingElem<C>> {
+
+
+    private static final Logger logger = Logger.getLogger(AlgebraicNumberReduction.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Maximal number of consecutive primes p with no inverse modulo p
+     * before the modular inverse gives up.
+     */
+    protected static final int MAX_FAILS = 3;
+
+
+    /**
+     * Maximal number of primes for the modular inverse.
+     */
+    protected static final int MAX_PRIMES = 1 << 12;
+
+
+    /**
+     * Univariate polynomial ring.
+     */
+    public final GenPolynomialRing<C> ring;
+
+
+    /**
+     * Defining polynomial.
+     */
+    public final GenPolynomial<C> modul;
+
+
+    /**
+     * Degree of the defining polynomial.
+     */
+    protected final int deg;
+
+
+    /**
+     * Dense coefficients of x<sup>deg</sup> modulo modul, i.e. of
+     * -modul/lbc(modul) without the leading term, or null if the reduction
+     * is not applicable.
+     */
+    protected final C[] mcoeff;
+
+
+    /**
+     * Indexes of the non zero coefficients in mcoeff.
+     */
+    protected final int[] mindex;
+
+
+    /**
+     * Integer numerators of mcoeff for rational coefficients, or null if the
+     * coefficients are not rational.
+     */
+    protected final java.math.BigInteger[] mint;
+
+
+    /**
+     * Common denominator of mcoeff for rational coefficients.
+     */
+    protected final java.math.BigInteger mden;
+
+
+    /**
+     * Constructor.
+     * @param m defining polynomial of an algebraic number ring.
+     */
+    public AlgebraicNumberReduction(GenPolynomial<C> m) {
+        ring = m.ring;
+        modul = m;
+        deg = (int) m.degree(0);
+        if (deg < 1 || ring.nvar != 1 || m instanceof GenSolvablePolynomial
+                        || !m.leadingBaseCoefficient().isUnit()) {
+            mcoeff = null;
+            mindex = null;
+            mint = null;
+            mden = null;
+            return;
+        }
+        GenPolynomial<C> p = ring.univariate(0, deg).remainder(m); // = x^deg - m/lbc(m)
+        mcoeff = dense(p);
+        mindex = new int[p.length()];
+        int i = 0;
+        for (int j = 0; j < deg; j++) {
+            if (mcoeff[j] != null) {
+                mindex[i++] = j;
+            }
+        }
+        if (isRational()) {
+            @SuppressWarnings("unchecked")
+            GenPolynomial<BigRational> pr = (GenPolynomial<BigRational>) (GenPolynomial<?>) p;
+            mden = ArithUtil.commonDenominator(pr.getMap().values());
+            mint = integerCoefficients(pr, mden, deg);
+        } else {
+            mden = null;
+            mint = null;
+        }
+    }
+
+
+    /**
+     * Test if the dense reduction is applicable.
+     * @return true, if the leading coefficient of modul is a unit, else
+     *         false.
+     */
+    public boolean isApplicable() {
+        return mcoeff != null;
+    }
+
+
+    /**
+     * Test if the modular inverse is applicable.
+     * @return true, if the coefficients are rational numbers, else false.
+     */
+    @SuppressWarnings("cast")
+    public boolean isRational() {
+        return (Object) ring.coFac instanceof BigRational;
+    }
+
+
+    /**
+     * Dense coefficients.
+     * @param p univariate polynomial of degree less than deg.
+     * @return array of coefficients, null for zero coefficients.
+     */
+    @SuppressWarnings("unchecked")
+    protected C[] dense(GenPolynomial<C> p) {
+        C[] t = (C[]) new RingElem<?>[deg];
+        for (Monomial<C> m : p) {
+            t[(int) m.exponent().getVal(0)] = m.coefficient();
+        }
+        return t;
+    }
+
+
+    /**
+     * Product modulo the defining polynomial.
+     * @param a polynomial reduced modulo modul.
+     * @param b polynomial reduced modulo modul.
+     * @return a*b reduced modulo modul.
+     */
+    @SuppressWarnings("unchecked")
+    public GenPolynomial<C> multiply(GenPolynomial<C> a, GenPolynomial<C> b) {
+        if (a.isZERO() || b.isZERO()) {
+            return ring.getZERO();
+        }
+        if (a.degree(0) >= deg || b.degree(0) >= deg) { // not reduced
+            return a.multiply(b).remainder(modul);
+        }
+        if (mint != null) {
+            return (GenPolynomial<C>) (GenPolynomial<?>) multiplyIntegral(
+                            (GenPolynomial<BigRational>) (GenPolynomial<?>) a,
+                            (GenPolynomial<BigRational>) (GenPolynomial<?>) b);
+        }
+        C[] acc = (C[]) new RingElem<?>[2 * deg - 1];
+        for (Monomial<C> ma : a) {
+            int i = (int) ma.exponent().getVal(0);
+            C ca = ma.coefficient();
+            for (Monomial<C> mb : b) {
+                int k = i + (int) mb.exponent().getVal(0);
+                C c = ca.multiply(mb.coefficient());
+                acc[k] = (acc[k] == null) ? c : acc[k].sum(c);
+            }
+        }
+        // replace x^k by x^(k-deg) * (x^deg mod modul) from the top
+        for (int k = 2 * deg - 2; k >= deg; k--) {
+            C c = acc[k];
+            if (c == null || c.isZERO()) {
+                continue;
+            }
+            int s = k - deg;
+            for (int j : mindex) {
+                C d = c.multiply(mcoeff[j]);
+                acc[s + j] = (acc[s + j] == null) ? d : acc[s + j].sum(d);
+            }
+        }
+        GenPolynomial<C> r = ring.getZERO().copy();
+        for (int j = 0; j < deg; j++) {
+            if (acc[j] != null && !acc[j].isZERO()) {
+                r.doPutToMap(ExpVector.create(1, 0, j), acc[j]);
+            }
+        }
+        return r;
+    }
+
+
+    /**
+     * Product modulo the defining polynomial for rational coefficients. The
+     * product and the reduction are computed with integer numerators over a
+     * common denominator, so that no gcd computations are required for the
+     * intermediate sums. If x<sup>deg</sup> modulo modul has denominator D,
+     * the product is first multiplied by D<sup>deg-1</sup>, then each of the
+     * at most deg-1 divisions by D along a reduction chain is exact.
+     * @param a polynomial reduced modulo modul.
+     * @param b polynomial reduced modulo modul.
+     * @return a*b reduced modulo modul.
+     */
+    @SuppressWarnings("unchecked")
+    protected GenPolynomial<BigRational> multiplyIntegral(GenPolynomial<BigRational> a,
+                    GenPolynomial<BigRational> b) {
+        java.math.BigInteger da = ArithUtil.commonDenominator(a.getMap().values());
+        java.math.BigInteger db = ArithUtil.commonDenominator(b.getMap().values());
+        java.math.BigInteger[] A = integerCoefficients(a, da, deg);
+        java.math.BigInteger[] B = integerCoefficients(b, db, deg);
+        java.math.BigInteger[] acc = new java.math.BigInteger[2 * deg - 1];
+        for (int k = 0; k < acc.length; k++) {
+            acc[k] = java.math.BigInteger.ZERO;
+        }
+        for (int i = 0; i < deg; i++) {
+            if (A[i].signum() == 0) {
+                continue;
+            }
+            for (int j = 0; j < deg; j++) {
+                if (B[j].signum() != 0) {
+                    acc[i + j] = acc[i + j].add(A[i].multiply(B[j]));
+                }
+            }
+        }
+        java.math.BigInteger d = da.multiply(db);
+        boolean integral = mden.equals(java.math.BigInteger.ONE);
+        if (!integral) {
+            java.math.BigInteger dp = mden.pow(deg - 1);
+            for (int k = 0; k < acc.length; k++) {
+                acc[k] = acc[k].multiply(dp);
+            }
+            d = d.multiply(dp);
+        }
+        for (int k = 2 * deg - 2; k >= deg; k--) {
+            java.math.BigInteger c = acc[k];
+            if (c.signum() == 0) {
+                continue;
+            }
+            if (!integral) {
+                c = c.divide(mden); // exact
+            }
+            int s = k - deg;
+            for (int j : mindex) {
+                acc[s + j] = acc[s + j].add(c.multiply(mint[j]));
+            }
+        }
+        GenPolynomialRing<BigRational> rfac = (GenPolynomialRing<BigRational>) (GenPolynomialRing<?>) ring;
+        GenPolynomial<BigRational> r = rfac.getZERO().copy();
+        for (int j = 0; j < deg; j++) {
+            if (acc[j].signum() != 0) {
+                r.doPutToMap(ExpVector.create(1, 0, j), BigRational.RNRED(acc[j], d));
+            }
+        }
+        return r;
+    }
+
+
+    /**
+     * Inverse modulo the defining polynomial for rational coefficients.
+     * @param a polynomial reduced modulo modul.
+     * @return b with a*b = 1 modulo modul, or null if the modular method
+     *         failed, e.g. if a is not invertible.
+     */
+    @SuppressWarnings("unchecked")
+    public GenPolynomial<C> modularInverse(GenPolynomial<C> a) {
+        if (!isRational() || !isApplicable() || a.isZERO()) {
+            return null;
+        }
+        GenPolynomial<BigRational> ar = (GenPolynomial<BigRational>) (GenPolynomial<?>) a;
+        GenPolynomial<BigRational> mr = (GenPolynomial<BigRational>) (GenPolynomial<?>) modul;
+        java.math.BigInteger da = ArithUtil.commonDenominator(ar.getMap().values());
+        java.math.BigInteger[] A = integerCoefficients(ar, da, deg);
+        java.math.BigInteger dm = ArithUtil.commonDenominator(mr.getMap().values());
+        java.math.BigInteger[] M = integerCoefficients(mr, dm, deg + 1);
+        java.math.BigInteger[] B = null; // CRT images
+        java.math.BigInteger P = java.math.BigInteger.ONE;
+        int fails = 0;
+        int count = 0;
+        int next = 1;
+        // word size primes, so products fit in a long
+        for (int pi = 0; count < MAX_PRIMES; pi++) {
+            long p = ArithUtil.prime(pi);
+            java.math.BigInteger pp = java.math.BigInteger.valueOf(p);
+            long[] mp = modular(M, p);
+            if (mp[deg] == 0L) {
+                continue; // bad prime
+            }
+            long[] bp = inverse(modular(A, p), mp, p);
+            if (bp == null) {
+                if (++fails >= MAX_FAILS) {
+                    logger.info("no modular inverse for " + fails + " primes");
+                    return null;
+                }
+                continue;
+            }
+            fails = 0;
+            count++;
+            if (B == null) {
+                B = new java.math.BigInteger[deg];
+                for (int j = 0; j < deg; j++) {
+                    B[j] = java.math.BigInteger.valueOf(bp[j]);
+                }
+                P = pp;
+            } else {
+                ArithUtil.chineseRemainder(B, P, bp, p);
+                P = P.multiply(pp);
+            }
+            if (count < next) {
+                continue;
+            }
+            next = 2 * next;
+            GenPolynomial<BigRational> b = rationalReconstruction(B, P);
+            if (b == null) {
+                continue;
+            }
+            b = b.multiply(new BigRational(da));
+            GenPolynomial<C> bc = (GenPolynomial<C>) (GenPolynomial<?>) b;
+            if (multiply(a, bc).isONE()) {
+                if (debug) {
+                    logger.debug("modular inverse with " + count + " primes");
+                }
+                return bc;
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Dense integer coefficients.
+     * @param p polynomial with rational coefficients.
+     * @param d common denominator of the coefficients.
+     * @param n length of the array.
+     * @return coefficients of d*p.
+     */
+    static java.math.BigInteger[] integerCoefficients(GenPolynomial<BigRational> p,
+                    java.math.BigInteger d, int n) {
+        java.math.BigInteger[] A = new java.math.BigInteger[n];
+        for (int j = 0; j < n; j++) {
+            A[j] = java.math.BigInteger.ZERO;
+        }
+        for (Monomial<BigRational> m : p) {
+            BigRational c = m.coefficient();
+            A[(int) m.exponent().getVal(0)] = c.numerator().multiply(d.divide(c.denominator()));
+        }
+        return A;
+    }
+
+
+    /**
+     * Modular images.
+     * @param A integer coefficients.
+     * @param p prime.
+     * @return coefficients of A modulo p.
+     */
+    static long[] modular(java.math.BigInteger[] A, long p) {
+        java.math.BigInteger pp = java.math.BigInteger.valueOf(p);
+        long[] a = new long[A.length];
+        for (int j = 0; j < A.length; j++) {
+            a[j] = A[j].mod(pp).longValue();
+        }
+        return a;
+    }
+
+
+    /**
+     * Degree of a dense polynomial.
+     * @param a coefficients.
+     * @return degree of a, -1 for zero.
+     */
+    static int degree(long[] a) {
+        int d = a.length - 1;
+        while (d >= 0 && a[d] == 0L) {
+            d--;
+        }
+        return d;
+    }
+
+
+    /**
+     * Inverse modulo a polynomial and a prime with extended Euclid.
+     * @param a dense polynomial modulo p.
+     * @param m dense polynomial modulo p of degree n = m.length-1.
+     * @param p prime less than 2<sup>31</sup>.
+     * @return b of length n with a*b = 1 modulo m and p, or null if gcd(a,m)
+     *         is not 1.
+     */
+    static long[] inverse(long[] a, long[] m, long p) {
+        int n = m.length - 1;
+        long[] r0 = m.clone();
+        long[] r1 = new long[n + 1];
+        System.arraycopy(a, 0, r1, 0, a.length);
+        long[] s0 = new long[n + 1];
+        long[] s1 = new long[n + 1];
+        s1[0] = 1L;
+        int d0 = degree(r0);
+        int d1 = degree(r1);
+        while (d1 > 0) {
+            // r0 = r0 - q r1 and s0 = s0 - q s1, then swap
+            long li = ArithUtil.modInverse(r1[d1], p);
+            while (d0 >= d1) {
+                long q = r0[d0] * li % p;
+                int s = d0 - d1;
+                for (int j = 0; j <= d1; j++) {
+                    r0[j + s] = (r0[j + s] - q * r1[j]) % p;
+                    if (r0[j + s] < 0L) {
+                        r0[j + s] += p;
+                    }
+                }
+                for (int j = 0; j + s <= n; j++) {
+                    if (s1[j] != 0L) {
+                        s0[j + s] = (s0[j + s] - q * s1[j]) % p;
+                        if (s0[j + s] < 0L) {
+                            s0[j + s] += p;
+                        }
+                    }
+                }
+                d0 = degree(r0);
+            }
+            long[] t = r0;
+            r0 = r1;
+            r1 = t;
+            t = s0;
+            s0 = s1;
+            s1 = t;
+            int dt = d0;
+            d0 = d1;
+            d1 = dt;
+        }
+        if (d1 < 0) {
+            return null; // gcd not constant
+        }
+        long ci = ArithUtil.modInverse(r1[0], p);
+        long[] b = new long[n];
+        for (int j = 0; j < n; j++) {
+            b[j] = s1[j] * ci % p;
+        }
+        return b;
+    }
+
+
+    /**
+     * Rational reconstruction of all coefficients.
+     * @param B coefficients modulo P.
+     * @param P modulus.
+     * @return polynomial with rational coefficients congruent to B, or null
+     *         if some coefficient has no reconstruction.
+     */
+    @SuppressWarnings("unchecked")
+    GenPolynomial<BigRational> rationalReconstruction(java.math.BigInteger[] B, java.math.BigInteger P) {
+        GenPolynomialRing<BigRational> rfac = (GenPolynomialRing<BigRational>) (GenPolynomialRing<?>) ring;
+        GenPolynomial<BigRational> b = rfac.getZERO().copy();
+        java.math.BigInteger bound = ArithUtil.reconstructionBound(P);
+        for (int j = 0; j < B.length; j++) {
+            if (B[j].signum() == 0) {
+                continue;
+            }
+            BigRational c = ArithUtil.rationalReconstruction(B[j], P, bound);
+            if (c == null) {
+                return null;
+            }
+            b.doPutToMap(ExpVector.create(1, 0, j), c);
+        }
+        return b;
+    }
+
+}
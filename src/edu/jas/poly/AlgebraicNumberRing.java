@@ -48,6 +48,12 @@ public class AlgebraicNumberRing<C extends RingElem<C>> implements RingFactory<A
     protected int isField = -1; // initially unknown
 
 
+    /**
+     * Arithmetic engine with dense reduction, computed on first use.
+     */
+    protected transient volatile AlgebraicNumberReduction<C> reduction;
+
+
     private static final Logger logger = Logger.getLogger(AlgebraicNumberRing.class);
 
 
@@ -93,6 +99,20 @@ public class AlgebraicNumberRing<C extends RingElem<C>> implements RingFactory<A
     }
 
 
+    /**
+     * Get the arithmetic engine with the dense reduction for modul.
+     * @return the engine, or null if it is not applicable.
+     */
+    public AlgebraicNumberReduction<C> getReduction() {
+        AlgebraicNumberReduction<C> r = reduction;
+        if (r == null) {
+            r = new AlgebraicNumberReduction<C>(modul);
+            reduction = r;
+        }
+        return r.isApplicable() ? r : null;
+    }
+
+
     /**
      * Copy AlgebraicNumber element c.
      * @param c algebraic number to copy.
@@ -5,6 +5,7 @@
 package edu.jas.poly;
 
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
 import java.util.Random;
@@ -23,8 +24,9 @@ import edu.jas.structure.RingFactory;
  * byte. ExpVector provides also the familiar MAS static method names. The
  * implementation is only tested for nonnegative exponents but should work also
  * for negative exponents. Objects of this class are intended to be immutable,
- * but exponents can be set (during construction); also the hash code is only
- * computed once, when needed. The different storage unit implementations are
+ * but exponents can be set (during construction); also the hash code, the
+ * total degree and the weighted degrees are only computed once, when needed.
+ * The different storage unit implementations are
  * <code>ExpVectorLong</code> <code>ExpVectorInteger</code>,
  * <code>ExpVectorShort</code> and <code>ExpVectorByte</code>. The static
  * factory methods <code>create()</code> of <code>ExpVector</code> select the
@@ -49,6 +51,45 @@ public abstract class ExpVector implements AbelianGroupElem<ExpVector> {
     transient protected long blen = -1;
 
 
+    /**
+     * Marker for a not yet computed total degree.
+     */
+    protected static final long UNKNOWN_DEGREE = Long.MIN_VALUE;
+
+
+    /**
+     * Stored total degree. Volatile, since a long may be read in two halves
+     * by a concurrent comparison otherwise.
+     */
+    transient protected volatile long tdeg = UNKNOWN_DEGREE;
+
+
+    /**
+     * Stored weighted degrees for the last used weight array.
+     */
+    transient protected volatile WeightDegrees wdeg;
+
+
+    /**
+     * Weighted degrees of an exponent vector for a weight array. Immutable, so
+     * it can be replaced without synchronization.
+     */
+    protected static final class WeightDegrees {
+
+
+        final long[][] weight;
+
+
+        final long[] deg;
+
+
+        WeightDegrees(long[][] weight, long[] deg) {
+            this.weight = weight;
+            this.deg = deg;
+        }
+    }
+
+
     /**
      * Random number generator.
      */
@@ -564,6 +605,18 @@ public abstract class ExpVector implements AbelianGroupElem<ExpVector> {
     }
 
 
+    /**
+     * Deserialization. The stored bit length and degrees are transient and
+     * not set by field initializers, so they must be reset to unknown.
+     */
+    private void readObject(java.io.ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        blen = -1;
+        tdeg = UNKNOWN_DEGREE;
+        wdeg = null;
+    }
+
+
     /**
      * Is ExpVector zero.
      * @return If this has all elements 0 then true is returned, else false.
@@ -884,6 +937,27 @@ public abstract class ExpVector implements AbelianGroupElem<ExpVector> {
     public abstract long weightDeg(long[] w);
 
 
+    /**
+     * ExpVector weighted degrees for each weight vector. The degrees are
+     * stored for the last used weight array, which is compared by identity,
+     * so repeated comparisons in one term order compute them only once.
+     * @param w weight array.
+     * @return array of weightDeg(w[k]), must not be modified.
+     */
+    long[] weightDegrees(long[][] w) {
+        WeightDegrees d = wdeg;
+        if (d != null && d.weight == w) {
+            return d.deg;
+        }
+        long[] dg = new long[w.length];
+        for (int k = 0; k < w.length; k++) {
+            dg[k] = weightDeg(w[k]);
+        }
+        wdeg = new WeightDegrees(w, dg);
+        return dg;
+    }
+
+
     /**
      * ExpVector least common multiple.
      * @param U
@@ -194,6 +194,8 @@ public final class ExpVectorByte extends ExpVector
         }
         val[i] = (byte) e;
         hash = 0; // beware of race condition
+        tdeg = UNKNOWN_DEGREE;
+        wdeg = null;
         return x;
     }
 
@@ -208,6 +210,8 @@ public final class ExpVectorByte extends ExpVector
         byte x = val[i];
         val[i] = e;
         hash = 0; // beware of race condition
+        tdeg = UNKNOWN_DEGREE;
+        wdeg = null;
         return x;
     }
 
@@ -543,11 +547,16 @@ public final class ExpVectorByte extends ExpVector
      */
     @Override
     public long totalDeg() {
-        long t = 0;
+        long t = tdeg;
+        if (t != UNKNOWN_DEGREE) {
+            return t;
+        }
+        t = 0;
         byte[] u = val; // U.val;
         for (int i = 0; i < u.length; i++) {
             t += u[i];
         }
+        tdeg = t;
         return t;
         //return EVTDEG(this);
     }
@@ -775,38 +784,15 @@ public final class ExpVectorByte extends ExpVector
      */
     @Override
     public int invGradCompareTo(ExpVector V) {
-        byte[] u = val;
-        byte[] v = ((ExpVectorByte) V).val;
-        int t = 0;
-        int i;
-        for (i = 0; i < u.length; i++) {
-            if (u[i] > v[i]) {
-                t = 1;
-                break;
-            }
-            if (u[i] < v[i]) {
-                t = -1;
-                break;
-            }
+        if (val.length != ((ExpVectorByte) V).val.length) {
+            throw new IllegalArgumentException("different lengths " + this + ", " + V);
         }
-        if (t == 0) {
-            return t;
+        long up = totalDeg();
+        long vp = V.totalDeg();
+        if (up != vp) {
+            return (up > vp ? 1 : -1);
         }
-        long up = 0;
-        long vp = 0;
-        for (int j = i; j < u.length; j++) {
-            up += u[j];
-            vp += v[j];
-        }
-        if (up > vp) {
-            t = 1;
-        } else {
-            if (up < vp) {
-                t = -1;
-            }
-        }
-        return t;
-        //return EVIGLC(this, V);
+        return invLexCompareTo(V);
     }
 
 
@@ -917,38 +903,15 @@ public final class ExpVectorByte extends ExpVector
      */
     @Override
     public int revInvGradCompareTo(ExpVector V) {
-        byte[] u = val;
-        byte[] v = ((ExpVectorByte) V).val;
-        int t = 0;
-        int i;
-        for (i = u.length - 1; i >= 0; i--) {
-            if (u[i] > v[i]) {
-                t = 1;
-                break;
-            }
-            if (u[i] < v[i]) {
-                t = -1;
-                break;
-            }
+        if (val.length != ((ExpVectorByte) V).val.length) {
+            throw new IllegalArgumentException("different lengths " + this + ", " + V);
         }
-        if (t == 0) {
-            return t;
+        long up = totalDeg();
+        long vp = V.totalDeg();
+        if (up != vp) {
+            return (up > vp ? 1 : -1);
         }
-        long up = 0;
-        long vp = 0;
-        for (int j = i; j >= 0; j--) {
-            up += u[j];
-            vp += v[j];
-        }
-        if (up > vp) {
-            t = 1;
-        } else {
-            if (up < vp) {
-                t = -1;
-            }
-        }
-        return t;
-        //return EVRIGLC(this, V);
+        return revInvLexCompareTo(V);
     }
 
 
@@ -1009,7 +972,15 @@ public final class ExpVectorByte extends ExpVector
      */
     @Override
     public int invTdegCompareTo(ExpVector V) {
-        throw new UnsupportedOperationException("not implemented for byte ExpVector");
+        if (val.length != ((ExpVectorByte) V).val.length) {
+            throw new IllegalArgumentException("different lengths " + this + ", " + V);
+        }
+        long up = totalDeg();
+        long vp = V.totalDeg();
+        if (up != vp) {
+            return (up > vp ? 1 : -1);
+        }
+        return -invLexCompareTo(V);
     }
 
 
@@ -1020,7 +991,15 @@ public final class ExpVectorByte extends ExpVector
      */
     @Override
     public int revLexInvTdegCompareTo(ExpVector V) {
-        throw new UnsupportedOperationException("not implemented for byte ExpVector");
+        if (val.length != ((ExpVectorByte) V).val.length) {
+            throw new IllegalArgumentException("different lengths " + this + ", " + V);
+        }
+        long up = totalDeg();
+        long vp = V.totalDeg();
+        if (up != vp) {
+            return (up > vp ? 1 : -1);
+        }
+        return -revInvLexCompareTo(V);
     }
 
 
@@ -1032,39 +1011,17 @@ public final class ExpVectorByte extends ExpVector
      */
     @Override
     public int invWeightCompareTo(long[][] w, ExpVector V) {
-        byte[] u = val;
-        byte[] v = ((ExpVectorByte) V).val;
-        int t = 0;
-        int i;
-        for (i = 0; i < u.length; i++) {
-            if (u[i] > v[i]) {
-                t = 1;
-                break;
-            }
-            if (u[i] < v[i]) {
-                t = -1;
-                break;
-            }
-        }
-        if (t == 0) {
-            return t;
-        }
-        for (int k = 0; k < w.length; k++) {
-            long[] wk = w[k];
-            long up = 0;
-            long vp = 0;
-            for (int j = i; j < u.length; j++) {
-                up += wk[j] * u[j];
-                vp += wk[j] * v[j];
-            }
-            if (up > vp) {
-                return 1;
-            } else if (up < vp) {
-                return -1;
+        if (val.length != ((ExpVectorByte) V).val.length) {
+            throw new IllegalArgumentException("different lengths " + this + ", " + V);
+        }
+        long[] ud = weightDegrees(w);
+        long[] vd = V.weightDegrees(w);
+        for (int k = 0; k < ud.length; k++) {
+            if (ud[k] != vd[k]) {
+                return (ud[k] > vd[k] ? 1 : -1);
             }
         }
-        return t;
-        //return EVIWLC(w, this, V);
+        return invLexCompareTo(V);
     }
 
 
@@ -173,6 +173,8 @@ public final class ExpVectorLong extends ExpVector
         long x = val[i];
         val[i] = e;
         hash = 0; // beware of race condition
+        tdeg = UNKNOWN_DEGREE;
+        wdeg = null;
         return x;
     }
 
@@ -506,11 +508,16 @@ public final class ExpVectorLong extends ExpVector
      */
     @Override
     public long totalDeg() {
-        long t = 0;
+        long t = tdeg;
+        if (t != UNKNOWN_DEGREE) {
+            return t;
+        }
+        t = 0;
         long[] u = val; // U.val;
         for (int i = 0; i < u.length; i++) {
             t += u[i];
         }
+        tdeg = t;
         return t;
     }
 
@@ -730,37 +737,15 @@ public final class ExpVectorLong extends ExpVector
      */
     @Override
     public int invGradCompareTo(ExpVector V) {
-        long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
-        int t = 0;
-        int i;
-        for (i = 0; i < u.length; i++) {
-            if (u[i] > v[i]) {
-                t = 1;
-                break;
-            }
-            if (u[i] < v[i]) {
-                t = -1;
-                break;
-            }
+        if (val.length != ((ExpVectorLong) V).val.length) {
+            throw new IllegalArgumentException("different lengths " + this + ", " + V);
         }
-        if (t == 0) {
-            return t;
+        long up = totalDeg();
+        long vp = V.totalDeg();
+        if (up != vp) {
+            return (up > vp ? 1 : -1);
         }
-        long up = 0;
-        long vp = 0;
-        for (int j = i; j < u.length; j++) {
-            up += u[j];
-            vp += v[j];
-        }
-        if (up > vp) {
-            t = 1;
-        } else {
-            if (up < vp) {
-                t = -1;
-            }
-        }
-        return t;
+        return invLexCompareTo(V);
     }
 
 
@@ -868,37 +853,15 @@ public final class ExpVectorLong extends ExpVector
      */
     @Override
     public int revInvGradCompareTo(ExpVector V) {
-        long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
-        int t = 0;
-        int i;
-        for (i = u.length - 1; i >= 0; i--) {
-            if (u[i] > v[i]) {
-                t = 1;
-                break;
-            }
-            if (u[i] < v[i]) {
-                t = -1;
-                break;
-            }
+        if (val.length != ((ExpVectorLong) V).val.length) {
+            throw new IllegalArgumentException("different lengths " + this + ", " + V);
         }
-        if (t == 0) {
-            return t;
-        }
-        long up = 0;
-        long vp = 0;
-        for (int j = i; j >= 0; j--) {
-            up += u[j];
-            vp += v[j];
-        }
-        if (up > vp) {
-            t = 1;
-        } else {
-            if (up < vp) {
-                t = -1;
-            }
+        long up = totalDeg();
+        long vp = V.totalDeg();
+        if (up != vp) {
+            return (up > vp ? 1 : -1);
         }
-        return t;
+        return revInvLexCompareTo(V);
     }
 
 
@@ -958,37 +921,15 @@ public final class ExpVectorLong extends ExpVector
      */
     @Override
     public int invTdegCompareTo(ExpVector V) {
-        long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
-        int t = 0;
-        int i;
-        for (i = 0; i < u.length; i++) {
-            if (u[i] < v[i]) {
-                t = 1;
-                break;
-            }
-            if (u[i] > v[i]) {
-                t = -1;
-                break;
-            }
+        if (val.length != ((ExpVectorLong) V).val.length) {
+            throw new IllegalArgumentException("different lengths " + this + ", " + V);
         }
-        if (t == 0) {
-            return t;
-        }
-        long up = 0;
-        long vp = 0;
-        for (int j = i; j < u.length; j++) {
-            up += u[j];
-            vp += v[j];
-        }
-        if (up > vp) {
-            t = 1;
-        } else {
-            if (up < vp) {
-                t = -1;
-            }
+        long up = totalDeg();
+        long vp = V.totalDeg();
+        if (up != vp) {
+            return (up > vp ? 1 : -1);
         }
-        return t;
+        return -invLexCompareTo(V);
     }
 
 
@@ -999,37 +940,15 @@ public final class ExpVectorLong extends ExpVector
      */
     @Override
     public int revLexInvTdegCompareTo(ExpVector V) {
-        long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
-        int t = 0;
-        int i;
-        for (i = u.length - 1; i >= 0; i--) {
-            if (u[i] < v[i]) {
-                t = 1;
-                break;
-            }
-            if (u[i] > v[i]) {
-                t = -1;
-                break;
-            }
+        if (val.length != ((ExpVectorLong) V).val.length) {
+            throw new IllegalArgumentException("different lengths " + this + ", " + V);
         }
-        if (t == 0) {
-            return t;
-        }
-        long up = 0;
-        long vp = 0;
-        for (int j = i; j >= 0; j--) {
-            up += u[j];
-            vp += v[j];
+        long up = totalDeg();
+        long vp = V.totalDeg();
+        if (up != vp) {
+            return (up > vp ? 1 : -1);
         }
-        if (up > vp) {
-            t = 1; 
-        } else {
-            if (up < vp) {
-                t = -1;
-            }
-        }
-        return t;
+        return -revInvLexCompareTo(V);
     }
 
 
@@ -1041,38 +960,17 @@ public final class ExpVectorLong extends ExpVector
      */
     @Override
     public int invWeightCompareTo(long[][] w, ExpVector V) {
-        long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
-        int t = 0;
-        int i;
-        for (i = 0; i < u.length; i++) {
-            if (u[i] > v[i]) {
-                t = 1;
-                break;
-            }
-            if (u[i] < v[i]) {
-                t = -1;
-                break;
+        if (val.length != ((ExpVectorLong) V).val.length) {
+            throw new IllegalArgumentException("different lengths " + this + ", " + V);
+        }
+        long[] ud = weightDegrees(w);
+        long[] vd = V.weightDegrees(w);
+        for (int k = 0; k < ud.length; k++) {
+            if (ud[k] != vd[k]) {
+                return (ud[k] > vd[k] ? 1 : -1);
             }
         }
-        if (t == 0) {
-            return t;
-        }
-        for (int k = 0; k < w.length; k++) {
-            long[] wk = w[k];
-            long up = 0;
-            long vp = 0;
-            for (int j = i; j < u.length; j++) {
-                up += wk[j] * u[j];
-                vp += wk[j] * v[j];
-            }
-            if (up > vp) {
-                return 1;
-            } else if (up < vp) {
-                return -1;
-            }
-        }
-        return t;
+        return invLexCompareTo(V);
     }
 
 
@@ -94,12 +94,20 @@ public class ExpVectorPair implements Serializable {
     }
 
 
-    /** hash code.
+    /** hash code. Computed from the exponents, so pairs can be used
+     * as keys of hash maps.
      * @see java.lang.Object#hashCode()
      */
     @Override
     public int hashCode() {
-       return (e1.hashCode() << 16) + e2.hashCode();
+       int h = 0;
+       for (int i = 0; i < e1.length(); i++) {
+           h = 31 * h + (int) e1.getVal(i);
+       }
+       for (int i = 0; i < e2.length(); i++) {
+           h = 31 * h + (int) e2.getVal(i);
+       }
+       return h;
     }
 
         
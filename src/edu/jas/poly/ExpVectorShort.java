@@ -194,6 +194,8 @@ public final class ExpVectorShort extends ExpVector
         }
         val[i] = (short) e;
         hash = 0; // beware of race condition
+        tdeg = UNKNOWN_DEGREE;
+        wdeg = null;
         return x;
     }
 
@@ -208,6 +210,8 @@ public final class ExpVectorShort extends ExpVector
         short x = val[i];
         val[i] = e;
         hash = 0; // beware of race condition
+        tdeg = UNKNOWN_DEGREE;
+        wdeg = null;
         return x;
     }
 
@@ -544,11 +548,16 @@ public final class ExpVectorShort extends ExpVector
      */
     @Override
     public long totalDeg() {
-        long t = 0;
+        long t = tdeg;
+        if (t != UNKNOWN_DEGREE) {
+            return t;
+        }
+        t = 0;
         short[] u = val; // U.val;
         for (int i = 0; i < u.length; i++) {
             t += u[i];
         }
+        tdeg = t;
         return t;
         //return EVTDEG(this);
     }
@@ -777,38 +786,15 @@ public final class ExpVectorShort extends ExpVector
      */
     @Override
     public int invGradCompareTo(ExpVector V) {
-        short[] u = val;
-        short[] v = ((ExpVectorShort) V).val;
-        int t = 0;
-        int i;
-        for (i = 0; i < u.length; i++) {
-            if (u[i] > v[i]) {
-                t = 1;
-                break;
-            }
-            if (u[i] < v[i]) {
-                t = -1;
-                break;
-            }
+        if (val.length != ((ExpVectorShort) V).val.length) {
+            throw new IllegalArgumentException("different lengths " + this + ", " + V);
         }
-        if (t == 0) {
-            return t;
+        long up = totalDeg();
+        long vp = V.totalDeg();
+        if (up != vp) {
+            return (up > vp ? 1 : -1);
         }
-        long up = 0;
-        long vp = 0;
-        for (int j = i; j < u.length; j++) {
-            up += u[j];
-            vp += v[j];
-        }
-        if (up > vp) {
-            t = 1;
-        } else {
-            if (up < vp) {
-                t = -1;
-            }
-        }
-        return t;
-        //return EVIGLC(this, V);
+        return invLexCompareTo(V);
     }
 
 
@@ -919,38 +905,15 @@ public final class ExpVectorShort extends ExpVector
      */
     @Override
     public int revInvGradCompareTo(ExpVector V) {
-        short[] u = val;
-        short[] v = ((ExpVectorShort) V).val;
-        int t = 0;
-        int i;
-        for (i = u.length - 1; i >= 0; i--) {
-            if (u[i] > v[i]) {
-                t = 1;
-                break;
-            }
-            if (u[i] < v[i]) {
-                t = -1;
-                break;
-            }
+        if (val.length != ((ExpVectorShort) V).val.length) {
+            throw new IllegalArgumentException("different lengths " + this + ", " + V);
         }
-        if (t == 0) {
-            return t;
+        long up = totalDeg();
+        long vp = V.totalDeg();
+        if (up != vp) {
+            return (up > vp ? 1 : -1);
         }
-        long up = 0;
-        long vp = 0;
-        for (int j = i; j >= 0; j--) {
-            up += u[j];
-            vp += v[j];
-        }
-        if (up > vp) {
-            t = 1;
-        } else {
-            if (up < vp) {
-                t = -1;
-            }
-        }
-        return t;
-        //return EVRIGLC(this, V);
+        return revInvLexCompareTo(V);
     }
 
 
@@ -1011,7 +974,15 @@ public final class ExpVectorShort extends ExpVector
      */
     @Override
     public int invTdegCompareTo(ExpVector V) {
-        throw new UnsupportedOperationException("not implemented for short ExpVector");
+        if (val.length != ((ExpVectorShort) V).val.length) {
+            throw new IllegalArgumentException("different lengths " + this + ", " + V);
+        }
+        long up = totalDeg();
+        long vp = V.totalDeg();
+        if (up != vp) {
+            return (up > vp ? 1 : -1);
+        }
+        return -invLexCompareTo(V);
     }
 
 
@@ -1022,7 +993,15 @@ public final class ExpVectorShort extends ExpVector
      */
     @Override
     public int revLexInvTdegCompareTo(ExpVector V) {
-        throw new UnsupportedOperationException("not implemented for short ExpVector");
+        if (val.length != ((ExpVectorShort) V).val.length) {
+            throw new IllegalArgumentException("different lengths " + this + ", " + V);
+        }
+        long up = totalDeg();
+        long vp = V.totalDeg();
+        if (up != vp) {
+            return (up > vp ? 1 : -1);
+        }
+        return -revInvLexCompareTo(V);
     }
 
 
@@ -1034,39 +1013,17 @@ public final class ExpVectorShort extends ExpVector
      */
     @Override
     public int invWeightCompareTo(long[][] w, ExpVector V) {
-        short[] u = val;
-        short[] v = ((ExpVectorShort) V).val;
-        int t = 0;
-        int i;
-        for (i = 0; i < u.length; i++) {
-            if (u[i] > v[i]) {
-                t = 1;
-                break;
-            }
-            if (u[i] < v[i]) {
-                t = -1;
-                break;
-            }
-        }
-        if (t == 0) {
-            return t;
-        }
-        for (int k = 0; k < w.length; k++) {
-            long[] wk = w[k];
-            long up = 0;
-            long vp = 0;
-            for (int j = i; j < u.length; j++) {
-                up += wk[j] * u[j];
-                vp += wk[j] * v[j];
-            }
-            if (up > vp) {
-                return 1;
-            } else if (up < vp) {
-                return -1;
+        if (val.length != ((ExpVectorShort) V).val.length) {
+            throw new IllegalArgumentException("different lengths " + this + ", " + V);
+        }
+        long[] ud = weightDegrees(w);
+        long[] vd = V.weightDegrees(w);
+        for (int k = 0; k < ud.length; k++) {
+            if (ud[k] != vd[k]) {
+                return (ud[k] > vd[k] ? 1 : -1);
             }
         }
-        return t;
-        //return EVIWLC(w, this, V);
+        return invLexCompareTo(V);
     }
 
 
@@ -0,0 +1,952 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigRational;
+import edu.jas.arith.ModIntegerRing;
+import edu.jas.arith.ModLongRing;
+import edu.jas.structure.RingElem;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * Streaming parser for GenPolynomials. Reads the polynomial syntax of
+ * GenPolynomialTokenizer from a character buffer which is refilled from a
+ * Reader or from a memory mapped file. Terms are assembled directly in
+ * exponent arrays and added to the polynomial under construction, variable
+ * names and integer coefficients are recognized without creating
+ * intermediate strings. Lists of polynomials can be parsed incrementally
+ * with <code>polynomialIterator()</code>. Basic term/monomial syntax:
+ *
+ * <pre>
+ * ... coefficient variable**exponent ... variable^exponent + ... - ....
+ * </pre>
+ *
+ * Juxtaposition means multiplication <code>*</code>, parenthesis group
+ * sub-expressions and coefficients may be enclosed in braces
+ * <code>{}</code>. Comments start with <code>#</code> and extend to the end
+ * of the line. The ring header of <code>.jas</code> files is read with
+ * GenPolynomialTokenizer.
+ * @param <C> coefficient type
+ * @see edu.jas.poly.GenPolynomialTokenizer
+ * @author agent
+ */
+
+public class GenPolynomialStreamParser<C extends RingElem<C>> implements Closeable {
+
+
+    private static final Logger logger = Logger.getLogger(GenPolynomialStreamParser.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Indicator for end of input.
+     */
+    public static final int EOF = -1;
+
+
+    /**
+     * Size of the character buffer.
+     */
+    protected static final int BUFFER = 1 << 16;
+
+
+    /**
+     * Size of the memory mapped file segments.
+     */
+    protected static final long SEGMENT = 1L << 28;
+
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+
+    /**
+     * The factory for the polynomial ring, null if not yet known.
+     */
+    protected GenPolynomialRing<C> ring;
+
+
+    /**
+     * The factory for the coefficients.
+     */
+    protected RingFactory<C> coFac;
+
+
+    /**
+     * Variable names indexed by exponent vector position.
+     */
+    protected char[][] names;
+
+
+    /**
+     * Hash codes of the variable names.
+     */
+    protected int[] hashes;
+
+
+    /**
+     * True, if integer coefficients can be constructed with fromInteger().
+     */
+    protected boolean integral;
+
+
+    /**
+     * True, if fractions p/q can be constructed by division.
+     */
+    protected boolean rational;
+
+
+    /**
+     * Character buffer in read mode.
+     */
+    protected final CharBuffer buf;
+
+
+    protected final Reader reader;
+
+
+    protected final FileChannel channel;
+
+
+    protected final CharsetDecoder decoder;
+
+
+    /**
+     * Current mapped segment of the file.
+     */
+    protected ByteBuffer bytes;
+
+
+    /**
+     * File position of the current mapped segment.
+     */
+    protected long bytesStart;
+
+
+    /**
+     * True, if no more input is available for the buffer.
+     */
+    protected boolean eof;
+
+
+    /**
+     * Last character read, used to track the ring header.
+     */
+    protected int last = EOF;
+
+
+    private char[] scratch = new char[64];
+
+
+    private int slen;
+
+
+    private int shash;
+
+
+    /**
+     * Constructor.
+     * @param r polynomial ring factory.
+     * @param in reader stream.
+     */
+    public GenPolynomialStreamParser(GenPolynomialRing<C> r, Reader in) {
+        this(r, in, null, null);
+    }
+
+
+    /**
+     * Constructor. The ring is determined by nextPolynomialSet().
+     * @param in reader stream.
+     */
+    public GenPolynomialStreamParser(Reader in) {
+        this(null, in, null, null);
+    }
+
+
+    /**
+     * Constructor.
+     * @param r polynomial ring factory.
+     * @param s character sequence.
+     */
+    public GenPolynomialStreamParser(GenPolynomialRing<C> r, CharSequence s) {
+        reader = null;
+        channel = null;
+        decoder = null;
+        buf = CharBuffer.wrap(s);
+        eof = true;
+        if (r != null) {
+            setRing(r);
+        }
+    }
+
+
+    /**
+     * Constructor. The file is memory mapped and decoded as UTF-8.
+     * @param r polynomial ring factory, or null if determined by
+     *            nextPolynomialSet().
+     * @param f file to read.
+     */
+    public GenPolynomialStreamParser(GenPolynomialRing<C> r, File f) throws IOException {
+        this(r, null, new RandomAccessFile(f, "r").getChannel(), UTF8.newDecoder());
+    }
+
+
+    /**
+     * Internal constructor.
+     */
+    protected GenPolynomialStreamParser(GenPolynomialRing<C> r, Reader in, FileChannel ch,
+                    CharsetDecoder dec) {
+        reader = in;
+        channel = ch;
+        decoder = dec;
+        if (decoder != null) {
+            decoder.onMalformedInput(CodingErrorAction.REPORT);
+            decoder.onUnmappableCharacter(CodingErrorAction.REPORT);
+        }
+        buf = CharBuffer.allocate(BUFFER);
+        buf.flip();
+        eof = (reader == null && channel == null);
+        bytes = null;
+        bytesStart = 0L;
+        if (r != null) {
+            setRing(r);
+        }
+    }
+
+
+    /**
+     * Set the polynomial ring for the following polynomials.
+     * @param r polynomial ring factory.
+     */
+    public void setRing(GenPolynomialRing<C> r) {
+        ring = r;
+        coFac = r.coFac;
+        int n = r.nvar;
+        names = new char[n][];
+        hashes = new int[n];
+        if (r.vars != null) {
+            for (int i = 0; i < n; i++) {
+                char[] v = r.vars[i].toCharArray();
+                int j = n - 1 - i; // exponent vector position
+                names[j] = v;
+                int h = 0;
+                for (int k = 0; k < v.length; k++) {
+                    h = 31 * h + v[k];
+                }
+                hashes[j] = h;
+            }
+        }
+        Object cf = coFac;
+        rational = (cf instanceof BigRational);
+        integral = rational || (cf instanceof BigInteger) || (cf instanceof ModLongRing)
+                        || (cf instanceof ModIntegerRing);
+        if (debug) {
+            logger.debug("ring = " + ring.toScript() + ", integral = " + integral);
+        }
+    }
+
+
+    /**
+     * Get the polynomial ring.
+     * @return the polynomial ring or null if not yet known.
+     */
+    public GenPolynomialRing<C> getRing() {
+        return ring;
+    }
+
+
+    /**
+     * Close the underlying reader or file.
+     */
+    public void close() throws IOException {
+        if (reader != null) {
+            reader.close();
+        }
+        if (channel != null) {
+            channel.close();
+        }
+        bytes = null;
+        eof = true;
+    }
+
+
+    /**
+     * Refill the character buffer.
+     * @return true, if characters have been added.
+     */
+    protected boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+        int before = buf.remaining();
+        buf.compact();
+        try {
+            if (reader != null) {
+                int n = reader.read(buf);
+                if (n < 0) {
+                    eof = true;
+                }
+            } else {
+                decode();
+            }
+        } finally {
+            buf.flip();
+        }
+        return buf.remaining() > before;
+    }
+
+
+    /**
+     * Decode the next characters from the memory mapped file into the buffer
+     * in write mode.
+     */
+    private void decode() throws IOException {
+        int start = buf.position();
+        long size = channel.size();
+        while (buf.position() == start) {
+            if (bytes == null || !bytes.hasRemaining() && bytesStart + bytes.limit() < size) {
+                long pos = (bytes == null) ? 0L : bytesStart + bytes.position();
+                if (pos >= size) {
+                    decoder.flush(buf);
+                    eof = true;
+                    return;
+                }
+                long len = Math.min(SEGMENT, size - pos);
+                bytes = channel.map(FileChannel.MapMode.READ_ONLY, pos, len);
+                bytesStart = pos;
+            }
+            boolean lastSegment = (bytesStart + bytes.limit() >= size);
+            CoderResult cr = decoder.decode(bytes, buf, lastSegment);
+            if (cr.isError()) {
+                try {
+                    cr.throwException();
+                } catch (CharacterCodingException e) {
+                    throw new InvalidExpressionException("invalid input at byte " + (bytesStart + bytes.position()), e);
+                }
+            }
+            if (buf.position() > start) {
+                return;
+            }
+            if (lastSegment) {
+                decoder.flush(buf);
+                eof = true;
+                return;
+            }
+            if (bytes.hasRemaining()) { // incomplete character at segment end
+                long pos = bytesStart + bytes.position();
+                bytes = channel.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(SEGMENT, size - pos));
+                bytesStart = pos;
+            }
+        }
+    }
+
+
+    /**
+     * Look ahead in the input.
+     * @param k offset of the character.
+     * @return character at offset k or EOF.
+     */
+    protected int peek(int k) throws IOException {
+        while (buf.remaining() <= k) {
+            if (!fill()) {
+                return EOF;
+            }
+        }
+        return buf.get(buf.position() + k);
+    }
+
+
+    /**
+     * Read the next character.
+     * @return next character or EOF.
+     */
+    protected int read() throws IOException {
+        if (!buf.hasRemaining() && !fill()) {
+            return EOF;
+        }
+        last = buf.get();
+        return last;
+    }
+
+
+    /**
+     * Skip white space and comments.
+     * @return next character without consuming it, or EOF.
+     */
+    protected int skipSpace() throws IOException {
+        while (true) {
+            int c = peek(0);
+            if (c == '#') {
+                do {
+                    c = read();
+                } while (c != EOF && c != '\n' && c != '\r');
+                continue;
+            }
+            if (c == EOF || c > ' ') {
+                return c;
+            }
+            read();
+        }
+    }
+
+
+    /**
+     * Parsing method for GenPolynomial. Reads the next polynomial
+     * expression. A terminating comma or closing parenthesis is not consumed.
+     * @return the next polynomial.
+     * @throws IOException
+     */
+    public GenPolynomial<C> nextPolynomial() throws IOException {
+        if (ring == null) {
+            throw new IllegalStateException("polynomial ring not set");
+        }
+        return nextSum();
+    }
+
+
+    /**
+     * Parsing method for polynomial list. Syntax:
+     *
+     * <pre>
+     * ( p1, p2, p3, ..., pn )
+     * </pre>
+     *
+     * @return the next polynomial list.
+     * @throws IOException
+     */
+    public List<GenPolynomial<C>> nextPolynomialList() throws IOException {
+        List<GenPolynomial<C>> L = new ArrayList<GenPolynomial<C>>();
+        Iterator<GenPolynomial<C>> it = polynomialIterator();
+        while (it.hasNext()) {
+            L.add(it.next());
+        }
+        return L;
+    }
+
+
+    /**
+     * Incremental parsing of a polynomial list. Syntax:
+     *
+     * <pre>
+     * ( p1, p2, p3, ..., pn )
+     * </pre>
+     *
+     * The opening parenthesis is read by this method, the polynomials are
+     * parsed on demand by the iterator. IOExceptions of the iterator are
+     * wrapped in UncheckedIOExceptions.
+     * @return iterator over the polynomials of the next list, empty if no
+     *         list follows.
+     * @throws IOException
+     */
+    public Iterator<GenPolynomial<C>> polynomialIterator() throws IOException {
+        if (ring == null) {
+            throw new IllegalStateException("polynomial ring not set");
+        }
+        int c = skipSpace();
+        if (c != '(') {
+            return new PolynomialIterator(true);
+        }
+        read();
+        return new PolynomialIterator(false);
+    }
+
+
+    /**
+     * Parsing method for polynomial set. Syntax:
+     *
+     * <pre>
+     * coeffRing varList termOrderName polyList
+     * </pre>
+     *
+     * The ring header is read with GenPolynomialTokenizer, the polynomial
+     * list with this parser.
+     * @return the next polynomial set.
+     * @throws IOException
+     */
+    @SuppressWarnings("unchecked")
+    public PolynomialList<C> nextPolynomialSet() throws IOException {
+        GenPolynomialTokenizer tok = new GenPolynomialTokenizer(new BufferReader());
+        last = EOF;
+        GenPolynomialRing<C> r = tok.nextPolynomialRing();
+        setRing(r);
+        logger.info("ring = " + r.toScript());
+        Iterator<GenPolynomial<C>> it;
+        if (last == '(') { // read ahead by the tokenizer
+            it = new PolynomialIterator(false);
+        } else {
+            it = polynomialIterator();
+        }
+        List<GenPolynomial<C>> L = new ArrayList<GenPolynomial<C>>();
+        while (it.hasNext()) {
+            L.add(it.next());
+        }
+        return new PolynomialList<C>(ring, L);
+    }
+
+
+    /**
+     * Parse a sum of terms.
+     * @return the polynomial.
+     */
+    protected GenPolynomial<C> nextSum() throws IOException {
+        GenPolynomial<C> p = ring.getZERO().copy();
+        int c = skipSpace();
+        if (c == EOF || c == ',' || c == ')') {
+            return p;
+        }
+        while (true) {
+            boolean neg = false;
+            while (c == '+' || c == '-') {
+                if (c == '-') {
+                    neg = !neg;
+                }
+                read();
+                c = skipSpace();
+            }
+            p = nextTerm(p, neg);
+            c = skipSpace();
+            if (c != '+' && c != '-') {
+                return p;
+            }
+        }
+    }
+
+
+    /**
+     * Parse a term and add it to a polynomial.
+     * @param p polynomial under construction, will be modified.
+     * @param neg true, if the term is to be subtracted.
+     * @return p + term or p - term.
+     */
+    protected GenPolynomial<C> nextTerm(GenPolynomial<C> p, boolean neg) throws IOException {
+        C a = null;
+        long[] e = null;
+        GenPolynomial<C> f = null;
+        boolean star = false;
+        int count = 0;
+        while (true) {
+            int c = skipSpace();
+            if (count > 0 && c == '*' && peek(1) != '*') {
+                read();
+                star = true;
+                c = skipSpace();
+            }
+            if (digit(c) || c == '.' || c == '/') {
+                C b = nextCoefficient();
+                b = power(b, nextExponent());
+                a = (a == null) ? b : a.multiply(b);
+            } else if (letter(c)) {
+                nextIdentifier();
+                int ix = indexVar();
+                if (ix >= 0) {
+                    long k = nextExponent();
+                    if (e == null) {
+                        e = new long[names.length];
+                    }
+                    e[ix] += k;
+                } else {
+                    C b = parseCoefficient(new String(scratch, 0, slen));
+                    b = power(b, nextExponent());
+                    a = (a == null) ? b : a.multiply(b);
+                }
+            } else if (c == '(') {
+                read();
+                GenPolynomial<C> q = nextSum();
+                if (skipSpace() != ')') {
+                    throw new InvalidExpressionException("mismatch of parenthesis, error at " + found());
+                }
+                read();
+                long k = nextExponent();
+                if (k == 0L) { // power(0) is the shared ONE, which may be added to
+                    q = ring.getONE().copy();
+                } else if (k != 1L) {
+                    q = q.power(k);
+                }
+                f = (f == null) ? q : f.multiply(q);
+            } else if (c == '{') {
+                C b = nextBraced();
+                b = power(b, nextExponent());
+                a = (a == null) ? b : a.multiply(b);
+            } else {
+                if (count == 0 || star) {
+                    throw new InvalidExpressionException("term expected, error at " + found());
+                }
+                break;
+            }
+            star = false;
+            count++;
+        }
+        if (a == null) {
+            a = coFac.getONE();
+            if (e == null && f != null && p.isZERO()) { // parenthesized polynomial
+                return neg ? f.negate() : f;
+            }
+        }
+        if (neg) {
+            a = a.negate();
+        }
+        ExpVector ev = (e == null) ? ring.evzero : ExpVector.create(e);
+        if (f == null) {
+            p.doAddTo(a, ev);
+        } else {
+            p.doAddTo(f.multiply(a, ev));
+        }
+        return p;
+    }
+
+
+    /**
+     * Parsing method for exponent. Syntax:
+     *
+     * <pre>
+     * ^long | **long
+     * </pre>
+     *
+     * @return the next exponent or 1.
+     */
+    protected long nextExponent() throws IOException {
+        int c = skipSpace();
+        if (c == '^') {
+            read();
+        } else if (c == '*' && peek(1) == '*') {
+            read();
+            read();
+        } else {
+            return 1L;
+        }
+        c = skipSpace();
+        if (!digit(c)) {
+            throw new InvalidExpressionException("exponent expected, error at " + found());
+        }
+        long k = 0L;
+        while (digit(c)) {
+            k = 10L * k + (c - '0');
+            if (k < 0L) {
+                throw new InvalidExpressionException("exponent too large");
+            }
+            read();
+            c = peek(0);
+        }
+        return k;
+    }
+
+
+    /**
+     * Parse a coefficient starting with a digit, dot or slash.
+     * @return the coefficient.
+     */
+    protected C nextCoefficient() throws IOException {
+        slen = 0;
+        int c = peek(0);
+        if ((c == '/' || c == '.') && digit(peek(1))) { // let x/2 be x 1/2, x.2 be x 0.2
+            append(c == '/' ? '1' : '0');
+        }
+        int slash = -1;
+        boolean plain = true;
+        while (true) {
+            if (digit(c)) {
+                append((char) c);
+            } else if (c == '/') {
+                if (slash >= 0) {
+                    plain = false;
+                }
+                slash = slen;
+                append('/');
+            } else if (c == '.' || c == '~') {
+                plain = false;
+                append((char) c);
+            } else if (c == 'i' && !integral && (digit(peek(1)) || peek(1) == '-' && digit(peek(2)))) {
+                plain = false; // complex number
+                append('i');
+                read();
+                if (peek(0) == '-') {
+                    append('-');
+                    read();
+                }
+                c = peek(0);
+                continue;
+            } else {
+                break;
+            }
+            read();
+            c = peek(0);
+        }
+        if (integral && plain) {
+            if (slash < 0) {
+                return integerValue(0, slen);
+            }
+            if (rational && slash > 0 && slash < slen - 1) {
+                C n = integerValue(0, slash);
+                C d = integerValue(slash + 1, slen);
+                if (d.isZERO()) {
+                    throw new InvalidExpressionException("division by zero " + new String(scratch, 0, slen));
+                }
+                return n.divide(d);
+            }
+        }
+        return parseCoefficient(new String(scratch, 0, slen));
+    }
+
+
+    /**
+     * Coefficient from decimal digits in the scratch buffer.
+     * @param from start index.
+     * @param to end index, exclusive.
+     * @return integer coefficient.
+     */
+    private C integerValue(int from, int to) {
+        if (to - from <= 18) {
+            long v = 0L;
+            for (int i = from; i < to; i++) {
+                v = 10L * v + (scratch[i] - '0');
+            }
+            return coFac.fromInteger(v);
+        }
+        return coFac.fromInteger(new java.math.BigInteger(new String(scratch, from, to - from)));
+    }
+
+
+    /**
+     * Parse a coefficient enclosed in braces.
+     * @return the coefficient.
+     */
+    protected C nextBraced() throws IOException {
+        read(); // {
+        slen = 0;
+        int level = 0;
+        while (true) {
+            int c = read();
+            if (c == EOF) {
+                throw new InvalidExpressionException("mismatch of braces, error at end of input");
+            }
+            if (c == '{') {
+                level++;
+            } else if (c == '}') {
+                level--;
+                if (level < 0) {
+                    break;
+                }
+            }
+            append((char) c);
+        }
+        return parseCoefficient(new String(scratch, 0, slen).trim());
+    }
+
+
+    /**
+     * Parse a coefficient with the coefficient factory.
+     * @param s coefficient string.
+     * @return the coefficient.
+     */
+    protected C parseCoefficient(String s) {
+        try {
+            return coFac.parse(s);
+        } catch (NumberFormatException e) {
+            throw new InvalidExpressionException("not a number " + s, e);
+        }
+    }
+
+
+    /**
+     * Read an identifier into the scratch buffer.
+     */
+    private void nextIdentifier() throws IOException {
+        slen = 0;
+        int h = 0;
+        int c = peek(0);
+        while (letter(c) || digit(c) || c == '_') {
+            append((char) c);
+            h = 31 * h + c;
+            read();
+            c = peek(0);
+        }
+        shash = h;
+    }
+
+
+    /**
+     * Exponent vector position of the identifier in the scratch buffer.
+     * @return position or -1 if it is not a variable.
+     */
+    private int indexVar() {
+        outer: for (int j = 0; j < names.length; j++) {
+            if (hashes[j] != shash) {
+                continue;
+            }
+            char[] v = names[j];
+            if (v == null || v.length != slen) {
+                continue;
+            }
+            for (int i = 0; i < slen; i++) {
+                if (v[i] != scratch[i]) {
+                    continue outer;
+                }
+            }
+            return j;
+        }
+        return -1;
+    }
+
+
+    private void append(char c) {
+        if (slen == scratch.length) {
+            char[] s = new char[2 * slen];
+            System.arraycopy(scratch, 0, s, 0, slen);
+            scratch = s;
+        }
+        scratch[slen++] = c;
+    }
+
+
+    private C power(C b, long k) {
+        if (k == 1L) {
+            return b;
+        }
+        return b.power(k);
+    }
+
+
+    /**
+     * Description of the next input for error messages.
+     */
+    private String found() throws IOException {
+        StringBuffer s = new StringBuffer();
+        for (int i = 0; i < 20; i++) {
+            int c = peek(i);
+            if (c == EOF) {
+                break;
+            }
+            s.append((char) c);
+        }
+        if (s.length() == 0) {
+            return "end of input";
+        }
+        return "'" + s + "'";
+    }
+
+
+    static boolean digit(int x) {
+        return '0' <= x && x <= '9';
+    }
+
+
+    static boolean letter(int x) {
+        return ('a' <= x && x <= 'z') || ('A' <= x && x <= 'Z') || x >= 128 + 32 && x <= 255;
+    }
+
+
+    /**
+     * Iterator over the polynomials of a list. The opening parenthesis is
+     * already consumed.
+     */
+    protected class PolynomialIterator implements Iterator<GenPolynomial<C>> {
+
+
+        private boolean done;
+
+
+        PolynomialIterator(boolean done) {
+            this.done = done;
+        }
+
+
+        public boolean hasNext() {
+            if (done) {
+                return false;
+            }
+            try {
+                int c = skipSpace();
+                while (c == ',') {
+                    read();
+                    c = skipSpace();
+                }
+                if (c == ')' || c == EOF) {
+                    read();
+                    done = true;
+                    return false;
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+
+        public GenPolynomial<C> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("end of polynomial list");
+            }
+            try {
+                GenPolynomial<C> p = nextSum();
+                int c = skipSpace();
+                if (c != ',' && c != ')' && c != EOF) {
+                    throw new InvalidExpressionException("',' or ')' expected, error at " + found());
+                }
+                return p;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+
+        public void remove() {
+            throw new UnsupportedOperationException("remove not supported");
+        }
+    }
+
+
+    /**
+     * Reader view of the character buffer, used for the ring header. Delivers
+     * single characters, so no input is read ahead.
+     */
+    protected class BufferReader extends Reader {
+
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            int c = GenPolynomialStreamParser.this.read();
+            if (c == EOF) {
+                return -1;
+            }
+            cbuf[off] = (char) c;
+            return 1;
+        }
+
+
+        @Override
+        public void close() {
+            // the parser owns the input
+        }
+    }
+
+}
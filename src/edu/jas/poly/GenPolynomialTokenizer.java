@@ -1251,6 +1251,38 @@ public class GenPolynomialTokenizer {
     }
 
 
+    /**
+     * Parsing method for polynomial ring. Syntax:
+     * 
+     * <pre>
+     * coeffRing varList termOrderName
+     * </pre>
+     * 
+     * <b>Note:</b> the token following the term order is read ahead, so an
+     * opening parenthesis of a polynomial list is consumed from the
+     * underlying reader.
+     * @return the next polynomial ring.
+     * @throws IOException
+     */
+    @SuppressWarnings("unchecked")
+    public <C extends RingElem<C>> GenPolynomialRing<C> nextPolynomialRing() throws IOException {
+        RingFactory<?> coeff = nextCoefficientRing();
+        logger.info("coeff = " + coeff.getClass().getSimpleName());
+
+        vars = nextVariableList();
+        logger.info("vars = " + Arrays.toString(vars));
+        if (vars != null) {
+            nvars = vars.length;
+        }
+
+        tord = nextTermOrder();
+        logger.info("tord = " + tord);
+
+        initFactory(coeff, parsedCoeff); // global: nvars, tord, vars
+        return (GenPolynomialRing<C>) pfac;
+    }
+
+
     /**
      * Parsing method for polynomial set. Syntax:
      * 
@@ -13,6 +13,7 @@ import org.apache.log4j.Logger;
 
 import edu.jas.structure.NotInvertibleException;
 import edu.jas.structure.RingElem;
+import edu.jas.util.LRUCache;
 
 
 // import edu.jas.application.ResidueSolvablePolynomial;
@@ -169,6 +170,8 @@ public class GenSolvablePolynomial<C extends RingElem<C>> extends GenPolynomial<
         //     return (GenSolvablePolynomial<C>) T.multiply(Sp);
         // }
         final boolean commute = ring.table.isEmpty();
+        final LRUCache<ExpVectorPair, GenSolvablePolynomial<C>> cache = (commute ? null : ring.table
+                        .productCache());
         GenSolvablePolynomial<C> Cp = ring.getZERO().copy(); // needed for doPutToMap and doAddTo
         //GenSolvablePolynomial<C> zero = ring.getZERO(); //.copy(); // copy not needed
         //C one = ring.getONECoefficient();
@@ -212,41 +215,46 @@ public class GenSolvablePolynomial<C extends RingElem<C>> extends GenPolynomial<
                     //no: Cs = new GenSolvablePolynomial<C>(ring, one, g); 
                     //System.out.println("Cs(sym) = " + Cs + ", g = " + g);
                 } else { // unsymmetric
-                    // split e = e1 * e2, f = f1 * f2
-                    ExpVector e1 = e.subst(el1, 0);
-                    ExpVector e2 = Z.subst(el1, e.getVal(el1));
-                    ExpVector e4;
-                    ExpVector f1 = f.subst(fl1, 0);
-                    ExpVector f2 = Z.subst(fl1, f.getVal(fl1));
-                    //if ( debug ) logger.debug("e1 = " + e1 + " e2 = " + e2);
-                    //if ( debug ) logger.debug("f1 = " + f1 + " f2 = " + f2);
-                    TableRelation<C> rel = ring.table.lookup(e2, f2);
-                    //logger.info("relation = " + rel);
-                    Cs = rel.p; //ring.copy( rel.p ); // do not clone() 
-                    if (rel.f != null) {
-                        C2 = ring.valueOf(rel.f); //(GenSolvablePolynomial<C>) zero.sum(one, rel.f);
-                        Cs = Cs.multiply(C2);
-                        if (rel.e == null) {
-                            e4 = e2;
-                        } else {
-                            e4 = e2.subtract(rel.e);
+                    ExpVectorPair ef = new ExpVectorPair(e, f);
+                    Cs = cache.get(ef); // e * f computed before
+                    if (Cs == null) {
+                        // split e = e1 * e2, f = f1 * f2
+                        ExpVector e1 = e.subst(el1, 0);
+                        ExpVector e2 = Z.subst(el1, e.getVal(el1));
+                        ExpVector e4;
+                        ExpVector f1 = f.subst(fl1, 0);
+                        ExpVector f2 = Z.subst(fl1, f.getVal(fl1));
+                        //if ( debug ) logger.debug("e1 = " + e1 + " e2 = " + e2);
+                        //if ( debug ) logger.debug("f1 = " + f1 + " f2 = " + f2);
+                        TableRelation<C> rel = ring.table.lookup(e2, f2);
+                        //logger.info("relation = " + rel);
+                        Cs = rel.p; //ring.copy( rel.p ); // do not clone() 
+                        if (rel.f != null) {
+                            C2 = ring.valueOf(rel.f); //(GenSolvablePolynomial<C>) zero.sum(one, rel.f);
+                            Cs = Cs.multiply(C2);
+                            if (rel.e == null) {
+                                e4 = e2;
+                            } else {
+                                e4 = e2.subtract(rel.e);
+                            }
+                            ring.table.update(e4, f2, Cs);
                         }
-                        ring.table.update(e4, f2, Cs);
-                    }
-                    if (rel.e != null) {
-                        C1 = ring.valueOf(rel.e); //(GenSolvablePolynomial<C>) zero.sum(one, rel.e);
-                        Cs = C1.multiply(Cs);
-                        ring.table.update(e2, f2, Cs);
-                    }
-                    if (!f1.isZERO()) {
-                        C2 = ring.valueOf(f1); //(GenSolvablePolynomial<C>) zero.sum(one, f1);
-                        Cs = Cs.multiply(C2);
-                        //ring.table.update(?,f1,Cs)
-                    }
-                    if (!e1.isZERO()) {
-                        C1 = ring.valueOf(e1); //(GenSolvablePolynomial<C>) zero.sum(one, e1);
-                        Cs = C1.multiply(Cs);
-                        //ring.table.update(e1,?,Cs)
+                        if (rel.e != null) {
+                            C1 = ring.valueOf(rel.e); //(GenSolvablePolynomial<C>) zero.sum(one, rel.e);
+                            Cs = C1.multiply(Cs);
+                            ring.table.update(e2, f2, Cs);
+                        }
+                        if (!f1.isZERO()) {
+                            C2 = ring.valueOf(f1); //(GenSolvablePolynomial<C>) zero.sum(one, f1);
+                            Cs = Cs.multiply(C2);
+                            //ring.table.update(?,f1,Cs)
+                        }
+                        if (!e1.isZERO()) {
+                            C1 = ring.valueOf(e1); //(GenSolvablePolynomial<C>) zero.sum(one, e1);
+                            Cs = C1.multiply(Cs);
+                            //ring.table.update(e1,?,Cs)
+                        }
+                        cache.put(ef, Cs);
                     }
                 }
                 //System.out.println("Cs = " + Cs + ", a = " + a + ", b = " + b);
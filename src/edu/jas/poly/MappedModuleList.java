@@ -0,0 +1,164 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.structure.RingElem;
+
+
+/**
+ * List of module elements stored in a memory mapped file. A module element,
+ * i.e. a list of polynomials of a fixed length, is stored as consecutive
+ * records of its components in a <code>MappedPolynomialList</code>, the
+ * number of components is kept in the header of the file. Module elements
+ * are only decoded on access, so syzygy modules larger than the heap can be
+ * produced and consumed. The list is append-only, elements are accessed by
+ * index. An incomplete last module element, e.g. after a crash during a
+ * write, is dropped when the file is opened again.
+ * @param <C> coefficient type
+ * @author agent
+ * @see edu.jas.poly.MappedPolynomialList
+ */
+
+public class MappedModuleList<C extends RingElem<C>> extends AbstractList<List<GenPolynomial<C>>> implements
+                RandomAccess, Closeable {
+
+
+    private static final Logger logger = Logger.getLogger(MappedModuleList.class);
+
+
+    /**
+     * The factory for the polynomial ring.
+     */
+    public final GenPolynomialRing<C> ring;
+
+
+    /**
+     * Number of polynomials of a module element.
+     */
+    public final int cols;
+
+
+    /**
+     * The store of the components.
+     */
+    protected final MappedPolynomialList<C> store;
+
+
+    /**
+     * Constructor. Opens an existing store or creates a new one.
+     * @param r polynomial ring factory.
+     * @param cols number of polynomials of a module element.
+     * @param f file of the store.
+     */
+    public MappedModuleList(GenPolynomialRing<C> r, int cols, File f) throws IOException {
+        if (cols <= 0) {
+            throw new IllegalArgumentException("number of columns must be positive: " + cols);
+        }
+        ring = r;
+        this.cols = cols;
+        store = new MappedPolynomialList<C>(r, f, cols);
+        int n = store.size();
+        if (n % cols != 0) {
+            logger.warn("incomplete module element at " + (n / cols) + " dropped");
+            store.truncate(n - n % cols);
+        }
+    }
+
+
+    /**
+     * Close the file. The list must not be used afterwards.
+     */
+    public void close() throws IOException {
+        store.close();
+    }
+
+
+    /**
+     * Force all appended module elements to the storage device.
+     */
+    public void sync() throws IOException {
+        store.sync();
+    }
+
+
+    /**
+     * Number of module elements.
+     * @see java.util.AbstractCollection#size()
+     */
+    @Override
+    public int size() {
+        return store.size() / cols;
+    }
+
+
+    /**
+     * Get a module element. The polynomials are decoded from the file on each
+     * call.
+     * @param i index.
+     * @return the module element with index i.
+     */
+    @Override
+    public List<GenPolynomial<C>> get(int i) {
+        if (i < 0 || i >= size()) {
+            throw new IndexOutOfBoundsException("index " + i + ", size " + size());
+        }
+        List<GenPolynomial<C>> row = new ArrayList<GenPolynomial<C>>(cols);
+        synchronized (store) {
+            for (int j = i * cols; j < (i + 1) * cols; j++) {
+                row.add(store.get(j));
+            }
+        }
+        return row;
+    }
+
+
+    /**
+     * Append a module element to the end of the list. Shorter module
+     * elements are padded with zeros.
+     * @param i index, must be equal to size().
+     * @param row module element.
+     */
+    @Override
+    public void add(int i, List<GenPolynomial<C>> row) {
+        if (row.size() > cols) {
+            throw new IllegalArgumentException("module element with " + row.size() + " > " + cols
+                            + " columns");
+        }
+        synchronized (store) {
+            if (i != size()) {
+                throw new UnsupportedOperationException("only append to the end is supported");
+            }
+            int n = store.size();
+            for (GenPolynomial<C> p : row) {
+                store.add(n++, p);
+            }
+            for (int j = row.size(); j < cols; j++) {
+                store.add(n++, ring.getZERO());
+            }
+        }
+        modCount++;
+    }
+
+
+    /**
+     * Get the module list. The module elements are copied to the heap.
+     * @return module list of this.
+     */
+    public ModuleList<C> getModuleList() {
+        return new ModuleList<C>(ring, this);
+    }
+
+}
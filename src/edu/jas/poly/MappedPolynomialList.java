@@ -0,0 +1,611 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigRational;
+import edu.jas.structure.RingElem;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * List of polynomials stored in a memory mapped file. The polynomials are
+ * kept off the Java heap in a compact encoding and are only decoded on
+ * access, so lists larger than the heap can be produced and consumed. The
+ * list is append-only, elements are accessed by index. The file starts with
+ * a header describing the polynomial ring and the coefficient encoding,
+ * followed by one record per polynomial. An existing file can be opened
+ * again with a compatible polynomial ring. Module elements are stored by
+ * <code>MappedModuleList</code> as consecutive records of their components.
+ * <p>
+ * Exponents are written as variable length integers. Coefficients from
+ * BigInteger and BigRational are written as two's complement byte arrays,
+ * all other coefficients are written as strings and read with
+ * <code>coFac.parse()</code>.
+ * </p>
+ * @param <C> coefficient type
+ * @author agent
+ * @see edu.jas.poly.MappedModuleList
+ */
+
+public class MappedPolynomialList<C extends RingElem<C>> extends AbstractList<GenPolynomial<C>> implements
+                RandomAccess, Closeable {
+
+
+    private static final Logger logger = Logger.getLogger(MappedPolynomialList.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Identification of polynomial store files.
+     */
+    public static final int MAGIC = 0x4a415350; // JASP
+
+
+    /**
+     * Version of the file format.
+     */
+    public static final int VERSION = 1;
+
+
+    /**
+     * Coefficient encodings.
+     */
+    protected static final byte STRING = 0, INTEGER = 1, RATIONAL = 2;
+
+
+    /**
+     * Size of the memory mapped file segments.
+     */
+    protected static final long SEGMENT = 1L << 28;
+
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+
+    /**
+     * The factory for the polynomial ring.
+     */
+    public final GenPolynomialRing<C> ring;
+
+
+    /**
+     * The file of the store.
+     */
+    public final File file;
+
+
+    /**
+     * Coefficient encoding.
+     */
+    protected final byte coding;
+
+
+    /**
+     * Number of polynomials of a module element, 0 for a list of polynomials.
+     */
+    protected final int cols;
+
+
+    /**
+     * Access to the file.
+     */
+    protected final RandomAccessFile raf;
+
+
+    protected final FileChannel channel;
+
+
+    /**
+     * Memory mapped segments of the file, null if not yet mapped.
+     */
+    protected final List<MappedByteBuffer> segments;
+
+
+    /**
+     * File positions of the records.
+     */
+    protected long[] offsets;
+
+
+    /**
+     * Number of polynomials.
+     */
+    protected int size;
+
+
+    /**
+     * End of file position.
+     */
+    protected long end;
+
+
+    /**
+     * Constructor. Opens an existing store or creates a new one.
+     * @param r polynomial ring factory.
+     * @param f file of the store.
+     */
+    public MappedPolynomialList(GenPolynomialRing<C> r, File f) throws IOException {
+        this(r, f, 0);
+    }
+
+
+    /**
+     * Constructor. Opens an existing store or creates a new one.
+     * @param r polynomial ring factory.
+     * @param f file of the store.
+     * @param cols number of polynomials of a module element, 0 for a list of
+     *            polynomials.
+     */
+    /*package*/MappedPolynomialList(GenPolynomialRing<C> r, File f, int cols) throws IOException {
+        ring = r;
+        file = f;
+        coding = codingOf(r.coFac);
+        this.cols = cols;
+        segments = new ArrayList<MappedByteBuffer>();
+        offsets = new long[16];
+        size = 0;
+        raf = new RandomAccessFile(f, "rw");
+        channel = raf.getChannel();
+        try {
+            if (channel.size() == 0L) {
+                writeHeader();
+            } else {
+                readHeader();
+                scanRecords();
+            }
+        } catch (IOException e) {
+            raf.close();
+            throw e;
+        } catch (RuntimeException e) {
+            raf.close();
+            throw e;
+        }
+    }
+
+
+    /**
+     * Determine the coefficient encoding.
+     * @param cf coefficient ring factory.
+     * @return coefficient encoding for cf.
+     */
+    @SuppressWarnings("cast")
+    protected static byte codingOf(RingFactory<?> cf) {
+        if ((Object) cf instanceof BigInteger) {
+            return INTEGER;
+        }
+        if ((Object) cf instanceof BigRational) {
+            return RATIONAL;
+        }
+        return STRING;
+    }
+
+
+    /**
+     * Description of the polynomial ring stored in the header.
+     * @return ring description.
+     */
+    protected String ringDescription() {
+        return ring.toScript();
+    }
+
+
+    /**
+     * Write the header of a new file.
+     */
+    protected void writeHeader() throws IOException {
+        byte[] d = ringDescription().getBytes(UTF8);
+        ByteBuffer h = ByteBuffer.allocate(4 + 4 + 4 + 1 + 4 + 4 + d.length);
+        h.putInt(MAGIC).putInt(VERSION).putInt(ring.nvar).put(coding).putInt(cols).putInt(d.length).put(d);
+        h.flip();
+        end = 0L;
+        while (h.hasRemaining()) {
+            end += channel.write(h, end);
+        }
+    }
+
+
+    /**
+     * Read and check the header of an existing file.
+     */
+    protected void readHeader() throws IOException {
+        ByteBuffer h = ByteBuffer.allocate(4 + 4 + 4 + 1 + 4 + 4);
+        readFully(h, 0L);
+        if (h.getInt() != MAGIC) {
+            throw new IOException("not a polynomial store: " + file);
+        }
+        int v = h.getInt();
+        if (v != VERSION) {
+            throw new IOException("unsupported polynomial store version " + v);
+        }
+        int n = h.getInt();
+        byte c = h.get();
+        if (n != ring.nvar || c != coding) {
+            throw new IllegalArgumentException("polynomial ring does not match store " + file);
+        }
+        int k = h.getInt();
+        if (k != cols) {
+            throw new IllegalArgumentException("store " + file + " has " + k + " columns, not " + cols);
+        }
+        long pos = h.capacity();
+        byte[] d = new byte[h.getInt()];
+        readFully(ByteBuffer.wrap(d), pos);
+        String desc = new String(d, UTF8);
+        if (!desc.equals(ringDescription())) {
+            logger.warn("ring " + ringDescription() + " differs from stored ring " + desc);
+        }
+        end = pos + d.length;
+    }
+
+
+    /**
+     * Determine the positions of the records of an existing file. An
+     * incomplete last record, e.g. after a crash during a write, is dropped.
+     */
+    protected void scanRecords() throws IOException {
+        long len = channel.size();
+        ByteBuffer b = ByteBuffer.allocate(4);
+        while (end + 4 <= len) {
+            b.clear();
+            readFully(b, end);
+            int rl = b.getInt();
+            if (rl < 0 || end + 4 + rl > len) {
+                logger.warn("incomplete record at " + end + " dropped");
+                break;
+            }
+            addOffset(end);
+            end += 4 + rl;
+        }
+        channel.truncate(end);
+        logger.info("opened " + file + " with " + size + " polynomials");
+    }
+
+
+    /**
+     * Read bytes from the file until the buffer is full.
+     * @param b byte buffer.
+     * @param pos file position.
+     */
+    protected void readFully(ByteBuffer b, long pos) throws IOException {
+        while (b.hasRemaining()) {
+            int r = channel.read(b, pos);
+            if (r < 0) {
+                throw new IOException("unexpected end of file " + file);
+            }
+            pos += r;
+        }
+        b.flip();
+    }
+
+
+    /**
+     * Remove all polynomials from index n to the end of the file.
+     * @param n new number of polynomials.
+     */
+    /*package*/synchronized void truncate(int n) throws IOException {
+        if (n < 0 || n >= size) {
+            return;
+        }
+        segments.clear(); // remap on next access
+        end = offsets[n];
+        size = n;
+        channel.truncate(end);
+        modCount++;
+    }
+
+
+    private void addOffset(long off) {
+        if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, 2 * size);
+        }
+        offsets[size++] = off;
+    }
+
+
+    /**
+     * Close the file. The list must not be used afterwards.
+     */
+    public synchronized void close() throws IOException {
+        segments.clear();
+        raf.close();
+    }
+
+
+    /**
+     * Force all appended polynomials to the storage device.
+     */
+    public synchronized void sync() throws IOException {
+        channel.force(false);
+    }
+
+
+    /**
+     * Number of polynomials.
+     * @see java.util.AbstractCollection#size()
+     */
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+
+    /**
+     * Get a polynomial. The polynomial is decoded from the file on each
+     * call.
+     * @param i index.
+     * @return the polynomial with index i.
+     */
+    @Override
+    public synchronized GenPolynomial<C> get(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("index " + i + ", size " + size);
+        }
+        try {
+            return decode(record(offsets[i]));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+
+    /**
+     * Append a polynomial to the end of the list.
+     * @param i index, must be equal to size().
+     * @param p polynomial.
+     */
+    @Override
+    public synchronized void add(int i, GenPolynomial<C> p) {
+        if (i != size) {
+            throw new UnsupportedOperationException("only append to the end is supported");
+        }
+        ByteBuffer b = encode(p);
+        try {
+            long off = end;
+            long pos = end;
+            while (b.hasRemaining()) {
+                pos += channel.write(b, pos);
+            }
+            end = pos;
+            addOffset(off);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        modCount++;
+    }
+
+
+    /**
+     * Get the bytes of a record.
+     * @param off file position of the record.
+     * @return byte buffer positioned at the record payload.
+     */
+    protected ByteBuffer record(long off) throws IOException {
+        int k = (int) (off / SEGMENT);
+        long start = k * SEGMENT;
+        int rl;
+        if (off + 4 <= start + SEGMENT) {
+            MappedByteBuffer m = segment(k, off + 4 - start);
+            rl = m.getInt((int) (off - start));
+            if (off + 4 + rl <= start + SEGMENT) {
+                m = segment(k, off + 4 + rl - start);
+                ByteBuffer b = m.duplicate();
+                b.limit((int) (off + 4 + rl - start));
+                b.position((int) (off + 4 - start));
+                return b;
+            }
+        } else {
+            ByteBuffer h = ByteBuffer.allocate(4);
+            readFully(h, off);
+            rl = h.getInt();
+        }
+        // record crosses a segment boundary
+        ByteBuffer b = ByteBuffer.allocate(rl);
+        readFully(b, off + 4);
+        return b;
+    }
+
+
+    /**
+     * Get a memory mapped segment.
+     * @param k segment number.
+     * @param len required length of the segment.
+     * @return segment k mapped with at least length len.
+     */
+    protected MappedByteBuffer segment(int k, long len) throws IOException {
+        while (segments.size() <= k) {
+            segments.add(null);
+        }
+        MappedByteBuffer m = segments.get(k);
+        if (m == null || m.capacity() < len) { // new or grown segment
+            long start = k * SEGMENT;
+            long sl = Math.min(SEGMENT, end - start);
+            m = channel.map(FileChannel.MapMode.READ_ONLY, start, sl);
+            segments.set(k, m);
+            if (debug) {
+                logger.debug("mapped segment " + k + " with length " + sl);
+            }
+        }
+        return m;
+    }
+
+
+    /**
+     * Encode a polynomial.
+     * @param p polynomial.
+     * @return byte buffer with length prefixed record.
+     */
+    protected ByteBuffer encode(GenPolynomial<C> p) {
+        Encoder w = new Encoder(16 + p.length() * (ring.nvar + 8));
+        w.putInt(0); // length placeholder
+        w.putVarLong(p.length());
+        for (Monomial<C> m : p) {
+            ExpVector e = m.exponent();
+            for (int j = 0; j < ring.nvar; j++) {
+                w.putVarLong(e.getVal(j));
+            }
+            C c = m.coefficient();
+            switch (coding) {
+            case INTEGER:
+                w.putBytes(((BigInteger) (Object) c).getVal().toByteArray());
+                break;
+            case RATIONAL:
+                BigRational r = (BigRational) (Object) c;
+                w.putBytes(r.numerator().toByteArray());
+                w.putBytes(r.denominator().toByteArray());
+                break;
+            default:
+                w.putBytes(c.toString().getBytes(UTF8));
+                break;
+            }
+        }
+        ByteBuffer b = w.toByteBuffer();
+        b.putInt(0, b.limit() - 4);
+        return b;
+    }
+
+
+    /**
+     * Decode a polynomial.
+     * @param b byte buffer positioned at a record payload.
+     * @return the polynomial.
+     */
+    @SuppressWarnings("unchecked")
+    protected GenPolynomial<C> decode(ByteBuffer b) {
+        GenPolynomial<C> p = ring.getZERO().copy();
+        long n = getVarLong(b);
+        long[] ev = new long[ring.nvar];
+        for (long t = 0; t < n; t++) {
+            for (int j = 0; j < ev.length; j++) {
+                ev[j] = getVarLong(b);
+            }
+            ExpVector e = ExpVector.create(ev);
+            C c;
+            switch (coding) {
+            case INTEGER:
+                c = (C) (Object) new BigInteger(new java.math.BigInteger(getBytes(b)));
+                break;
+            case RATIONAL:
+                BigInteger nu = new BigInteger(new java.math.BigInteger(getBytes(b)));
+                BigInteger de = new BigInteger(new java.math.BigInteger(getBytes(b)));
+                c = (C) (Object) new BigRational(nu, de);
+                break;
+            default:
+                c = ring.coFac.parse(new String(getBytes(b), UTF8));
+                break;
+            }
+            p.doPutToMap(e, c);
+        }
+        return p;
+    }
+
+
+    /**
+     * Read a variable length integer.
+     * @param b byte buffer.
+     * @return the zig-zag decoded long.
+     */
+    static long getVarLong(ByteBuffer b) {
+        long v = 0L;
+        int s = 0;
+        byte x;
+        do {
+            x = b.get();
+            v |= (long) (x & 0x7f) << s;
+            s += 7;
+        } while ((x & 0x80) != 0);
+        return (v >>> 1) ^ -(v & 1L);
+    }
+
+
+    /**
+     * Read a length prefixed byte array.
+     * @param b byte buffer.
+     * @return the byte array.
+     */
+    static byte[] getBytes(ByteBuffer b) {
+        byte[] a = new byte[(int) getVarLong(b)];
+        b.get(a);
+        return a;
+    }
+
+
+    /**
+     * Growable byte buffer for the encoding of records.
+     */
+    static class Encoder {
+
+
+        byte[] buf;
+
+
+        int len;
+
+
+        Encoder(int cap) {
+            buf = new byte[Math.max(16, cap)];
+            len = 0;
+        }
+
+
+        void ensure(int n) {
+            if (len + n > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(2 * buf.length, len + n));
+            }
+        }
+
+
+        void putInt(int v) {
+            ensure(4);
+            buf[len++] = (byte) (v >>> 24);
+            buf[len++] = (byte) (v >>> 16);
+            buf[len++] = (byte) (v >>> 8);
+            buf[len++] = (byte) v;
+        }
+
+
+        void putVarLong(long v) {
+            ensure(10);
+            long z = (v << 1) ^ (v >> 63); // zig-zag
+            while ((z & ~0x7fL) != 0L) {
+                buf[len++] = (byte) ((z & 0x7f) | 0x80);
+                z >>>= 7;
+            }
+            buf[len++] = (byte) z;
+        }
+
+
+        void putBytes(byte[] a) {
+            putVarLong(a.length);
+            ensure(a.length);
+            System.arraycopy(a, 0, buf, len, a.length);
+            len += a.length;
+        }
+
+
+        ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(buf, 0, len);
+        }
+    }
+
+}
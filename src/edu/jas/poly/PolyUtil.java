@@ -2539,6 +2539,91 @@ public class PolyUtil {
     }
 
 
+    /**
+     * Product component projection.
+     * @param <C> coefficient type.
+     * @param fac polynomial ring factory over the i-th component ring.
+     * @param A polynomial with Product coefficients.
+     * @param i index of the component.
+     * @return the polynomial of the i-th components of the coefficients of A.
+     */
+    public static <C extends RingElem<C>> GenPolynomial<C> fromProductComponent(GenPolynomialRing<C> fac,
+                    GenPolynomial<Product<C>> A, int i) {
+        GenPolynomial<C> B = fac.getZERO().copy();
+        if (A == null || A.isZERO()) {
+            return B;
+        }
+        for (Map.Entry<ExpVector, Product<C>> y : A.getMap().entrySet()) {
+            C c = y.getValue().get(i);
+            if (c != null && !c.isZERO()) {
+                B.doPutToMap(y.getKey(), c);
+            }
+        }
+        return B;
+    }
+
+
+    /**
+     * Product component projection.
+     * @param <C> coefficient type.
+     * @param fac polynomial ring factory over the i-th component ring.
+     * @param L list of polynomials with Product coefficients.
+     * @param i index of the component.
+     * @return list of the non zero projections to the i-th component of L.
+     */
+    public static <C extends RingElem<C>> List<GenPolynomial<C>> fromProductComponent(
+                    GenPolynomialRing<C> fac, List<GenPolynomial<Product<C>>> L, int i) {
+        List<GenPolynomial<C>> list = new ArrayList<GenPolynomial<C>>();
+        if (L == null || L.size() == 0) {
+            return list;
+        }
+        for (GenPolynomial<Product<C>> a : L) {
+            GenPolynomial<C> b = fromProductComponent(fac, a, i);
+            if (!b.isZERO()) {
+                list.add(b);
+            }
+        }
+        return list;
+    }
+
+
+    /**
+     * Product combination of components.
+     * @param <C> coefficient type.
+     * @param pfac polynomial ring factory with Product coefficients.
+     * @param L list of polynomials, L(i) is the i-th component or null.
+     * @return the polynomial with i-th coefficient components from L(i).
+     */
+    public static <C extends RingElem<C>> GenPolynomial<Product<C>> toProductComponents(
+                    GenPolynomialRing<Product<C>> pfac, List<GenPolynomial<C>> L) {
+        GenPolynomial<Product<C>> P = pfac.getZERO().copy();
+        if (L == null || L.size() == 0) {
+            return P;
+        }
+        ProductRing<C> rfac = (ProductRing<C>) pfac.coFac;
+        SortedMap<ExpVector, SortedMap<Integer, C>> coeffs = new TreeMap<ExpVector, SortedMap<Integer, C>>(
+                        pfac.tord.getDescendComparator());
+        for (int i = 0; i < L.size(); i++) {
+            GenPolynomial<C> a = L.get(i);
+            if (a == null || a.isZERO()) {
+                continue;
+            }
+            for (Map.Entry<ExpVector, C> y : a.getMap().entrySet()) {
+                SortedMap<Integer, C> elem = coeffs.get(y.getKey());
+                if (elem == null) {
+                    elem = new TreeMap<Integer, C>();
+                    coeffs.put(y.getKey(), elem);
+                }
+                elem.put(i, y.getValue());
+            }
+        }
+        for (Map.Entry<ExpVector, SortedMap<Integer, C>> y : coeffs.entrySet()) {
+            P.doPutToMap(y.getKey(), new Product<C>(rfac, y.getValue()));
+        }
+        return P;
+    }
+
+
     /**
      * Intersection. Intersection of a list of polynomials with a polynomial
      * ring. The polynomial ring must be a contraction of the polynomial ring of
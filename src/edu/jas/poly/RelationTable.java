@@ -18,6 +18,7 @@ import org.apache.log4j.Logger;
 
 import edu.jas.kern.PrettyPrint;
 import edu.jas.structure.RingElem;
+import edu.jas.util.LRUCache;
 
 
 /**
@@ -29,7 +30,9 @@ import edu.jas.structure.RingElem;
  * x<sub>i</sub><sup>l</sup> = p<sub>ijkl</sub>. If no relation for
  * x<sub>j</sub> * x<sub>i</sub> is found in the table, this multiplication is
  * assumed to be commutative x<sub>i</sub> x<sub>j</sub>. Can also be used for
- * relations between coefficients and main variables.
+ * relations between coefficients and main variables. Computed products of
+ * monomials are kept in a bounded product cache shared by all polynomials of
+ * the ring.
  * @author Heinz Kredel
  */
 
@@ -54,6 +57,18 @@ public class RelationTable<C extends RingElem<C>> implements Serializable {
     public final boolean coeffTable;
 
 
+    /**
+     * Maximal number of cached monomial products.
+     */
+    public static int PRODUCT_CACHE_SIZE = LRUCache.DEFAULT_CAPACITY;
+
+
+    /**
+     * Cache of monomial products e * f, created on first use.
+     */
+    protected transient volatile LRUCache<ExpVectorPair, GenSolvablePolynomial<C>> products;
+
+
     private static final Logger logger = Logger.getLogger(RelationTable.class);
 
 
@@ -660,6 +675,27 @@ public class RelationTable<C extends RingElem<C>> implements Serializable {
     }
 
 
+    /**
+     * Get the cache of monomial products. The cached products are computed
+     * from the relations, so all relations must be defined before the first
+     * multiplication; addRelations() clears the cache.
+     * @return cache with e * f for ExpVectorPair(e,f).
+     */
+    public LRUCache<ExpVectorPair, GenSolvablePolynomial<C>> productCache() {
+        LRUCache<ExpVectorPair, GenSolvablePolynomial<C>> c = products;
+        if (c == null) {
+            synchronized (this) {
+                c = products;
+                if (c == null) {
+                    c = new LRUCache<ExpVectorPair, GenSolvablePolynomial<C>>(PRODUCT_CACHE_SIZE);
+                    products = c;
+                }
+            }
+        }
+        return c;
+    }
+
+
     /**
      * Construct a key for (e,f).
      * @param e first term.
@@ -1024,6 +1060,10 @@ public class RelationTable<C extends RingElem<C>> implements Serializable {
             }
             update(e, f, P);
         }
+        LRUCache<ExpVectorPair, GenSolvablePolynomial<C>> c = products;
+        if (c != null) {
+            c.clear();
+        }
         return;
     }
 
@@ -0,0 +1,156 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.root;
+
+
+import edu.jas.arith.BigRational;
+import edu.jas.arith.Rational;
+import edu.jas.poly.Complex;
+import edu.jas.poly.ComplexRing;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.Monomial;
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Certified exclusion test for complex roots. The univariate polynomial is
+ * evaluated on a rectangle with double interval arithmetic in centered form
+ * f(m) + f'(R) (R - m). If the enclosure does not contain zero, the rectangle
+ * contains no root. Only rational real and imaginary parts are supported, for
+ * other coefficients the test is always inconclusive.
+ * @param <C> coefficient type.
+ * @author agent
+ */
+public class ComplexIntervalEvaluator<C extends RingElem<C> & Rational> {
+
+
+    /**
+     * Dense coefficients of f, real and imaginary parts, index is the
+     * degree, or null if the coefficients are not rational.
+     */
+    protected final DoubleInterval[] re, im;
+
+
+    /**
+     * Dense coefficients of the derivative of f, real and imaginary parts.
+     */
+    protected final DoubleInterval[] dre, dim;
+
+
+    /**
+     * Constructor.
+     * @param f univariate complex polynomial.
+     */
+    @SuppressWarnings({ "cast", "unchecked" })
+    public ComplexIntervalEvaluator(GenPolynomial<Complex<C>> f) {
+        ComplexRing<C> cr = (ComplexRing<C>) f.ring.coFac;
+        if (!((Object) cr.ring instanceof BigRational) || f.isZERO() || f.isConstant()) {
+            re = null;
+            im = null;
+            dre = null;
+            dim = null;
+            return;
+        }
+        int deg = (int) f.degree(0);
+        re = new DoubleInterval[deg + 1];
+        im = new DoubleInterval[deg + 1];
+        BigRational[] rr = new BigRational[deg + 1];
+        BigRational[] ri = new BigRational[deg + 1];
+        for (Monomial<Complex<C>> m : f) {
+            int i = (int) m.exponent().getVal(0);
+            rr[i] = m.coefficient().getRe().getRational();
+            ri[i] = m.coefficient().getIm().getRational();
+        }
+        dre = new DoubleInterval[deg];
+        dim = new DoubleInterval[deg];
+        for (int i = 0; i <= deg; i++) {
+            if (rr[i] == null) {
+                rr[i] = BigRational.ZERO;
+                ri[i] = BigRational.ZERO;
+            }
+            re[i] = DoubleInterval.fromRational(rr[i]);
+            im[i] = DoubleInterval.fromRational(ri[i]);
+            if (i > 0) {
+                BigRational d = new BigRational(i);
+                dre[i - 1] = DoubleInterval.fromRational(rr[i].multiply(d));
+                dim[i - 1] = DoubleInterval.fromRational(ri[i].multiply(d));
+            }
+        }
+    }
+
+
+    /**
+     * Test if interval arithmetic is used.
+     * @return true, if the coefficients are rational complex numbers, else
+     *         false.
+     */
+    public boolean isRational() {
+        return re != null;
+    }
+
+
+    /**
+     * Test if a rectangle contains no root.
+     * @param rect rectangle.
+     * @return true, if it is certified that f has no root in rect including
+     *         its boundary, false if this could not be decided.
+     */
+    public boolean excludesZero(Rectangle<C> rect) {
+        if (re == null) {
+            return false;
+        }
+        Complex<C> sw = rect.getSW();
+        Complex<C> ne = rect.getNE();
+        BigRational two = new BigRational(2);
+        DoubleInterval[] m = new DoubleInterval[] {
+                DoubleInterval.fromRational(sw.getRe().getRational().sum(ne.getRe().getRational()).divide(two)),
+                DoubleInterval.fromRational(sw.getIm().getRational().sum(ne.getIm().getRational()).divide(two)) };
+        DoubleInterval[] r = new DoubleInterval[] {
+                new DoubleInterval(DoubleInterval.fromRational(sw.getRe().getRational()).lo,
+                                DoubleInterval.fromRational(ne.getRe().getRational()).hi),
+                new DoubleInterval(DoubleInterval.fromRational(sw.getIm().getRational()).lo,
+                                DoubleInterval.fromRational(ne.getIm().getRational()).hi) };
+        DoubleInterval[] fm = horner(re, im, m);
+        DoubleInterval[] fpr = horner(dre, dim, r);
+        // f(m) + f'(r) * (r - m)
+        DoubleInterval[] y = multiply(fpr, new DoubleInterval[] { r[0].subtract(m[0]), r[1].subtract(m[1]) });
+        DoubleInterval yr = fm[0].sum(y[0]);
+        DoubleInterval yi = fm[1].sum(y[1]);
+        return yr.excludesZero() || yi.excludesZero();
+    }
+
+
+    /**
+     * Complex Horner evaluation.
+     * @param cr real parts of coefficients.
+     * @param ci imaginary parts of coefficients.
+     * @param x complex interval.
+     * @return enclosure of p(x).
+     */
+    static DoubleInterval[] horner(DoubleInterval[] cr, DoubleInterval[] ci, DoubleInterval[] x) {
+        int n = cr.length - 1;
+        DoubleInterval[] y = new DoubleInterval[] { cr[n], ci[n] };
+        for (int i = n - 1; i >= 0; i--) {
+            y = multiply(y, x);
+            y[0] = y[0].sum(cr[i]);
+            y[1] = y[1].sum(ci[i]);
+        }
+        return y;
+    }
+
+
+    /**
+     * Complex interval product.
+     * @param a complex interval.
+     * @param b complex interval.
+     * @return a * b.
+     */
+    static DoubleInterval[] multiply(DoubleInterval[] a, DoubleInterval[] b) {
+        DoubleInterval r = a[0].multiply(b[0]).subtract(a[1].multiply(b[1]));
+        DoubleInterval i = a[0].multiply(b[1]).sum(a[1].multiply(b[0]));
+        return new DoubleInterval[] { r, i };
+    }
+
+}
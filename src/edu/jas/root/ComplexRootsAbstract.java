@@ -225,6 +225,7 @@ public abstract class ComplexRootsAbstract<C extends RingElem<C> & Rational> imp
                 throw new ArithmeticException("no initial isolating rectangle " + rect);
             }
         }
+        ComplexIntervalEvaluator<C> ev = new ComplexIntervalEvaluator<C>(a);
         Complex<C> eps = cr.fromInteger(1);
         eps = eps.divide(cr.fromInteger(1000)); // 1/1000
         BigRational length = len.multiply(len);
@@ -245,57 +246,56 @@ public abstract class ComplexRootsAbstract<C extends RingElem<C> & Rational> imp
                         logger.info("new center = " + center);
                     }
 
+                    Rectangle<C>[] quads = (Rectangle<C>[]) new Rectangle<?>[4];
                     Complex<C>[] cp = (Complex<C>[]) copyOfComplex(root.corners, 4);
                     // cp[0] fix
                     cp[1] = new Complex<C>(cr, cp[1].getRe(), center.getIm());
                     cp[2] = center;
                     cp[3] = new Complex<C>(cr, center.getRe(), cp[3].getIm());
-                    Rectangle<C> nw = new Rectangle<C>(cp);
-                    w = complexRootCount(nw, a);
-                    if (w == 1) {
-                        root = nw;
-                        delta = null;
-                        continue;
-                    }
+                    quads[0] = new Rectangle<C>(cp); // nw
 
                     cp = (Complex<C>[]) copyOfComplex(root.corners, 4);
                     cp[0] = new Complex<C>(cr, cp[0].getRe(), center.getIm());
                     // cp[1] fix
                     cp[2] = new Complex<C>(cr, center.getRe(), cp[2].getIm());
                     cp[3] = center;
-                    Rectangle<C> sw = new Rectangle<C>(cp);
-                    w = complexRootCount(sw, a);
-                    //System.out.println("#swr = " + w); 
-                    if (w == 1) {
-                        root = sw;
-                        delta = null;
-                        continue;
-                    }
+                    quads[1] = new Rectangle<C>(cp); // sw
 
                     cp = (Complex<C>[]) copyOfComplex(root.corners, 4);
                     cp[0] = center;
                     cp[1] = new Complex<C>(cr, center.getRe(), cp[1].getIm());
                     // cp[2] fix
                     cp[3] = new Complex<C>(cr, cp[3].getRe(), center.getIm());
-                    Rectangle<C> se = new Rectangle<C>(cp);
-                    w = complexRootCount(se, a);
-                    //System.out.println("#ser = " + w); 
-                    if (w == 1) {
-                        root = se;
-                        delta = null;
-                        continue;
-                    }
+                    quads[2] = new Rectangle<C>(cp); // se
 
                     cp = (Complex<C>[]) copyOfComplex(root.corners, 4);
                     cp[0] = new Complex<C>(cr, center.getRe(), cp[0].getIm());
                     cp[1] = center;
                     cp[2] = new Complex<C>(cr, cp[2].getRe(), center.getIm());
                     // cp[3] fix
-                    Rectangle<C> ne = new Rectangle<C>(cp);
-                    w = complexRootCount(ne, a);
-                    //System.out.println("#ner = " + w); 
-                    if (w == 1) {
-                        root = ne;
+                    quads[3] = new Rectangle<C>(cp); // ne
+
+                    Rectangle<C> found = null;
+                    int excluded = 0;
+                    for (Rectangle<C> q : quads) {
+                        // certified root free rectangles need no root count
+                        if (ev.excludesZero(q)) {
+                            excluded++;
+                            continue;
+                        }
+                        if (excluded == 3) { // the root must be in the last one
+                            found = q;
+                            break;
+                        }
+                        w = complexRootCount(q, a);
+                        //System.out.println("#qr = " + w); 
+                        if (w == 1) {
+                            found = q;
+                            break;
+                        }
+                    }
+                    if (found != null) {
+                        root = found;
                         delta = null;
                         continue;
                     }
@@ -0,0 +1,147 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.root;
+
+
+import java.io.Serializable;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+import edu.jas.arith.BigRational;
+
+
+/**
+ * Decimal interval. Closed interval [lo, hi] of java.math.BigDecimal numbers
+ * with a fixed precision and directed rounding, such that the exact result
+ * of an operation on members of the operand intervals is always contained in
+ * the result interval. Used as second level when double intervals are too
+ * coarse.
+ * @author agent
+ */
+public final class DecimalInterval implements Serializable {
+
+
+    private static final long serialVersionUID = 1L;
+
+
+    /**
+     * Lower interval border.
+     */
+    public final java.math.BigDecimal lo;
+
+
+    /**
+     * Upper interval border.
+     */
+    public final java.math.BigDecimal hi;
+
+
+    /**
+     * Rounding towards minus infinity.
+     */
+    public final MathContext down;
+
+
+    /**
+     * Rounding towards plus infinity.
+     */
+    public final MathContext up;
+
+
+    /**
+     * Constructor.
+     * @param lo lower interval border.
+     * @param hi upper interval border.
+     * @param down rounding towards minus infinity.
+     * @param up rounding towards plus infinity.
+     */
+    protected DecimalInterval(java.math.BigDecimal lo, java.math.BigDecimal hi, MathContext down,
+                    MathContext up) {
+        this.lo = lo;
+        this.hi = hi;
+        this.down = down;
+        this.up = up;
+    }
+
+
+    /**
+     * Enclosure of a rational number.
+     * @param r BigRational.
+     * @param prec precision in decimal digits.
+     * @return a decimal interval containing r.
+     */
+    public static DecimalInterval fromRational(BigRational r, int prec) {
+        MathContext down = new MathContext(prec, RoundingMode.FLOOR);
+        MathContext up = new MathContext(prec, RoundingMode.CEILING);
+        java.math.BigDecimal n = new java.math.BigDecimal(r.numerator());
+        java.math.BigDecimal d = new java.math.BigDecimal(r.denominator());
+        return new DecimalInterval(n.divide(d, down), n.divide(d, up), down, up);
+    }
+
+
+    /**
+     * Enclosure of a rational number with the precision of this.
+     * @param r BigRational.
+     * @return a decimal interval containing r.
+     */
+    public DecimalInterval fromRational(BigRational r) {
+        java.math.BigDecimal n = new java.math.BigDecimal(r.numerator());
+        java.math.BigDecimal d = new java.math.BigDecimal(r.denominator());
+        return new DecimalInterval(n.divide(d, down), n.divide(d, up), down, up);
+    }
+
+
+    /**
+     * String representation of DecimalInterval.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "[" + lo + ", " + hi + "]";
+    }
+
+
+    /**
+     * Certified sign.
+     * @return -1 or 1 if all members of this interval have this sign, 0 if
+     *         the interval contains zero.
+     */
+    public int signum() {
+        if (lo.signum() > 0) {
+            return 1;
+        }
+        if (hi.signum() < 0) {
+            return -1;
+        }
+        return 0;
+    }
+
+
+    /**
+     * Sum.
+     * @param S other interval.
+     * @return this + S.
+     */
+    public DecimalInterval sum(DecimalInterval S) {
+        return new DecimalInterval(lo.add(S.lo, down), hi.add(S.hi, up), down, up);
+    }
+
+
+    /**
+     * Product.
+     * @param S other interval.
+     * @return this * S.
+     */
+    public DecimalInterval multiply(DecimalInterval S) {
+        java.math.BigDecimal a = lo.multiply(S.lo);
+        java.math.BigDecimal b = lo.multiply(S.hi);
+        java.math.BigDecimal c = hi.multiply(S.lo);
+        java.math.BigDecimal d = hi.multiply(S.hi);
+        java.math.BigDecimal l = a.min(b).min(c.min(d));
+        java.math.BigDecimal h = a.max(b).max(c.max(d));
+        return new DecimalInterval(l.round(down), h.round(up), down, up);
+    }
+
+}
@@ -0,0 +1,174 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.root;
+
+
+import java.io.Serializable;
+import java.math.MathContext;
+
+import edu.jas.arith.BigRational;
+
+
+/**
+ * Double interval. Closed interval [lo, hi] of machine doubles with outward
+ * rounded arithmetic, such that the exact result of an operation on members
+ * of the operand intervals is always contained in the result interval.
+ * Rounding control is emulated by widening each rounded-to-nearest result by
+ * one unit in the last place.
+ * @author agent
+ */
+public final class DoubleInterval implements Serializable {
+
+
+    private static final long serialVersionUID = 1L;
+
+
+    /**
+     * Lower interval border.
+     */
+    public final double lo;
+
+
+    /**
+     * Upper interval border.
+     */
+    public final double hi;
+
+
+    /**
+     * Math context for conversion of rationals, more precise than double.
+     */
+    private static final MathContext CONV_CONTEXT = new MathContext(20);
+
+
+    /**
+     * Constructor.
+     * @param lo lower interval border.
+     * @param hi upper interval border.
+     */
+    public DoubleInterval(double lo, double hi) {
+        this.lo = lo;
+        this.hi = hi;
+    }
+
+
+    /**
+     * Constructor.
+     * @param a point interval border.
+     */
+    public DoubleInterval(double a) {
+        this(a, a);
+    }
+
+
+    /**
+     * Enclosure of a rational number.
+     * @param r BigRational.
+     * @return a double interval containing r.
+     */
+    public static DoubleInterval fromRational(BigRational r) {
+        java.math.BigDecimal n = new java.math.BigDecimal(r.numerator());
+        java.math.BigDecimal d = new java.math.BigDecimal(r.denominator());
+        double a = n.divide(d, CONV_CONTEXT).doubleValue();
+        if (r.denominator().equals(java.math.BigInteger.ONE) && r.numerator().bitLength() < 53) {
+            return new DoubleInterval(a); // exact
+        }
+        // two ulp cover conversion and rounding errors, also at powers of 2
+        return new DoubleInterval(Math.nextDown(Math.nextDown(a)), Math.nextUp(Math.nextUp(a)));
+    }
+
+
+    /**
+     * String representation of DoubleInterval.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "[" + lo + ", " + hi + "]";
+    }
+
+
+    /**
+     * Test if the interval borders are finite numbers.
+     * @return true, if lo and hi are finite, else false.
+     */
+    public boolean isFinite() {
+        return !Double.isNaN(lo) && !Double.isNaN(hi) && !Double.isInfinite(lo) && !Double.isInfinite(hi);
+    }
+
+
+    /**
+     * Certified sign.
+     * @return -1 or 1 if all members of this interval have this sign, 0 if
+     *         the interval contains zero or is not finite.
+     */
+    public int signum() {
+        if (!isFinite()) {
+            return 0;
+        }
+        if (lo > 0.0) {
+            return 1;
+        }
+        if (hi < 0.0) {
+            return -1;
+        }
+        return 0;
+    }
+
+
+    /**
+     * Test if zero is excluded from this interval.
+     * @return true, if 0 is not contained in this interval, else false.
+     */
+    public boolean excludesZero() {
+        return signum() != 0;
+    }
+
+
+    /**
+     * Sum.
+     * @param S other interval.
+     * @return this + S.
+     */
+    public DoubleInterval sum(DoubleInterval S) {
+        return new DoubleInterval(Math.nextDown(lo + S.lo), Math.nextUp(hi + S.hi));
+    }
+
+
+    /**
+     * Difference.
+     * @param S other interval.
+     * @return this - S.
+     */
+    public DoubleInterval subtract(DoubleInterval S) {
+        return new DoubleInterval(Math.nextDown(lo - S.hi), Math.nextUp(hi - S.lo));
+    }
+
+
+    /**
+     * Negation.
+     * @return -this.
+     */
+    public DoubleInterval negate() {
+        return new DoubleInterval(-hi, -lo);
+    }
+
+
+    /**
+     * Product.
+     * @param S other interval.
+     * @return this * S.
+     */
+    public DoubleInterval multiply(DoubleInterval S) {
+        double a = lo * S.lo;
+        double b = lo * S.hi;
+        double c = hi * S.lo;
+        double d = hi * S.hi;
+        double l = Math.min(Math.min(a, b), Math.min(c, d));
+        double h = Math.max(Math.max(a, b), Math.max(c, d));
+        return new DoubleInterval(Math.nextDown(l), Math.nextUp(h));
+    }
+
+}
@@ -0,0 +1,239 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.root;
+
+
+import org.apache.log4j.Logger;
+
+import edu.jas.arith.BigRational;
+import edu.jas.arith.Rational;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.Monomial;
+import edu.jas.poly.PolyUtil;
+import edu.jas.structure.RingElem;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * Certified sign evaluation of univariate polynomials. For rational
+ * coefficients the polynomial is first evaluated with double interval
+ * arithmetic, if the sign is ambiguous with decimal interval arithmetic and
+ * only if this is still ambiguous with exact arithmetic. For other
+ * coefficient rings exact arithmetic is used.
+ * @param <C> coefficient type.
+ * @author agent
+ */
+public class IntervalEvaluator<C extends RingElem<C> & Rational> {
+
+
+    private static final Logger logger = Logger.getLogger(IntervalEvaluator.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * The univariate polynomial.
+     */
+    public final GenPolynomial<C> f;
+
+
+    /**
+     * Coefficient factory.
+     */
+    protected final RingFactory<C> cfac;
+
+
+    /**
+     * Dense rational coefficients, index is the degree, or null if the
+     * coefficients are not rational.
+     */
+    protected final BigRational[] rcoeff;
+
+
+    /**
+     * Dense double interval coefficients, index is the degree.
+     */
+    protected final DoubleInterval[] dcoeff;
+
+
+    /**
+     * Cached decimal interval coefficients for the last used precision.
+     */
+    protected DecimalInterval[] bcoeff;
+
+
+    /**
+     * Maximal bit length of the rational coefficients.
+     */
+    protected final long cbits;
+
+
+    /**
+     * Statistics of evaluations decided on the double, decimal and exact
+     * level.
+     */
+    protected long dcount = 0, bcount = 0, ecount = 0;
+
+
+    /**
+     * Constructor.
+     * @param f univariate polynomial.
+     */
+    @SuppressWarnings("cast")
+    public IntervalEvaluator(GenPolynomial<C> f) {
+        this.f = f;
+        this.cfac = f.ring.coFac;
+        if (!((Object) cfac instanceof BigRational) || f.isZERO()) {
+            rcoeff = null;
+            dcoeff = null;
+            cbits = 0L;
+            return;
+        }
+        int deg = (int) f.degree(0);
+        rcoeff = new BigRational[deg + 1];
+        dcoeff = new DoubleInterval[deg + 1];
+        long b = 0L;
+        for (Monomial<C> m : f) {
+            int i = (int) m.exponent().getVal(0);
+            BigRational c = m.coefficient().getRational();
+            rcoeff[i] = c;
+            dcoeff[i] = DoubleInterval.fromRational(c);
+            b = Math.max(b, c.numerator().bitLength() + c.denominator().bitLength());
+        }
+        for (int i = 0; i <= deg; i++) {
+            if (rcoeff[i] == null) {
+                rcoeff[i] = BigRational.ZERO;
+                dcoeff[i] = new DoubleInterval(0.0);
+            }
+        }
+        cbits = b;
+    }
+
+
+    /**
+     * Test if interval arithmetic is used.
+     * @return true, if the coefficients are rational numbers, else false.
+     */
+    public boolean isRational() {
+        return rcoeff != null;
+    }
+
+
+    /**
+     * String representation of IntervalEvaluator.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "IntervalEvaluator(double=" + dcount + ", decimal=" + bcount + ", exact=" + ecount + ")";
+    }
+
+
+    /**
+     * Certified sign of f at a point.
+     * @param x element.
+     * @return sign(f(x)).
+     */
+    public int signum(C x) {
+        if (rcoeff != null) {
+            BigRational xr = x.getRational();
+            int s = doubleSignum(xr);
+            if (s != 0) {
+                dcount++;
+                return s;
+            }
+            s = decimalSignum(xr);
+            if (s != 0) {
+                bcount++;
+                return s;
+            }
+        }
+        ecount++;
+        if (debug) {
+            logger.debug("exact evaluation at " + x);
+        }
+        return PolyUtil.<C> evaluateMain(cfac, f, x).signum();
+    }
+
+
+    /**
+     * Sign of f at a point with double interval arithmetic.
+     * @param x rational number.
+     * @return sign(f(x)) if it is certified, 0 if the sign is ambiguous.
+     */
+    public int doubleSignum(BigRational x) {
+        DoubleInterval xi = DoubleInterval.fromRational(x);
+        int n = dcoeff.length - 1;
+        DoubleInterval y = dcoeff[n];
+        for (int i = n - 1; i >= 0; i--) {
+            y = y.multiply(xi).sum(dcoeff[i]);
+        }
+        return y.signum();
+    }
+
+
+    /**
+     * Sign of f at a point with decimal interval arithmetic. The precision
+     * is chosen from the size of the coefficients, of the point and the
+     * degree of f. If the sign is ambiguous, the computation is repeated
+     * once with doubled precision.
+     * @param x rational number.
+     * @return sign(f(x)) if it is certified, 0 if the sign is ambiguous.
+     */
+    public int decimalSignum(BigRational x) {
+        int n = rcoeff.length - 1;
+        long k = x.denominator().bitLength();
+        long xb = Math.max(1L, x.numerator().bitLength() - k + 1L);
+        long bits = cbits + n * xb + k + 32L;
+        int prec = (int) (bits * 0.30103) + 1;
+        prec = ((prec + 31) / 32) * 32; // steps of 32 digits to reuse coefficients
+        int s = decimalSignum(x, prec);
+        if (s == 0) {
+            s = decimalSignum(x, 2 * prec);
+        }
+        return s;
+    }
+
+
+    /**
+     * Sign of f at a point with decimal interval arithmetic.
+     * @param x rational number.
+     * @param prec precision in decimal digits.
+     * @return sign(f(x)) if it is certified, 0 if the sign is ambiguous.
+     */
+    public int decimalSignum(BigRational x, int prec) {
+        DecimalInterval[] bc = decimalCoefficients(prec);
+        int n = bc.length - 1;
+        DecimalInterval xi = DecimalInterval.fromRational(x, prec);
+        DecimalInterval y = bc[n];
+        for (int i = n - 1; i >= 0; i--) {
+            y = y.multiply(xi).sum(bc[i]);
+        }
+        return y.signum();
+    }
+
+
+    /**
+     * Decimal interval coefficients. The coefficients for the last requested
+     * precision are cached, since the precision grows only slowly during
+     * refinement.
+     * @param prec precision in decimal digits.
+     * @return dense decimal interval coefficients with precision prec.
+     */
+    protected DecimalInterval[] decimalCoefficients(int prec) {
+        DecimalInterval[] bc = bcoeff;
+        if (bc != null && bc[0].down.getPrecision() == prec) {
+            return bc;
+        }
+        bc = new DecimalInterval[rcoeff.length];
+        for (int i = 0; i < bc.length; i++) {
+            bc[i] = DecimalInterval.fromRational(rcoeff[i], prec);
+        }
+        bcoeff = bc;
+        return bc;
+    }
+
+}
@@ -33,7 +33,7 @@ public abstract class RealRootsAbstract<C extends RingElem<C> & Rational> implem
     private static final Logger logger = Logger.getLogger(RealRootsAbstract.class);
 
 
-    //private static final boolean debug = logger.isDebugEnabled();
+    private static final boolean debug = logger.isDebugEnabled();
 
 
     /**
@@ -261,28 +261,46 @@ public abstract class RealRootsAbstract<C extends RingElem<C> & Rational> implem
         if (f == null || f.isZERO() || f.isConstant() || eps == null) {
             return iv;
         }
+        return refineInterval(iv, new IntervalEvaluator<C>(f), eps);
+    }
+
+
+    /**
+     * Refine interval. The signs are computed with interval arithmetic and
+     * only if they are ambiguous with exact arithmetic.
+     * @param iv root isolating interval with f(left) * f(right) &lt; 0.
+     * @param ev sign evaluator for univariate polynomial f, non-zero.
+     * @param eps requested interval length.
+     * @return a new interval v such that |v| &lt; eps.
+     */
+    public Interval<C> refineInterval(Interval<C> iv, IntervalEvaluator<C> ev, BigRational eps) {
         if (iv.rationalLength().compareTo(eps) < 0) {
             return iv;
         }
-        RingFactory<C> cfac = f.ring.coFac;
+        RingFactory<C> cfac = ev.f.ring.coFac;
         C two = cfac.fromInteger(2);
         Interval<C> v = iv;
+        int sl = ev.signum(v.left);
         while (v.rationalLength().compareTo(eps) >= 0) {
             C c = v.left.sum(v.right);
             c = c.divide(two);
             //System.out.println("c = " + c);
             //c = RootUtil.<C>bisectionPoint(v,f);
-            if (PolyUtil.<C> evaluateMain(cfac, f, c).isZERO()) {
+            int sc = ev.signum(c);
+            if (sc == 0) {
                 v = new Interval<C>(c, c);
                 break;
             }
-            Interval<C> iv1 = new Interval<C>(v.left, c);
-            if (signChange(iv1, f)) {
-                v = iv1;
+            if (sl * sc < 0) {
+                v = new Interval<C>(v.left, c);
             } else {
                 v = new Interval<C>(c, v.right);
+                sl = sc;
             }
         }
+        if (debug) {
+            logger.debug("refineInterval: " + ev);
+        }
         return v;
     }
 
@@ -298,9 +316,10 @@ public abstract class RealRootsAbstract<C extends RingElem<C> & Rational> implem
         if (f == null || f.isZERO() || f.isConstant() || eps == null) {
             return V;
         }
+        IntervalEvaluator<C> ev = new IntervalEvaluator<C>(f);
         List<Interval<C>> IV = new ArrayList<Interval<C>>();
         for (Interval<C> v : V) {
-            Interval<C> iv = refineInterval(v, f, eps);
+            Interval<C> iv = refineInterval(v, ev, eps);
             IV.add(iv);
         }
         return IV;
@@ -42,6 +42,12 @@ public class FactorAlgebraic<C extends GcdRingElem<C>> extends FactorAbsolute<Al
     public final FactorAbstract<C> factorCoeff;
 
 
+    /**
+     * Last shift parameter k with a squarefree norm, tried first.
+     */
+    protected volatile long shift = 0L;
+
+
     /**
      * No argument constructor. <b>Note:</b> can't use this constructor.
      */
@@ -122,13 +128,21 @@ public class FactorAlgebraic<C extends GcdRingElem<C>> extends FactorAbsolute<Al
         //int[] klist = new int[]{ 0, 1, 2, 3, -1, -2, -3 , 5, -5, 7, -7, 23, -23, 167, -167 };
         //int[] klist = new int[] { 0, -1, -2, 1, 2, -3, 3 };
         int[] klist = new int[] { 0, -1, -2, 1, 2 };
-        int ki = 0;
+        int ki = -1; // start with cached shift
         while (!sqf) {
             // k = 0,1,2,-1,-2
-            if (ki >= klist.length) {
-                break;
+            if (ki < 0) {
+                k = shift;
+            } else {
+                if (ki >= klist.length) {
+                    break;
+                }
+                k = klist[ki];
+                if (k == shift) {
+                    ki++;
+                    continue;
+                }
             }
-            k = klist[ki];
             ki++;
             // compute norm with x -> ( y - k x )
             ks = k;
@@ -143,7 +157,9 @@ public class FactorAlgebraic<C extends GcdRingElem<C>> extends FactorAbsolute<Al
         }
         // if Res is now squarefree, else must take radical factorization
         List<GenPolynomial<C>> nfacs;
-        if (!sqf) {
+        if (sqf) {
+            shift = ks;
+        } else {
             //System.out.println("\nres = " + res); 
             System.out.println("sqf(" + ks + ") = " + res.degree());
             //res = factorCoeff.squarefreePart(res); // better use obtained factors
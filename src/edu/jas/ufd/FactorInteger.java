@@ -1309,7 +1309,11 @@ public class FactorInteger<MOD extends GcdRingElem<MOD> & Modular> extends Facto
         // Hensel lifting of factors
         List<GenPolynomial<MOD>> mlift;
         try {
-            mlift = HenselMultUtil.<MOD> liftHensel(pd, pq, muqfactors, V, k, lf);
+            if (muqfactors.size() > 2) {
+                mlift = HenselMultUtil.<MOD> liftHenselParallel(pd, pq, muqfactors, V, k, lf);
+            } else {
+                mlift = HenselMultUtil.<MOD> liftHensel(pd, pq, muqfactors, V, k, lf);
+            }
             logger.info("mlift = " + mlift);
         } catch (NoLiftingException nle) {
             //System.out.println("exception : " + nle);
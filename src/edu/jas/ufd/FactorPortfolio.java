@@ -0,0 +1,160 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.ufd;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.kern.PortfolioRunner;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.structure.GcdRingElem;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * Factorization parallel portfolio. Executes the factorization of squarefree
+ * polynomials from any number of implementations with staggered starts and
+ * returns the result from the fastest run. All other methods are inherited
+ * from <code>FactorAbstract</code> and use the raced squarefree
+ * factorizations.
+ * @see edu.jas.kern.PortfolioRunner
+ * @author agent
+ */
+
+public class FactorPortfolio<C extends GcdRingElem<C>> extends FactorAbstract<C> {
+
+
+    private static final long serialVersionUID = 1L;
+
+
+    private static final Logger logger = Logger.getLogger(FactorPortfolio.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Key for the win statistics.
+     */
+    public static final String KEY = "Factor";
+
+
+    /**
+     * Factorization engines.
+     */
+    public final List<FactorAbstract<C>> engines;
+
+
+    /**
+     * Portfolio runner.
+     */
+    protected final PortfolioRunner runner;
+
+
+    /**
+     * Portfolio constructor.
+     * @param cfac coefficient ring factory.
+     * @param engines list of factorization engines.
+     */
+    public FactorPortfolio(RingFactory<C> cfac, List<FactorAbstract<C>> engines) {
+        this(cfac, engines, PortfolioRunner.DEFAULT_STAGGER);
+    }
+
+
+    /**
+     * Portfolio constructor.
+     * @param cfac coefficient ring factory.
+     * @param engines list of factorization engines.
+     * @param stagger delay in milliseconds between the start of the engines.
+     */
+    public FactorPortfolio(RingFactory<C> cfac, List<FactorAbstract<C>> engines, long stagger) {
+        super(cfac);
+        if (engines == null || engines.isEmpty()) {
+            throw new IllegalArgumentException("engines must be non empty");
+        }
+        this.engines = new ArrayList<FactorAbstract<C>>(engines);
+        runner = new PortfolioRunner(KEY, stagger);
+    }
+
+
+    /**
+     * Get the String representation with factorization engines.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "FactorPortfolio" + engines;
+    }
+
+
+    /**
+     * Race a squarefree factorization of the engines.
+     * @param P squarefree GenPolynomial.
+     * @param base true for univariate, false for multivariate factorization.
+     * @return list of irreducible factors of P from the fastest engine.
+     */
+    protected List<GenPolynomial<C>> race(final GenPolynomial<C> P, final boolean base) {
+        final String method = base ? "baseFactorsSquarefree" : "factorsSquarefree";
+        List<String> names = new ArrayList<String>(engines.size());
+        List<Callable<List<GenPolynomial<C>>>> cs = new ArrayList<Callable<List<GenPolynomial<C>>>>(
+                        engines.size());
+        for (final FactorAbstract<C> e : engines) {
+            names.add(e.toString() + "." + method);
+            cs.add(new Callable<List<GenPolynomial<C>>>() {
+
+
+                public List<GenPolynomial<C>> call() {
+                    List<GenPolynomial<C>> F = base ? e.baseFactorsSquarefree(P) : e.factorsSquarefree(P);
+                    if (debug) {
+                        logger.info("FactorPortfolio done " + method + " " + e);
+                    }
+                    return F;
+                }
+            });
+        }
+        return runner.race(names, cs);
+    }
+
+
+    /**
+     * GenPolynomial base factorization of a squarefree polynomial.
+     * @param P squarefree and primitive! GenPolynomial.
+     * @return [p_1,...,p_k] with P = prod_{i=1, ..., k} p_i.
+     */
+    @Override
+    public List<GenPolynomial<C>> baseFactorsSquarefree(GenPolynomial<C> P) {
+        if (P == null || P.isZERO() || P.isConstant()) {
+            List<GenPolynomial<C>> factors = new ArrayList<GenPolynomial<C>>(1);
+            if (P != null && !P.isZERO()) {
+                factors.add(P);
+            }
+            return factors;
+        }
+        return race(P, true);
+    }
+
+
+    /**
+     * GenPolynomial factorization of a squarefree polynomial.
+     * @param P squarefree and primitive! (respectively monic) GenPolynomial.
+     * @return [p_1,...,p_k] with P = prod_{i=1, ..., k} p_i.
+     */
+    @Override
+    public List<GenPolynomial<C>> factorsSquarefree(GenPolynomial<C> P) {
+        if (P == null || P.isZERO() || P.isConstant()) {
+            List<GenPolynomial<C>> factors = new ArrayList<GenPolynomial<C>>(1);
+            if (P != null && !P.isZERO()) {
+                factors.add(P);
+            }
+            return factors;
+        }
+        return race(P, false);
+    }
+
+}
@@ -0,0 +1,306 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.ufd;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.kern.PortfolioRunner;
+import edu.jas.kern.PreemptingException;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.structure.GcdRingElem;
+
+
+/**
+ * Greatest common divisor parallel portfolio. Executes methods from any
+ * number of implementations with staggered starts and returns the result
+ * from the fastest run. The wins are recorded per method and implementation
+ * to start the most successful implementation first in future races.
+ * @see edu.jas.kern.PortfolioRunner
+ * @author agent
+ */
+
+public class GCDPortfolio<C extends GcdRingElem<C>> extends GreatestCommonDivisorAbstract<C> {
+
+
+    private static final long serialVersionUID = 1L;
+
+
+    private static final Logger logger = Logger.getLogger(GCDPortfolio.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Key for the win statistics.
+     */
+    public static final String KEY = "GCD";
+
+
+    /**
+     * GCD and resultant engines.
+     */
+    public final List<GreatestCommonDivisorAbstract<C>> engines;
+
+
+    /**
+     * Portfolio runner.
+     */
+    protected final PortfolioRunner runner;
+
+
+    /**
+     * Portfolio constructor.
+     * @param engines list of gcd engines.
+     */
+    public GCDPortfolio(List<GreatestCommonDivisorAbstract<C>> engines) {
+        this(engines, PortfolioRunner.DEFAULT_STAGGER);
+    }
+
+
+    /**
+     * Portfolio constructor.
+     * @param engines list of gcd engines.
+     * @param stagger delay in milliseconds between the start of the engines.
+     */
+    public GCDPortfolio(List<GreatestCommonDivisorAbstract<C>> engines, long stagger) {
+        if (engines == null || engines.isEmpty()) {
+            throw new IllegalArgumentException("engines must be non empty");
+        }
+        this.engines = new ArrayList<GreatestCommonDivisorAbstract<C>>(engines);
+        runner = new PortfolioRunner(KEY, stagger);
+    }
+
+
+    /**
+     * Get the String representation with gcd engines.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "GCDPortfolio" + engines;
+    }
+
+
+    /**
+     * Method of an engine to be raced.
+     */
+    protected abstract class Method<T> {
+
+
+        /**
+         * Method name for the statistics.
+         */
+        final String name;
+
+
+        Method(String name) {
+            this.name = name;
+        }
+
+
+        /**
+         * Apply the method.
+         * @param e gcd engine.
+         * @return result of the method from e.
+         */
+        abstract T apply(GreatestCommonDivisorAbstract<C> e);
+    }
+
+
+    /**
+     * Race a method of the engines.
+     * @param m method to be raced.
+     * @return result from the fastest engine.
+     */
+    protected <T> T race(final Method<T> m) {
+        List<String> names = new ArrayList<String>(engines.size());
+        List<Callable<T>> cs = new ArrayList<Callable<T>>(engines.size());
+        for (final GreatestCommonDivisorAbstract<C> e : engines) {
+            names.add(e.toString() + "." + m.name);
+            cs.add(new Callable<T>() {
+
+
+                public T call() {
+                    T g = m.apply(e);
+                    if (debug) {
+                        logger.info("GCDPortfolio done " + m.name + " " + e);
+                    }
+                    return g;
+                }
+            });
+        }
+        try {
+            return runner.race(names, cs);
+        } catch (PreemptingException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            failed(m.name, e);
+            return null;
+        }
+    }
+
+
+    /**
+     * Failure of all engines.
+     * @param method name of the failed method.
+     * @param e exception from the last failing engine.
+     */
+    protected void failed(String method, RuntimeException e) {
+        throw e;
+    }
+
+
+    /**
+     * Univariate GenPolynomial greatest common divisor.
+     * @param P univariate GenPolynomial.
+     * @param S univariate GenPolynomial.
+     * @return gcd(P,S).
+     */
+    @Override
+    public GenPolynomial<C> baseGcd(final GenPolynomial<C> P, final GenPolynomial<C> S) {
+        if (S == null || S.isZERO()) {
+            return P;
+        }
+        if (P == null || P.isZERO()) {
+            return S;
+        }
+        return race(new Method<GenPolynomial<C>>("baseGcd") {
+
+
+            GenPolynomial<C> apply(GreatestCommonDivisorAbstract<C> e) {
+                return e.baseGcd(P, S);
+            }
+        });
+    }
+
+
+    /**
+     * Univariate GenPolynomial recursive greatest common divisor.
+     * @param P univariate recursive GenPolynomial.
+     * @param S univariate recursive GenPolynomial.
+     * @return gcd(P,S).
+     */
+    @Override
+    public GenPolynomial<GenPolynomial<C>> recursiveUnivariateGcd(final GenPolynomial<GenPolynomial<C>> P,
+                    final GenPolynomial<GenPolynomial<C>> S) {
+        if (S == null || S.isZERO()) {
+            return P;
+        }
+        if (P == null || P.isZERO()) {
+            return S;
+        }
+        return race(new Method<GenPolynomial<GenPolynomial<C>>>("recursiveUnivariateGcd") {
+
+
+            GenPolynomial<GenPolynomial<C>> apply(GreatestCommonDivisorAbstract<C> e) {
+                return e.recursiveUnivariateGcd(P, S);
+            }
+        });
+    }
+
+
+    /**
+     * GenPolynomial greatest common divisor.
+     * @param P GenPolynomial.
+     * @param S GenPolynomial.
+     * @return gcd(P,S).
+     */
+    @Override
+    public GenPolynomial<C> gcd(final GenPolynomial<C> P, final GenPolynomial<C> S) {
+        if (S == null || S.isZERO()) {
+            return P;
+        }
+        if (P == null || P.isZERO()) {
+            return S;
+        }
+        return race(new Method<GenPolynomial<C>>("gcd") {
+
+
+            GenPolynomial<C> apply(GreatestCommonDivisorAbstract<C> e) {
+                return e.gcd(P, S);
+            }
+        });
+    }
+
+
+    /**
+     * Univariate GenPolynomial resultant.
+     * @param P univariate GenPolynomial.
+     * @param S univariate GenPolynomial.
+     * @return res(P,S).
+     */
+    @Override
+    public GenPolynomial<C> baseResultant(final GenPolynomial<C> P, final GenPolynomial<C> S) {
+        if (S == null || S.isZERO()) {
+            return S;
+        }
+        if (P == null || P.isZERO()) {
+            return P;
+        }
+        return race(new Method<GenPolynomial<C>>("baseResultant") {
+
+
+            GenPolynomial<C> apply(GreatestCommonDivisorAbstract<C> e) {
+                return e.baseResultant(P, S);
+            }
+        });
+    }
+
+
+    /**
+     * Univariate GenPolynomial recursive resultant.
+     * @param P univariate recursive GenPolynomial.
+     * @param S univariate recursive GenPolynomial.
+     * @return res(P,S).
+     */
+    @Override
+    public GenPolynomial<GenPolynomial<C>> recursiveUnivariateResultant(final GenPolynomial<GenPolynomial<C>> P,
+                    final GenPolynomial<GenPolynomial<C>> S) {
+        if (S == null || S.isZERO()) {
+            return S;
+        }
+        if (P == null || P.isZERO()) {
+            return P;
+        }
+        return race(new Method<GenPolynomial<GenPolynomial<C>>>("recursiveUnivariateResultant") {
+
+
+            GenPolynomial<GenPolynomial<C>> apply(GreatestCommonDivisorAbstract<C> e) {
+                return e.recursiveUnivariateResultant(P, S);
+            }
+        });
+    }
+
+
+    /**
+     * GenPolynomial resultant.
+     * @param P GenPolynomial.
+     * @param S GenPolynomial.
+     * @return res(P,S).
+     */
+    @Override
+    public GenPolynomial<C> resultant(final GenPolynomial<C> P, final GenPolynomial<C> S) {
+        if (S == null || S.isZERO()) {
+            return S;
+        }
+        if (P == null || P.isZERO()) {
+            return P;
+        }
+        return race(new Method<GenPolynomial<C>>("resultant") {
+
+
+            GenPolynomial<C> apply(GreatestCommonDivisorAbstract<C> e) {
+                return e.resultant(P, S);
+            }
+        });
+    }
+
+}
@@ -7,6 +7,10 @@ package edu.jas.ufd;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.log4j.Logger;
 
@@ -15,8 +19,11 @@ import edu.jas.arith.ModIntegerRing;
 import edu.jas.arith.ModLongRing;
 import edu.jas.arith.Modular;
 import edu.jas.arith.ModularRingFactory;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.poly.ExpVector;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.Monomial;
 import edu.jas.poly.PolyUtil;
 import edu.jas.ps.PolynomialTaylorFunction;
 import edu.jas.ps.TaylorFunction;
@@ -222,23 +229,68 @@ public class HenselMultUtil {
     public static <MOD extends GcdRingElem<MOD> & Modular> List<GenPolynomial<MOD>> liftDiophant(
                     List<GenPolynomial<MOD>> A, GenPolynomial<MOD> C, List<MOD> V, long d, long k)
                     throws NoLiftingException {
-        GenPolynomialRing<MOD> pkfac = C.ring;
+        return HenselMultUtil.<MOD> liftDiophant(A, C, V, d, k, new HenselDiophant<MOD>(false));
+    }
+
+
+    /**
+     * Modular diophantine equation solution and lifting algorithm. Let p =
+     * A_i.ring.coFac.modul() and assume ggt(a,b) == 1 mod p, for a, b in A.
+     * The solutions for the factors are computed in parallel.
+     * @param A list of modular GenPolynomials, mod p^k
+     * @param C modular GenPolynomial, mod p^k
+     * @param V list of substitution values, mod p^k
+     * @param d desired approximation exponent (x_i-v_i)^d.
+     * @param k desired approximation exponent p^k.
+     * @return [s_1,..., s_n] with sum_i s_i A_i' = C mod p^k, with Ai' =
+     *         prod_{j!=i} A_j.
+     */
+    public static <MOD extends GcdRingElem<MOD> & Modular> List<GenPolynomial<MOD>> liftDiophantParallel(
+                    List<GenPolynomial<MOD>> A, GenPolynomial<MOD> C, List<MOD> V, long d, long k)
+                    throws NoLiftingException {
+        return HenselMultUtil.<MOD> liftDiophant(A, C, V, d, k, new HenselDiophant<MOD>(true));
+    }
+
+
+    /**
+     * Modular diophantine equation solution and lifting algorithm. Let p =
+     * A_i.ring.coFac.modul() and assume ggt(a,b) == 1 mod p, for a, b in A.
+     * @param A list of modular GenPolynomials, mod p^k
+     * @param C modular GenPolynomial, mod p^k
+     * @param V list of substitution values, mod p^k
+     * @param d desired approximation exponent (x_i-v_i)^d.
+     * @param k desired approximation exponent p^k.
+     * @param hd univariate solver with cached extended Euclidean relation.
+     * @return [s_1,..., s_n] with sum_i s_i A_i' = C mod p^k, with Ai' =
+     *         prod_{j!=i} A_j.
+     */
+    static <MOD extends GcdRingElem<MOD> & Modular> List<GenPolynomial<MOD>> liftDiophant(
+                    List<GenPolynomial<MOD>> A, GenPolynomial<MOD> C, List<MOD> V, long d, long k,
+                    HenselDiophant<MOD> hd) throws NoLiftingException {
+        final GenPolynomialRing<MOD> pkfac = C.ring;
         if (pkfac.nvar == 1) { // V, d ignored
-            return HenselUtil.<MOD> liftDiophant(A, C, k);
+            return hd.solve(A, C, k);
         }
         if (!pkfac.equals(A.get(0).ring)) {
             throw new IllegalArgumentException("A.ring != pkfac: " + A.get(0).ring + " != " + pkfac);
         }
         // co-products
-        GenPolynomial<MOD> As = pkfac.getONE();
+        GenPolynomial<MOD> Ap1 = pkfac.getONE();
         for (GenPolynomial<MOD> a : A) {
-            As = As.multiply(a);
+            Ap1 = Ap1.multiply(a);
         }
-        List<GenPolynomial<MOD>> Bp = new ArrayList<GenPolynomial<MOD>>(A.size());
-        for (GenPolynomial<MOD> a : A) {
-            GenPolynomial<MOD> b = PolyUtil.<MOD> basePseudoDivide(As, a);
-            Bp.add(b);
+        final GenPolynomial<MOD> As = Ap1;
+        List<Callable<GenPolynomial<MOD>>> cs = new ArrayList<Callable<GenPolynomial<MOD>>>(A.size());
+        for (final GenPolynomial<MOD> a : A) {
+            cs.add(new Callable<GenPolynomial<MOD>>() {
+
+
+                public GenPolynomial<MOD> call() {
+                    return PolyUtil.<MOD> basePseudoDivide(As, a);
+                }
+            });
         }
+        List<GenPolynomial<MOD>> Bp = hd.map(cs);
 
         // evaluate at v_n:
         List<MOD> Vp = new ArrayList<MOD>(V);
@@ -263,7 +315,7 @@ public class HenselMultUtil {
         //System.out.println("Cp = " + Cp);
 
         // recursion:
-        List<GenPolynomial<MOD>> su = HenselMultUtil.<MOD> liftDiophant(Ap, Cp, Vp, d, k);
+        List<GenPolynomial<MOD>> su = HenselMultUtil.<MOD> liftDiophant(Ap, Cp, Vp, d, k, hd);
         //System.out.println("su@p^" + k + " = " + su);
         //System.out.println("coFac = " + su.get(0).ring.coFac.toScript());
         if (pkfac.nvar == 2 && !HenselUtil.<MOD> isDiophantLift(Ap, su, Cp)) {
@@ -273,7 +325,7 @@ public class HenselMultUtil {
         if (!ckfac.equals(su.get(0).ring)) {
             throw new IllegalArgumentException("qfac != ckfac: " + su.get(0).ring + " != " + ckfac);
         }
-        GenPolynomialRing<BigInteger> ifac = new GenPolynomialRing<BigInteger>(new BigInteger(), pkfac);
+        final GenPolynomialRing<BigInteger> ifac = new GenPolynomialRing<BigInteger>(new BigInteger(), pkfac);
         //GenPolynomialRing<BigInteger> cifac = new GenPolynomialRing<BigInteger>(new BigInteger(), ckfac);
         //System.out.println("ifac = " + ifac.toScript());
         String[] mn = new String[] { pkfac.getVars()[pkfac.nvar - 1] };
@@ -295,11 +347,7 @@ public class HenselMultUtil {
         //    GenPolynomial<BigInteger> ai = PolyUtil.integerFromModularCoefficients(ifac, a);
         //    Ai.add(ai);
         //}
-        List<GenPolynomial<BigInteger>> Bi = new ArrayList<GenPolynomial<BigInteger>>(A.size());
-        for (GenPolynomial<MOD> b : Bp) {
-            GenPolynomial<BigInteger> bi = PolyUtil.integerFromModularCoefficients(ifac, b);
-            Bi.add(bi);
-        }
+        final List<GenPolynomial<BigInteger>> Bi = PolyUtil.<MOD> integerFromModularCoefficients(ifac, Bp);
         GenPolynomial<BigInteger> Ci = PolyUtil.integerFromModularCoefficients(ifac, C);
         //System.out.println("Ai = " + Ai);
         //System.out.println("Ci = " + Ci);
@@ -313,9 +361,8 @@ public class HenselMultUtil {
 
         // compute error:
         GenPolynomial<BigInteger> E = Ci; // - sum_i s_i b_i
-        int i = 0;
-        for (GenPolynomial<BigInteger> bi : Bi) {
-            E = E.subtract(bi.multiply(supi.get(i++)));
+        for (GenPolynomial<BigInteger> bs : multiply(Bi, supi, hd)) {
+            E = E.subtract(bs);
         }
         //System.out.println("E     = " + E);
         if (E.isZERO()) {
@@ -349,7 +396,7 @@ public class HenselMultUtil {
                 continue;
             }
             // recursion:
-            List<GenPolynomial<MOD>> S = HenselMultUtil.<MOD> liftDiophant(Ap, cm, Vp, d, k);
+            List<GenPolynomial<MOD>> S = HenselMultUtil.<MOD> liftDiophant(Ap, cm, Vp, d, k, hd);
             //System.out.println("S    = " + S);
             if (!ckfac.coFac.equals(S.get(0).ring.coFac)) {
                 throw new IllegalArgumentException("ckfac != pkfac: " + ckfac.coFac + " != "
@@ -361,28 +408,29 @@ public class HenselMultUtil {
             }
             mon = mon.multiply(xv); // Power.<GenPolynomial<MOD>> power(pkfac,xv,e);
             //System.out.println("mon  = " + mon);
-            //List<GenPolynomial<MOD>> Sp = new ArrayList<GenPolynomial<MOD>>(S.size());
-            i = 0;
-            supi = new ArrayList<GenPolynomial<BigInteger>>(su.size());
-            for (GenPolynomial<MOD> dd : S) {
-                //System.out.println("dd = " + dd);
-                GenPolynomial<MOD> de = dd.extend(pkfac, 0, 0L);
-                GenPolynomial<MOD> dm = de.multiply(mon);
-                //Sp.add(dm);
-                de = sup.get(i).sum(dm);
-                //System.out.println("dd = " + dd);
-                sup.set(i++, de);
-                GenPolynomial<BigInteger> spi = PolyUtil.integerFromModularCoefficients(ifac, dm);
-                supi.add(spi);
+            // lift the tails of the factors
+            final GenPolynomial<MOD> monf = mon;
+            final List<GenPolynomial<MOD>> supf = sup;
+            List<Callable<GenPolynomial<BigInteger>>> ct = new ArrayList<Callable<GenPolynomial<BigInteger>>>(
+                            S.size());
+            for (int i = 0; i < S.size(); i++) {
+                final int j = i;
+                final GenPolynomial<MOD> dd = S.get(i);
+                ct.add(new Callable<GenPolynomial<BigInteger>>() {
+
+
+                    public GenPolynomial<BigInteger> call() {
+                        GenPolynomial<MOD> dm = dd.extend(pkfac, 0, 0L).multiply(monf);
+                        supf.set(j, supf.get(j).sum(dm));
+                        // s_i b_i for the new error
+                        return Bi.get(j).multiply(PolyUtil.integerFromModularCoefficients(ifac, dm));
+                    }
+                });
             }
-            //System.out.println("Sp   = " + Sp);
-            //System.out.println("sup  = " + sup);
-            //System.out.println("supi = " + supi);
             // compute new error
             //E = E; // - sum_i s_i b_i
-            i = 0;
-            for (GenPolynomial<BigInteger> bi : Bi) {
-                E = E.subtract(bi.multiply(supi.get(i++)));
+            for (GenPolynomial<BigInteger> bs : hd.map(ct)) {
+                E = E.subtract(bs);
             }
             //System.out.println("E     = " + E);
             if (E.isZERO()) {
@@ -402,6 +450,64 @@ public class HenselMultUtil {
     }
 
 
+    /**
+     * Products of corresponding list elements.
+     * @param A list of integer polynomials.
+     * @param B list of integer polynomials.
+     * @param hd solver for parallel computation.
+     * @return [a_1 b_1, ..., a_n b_n].
+     */
+    static <MOD extends GcdRingElem<MOD> & Modular> List<GenPolynomial<BigInteger>> multiply(
+                    final List<GenPolynomial<BigInteger>> A, final List<GenPolynomial<BigInteger>> B,
+                    HenselDiophant<MOD> hd) throws NoLiftingException {
+        List<Callable<GenPolynomial<BigInteger>>> cs = new ArrayList<Callable<GenPolynomial<BigInteger>>>(
+                        A.size());
+        for (int i = 0; i < A.size(); i++) {
+            final int j = i;
+            cs.add(new Callable<GenPolynomial<BigInteger>>() {
+
+
+                public GenPolynomial<BigInteger> call() {
+                    return A.get(j).multiply(B.get(j));
+                }
+            });
+        }
+        return hd.map(cs);
+    }
+
+
+    /**
+     * Correction of the factors. U_i is replaced by U_i + D_i mon.
+     * @param U list of factors, modified.
+     * @param D list of corrections.
+     * @param mon (x_n - v)^e.
+     * @param ifac integer polynomial ring.
+     * @param hd solver for parallel computation.
+     * @return list of the new factors with integer coefficients.
+     */
+    static <MOD extends GcdRingElem<MOD> & Modular> List<GenPolynomial<BigInteger>> liftTails(
+                    final List<GenPolynomial<MOD>> U, List<GenPolynomial<MOD>> D, final GenPolynomial<MOD> mon,
+                    final GenPolynomialRing<BigInteger> ifac, HenselDiophant<MOD> hd) throws NoLiftingException {
+        List<Callable<GenPolynomial<BigInteger>>> cs = new ArrayList<Callable<GenPolynomial<BigInteger>>>(
+                        D.size());
+        for (int i = 0; i < D.size(); i++) {
+            final int j = i;
+            final GenPolynomial<MOD> dd = D.get(i);
+            cs.add(new Callable<GenPolynomial<BigInteger>>() {
+
+
+                public GenPolynomial<BigInteger> call() {
+                    GenPolynomial<MOD> de = dd.extend(mon.ring, 0, 0L);
+                    de = U.get(j).sum(de.multiply(mon));
+                    U.set(j, de);
+                    return PolyUtil.integerFromModularCoefficients(ifac, de);
+                }
+            });
+        }
+        return hd.map(cs);
+    }
+
+
     /**
      * Modular Hensel lifting algorithm on coefficients test. Let p =
      * f_i.ring.coFac.modul() and assume C == prod_{0,...,n-1} f_i mod p with
@@ -454,6 +560,42 @@ public class HenselMultUtil {
     public static <MOD extends GcdRingElem<MOD> & Modular> List<GenPolynomial<MOD>> liftHenselMonic(
                     GenPolynomial<BigInteger> C, GenPolynomial<MOD> Cp, List<GenPolynomial<MOD>> F,
                     List<BigInteger> V, long k) throws NoLiftingException {
+        return HenselMultUtil.<MOD> liftHenselMonic(C, Cp, F, V, k, new HenselDiophant<MOD>(false));
+    }
+
+
+    /**
+     * Modular Hensel lifting algorithm, monic case, parallel version. The
+     * diophantine equations and the corrections of the factors are computed
+     * in parallel. Let p = A_i.ring.coFac.modul() and assume ggt(a,b) == 1
+     * mod p, for a, b in A.
+     * @param C monic GenPolynomial with integer coefficients
+     * @param Cp GenPolynomial mod p^k
+     * @param F list of modular GenPolynomials, mod (I_v, p^k )
+     * @param V list of integer substitution values
+     * @param k desired approximation exponent p^k.
+     * @return [g'_1,..., g'_n] with prod_i g'_i = Cp mod p^k.
+     */
+    public static <MOD extends GcdRingElem<MOD> & Modular> List<GenPolynomial<MOD>> liftHenselMonicParallel(
+                    GenPolynomial<BigInteger> C, GenPolynomial<MOD> Cp, List<GenPolynomial<MOD>> F,
+                    List<BigInteger> V, long k) throws NoLiftingException {
+        return HenselMultUtil.<MOD> liftHenselMonic(C, Cp, F, V, k, new HenselDiophant<MOD>(true));
+    }
+
+
+    /**
+     * Modular Hensel lifting algorithm, monic case.
+     * @param C monic GenPolynomial with integer coefficients
+     * @param Cp GenPolynomial mod p^k
+     * @param F list of modular GenPolynomials, mod (I_v, p^k )
+     * @param V list of integer substitution values
+     * @param k desired approximation exponent p^k.
+     * @param hd univariate solver for the diophantine equations.
+     * @return [g'_1,..., g'_n] with prod_i g'_i = Cp mod p^k.
+     */
+    static <MOD extends GcdRingElem<MOD> & Modular> List<GenPolynomial<MOD>> liftHenselMonic(
+                    GenPolynomial<BigInteger> C, GenPolynomial<MOD> Cp, List<GenPolynomial<MOD>> F,
+                    List<BigInteger> V, long k, HenselDiophant<MOD> hd) throws NoLiftingException {
         GenPolynomialRing<MOD> pkfac = Cp.ring;
         //if (pkfac.nvar == 1) { // V ignored
         //    return HenselUtil.<MOD> liftHenselMonic(C,F,k);
@@ -555,10 +697,7 @@ public class HenselMultUtil {
             //System.out.println("Ci = " + Ci);
 
             // compute error:
-            E = ifac.getONE();
-            for (GenPolynomial<BigInteger> bi : Bi) {
-                E = E.multiply(bi);
-            }
+            E = hd.product(Bi, ifac.getONE());
             E = Ci.subtract(E);
             //System.out.println("E     = " + E);
             GenPolynomial<MOD> Ep = PolyUtil.<MOD> fromIntegerCoefficients(pkfac, E);
@@ -592,34 +731,18 @@ public class HenselMultUtil {
                 if (cm.isZERO()) {
                     continue;
                 }
-                List<GenPolynomial<MOD>> Ud = HenselMultUtil.<MOD> liftDiophant(U1, cm, Vh, d, k);
+                List<GenPolynomial<MOD>> Ud = HenselMultUtil.<MOD> liftDiophant(U1, cm, Vh, d, k, hd);
                 //System.out.println("Ud = " + Ud);
 
                 mon = mon.multiply(xv); // Power.<GenPolynomial<MOD>> power(pkfac,xv,e);
                 //System.out.println("mon  = " + mon);
                 //List<GenPolynomial<MOD>> Sd = new ArrayList<GenPolynomial<MOD>>(Ud.size());
-                int i = 0;
-                List<GenPolynomial<BigInteger>> Si = new ArrayList<GenPolynomial<BigInteger>>(Ud.size());
-                for (GenPolynomial<MOD> dd : Ud) {
-                    //System.out.println("dd = " + dd);
-                    GenPolynomial<MOD> de = dd.extend(pkfac, 0, 0L);
-                    GenPolynomial<MOD> dm = de.multiply(mon);
-                    //Sd.add(dm);
-                    de = U.get(i).sum(dm);
-                    //System.out.println("de = " + de);
-                    U.set(i++, de);
-                    GenPolynomial<BigInteger> si = PolyUtil.integerFromModularCoefficients(ifac, de);
-                    Si.add(si);
-                }
-                //System.out.println("Sd   = " + Sd);
+                List<GenPolynomial<BigInteger>> Si = liftTails(U, Ud, mon, ifac, hd);
                 //System.out.println("U    = " + U);
                 //System.out.println("Si   = " + Si);
 
                 // compute new error:
-                E = ifac.getONE();
-                for (GenPolynomial<BigInteger> bi : Si) {
-                    E = E.multiply(bi);
-                }
+                E = hd.product(Si, ifac.getONE());
                 E = Ci.subtract(E);
                 //System.out.println("E     = " + E);
                 Ep = PolyUtil.<MOD> fromIntegerCoefficients(pkfac, E);
@@ -661,6 +784,45 @@ public class HenselMultUtil {
                     GenPolynomial<BigInteger> C, GenPolynomial<MOD> Cp, List<GenPolynomial<MOD>> F,
                     List<BigInteger> V, long k, List<GenPolynomial<BigInteger>> G) 
            throws NoLiftingException {
+        return HenselMultUtil.<MOD> liftHensel(C, Cp, F, V, k, G, new HenselDiophant<MOD>(false));
+    }
+
+
+    /**
+     * Modular Hensel lifting algorithm, parallel version. The diophantine
+     * equations and the corrections of the factors are computed in
+     * parallel. Let p = A_i.ring.coFac.modul() and assume ggt(a,b) == 1 mod
+     * p, for a, b in A.
+     * @param C GenPolynomial with integer coefficients
+     * @param Cp GenPolynomial C mod p^k
+     * @param F list of modular GenPolynomials, mod (I_v, p^k )
+     * @param V list of integral substitution values
+     * @param k desired approximation exponent p^k.
+     * @param G list of leading coefficients of the factors of C.
+     * @return [g'_1,..., g'_n] with prod_i g'_i = Cp mod p^k.
+     */
+    public static <MOD extends GcdRingElem<MOD> & Modular> List<GenPolynomial<MOD>> liftHenselParallel(
+                    GenPolynomial<BigInteger> C, GenPolynomial<MOD> Cp, List<GenPolynomial<MOD>> F,
+                    List<BigInteger> V, long k, List<GenPolynomial<BigInteger>> G) throws NoLiftingException {
+        return HenselMultUtil.<MOD> liftHensel(C, Cp, F, V, k, G, new HenselDiophant<MOD>(true));
+    }
+
+
+    /**
+     * Modular Hensel lifting algorithm.
+     * @param C GenPolynomial with integer coefficients
+     * @param Cp GenPolynomial C mod p^k
+     * @param F list of modular GenPolynomials, mod (I_v, p^k )
+     * @param V list of integral substitution values
+     * @param k desired approximation exponent p^k.
+     * @param G list of leading coefficients of the factors of C.
+     * @param hd univariate solver for the diophantine equations.
+     * @return [g'_1,..., g'_n] with prod_i g'_i = Cp mod p^k.
+     */
+    static <MOD extends GcdRingElem<MOD> & Modular> List<GenPolynomial<MOD>> liftHensel(
+                    GenPolynomial<BigInteger> C, GenPolynomial<MOD> Cp, List<GenPolynomial<MOD>> F,
+                    List<BigInteger> V, long k, List<GenPolynomial<BigInteger>> G, HenselDiophant<MOD> hd)
+                    throws NoLiftingException {
         GenPolynomialRing<MOD> pkfac = Cp.ring;
         long d = C.degree();
         //System.out.println("C = " + C);
@@ -803,10 +965,7 @@ public class HenselMultUtil {
             //System.out.println("Ci = " + Ci);
 
             // compute error:
-            E = ifac.getONE();
-            for (GenPolynomial<BigInteger> bi : Bi) {
-                E = E.multiply(bi);
-            }
+            E = hd.product(Bi, ifac.getONE());
             //System.out.println("E  = " + E);
             E = Ci.subtract(E);
             //System.out.println("E  = " + E);
@@ -837,34 +996,18 @@ public class HenselMultUtil {
                     //System.out.println("cm   = " + cm);
                     continue;
                 }
-                List<GenPolynomial<MOD>> Ud = HenselMultUtil.<MOD> liftDiophant(U1, cm, Vh, d, k);
+                List<GenPolynomial<MOD>> Ud = HenselMultUtil.<MOD> liftDiophant(U1, cm, Vh, d, k, hd);
                 //System.out.println("Ud = " + Ud);
 
                 mon = mon.multiply(xv); // Power.<GenPolynomial<MOD>> power(pkfac,xv,e);
                 //System.out.println("mon  = " + mon);
                 //List<GenPolynomial<MOD>> Sd = new ArrayList<GenPolynomial<MOD>>(Ud.size());
-                int i = 0;
-                Si = new ArrayList<GenPolynomial<BigInteger>>(Ud.size());
-                for (GenPolynomial<MOD> dd : Ud) {
-                    //System.out.println("dd = " + dd);
-                    GenPolynomial<MOD> de = dd.extend(pkfac, 0, 0L);
-                    GenPolynomial<MOD> dm = de.multiply(mon);
-                    //Sd.add(dm);
-                    de = U.get(i).sum(dm);
-                    //System.out.println("de = " + de);
-                    U.set(i++, de);
-                    GenPolynomial<BigInteger> si = PolyUtil.integerFromModularCoefficients(ifac, de);
-                    Si.add(si);
-                }
-                //System.out.println("Sd   = " + Sd);
+                Si = liftTails(U, Ud, mon, ifac, hd);
                 //System.out.println("U    = " + U + ", U.ring = " + U.get(0).ring);
                 //System.out.println("Si   = " + Si);
 
                 // compute new error:
-                E = ifac.getONE();
-                for (GenPolynomial<BigInteger> bi : Si) {
-                    E = E.multiply(bi);
-                }
+                E = hd.product(Si, ifac.getONE());
                 E = Ci.subtract(E);
                 //System.out.println("E = " + E);
                 Ep = PolyUtil.<MOD> fromIntegerCoefficients(pkfac, E);
@@ -1096,3 +1239,333 @@ public class HenselMultUtil {
     }
 
 }
+
+
+/**
+ * Diophantine equation solver for the multivariate Hensel lifting. The
+ * lifted extended Euclidean relation is computed once for a list of
+ * univariate factors and reused for all right hand sides. The solutions s_i
+ * = lee_i C mod A_i of the factors are independent and are computed in
+ * parallel if requested. For moduli less than 2<sup>50</sup> a dense long[]
+ * kernel is used.
+ * @param <MOD> coefficient type
+ */
+class HenselDiophant<MOD extends GcdRingElem<MOD> & Modular> {
+
+
+    private static final Logger logger = Logger.getLogger(HenselDiophant.class);
+
+
+    /**
+     * Bound for moduli of the dense kernel.
+     */
+    static final long MAX_DENSE = 1L << 50;
+
+
+    /**
+     * Compute independent parts in parallel.
+     */
+    final boolean parallel;
+
+
+    /**
+     * Thread pool.
+     */
+    protected transient ExecutorService pool;
+
+
+    /**
+     * Cached factors, approximation exponent and ring of the last solve.
+     */
+    private List<GenPolynomial<MOD>> A;
+
+
+    private long k;
+
+
+    private GenPolynomialRing<MOD> fac;
+
+
+    /**
+     * Lifted extended Euclidean relation for A in fac.
+     */
+    private List<GenPolynomial<MOD>> lee;
+
+
+    /**
+     * Dense kernel data, modul q, factors, relation and inverses of leading
+     * coefficients.
+     */
+    private long q;
+
+
+    private long[][] Ad;
+
+
+    private long[][] Ld;
+
+
+    private long[] Ai;
+
+
+    /**
+     * Constructor.
+     * @param parallel true, if independent parts are computed in parallel.
+     */
+    HenselDiophant(boolean parallel) {
+        this.parallel = parallel && !ComputerThreads.NO_THREADS;
+        if (this.parallel) {
+            pool = ComputerThreads.getPool();
+        }
+    }
+
+
+    /**
+     * Univariate modular diophantine equation solution.
+     * @param A list of univariate modular GenPolynomials, mod p^k
+     * @param C univariate modular GenPolynomial, mod p^k
+     * @param k desired approximation exponent p^k.
+     * @return [s_1,..., s_n] with sum_i s_i A_i' = C mod p^k, with Ai' =
+     *         prod_{j!=i} A_j.
+     */
+    synchronized List<GenPolynomial<MOD>> solve(List<GenPolynomial<MOD>> A, final GenPolynomial<MOD> C,
+                    long k) throws NoLiftingException {
+        if (k != this.k || !C.ring.equals(fac) || !A.equals(this.A)) {
+            init(A, C.ring, k);
+        }
+        final long[] c = (q > 0L && !C.isZERO()) ? dense(C, (int) C.degree(0)) : null;
+        List<Callable<GenPolynomial<MOD>>> cs = new ArrayList<Callable<GenPolynomial<MOD>>>(A.size());
+        for (int i = 0; i < A.size(); i++) {
+            final int j = i;
+            cs.add(new Callable<GenPolynomial<MOD>>() {
+
+
+                public GenPolynomial<MOD> call() {
+                    if (C.isZERO()) {
+                        return fac.getZERO();
+                    }
+                    if (c != null) {
+                        return sparse(remainder(multiply(Ld[j], c), Ad[j], Ai[j]));
+                    }
+                    return lee.get(j).multiply(C).remainder(HenselDiophant.this.A.get(j));
+                }
+            });
+        }
+        return map(cs);
+    }
+
+
+    /**
+     * Compute and cache the lifted extended Euclidean relation.
+     */
+    private void init(List<GenPolynomial<MOD>> A, GenPolynomialRing<MOD> fac, long k)
+                    throws NoLiftingException {
+        List<GenPolynomial<MOD>> L = HenselUtil.<MOD> liftExtendedEuclidean(A, k);
+        GenPolynomialRing<BigInteger> ifac = new GenPolynomialRing<BigInteger>(new BigInteger(), fac);
+        List<GenPolynomial<MOD>> Ap = new ArrayList<GenPolynomial<MOD>>(A.size());
+        for (GenPolynomial<MOD> a : A) {
+            Ap.add(PolyUtil.<MOD> fromIntegerCoefficients(fac, PolyUtil.integerFromModularCoefficients(ifac, a)));
+        }
+        lee = PolyUtil.<MOD> fromIntegerCoefficients(fac, PolyUtil.<MOD> integerFromModularCoefficients(ifac, L));
+        this.A = new ArrayList<GenPolynomial<MOD>>(A);
+        this.fac = fac;
+        this.k = k;
+        q = -1L;
+        java.math.BigInteger m = ((ModularRingFactory<MOD>) fac.coFac).getIntegerModul().getVal();
+        if (m.compareTo(java.math.BigInteger.valueOf(MAX_DENSE)) < 0) {
+            long qq = m.longValue();
+            long[][] ad = new long[Ap.size()][];
+            long[][] ld = new long[Ap.size()][];
+            long[] ai = new long[Ap.size()];
+            for (int i = 0; i < Ap.size(); i++) {
+                GenPolynomial<MOD> a = Ap.get(i);
+                ad[i] = dense(a, (int) a.degree(0), qq);
+                ld[i] = dense(lee.get(i), (int) lee.get(i).degree(0), qq);
+                java.math.BigInteger lc = java.math.BigInteger.valueOf(ad[i][ad[i].length - 1]);
+                if (!lc.gcd(m).equals(java.math.BigInteger.ONE)) {
+                    return; // leading coefficient not invertible, use generic remainder
+                }
+                ai[i] = lc.modInverse(m).longValue();
+            }
+            q = qq;
+            Ad = ad;
+            Ld = ld;
+            Ai = ai;
+        }
+        logger.info("lifted extended Euclidean relation, dense = " + (q > 0L) + ", modul = " + m);
+    }
+
+
+    /**
+     * Dense coefficients.
+     */
+    private long[] dense(GenPolynomial<MOD> a, int n) {
+        return dense(a, n, q);
+    }
+
+
+    /**
+     * Dense coefficients in [0,q).
+     */
+    private static <MOD extends GcdRingElem<MOD> & Modular> long[] dense(GenPolynomial<MOD> a, int n, long q) {
+        long[] d = new long[n + 1];
+        for (Monomial<MOD> m : a) {
+            long c = m.coefficient().getSymmetricInteger().getVal().longValue() % q;
+            d[(int) m.exponent().getVal(0)] = c < 0L ? c + q : c;
+        }
+        return d;
+    }
+
+
+    /**
+     * Polynomial from dense coefficients.
+     */
+    private GenPolynomial<MOD> sparse(long[] d) {
+        GenPolynomial<MOD> a = fac.getZERO().copy();
+        for (int i = d.length - 1; i >= 0; i--) {
+            if (d[i] != 0L) {
+                a.doPutToMap(ExpVector.create(1, 0, i), fac.coFac.fromInteger(d[i]));
+            }
+        }
+        return a;
+    }
+
+
+    /**
+     * Product a*b mod q, for q less than 2<sup>50</sup>.
+     */
+    private long mulmod(long a, long b) {
+        long r = a * b - (long) ((double) a * b / q) * q;
+        while (r < 0L) {
+            r += q;
+        }
+        while (r >= q) {
+            r -= q;
+        }
+        return r;
+    }
+
+
+    /**
+     * Dense product.
+     */
+    private long[] multiply(long[] a, long[] b) {
+        long[] c = new long[a.length + b.length - 1];
+        for (int i = 0; i < a.length; i++) {
+            long ai = a[i];
+            if (ai == 0L) {
+                continue;
+            }
+            for (int j = 0; j < b.length; j++) {
+                long s = c[i + j] + mulmod(ai, b[j]);
+                c[i + j] = s >= q ? s - q : s;
+            }
+        }
+        return c;
+    }
+
+
+    /**
+     * Dense remainder, c is destroyed.
+     * @param c dividend.
+     * @param a divisor.
+     * @param li inverse of the leading coefficient of a.
+     * @return c mod a with deg &lt; deg(a).
+     */
+    private long[] remainder(long[] c, long[] a, long li) {
+        int n = a.length - 1;
+        for (int i = c.length - 1; i >= n; i--) {
+            long t = c[i];
+            if (t == 0L) {
+                continue;
+            }
+            t = mulmod(t, li);
+            int o = i - n;
+            for (int j = 0; j <= n; j++) {
+                long s = c[o + j] - mulmod(t, a[j]);
+                c[o + j] = s < 0L ? s + q : s;
+            }
+        }
+        long[] r = new long[Math.min(n, c.length)];
+        System.arraycopy(c, 0, r, 0, r.length);
+        return r;
+    }
+
+
+    /**
+     * Product of integer polynomials, balanced product tree.
+     * @param L list of polynomials.
+     * @param one neutral element.
+     * @return prod_i L_i.
+     */
+    GenPolynomial<BigInteger> product(List<GenPolynomial<BigInteger>> L, GenPolynomial<BigInteger> one)
+                    throws NoLiftingException {
+        List<GenPolynomial<BigInteger>> P = L;
+        while (P.size() > 1) {
+            final List<GenPolynomial<BigInteger>> Q = P;
+            List<Callable<GenPolynomial<BigInteger>>> cs = new ArrayList<Callable<GenPolynomial<BigInteger>>>(
+                            (P.size() + 1) / 2);
+            for (int i = 0; i < P.size(); i += 2) {
+                final int j = i;
+                cs.add(new Callable<GenPolynomial<BigInteger>>() {
+
+
+                    public GenPolynomial<BigInteger> call() {
+                        if (j + 1 < Q.size()) {
+                            return Q.get(j).multiply(Q.get(j + 1));
+                        }
+                        return Q.get(j);
+                    }
+                });
+            }
+            P = map(cs);
+        }
+        if (P.isEmpty()) {
+            return one;
+        }
+        return P.get(0);
+    }
+
+
+    /**
+     * Compute all parts, in parallel if requested.
+     * @param cs list of parts.
+     * @return list of results in the same order.
+     */
+    <T> List<T> map(List<Callable<T>> cs) throws NoLiftingException {
+        List<T> res = new ArrayList<T>(cs.size());
+        try {
+            if (!parallel || cs.size() <= 1) {
+                for (Callable<T> c : cs) {
+                    res.add(c.call());
+                }
+                return res;
+            }
+            List<Future<T>> fs = pool.invokeAll(cs);
+            for (Future<T> f : fs) {
+                res.add(f.get());
+            }
+        } catch (InterruptedException e) {
+            logger.info("InterruptedException " + e);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            Throwable t = e.getCause();
+            if (t instanceof NoLiftingException) {
+                throw (NoLiftingException) t;
+            }
+            if (t instanceof RuntimeException) {
+                throw (RuntimeException) t;
+            }
+            throw new RuntimeException(t);
+        } catch (NoLiftingException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        return res;
+    }
+
+}
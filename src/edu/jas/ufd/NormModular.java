@@ -0,0 +1,385 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.ufd;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.arith.ArithUtil;
+import edu.jas.arith.BigRational;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.Monomial;
+
+
+/**
+ * Norm computation with multi-modular resultants. The resultant
+ * res_alpha(P(X,alpha),m(alpha)) of a polynomial with integral
+ * coefficients is computed modulo primes less than 2<sup>31</sup> by
+ * evaluation at deg_X(res)+1 points, univariate resultants and Newton
+ * interpolation. The images are combined by Chinese remaindering. The
+ * number of primes is determined in advance from a coefficient bound, so
+ * the result is correct without further checks. The primes are processed
+ * in parallel in the thread pool from ComputerThreads.
+ * @author agent
+ */
+
+public class NormModular {
+
+
+    private static final Logger logger = Logger.getLogger(NormModular.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Norm of a polynomial with algebraic number coefficients, modular
+     * algorithm.
+     * @param Pc polynomial in Q[X][alpha].
+     * @param Ac minimal polynomial m(alpha) in Q[X][alpha] with constant
+     *            coefficients.
+     * @return res_alpha(Pc,Ac) in Q[X], not normalized.
+     */
+    public static GenPolynomial<BigRational> resultant(GenPolynomial<GenPolynomial<BigRational>> Pc,
+                    GenPolynomial<GenPolynomial<BigRational>> Ac) {
+        GenPolynomialRing<BigRational> cfac = (GenPolynomialRing<BigRational>) Pc.ring.coFac;
+        if (cfac.nvar != 1 || Pc.ring.nvar != 1) {
+            throw new IllegalArgumentException("only for bi-variate polynomials");
+        }
+        if (Pc.isZERO() || Ac.isZERO()) {
+            return cfac.getZERO();
+        }
+        final int dP = (int) Pc.degree(0);
+        final int dA = (int) Ac.degree(0);
+        int n = 0;
+        for (GenPolynomial<BigRational> c : Pc.getMap().values()) {
+            n = Math.max(n, (int) c.degree(0));
+        }
+        for (GenPolynomial<BigRational> c : Ac.getMap().values()) {
+            if (!c.isConstant()) {
+                throw new IllegalArgumentException("minimal polynomial not constant in X: " + Ac);
+            }
+        }
+        final int nx = n;
+        final int D = dA * n; // bound for deg_X(res)
+
+        // integral coefficients, constant factors change the resultant by a constant
+        java.math.BigInteger dp = java.math.BigInteger.ONE;
+        for (GenPolynomial<BigRational> c : Pc.getMap().values()) {
+            dp = ArithUtil.lcm(dp, ArithUtil.commonDenominator(c.getMap().values()));
+        }
+        java.math.BigInteger da = java.math.BigInteger.ONE;
+        for (GenPolynomial<BigRational> c : Ac.getMap().values()) {
+            da = ArithUtil.lcm(da, ArithUtil.commonDenominator(c.getMap().values()));
+        }
+        final java.math.BigInteger[][] P = new java.math.BigInteger[dP + 1][n + 1];
+        for (int i = 0; i <= dP; i++) {
+            for (int j = 0; j <= n; j++) {
+                P[i][j] = java.math.BigInteger.ZERO;
+            }
+        }
+        java.math.BigInteger pn = java.math.BigInteger.ZERO;
+        for (Monomial<GenPolynomial<BigRational>> m : Pc) {
+            int i = (int) m.exponent().getVal(0);
+            for (Monomial<BigRational> mc : m.coefficient()) {
+                BigRational c = mc.coefficient();
+                java.math.BigInteger a = c.numerator().multiply(dp.divide(c.denominator()));
+                P[i][(int) mc.exponent().getVal(0)] = a;
+                pn = pn.add(a.abs());
+            }
+        }
+        final java.math.BigInteger[] A = new java.math.BigInteger[dA + 1];
+        for (int i = 0; i <= dA; i++) {
+            A[i] = java.math.BigInteger.ZERO;
+        }
+        java.math.BigInteger an = java.math.BigInteger.ZERO;
+        for (Monomial<GenPolynomial<BigRational>> m : Ac) {
+            BigRational c = m.coefficient().leadingBaseCoefficient();
+            java.math.BigInteger a = c.numerator().multiply(da.divide(c.denominator()));
+            A[(int) m.exponent().getVal(0)] = a;
+            an = an.add(a.abs());
+        }
+
+        // |coefficients of res| <= |P|_1^dA * |A|_1^dP, product of primes > 2 bound
+        java.math.BigInteger bound = pn.pow(dA).multiply(an.pow(dP)).shiftLeft(1);
+        List<Long> plist = new ArrayList<Long>();
+        java.math.BigInteger M = java.math.BigInteger.ONE;
+        for (int i = 0; M.compareTo(bound) <= 0; i++) {
+            long p = ArithUtil.prime(i);
+            if (A[dA].mod(java.math.BigInteger.valueOf(p)).signum() == 0) {
+                continue; // unlucky prime
+            }
+            plist.add(p);
+            M = M.multiply(java.math.BigInteger.valueOf(p));
+        }
+        if (logger.isInfoEnabled()) {
+            logger.info("deg_X(res) <= " + D + ", bound bits = " + bound.bitLength() + ", #primes = "
+                            + plist.size());
+        }
+
+        // modular images
+        final long[][] R = new long[plist.size()][];
+        final long[] pa = new long[plist.size()];
+        for (int i = 0; i < pa.length; i++) {
+            pa[i] = plist.get(i);
+        }
+        int tn = ComputerThreads.NO_THREADS ? 1 : Math.min(ComputerThreads.N_CPUS, pa.length);
+        if (tn <= 1) {
+            for (int i = 0; i < pa.length; i++) {
+                R[i] = modularResultant(P, A, dP, dA, n, D, pa[i]);
+            }
+        } else {
+            ExecutorService pool = ComputerThreads.getPool();
+            List<Callable<Boolean>> cs = new ArrayList<Callable<Boolean>>(tn);
+            for (int t = 0; t < tn; t++) {
+                final int start = t;
+                final int step = tn;
+                cs.add(new Callable<Boolean>() {
+
+
+                    public Boolean call() {
+                        for (int i = start; i < pa.length; i += step) {
+                            R[i] = modularResultant(P, A, dP, dA, nx, D, pa[i]);
+                        }
+                        return true;
+                    }
+                });
+            }
+            try {
+                List<Future<Boolean>> fs = pool.invokeAll(cs);
+                for (Future<Boolean> f : fs) {
+                    f.get();
+                }
+            } catch (InterruptedException e) {
+                logger.info("InterruptedException " + e);
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("interrupted " + e);
+            } catch (ExecutionException e) {
+                logger.info("ExecutionException " + e);
+                throw new RuntimeException("modular norm " + e.getCause());
+            }
+        }
+
+        // Chinese remainder with symmetric residues
+        java.math.BigInteger[] B = new java.math.BigInteger[D + 1];
+        for (int j = 0; j <= D; j++) {
+            B[j] = java.math.BigInteger.valueOf(R[0][j]);
+        }
+        java.math.BigInteger Q = java.math.BigInteger.valueOf(pa[0]);
+        for (int i = 1; i < pa.length; i++) {
+            ArithUtil.chineseRemainder(B, Q, R[i], pa[i]);
+            Q = Q.multiply(java.math.BigInteger.valueOf(pa[i]));
+        }
+        java.math.BigInteger Qh = Q.shiftRight(1);
+        GenPolynomial<BigRational> res = cfac.getZERO().copy();
+        for (int j = 0; j <= D; j++) {
+            java.math.BigInteger b = B[j];
+            if (b.compareTo(Qh) > 0) {
+                b = b.subtract(Q);
+            }
+            if (b.signum() != 0) {
+                res.doPutToMap(ExpVector.create(1, 0, j), new BigRational(b));
+            }
+        }
+        if (debug) {
+            logger.debug("res = " + res);
+        }
+        return res;
+    }
+
+
+    /**
+     * Resultant modulo a prime by evaluation and interpolation.
+     * @param P integral coefficients of P, P[i][j] for alpha^i X^j.
+     * @param A integral coefficients of m(alpha).
+     * @param dP degree of P in alpha.
+     * @param dA degree of A.
+     * @param n degree of P in X.
+     * @param D degree bound of the resultant.
+     * @param p prime.
+     * @return dense coefficients of res_alpha(P,A) mod p.
+     */
+    static long[] modularResultant(java.math.BigInteger[][] P, java.math.BigInteger[] A, int dP, int dA,
+                    int n, int D, long p) {
+        java.math.BigInteger bp = java.math.BigInteger.valueOf(p);
+        long[][] Pp = new long[dP + 1][n + 1];
+        for (int i = 0; i <= dP; i++) {
+            for (int j = 0; j <= n; j++) {
+                Pp[i][j] = P[i][j].mod(bp).longValue();
+            }
+        }
+        long[] Ap = new long[dA + 1];
+        for (int i = 0; i <= dA; i++) {
+            Ap[i] = A[i].mod(bp).longValue();
+        }
+        long[] x = new long[D + 1];
+        long[] v = new long[D + 1];
+        long[] f = new long[dP + 1];
+        for (int t = 0; t <= D; t++) {
+            x[t] = t;
+            for (int i = 0; i <= dP; i++) { // Horner in X
+                long s = 0L;
+                for (int j = n; j >= 0; j--) {
+                    s = (s * t + Pp[i][j]) % p;
+                }
+                f[i] = s;
+            }
+            // res(f,A) with formal degree dP of f and deg A = dA
+            int k = degree(f, dP);
+            long r;
+            if (k < 0) {
+                r = 0L;
+            } else {
+                r = baseResultant(Ap.clone(), dA, f.clone(), k, p);
+                r = r * power(Ap[dA], dP - k, p) % p; // res(A,f) for formal degree
+                if (((dP & 1) == 1) && ((dA & 1) == 1)) { // res(f,A) = (-1)^(dP dA) res(A,f)
+                    r = (p - r) % p;
+                }
+            }
+            v[t] = r;
+        }
+        return interpolate(x, v, p);
+    }
+
+
+    /**
+     * Univariate resultant modulo a prime with the Euclidean algorithm.
+     * The arrays are destroyed.
+     * @param a coefficients of a, deg(a) = na.
+     * @param na degree of a.
+     * @param b coefficients of b, deg(b) = nb.
+     * @param nb degree of b.
+     * @param p prime.
+     * @return res(a,b) mod p.
+     */
+    static long baseResultant(long[] a, int na, long[] b, int nb, long p) {
+        long s = 1L;
+        while (true) {
+            if (nb == 0) {
+                return s * power(b[0], na, p) % p;
+            }
+            if (na == 0) {
+                return s * power(a[0], nb, p) % p;
+            }
+            if (na < nb) { // res(a,b) = (-1)^(na nb) res(b,a)
+                if (((na & 1) == 1) && ((nb & 1) == 1)) {
+                    s = p - s;
+                }
+                long[] t = a;
+                a = b;
+                b = t;
+                int nt = na;
+                na = nb;
+                nb = nt;
+            }
+            // res(a,b) = (-1)^(na nb) lc(b)^(na-l) res(b, a mod b)
+            long li = ArithUtil.modInverse(b[nb], p);
+            for (int i = na; i >= nb; i--) {
+                long q = a[i] * li % p;
+                if (q == 0L) {
+                    continue;
+                }
+                int o = i - nb;
+                for (int j = 0; j <= nb; j++) {
+                    a[o + j] = (a[o + j] - q * b[j] % p + p) % p;
+                }
+            }
+            int l = degree(a, nb - 1);
+            if (l < 0) {
+                return 0L;
+            }
+            if (((na & 1) == 1) && ((nb & 1) == 1)) {
+                s = p - s;
+            }
+            s = s * power(b[nb], na - l, p) % p;
+            long[] t = a;
+            a = b;
+            b = t;
+            na = nb;
+            nb = l;
+        }
+    }
+
+
+    /**
+     * Newton interpolation modulo a prime.
+     * @param x pairwise different points.
+     * @param v values at the points.
+     * @param p prime.
+     * @return dense coefficients of the interpolating polynomial.
+     */
+    static long[] interpolate(long[] x, long[] v, long p) {
+        int m = x.length;
+        long[] c = v.clone();
+        // divided differences
+        for (int j = 1; j < m; j++) {
+            for (int i = m - 1; i >= j; i--) {
+                long d = (x[i] - x[i - j]) % p;
+                if (d < 0) {
+                    d += p;
+                }
+                c[i] = (c[i] - c[i - 1] + p) % p * ArithUtil.modInverse(d, p) % p;
+            }
+        }
+        // Horner to monomial basis
+        long[] r = new long[m];
+        for (int i = m - 1; i >= 0; i--) {
+            // r = r * (X - x[i]) + c[i]
+            long xi = x[i] % p;
+            for (int j = m - 1; j > 0; j--) {
+                r[j] = (r[j - 1] - xi * r[j] % p + p) % p;
+            }
+            r[0] = (c[i] - xi * r[0] % p + p) % p;
+        }
+        return r;
+    }
+
+
+    /**
+     * Degree of a dense polynomial.
+     * @param a coefficients.
+     * @param n upper bound for the degree.
+     * @return largest i &le; n with a[i] != 0 or -1.
+     */
+    static int degree(long[] a, int n) {
+        int i = n;
+        while (i >= 0 && a[i] == 0L) {
+            i--;
+        }
+        return i;
+    }
+
+
+    /**
+     * Power modulo a prime.
+     * @param a base.
+     * @param e exponent &ge; 0.
+     * @param p prime.
+     * @return a^e mod p.
+     */
+    static long power(long a, long e, long p) {
+        long r = 1L;
+        long b = a % p;
+        while (e > 0) {
+            if ((e & 1L) == 1L) {
+                r = r * b % p;
+            }
+            b = b * b % p;
+            e >>= 1;
+        }
+        return r;
+    }
+
+}
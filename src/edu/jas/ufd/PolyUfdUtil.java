@@ -366,7 +366,10 @@ public class PolyUfdUtil {
      * @param A polynomial from GenPolynomial&lt;AlgebraicNumber&lt;C&gt;&gt;.
      * @param k for (y - k x) substitution.
      * @return norm(A) = res_x(A(x,y),m(x)) in GenPolynomialRing&lt;C&gt;.
+     *         <b>Note:</b> for rational coefficients the resultant is
+     *         computed with the multi-modular algorithm from NormModular.
      */
+    @SuppressWarnings("unchecked")
     public static <C extends GcdRingElem<C>> GenPolynomial<C> norm(GenPolynomial<AlgebraicNumber<C>> A, long k) {
         if (A == null) {
             return null;
@@ -397,12 +400,21 @@ public class PolyUfdUtil {
         Pc = PolyUtil.<C> monic(Pc);
         //System.out.println("Pc = " + Pc.toScript());
 
-        GreatestCommonDivisorSubres<C> engine = new GreatestCommonDivisorSubres<C>( /*cfac.coFac*/);
-        // = (GreatestCommonDivisorAbstract<C>)GCDFactory.<C>getImplementation( cfac.coFac );
+        GenPolynomial<C> res;
+        if (cfac.coFac instanceof BigRational) {
+            // multi-modular resultant
+            GenPolynomial<BigRational> Rr = NormModular.resultant(
+                            (GenPolynomial<GenPolynomial<BigRational>>) (Object) Pc,
+                            (GenPolynomial<GenPolynomial<BigRational>>) (Object) Ac);
+            res = (GenPolynomial<C>) (Object) Rr;
+        } else {
+            GreatestCommonDivisorSubres<C> engine = new GreatestCommonDivisorSubres<C>( /*cfac.coFac*/);
+            // = (GreatestCommonDivisorAbstract<C>)GCDFactory.<C>getImplementation( cfac.coFac );
 
-        GenPolynomial<GenPolynomial<C>> Rc = engine.recursiveUnivariateResultant(Pc, Ac);
-        //System.out.println("Rc = " + Rc.toScript());
-        GenPolynomial<C> res = Rc.leadingBaseCoefficient();
+            GenPolynomial<GenPolynomial<C>> Rc = engine.recursiveUnivariateResultant(Pc, Ac);
+            //System.out.println("Rc = " + Rc.toScript());
+            res = Rc.leadingBaseCoefficient();
+        }
         res = res.monic();
         return res;
     }
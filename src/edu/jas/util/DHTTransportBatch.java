@@ -0,0 +1,69 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.util;
+
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Transport container for a batch of DHTTransport elements. Coalesces the
+ * updates of a client to one message and one broadcast of the server.
+ * @author agent
+ */
+
+class DHTTransportBatch<K, V> extends DHTTransport<K, V> {
+
+
+    private static final long serialVersionUID = 1L;
+
+
+    protected final ArrayList<DHTTransport<K, V>> list;
+
+
+    /**
+     * Constructs a new DHTTransport batch Container.
+     * @param list of DHTTransport elements, in order of application.
+     */
+    public DHTTransportBatch(List<DHTTransport<K, V>> list) {
+        this.list = new ArrayList<DHTTransport<K, V>>(list);
+    }
+
+
+    /**
+     * Get the elements of this batch.
+     */
+    public List<DHTTransport<K, V>> list() {
+        return list;
+    }
+
+
+    /**
+     * Get the key from this DHTTransport Container.
+     */
+    public K key() throws IOException, ClassNotFoundException {
+        throw new UnsupportedOperationException("this should not happen");
+    }
+
+
+    /**
+     * Get the value from this DHTTransport Container.
+     */
+    public V value() throws IOException, ClassNotFoundException {
+        throw new UnsupportedOperationException("this should not happen");
+    }
+
+
+    /**
+     * toString.
+     */
+    @Override
+    public String toString() {
+        return super.toString() + "(#" + list.size() + ")";
+    }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.util;
+
+
+import java.io.IOException;
+
+
+/**
+ * Transport container to acknowledge a key value pair to the client which
+ * has send it. Contains only the key, the value is already known by the
+ * client and is not transported again.
+ * @author agent
+ */
+
+class DHTTransportKnown<K, V> extends DHTTransport<K, V> {
+
+
+    private static final long serialVersionUID = 1L;
+
+
+    protected final K key;
+
+
+    /**
+     * Constructs a new DHTTransport acknowledge Container.
+     * @param key
+     */
+    public DHTTransportKnown(K key) {
+        this.key = key;
+    }
+
+
+    /**
+     * Get the key from this DHTTransport Container.
+     */
+    public K key() throws IOException, ClassNotFoundException {
+        return key;
+    }
+
+
+    /**
+     * Get the value from this DHTTransport Container.
+     */
+    public V value() throws IOException, ClassNotFoundException {
+        throw new UnsupportedOperationException("value is known by receiver");
+    }
+
+
+    /**
+     * toString.
+     */
+    @Override
+    public String toString() {
+        return super.toString() + "(" + key + ")";
+    }
+
+}
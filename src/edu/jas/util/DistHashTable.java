@@ -13,15 +13,24 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.SortedMap;
-import java.util.TreeMap;
-//import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.log4j.Logger;
 
 
 /**
- * Distributed version of a HashTable. Implemented with a SortedMap / TreeMap to
- * keep the sequence order of elements.
+ * Distributed version of a HashTable. Implemented with a SortedMap /
+ * ConcurrentSkipListMap to keep the sequence order of elements and to allow
+ * reading without locks. Updates are coalesced to batches: a put appends to a
+ * queue and the thread which gets the send lock sends all queued updates as
+ * one message. Values send by this table are kept locally until the server
+ * acknowledges their key, they are not transported back. getWait() blocks on
+ * latches which are released by the listener thread.
  * @author Heinz Kredel
  */
 
@@ -46,6 +55,36 @@ public class DistHashTable<K, V> extends AbstractMap<K, V> /* implements Map<K,V
     protected DHTListener<K, V> listener = null;
 
 
+    /**
+     * Values send to the server and not yet acknowledged.
+     */
+    protected final ConcurrentMap<K, V> pending;
+
+
+    /**
+     * Latches for threads waiting for a key.
+     */
+    protected final ConcurrentMap<Object, CountDownLatch> waiters;
+
+
+    /**
+     * Queue of updates to send.
+     */
+    private final ConcurrentLinkedQueue<DHTTransport<K, V>> outq;
+
+
+    /**
+     * Lock for sending batches.
+     */
+    private final ReentrantLock sendLock;
+
+
+    /**
+     * Number of send messages.
+     */
+    private long batches = 0L;
+
+
     /**
      * Constructs a new DistHashTable.
      * @param host name or IP of server host.
@@ -83,9 +122,12 @@ public class DistHashTable<K, V> extends AbstractMap<K, V> /* implements Map<K,V
         if (debug) {
             logger.debug("dl channel = " + channel);
         }
-        //theList = new ConcurrentSkipListMap<K, V>(); // Java 1.6
-        theList = new TreeMap<K, V>();
-        listener = new DHTListener<K, V>(channel, theList);
+        theList = new ConcurrentSkipListMap<K, V>();
+        pending = new ConcurrentHashMap<K, V>();
+        waiters = new ConcurrentHashMap<Object, CountDownLatch>();
+        outq = new ConcurrentLinkedQueue<DHTTransport<K, V>>();
+        sendLock = new ReentrantLock();
+        listener = new DHTListener<K, V>(channel, this);
         // listener.start() is in initialize()
     }
 
@@ -97,9 +139,12 @@ public class DistHashTable<K, V> extends AbstractMap<K, V> /* implements Map<K,V
     public DistHashTable(SocketChannel sc) {
         cf = null;
         channel = sc;
-        //theList = new ConcurrentSkipListMap<K, V>(); // Java 1.6
-        theList = new TreeMap<K, V>();
-        listener = new DHTListener<K, V>(channel, theList);
+        theList = new ConcurrentSkipListMap<K, V>();
+        pending = new ConcurrentHashMap<K, V>();
+        waiters = new ConcurrentHashMap<Object, CountDownLatch>();
+        outq = new ConcurrentLinkedQueue<DHTTransport<K, V>>();
+        sendLock = new ReentrantLock();
+        listener = new DHTListener<K, V>(channel, this);
         // listener.start() is in initialize()
     }
 
@@ -145,10 +190,8 @@ public class DistHashTable<K, V> extends AbstractMap<K, V> /* implements Map<K,V
      */
     @Override
     public Collection<V> values() {
-        synchronized (theList) {
-            return new ArrayList<V>(theList.values());
-            //return theList.values();
-        }
+        return new ArrayList<V>(theList.values());
+        //return theList.values();
     }
 
 
@@ -157,9 +200,7 @@ public class DistHashTable<K, V> extends AbstractMap<K, V> /* implements Map<K,V
      */
     @Override
     public Set<K> keySet() {
-        synchronized (theList) {
-            return theList.keySet();
-        }
+        return theList.keySet();
     }
 
 
@@ -168,9 +209,7 @@ public class DistHashTable<K, V> extends AbstractMap<K, V> /* implements Map<K,V
      */
     @Override
     public Set<Entry<K, V>> entrySet() {
-        synchronized (theList) {
-            return theList.entrySet();
-        }
+        return theList.entrySet();
     }
 
 
@@ -179,14 +218,13 @@ public class DistHashTable<K, V> extends AbstractMap<K, V> /* implements Map<K,V
      */
     // To be fixed?, but is ok.
     public List<V> getValueList() {
-        synchronized (theList) {
-            return new ArrayList<V>(theList.values());
-        }
+        return new ArrayList<V>(theList.values());
     }
 
 
     /**
-     * Get the internal sorted map. For synchronization purpose in normalform.
+     * Get the internal sorted map. The map is concurrent, synchronization is
+     * no more required in normalform.
      */
     public SortedMap<K, V> getList() {
         return theList;
@@ -198,9 +236,7 @@ public class DistHashTable<K, V> extends AbstractMap<K, V> /* implements Map<K,V
      */
     @Override
     public int size() {
-        synchronized (theList) {
-            return theList.size();
-        }
+        return theList.size();
     }
 
 
@@ -209,9 +245,7 @@ public class DistHashTable<K, V> extends AbstractMap<K, V> /* implements Map<K,V
      */
     @Override
     public boolean isEmpty() {
-        synchronized (theList) {
-            return theList.isEmpty();
-        }
+        return theList.isEmpty();
     }
 
 
@@ -219,9 +253,7 @@ public class DistHashTable<K, V> extends AbstractMap<K, V> /* implements Map<K,V
      * List key iterator.
      */
     public Iterator<K> iterator() {
-        synchronized (theList) {
-            return theList.keySet().iterator();
-        }
+        return theList.keySet().iterator();
     }
 
 
@@ -229,9 +261,7 @@ public class DistHashTable<K, V> extends AbstractMap<K, V> /* implements Map<K,V
      * List value iterator.
      */
     public Iterator<V> valueIterator() {
-        synchronized (theList) {
-            return theList.values().iterator();
-        }
+        return theList.values().iterator();
     }
 
 
@@ -245,15 +275,14 @@ public class DistHashTable<K, V> extends AbstractMap<K, V> /* implements Map<K,V
         //V o = 
         put(key, value); // = send
         // assume key does not change multiple times before test:
-        while (!value.equals(getWait(key))) {
-            //System.out.print("#");
-        }
+        await(key, value);
     }
 
 
     /**
      * Put object to the distributed hash table. Returns immediately after
-     * sending, does not block.
+     * sending, does not block. Other threads may send the object together
+     * with their updates.
      * @param key
      * @param value
      */
@@ -264,7 +293,9 @@ public class DistHashTable<K, V> extends AbstractMap<K, V> /* implements Map<K,V
         }
         try {
             DHTTransport<K, V> tc = DHTTransport.<K, V> create(key, value);
-            channel.send(tc);
+            pending.put(key, value);
+            outq.add(tc);
+            flush();
             //System.out.println("send: "+tc+" @ "+listener);
         } catch (IOException e) {
             logger.info("send, exception " + e);
@@ -277,6 +308,54 @@ public class DistHashTable<K, V> extends AbstractMap<K, V> /* implements Map<K,V
     }
 
 
+    /**
+     * Send all queued updates. The thread holding the send lock sends the
+     * updates of all threads which queued them meanwhile.
+     */
+    protected void flush() throws IOException {
+        while (!outq.isEmpty()) {
+            if (!sendLock.tryLock()) {
+                return; // lock holder will send our update
+            }
+            try {
+                List<DHTTransport<K, V>> bl = new ArrayList<DHTTransport<K, V>>();
+                DHTTransport<K, V> tc;
+                while ((tc = outq.poll()) != null) {
+                    bl.add(tc);
+                }
+                if (bl.isEmpty()) {
+                    continue;
+                }
+                if (bl.size() == 1) {
+                    channel.send(bl.get(0));
+                } else {
+                    channel.send(new DHTTransportBatch<K, V>(bl));
+                }
+                batches++;
+                if (debug) {
+                    logger.debug("send batch of " + bl.size());
+                }
+            } finally {
+                sendLock.unlock();
+            }
+        }
+    }
+
+
+    /**
+     * Number of messages send to the server.
+     * @return number of send batches.
+     */
+    public long getBatches() {
+        sendLock.lock();
+        try {
+            return batches;
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+
     /**
      * Get value under key from DHT. Blocks until the object is send and
      * received from the server (actually it blocks until some value under key
@@ -285,25 +364,92 @@ public class DistHashTable<K, V> extends AbstractMap<K, V> /* implements Map<K,V
      * @return the value stored under the key.
      */
     public V getWait(K key) {
-        V value = null;
-        try {
-            synchronized (theList) {
-                //value = theList.get(key);
-                value = get(key);
-                while (value == null) {
-                    //System.out.print("^");
-                    theList.wait(100);
-                    value = theList.get(key);
+        return await(key, null);
+    }
+
+
+    /**
+     * Wait for a value under key.
+     * @param key
+     * @param expected value or null for any value.
+     * @return the value stored under the key or null if terminated or
+     *         interrupted.
+     */
+    protected V await(Object key, V expected) {
+        V value = theList.get(key);
+        while (value == null || (expected != null && !expected.equals(value))) {
+            CountDownLatch latch = waiters.get(key);
+            if (latch == null) {
+                latch = new CountDownLatch(1);
+                CountDownLatch l = waiters.putIfAbsent(key, latch);
+                if (l != null) {
+                    latch = l;
                 }
             }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            e.printStackTrace();
+            value = theList.get(key); // recheck after latch is registered
+            if (value != null && (expected == null || expected.equals(value))) {
+                break;
+            }
+            if (listener == null || listener.isDone()) {
+                logger.info("getWait(" + key + ") terminated");
+                return value;
+            }
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.info("getWait(" + key + ") interrupted");
+                return value;
+            }
+            value = theList.get(key);
         }
         return value;
     }
 
 
+    /**
+     * Store a received value and release waiting threads. Called by the
+     * listener thread.
+     * @param key
+     * @param value
+     */
+    void received(K key, V value) {
+        theList.put(key, value);
+        CountDownLatch latch = waiters.remove(key);
+        if (latch != null) {
+            latch.countDown();
+        }
+    }
+
+
+    /**
+     * Store a value which was acknowledged by the server. Called by the
+     * listener thread.
+     * @param key
+     */
+    void known(K key) {
+        V value = pending.remove(key);
+        if (value == null) {
+            logger.info("unknown acknowledged key " + key);
+            return;
+        }
+        received(key, value);
+    }
+
+
+    /**
+     * Release all waiting threads.
+     */
+    void releaseAll() {
+        for (Object key : waiters.keySet()) {
+            CountDownLatch latch = waiters.remove(key);
+            if (latch != null) {
+                latch.countDown();
+            }
+        }
+    }
+
+
     /**
      * Get value under key from DHT. If no value is jet available null is
      * returned.
@@ -312,9 +458,7 @@ public class DistHashTable<K, V> extends AbstractMap<K, V> /* implements Map<K,V
      */
     @Override
     public V get(Object key) {
-        synchronized (theList) {
-            return theList.get(key);
-        }
+        return theList.get(key);
     }
 
 
@@ -324,13 +468,13 @@ public class DistHashTable<K, V> extends AbstractMap<K, V> /* implements Map<K,V
      */
     @Override
     public void clear() {
-        synchronized (theList) {
-            theList.clear();
-        }
+        theList.clear();
+        pending.clear(); // late acknowledgements must not restore values
         // done after 11 month: send clear message to others
         try {
             DHTTransport<K, V> tc = new DHTTransportClear<K, V>();
-            channel.send(tc);
+            outq.add(tc);
+            flush();
             //System.out.println("send: "+tc+" @ "+listener);
         } catch (IOException e) {
             logger.info("send, exception " + e);
@@ -379,6 +523,7 @@ public class DistHashTable<K, V> extends AbstractMap<K, V> /* implements Map<K,V
             logger.debug("terminate " + listener);
         }
         listener.setDone();
+        releaseAll();
         try {
             while (listener.isAlive()) {
                 //System.out.print("+");
@@ -409,15 +554,15 @@ class DHTListener<K, V> extends Thread {
     private final SocketChannel channel;
 
 
-    private final SortedMap<K, V> theList;
+    private final DistHashTable<K, V> table;
 
 
-    private boolean goon;
+    private volatile boolean goon;
 
 
-    DHTListener(SocketChannel s, SortedMap<K, V> list) {
+    DHTListener(SocketChannel s, DistHashTable<K, V> dht) {
         channel = s;
-        theList = list;
+        table = dht;
         goon = true;
     }
 
@@ -440,10 +585,8 @@ class DHTListener<K, V> extends Thread {
     public void run() {
         logger.debug("running ");
         Object o;
-        DHTTransport<K, V> tc;
         //goon = true;
         while (goon) {
-            tc = null;
             o = null;
             try {
                 o = channel.receive();
@@ -458,25 +601,12 @@ class DHTListener<K, V> extends Thread {
                     goon = false;
                     break;
                 }
-                if (o instanceof DHTTransportClear) {
-                    logger.debug("receive, clear");
-                    synchronized (theList) {
-                        theList.clear();
-                        theList.notifyAll();
-                    }
-                    continue;
-                }
-                if (o instanceof DHTTransport) {
-                    tc = (DHTTransport<K, V>) o;
-                    K key = tc.key();
-                    if (key != null) {
-                        logger.info("receive, put(key=" + key + ")");
-                        V val = tc.value();
-                        synchronized (theList) {
-                            theList.put(key, val);
-                            theList.notifyAll();
-                        }
+                if (o instanceof DHTTransportBatch) {
+                    for (DHTTransport<K, V> tc : ((DHTTransportBatch<K, V>) o).list()) {
+                        receive(tc);
                     }
+                } else if (o instanceof DHTTransport) {
+                    receive((DHTTransport<K, V>) o);
                 }
             } catch (IOException e) {
                 goon = false;
@@ -492,6 +622,34 @@ class DHTListener<K, V> extends Thread {
                 e.printStackTrace();
             }
         }
+        table.releaseAll();
+    }
+
+
+    /**
+     * Apply one received DHTTransport element.
+     * @param tc DHTTransport.
+     */
+    void receive(DHTTransport<K, V> tc) throws IOException, ClassNotFoundException {
+        if (tc instanceof DHTTransportClear) {
+            logger.debug("receive, clear");
+            table.getList().clear();
+            table.pending.clear();
+            return;
+        }
+        K key = tc.key();
+        if (key == null) {
+            return;
+        }
+        if (tc instanceof DHTTransportKnown) {
+            if (debug) {
+                logger.debug("receive, known(key=" + key + ")");
+            }
+            table.known(key);
+            return;
+        }
+        logger.info("receive, put(key=" + key + ")");
+        table.received(key, tc.value());
     }
 
 }
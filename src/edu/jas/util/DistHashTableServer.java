@@ -9,7 +9,6 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map.Entry;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
@@ -17,7 +16,8 @@ import org.apache.log4j.Logger;
 
 
 /**
- * Server for the distributed version of a list.
+ * Server for the distributed version of a list. Received batches of updates
+ * are broadcasted as one message, the sending client gets only the keys back.
  * TODO: redistribute list for late coming clients, removal
  *       of elements.
  * @author Heinz Kredel
@@ -128,8 +128,6 @@ public class DistHashTableServer<K> extends Thread {
         SocketChannel channel = null;
         DHTBroadcaster<K> s = null;
         mythread = Thread.currentThread();
-        Entry<K, DHTTransport> e;
-        DHTTransport tc;
         while (goon) {
             //logger.debug("list server " + this + " go on");
             try {
@@ -155,19 +153,16 @@ public class DistHashTableServer<K> extends Thread {
                     }
                     if (ls > 0) {
                         //logger.debug("sending " + ls + " list elements");
+                        List<DHTTransport> tl;
                         synchronized (theList) {
-                            Iterator<Entry<K, DHTTransport>> it = theList.entrySet().iterator();
-                            for (int i = 0; i < ls; i++) {
-                                e = it.next();
-                                // n = e.getKey(); // findbugs, already in tc
-                                tc = e.getValue();
-                                //DHTTransport tc = (DHTTransport) o;                             
-                                try {
-                                    s.sendChannel(tc);
-                                } catch (IOException ioe) {
-                                    // stop s
-                                }
-                            }
+                            tl = new ArrayList<DHTTransport>(theList.values());
+                        }
+                        @SuppressWarnings("unchecked")
+                        List<DHTTransport<K, Object>> bl = (List<DHTTransport<K, Object>>) (List<?>) tl;
+                        try { // one batch for all known elements
+                            s.sendChannel(new DHTTransportBatch<K, Object>(bl));
+                        } catch (IOException ioe) {
+                            // stop s
                         }
                     }
                 }
@@ -337,46 +332,72 @@ class DHTBroadcaster<K> extends Thread /*implements Runnable*/ {
 
 
     /**
-     * broadcast.
-     * @param o DHTTransport element to broadcast.
+     * sendFrame.
+     * @param b encoded DHTTransport.
+     * @throws IOException
+     */
+    void sendFrame(byte[] b) throws IOException {
+        if (goon) {
+            channel.sendFrame(b);
+        }
+    }
+
+
+    /**
+     * broadcast. The elements are stored in the server list and send to all
+     * other clients as one batch, which is serialized only once. The sending
+     * client receives only the keys, since it knows the values already.
+     * @param o DHTTransport element or DHTTransportBatch to broadcast.
      */
-    @SuppressWarnings({ "unchecked", "cast" })
+    @SuppressWarnings("unchecked")
     public void broadcast(DHTTransport o) {
         if (logger.isDebugEnabled()) {
             logger.debug("broadcast = " + o);
         }
-        DHTTransport<K, Object> tc = null;
         if (o == null) {
             return;
         }
-        //if ( ! (o instanceof DHTTransport) ) {
-        //   return;
-        //}
-        tc = (DHTTransport<K, Object>) o;
-        K key = null;
+        List<DHTTransport<K, Object>> elems;
+        if (o instanceof DHTTransportBatch) {
+            elems = ((DHTTransportBatch<K, Object>) o).list();
+        } else {
+            elems = new ArrayList<DHTTransport<K, Object>>(1);
+            elems.add((DHTTransport<K, Object>) o);
+        }
+        List<DHTTransport<K, Object>> known = new ArrayList<DHTTransport<K, Object>>(elems.size());
         synchronized (theList) {
-            //test
-            //Object x = theList.get( tc.key );
-            //if ( x != null ) {
-            //   logger.info("theList duplicate key " + tc.key );
-            //}
-            try {
-                if (!(o instanceof DHTTransportClear)) {
-                    key = tc.key();
+            for (DHTTransport<K, Object> tc : elems) {
+                if (tc instanceof DHTTransportClear) {
+                    theList.clear();
+                    known.add(tc);
+                    continue;
+                }
+                try {
+                    K key = tc.key();
                     theList.put(key, tc);
+                    known.add(new DHTTransportKnown<K, Object>(key));
+                } catch (IOException e) {
+                    logger.warn("IO exception: tc.key() not ok " + tc);
+                    e.printStackTrace();
+                } catch (ClassNotFoundException e) {
+                    logger.warn("CNF exception: tc.key() not ok " + tc);
+                    e.printStackTrace();
+                } catch (Exception e) {
+                    logger.warn("exception: tc.key() not ok " + tc);
+                    e.printStackTrace();
                 }
-            } catch (IOException e) {
-                logger.warn("IO exception: tc.key() not ok " + tc);
-                e.printStackTrace();
-            } catch (ClassNotFoundException e) {
-                logger.warn("CNF exception: tc.key() not ok " + tc);
-                e.printStackTrace();
-            } catch (Exception e) {
-                logger.warn("exception: tc.key() not ok " + tc);
-                e.printStackTrace();
             }
         }
-        logger.info("sending key=" + key + " to " + bcaster.size() + " nodes");
+        byte[] frame;
+        byte[] ack;
+        try {
+            frame = FrameChannel.encode(new DHTTransportBatch<K, Object>(elems));
+            ack = FrameChannel.encode(new DHTTransportBatch<K, Object>(known));
+        } catch (IOException e) {
+            logger.warn("encode exception " + e);
+            return;
+        }
+        logger.info("sending " + elems.size() + " elements to " + bcaster.size() + " nodes");
         List<DHTBroadcaster<K>> bccopy = null;
         synchronized (bcaster) {
             bccopy = new ArrayList<DHTBroadcaster<K>>(bcaster);
@@ -388,12 +409,16 @@ class DHTBroadcaster<K> extends Thread /*implements Runnable*/ {
                 if (logger.isDebugEnabled()) {
                     logger.debug("bcasting to " + br);
                 }
-                br.sendChannel(tc);
+                br.sendFrame(br == this ? ack : frame);
             } catch (IOException e) {
                 logger.info("bcaster, IOexception " + e);
                 synchronized (bcaster) {
                     bcaster.remove(br); //no more: ConcurrentModificationException
                 }
+                if (br == this) { // run() will end
+                    goon = false;
+                    continue;
+                }
                 try {
                     br.goon = false;
                     br.closeChannel();
@@ -435,13 +460,6 @@ class DHTBroadcaster<K> extends Thread /*implements Runnable*/ {
                     goon = false;
                     break; //continue;
                 }
-                if (o instanceof DHTTransportClear) {
-                    logger.info("receive, clear");
-                    synchronized (theList) {
-                        theList.clear();
-                        theList.notifyAll();
-                    }
-                }
                 DHTTransport tc = (DHTTransport) o;
                 broadcast(tc);
                 if (this.isInterrupted()) {
@@ -7,14 +7,21 @@ package edu.jas.util;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.log4j.Logger;
 
 
 /**
- * Distributed thread pool. Using stack / list work-pile and Executable Channels
- * and Servers.
+ * Distributed thread pool. Using stack / list work-pile and Executable Servers.
+ * The workers are slots on pooled non blocking connections: there is one
+ * connection per distinct executable server, which carries as many concurrent
+ * jobs as workers are assigned to the server in round robin fashion. All
+ * connections are served by one <code>FrameSelector</code> thread.
  * @author Heinz Kredel
  */
 
@@ -46,21 +53,21 @@ public class DistThreadPool /*extends ThreadPool*/{
 
 
     /**
-     * Channels to remote executable servers.
+     * Executable servers from the machine file.
      */
     final ExecutableChannels ec;
 
 
     /**
-     * Array of workers.
+     * Non blocking transport.
      */
-    protected DistPoolThread[] workers;
+    protected final FrameSelector fs;
 
 
     /**
-     * Number of idle workers.
+     * Pooled connections to the executable servers.
      */
-    protected int idleworkers = 0;
+    protected DistPoolConnection[] connections;
 
 
     /**
@@ -75,10 +82,13 @@ public class DistThreadPool /*extends ThreadPool*/{
     protected StrategyEnumeration strategy = StrategyEnumeration.LIFO;
 
 
+    private boolean terminated = false;
+
+
     private static final Logger logger = Logger.getLogger(DistThreadPool.class);
 
 
-    private static final boolean debug = true; //logger.isDebugEnabled();
+    private static final boolean debug = logger.isDebugEnabled();
 
 
     /**
@@ -147,15 +157,52 @@ public class DistThreadPool /*extends ThreadPool*/{
             logger.info("ec = " + ec);
         }
         try {
-            ec.open(threads);
+            fs = new FrameSelector();
+            fs.start();
+            open();
         } catch (IOException e) {
             e.printStackTrace();
             throw new IllegalArgumentException("DistThreadPool " + e);
         }
         if (debug) {
-            logger.info("ec = " + ec);
+            logger.info("pool = " + this);
+        }
+    }
+
+
+    /**
+     * Open one connection per distinct server, assign the workers in round
+     * robin fashion.
+     */
+    private void open() throws IOException {
+        if (threads == 0) {
+            connections = new DistPoolConnection[0];
+            return;
+        }
+        if (ec.servers == null || ec.servers.length <= 1) {
+            throw new IOException("to few servers");
+        }
+        Map<String, DistPoolConnection> pool = new LinkedHashMap<String, DistPoolConnection>();
+        int j = 1; // 0 is master
+        for (int i = 0; i < threads; i++) {
+            if (j >= ec.servers.length) { // modulo #servers
+                j = 1;
+            }
+            String hp = ec.servers[j] + ":" + ec.ports[j];
+            DistPoolConnection c = pool.get(hp);
+            if (c == null) {
+                c = new DistPoolConnection(this, hp);
+                pool.put(hp, c);
+            }
+            c.slots++;
+            j++;
+        }
+        connections = pool.values().toArray(new DistPoolConnection[pool.size()]);
+        for (DistPoolConnection c : connections) {
+            int x = c.hostPort.lastIndexOf(":");
+            c.channel = fs.connect(c.hostPort.substring(0, x), Integer.parseInt(c.hostPort.substring(x + 1)),
+                            c);
         }
-        workers = new DistPoolThread[0];
     }
 
 
@@ -168,24 +215,18 @@ public class DistThreadPool /*extends ThreadPool*/{
         s.append("threads="+threads);
         s.append(", strategy="+strategy);
         s.append(", exchan="+ec);
-        s.append(", workers="+workers.length);
+        s.append(", connections="+connections.length);
         s.append(")");
         return s.toString();
     }
 
 
     /**
-     * thread initialization and start.
+     * thread initialization and start. The connections are opened by the
+     * constructor, pending jobs are dispatched.
      */
     public void init() {
-        if (workers == null || workers.length == 0) {
-            workers = new DistPoolThread[threads];
-            for (int i = 0; i < workers.length; i++) {
-                workers[i] = new DistPoolThread(this, ec, i);
-                workers[i].start();
-            }
-            logger.info("init: " + this.toString());
-        }
+        dispatch();
     }
 
 
@@ -193,10 +234,11 @@ public class DistThreadPool /*extends ThreadPool*/{
      * number of worker threads.
      */
     public int getNumber() {
-        if (workers == null || workers.length < threads) {
-            init(); // start threads
+        int n = 0;
+        for (DistPoolConnection c : connections) {
+            n += c.slots;
         }
-        return workers.length; // not null
+        return n;
     }
 
 
@@ -223,54 +265,72 @@ public class DistThreadPool /*extends ThreadPool*/{
      */
     public void terminate(boolean shutDown) {
         if (shutDown) {
-            ShutdownRequest sdr = new ShutdownRequest();
-            for (int i = 0; i < workers.length; i++) {
-                addJob(sdr);
-            }
-            try {
-                Thread.sleep(20);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
             logger.info("remaining jobs = " + jobstack.size());
-            try {
-                for (int i = 0; i < workers.length; i++) {
-                    while (workers[i].isAlive()) {
-                        workers[i].interrupt();
-                        workers[i].join(100);
-                    }
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        } else {
-            terminate();
         }
+        terminate();
     }
 
 
     /**
-     * Terminates the threads.
+     * Terminates the threads. Waits for the jobs to finish and sends stop
+     * requests to the executable servers.
      */
     public void terminate() {
-        while (hasJobs()) {
+        synchronized (this) {
+            if (terminated) {
+                return;
+            }
             try {
-                Thread.sleep(100);
+                while (hasJobs() && isOpen()) {
+                    wait(100);
+                }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
+            terminated = true;
         }
-        for (int i = 0; i < workers.length; i++) {
+        for (DistPoolConnection c : connections) {
+            if (c.channel == null || c.channel.isClosed()) {
+                continue;
+            }
+            synchronized (this) {
+                c.stopping = true;
+            }
             try {
-                while (workers[i].isAlive()) {
-                    workers[i].interrupt();
-                    workers[i].join(100);
+                c.channel.send(ExecutableServer.STOP);
+            } catch (IOException e) {
+                logger.info("stop " + c + ": " + e);
+                c.channel.close();
+            }
+        }
+        long t = System.currentTimeMillis() + 10000L;
+        synchronized (this) {
+            try {
+                while (isOpen() && System.currentTimeMillis() < t) {
+                    wait(100);
                 }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
         }
+        fs.terminate();
         ec.close();
+        for (DistPoolConnection c : connections) {
+            logger.info("terminated " + c + ", done " + c.done + " jobs");
+        }
+    }
+
+
+    /**
+     * Test if there are open connections.
+     */
+    private synchronized boolean isOpen() {
+        for (DistPoolConnection c : connections) {
+            if (c.channel != null && !c.channel.isClosed()) {
+                return true;
+            }
+        }
+        return false;
     }
 
 
@@ -278,29 +338,19 @@ public class DistThreadPool /*extends ThreadPool*/{
      * adds a job to the workpile.
      * @param job
      */
-    public synchronized void addJob(Runnable job) {
-        if (workers == null || workers.length < threads) {
-            init(); // start threads
-        }
-        jobstack.addLast(job);
-        logger.debug("adding job");
-        if (idleworkers > 0) {
-            logger.debug("notifying a jobless worker");
-            notifyAll(); // findbugs
+    public void addJob(Runnable job) {
+        synchronized (this) {
+            jobstack.addLast(job);
+            logger.debug("adding job");
         }
+        dispatch();
     }
 
 
     /**
      * get a job for processing.
      */
-    protected synchronized Runnable getJob() throws InterruptedException {
-        while (jobstack.isEmpty()) {
-            idleworkers++;
-            logger.debug("waiting");
-            wait();
-            idleworkers--;
-        }
+    protected synchronized Runnable getJob() {
         // is expressed using strategy enumeration
         if (strategy == StrategyEnumeration.LIFO) {
             return jobstack.removeLast(); // LIFO
@@ -309,15 +359,76 @@ public class DistThreadPool /*extends ThreadPool*/{
     }
 
 
+    /**
+     * Send jobs to connections with free slots.
+     */
+    void dispatch() {
+        List<DistPoolConnection> cs = new ArrayList<DistPoolConnection>();
+        List<Runnable> js = new ArrayList<Runnable>();
+        synchronized (this) {
+            for (DistPoolConnection c : connections) {
+                while (!jobstack.isEmpty() && c.isReady()) {
+                    Runnable job = getJob();
+                    c.running++;
+                    cs.add(c);
+                    js.add(job);
+                }
+            }
+        }
+        for (int i = 0; i < cs.size(); i++) {
+            DistPoolConnection c = cs.get(i);
+            try {
+                // send and wait, like rmi
+                c.channel.send(js.get(i));
+                if (debug) {
+                    logger.info("send " + c + " job " + js.get(i));
+                }
+            } catch (IOException e) {
+                logger.info("error send " + c + " job " + js.get(i) + " e = " + e);
+                c.channel.close();
+            }
+        }
+    }
+
+
+    /**
+     * Job of a connection done.
+     * @param c pooled connection.
+     */
+    void done(DistPoolConnection c) {
+        synchronized (this) {
+            if (c.running > 0) {
+                c.running--;
+                c.done++;
+            }
+            notifyAll();
+        }
+        dispatch();
+    }
+
+
+    /**
+     * Connection closed.
+     * @param c pooled connection.
+     */
+    synchronized void closed(DistPoolConnection c) {
+        if (c.running > 0) {
+            logger.info("connection " + c + " closed with " + c.running + " running jobs");
+        }
+        c.running = 0;
+        notifyAll();
+    }
+
+
     /**
      * check if there are jobs for processing.
      */
-    public boolean hasJobs() {
+    public synchronized boolean hasJobs() {
         if (jobstack.size() > 0) {
             return true;
         }
-        for (int i = 0; i < workers.length; i++) {
-            if (workers[i].working) {
+        for (DistPoolConnection c : connections) {
+            if (c.running > 0) {
                 return true;
             }
         }
@@ -330,18 +441,16 @@ public class DistThreadPool /*extends ThreadPool*/{
      * @param n Integer
      * @return true, if there are possibly more than n jobs.
      */
-    public boolean hasJobs(int n) {
+    public synchronized boolean hasJobs(int n) {
         int j = jobstack.size();
-        if (j > 0 && (j + workers.length > n)) {
+        if (j > 0 && (j + getNumber() > n)) {
             return true;
             // if j > 0 no worker should be idle
             // ( ( j > 0 && ( j+workers.length > n ) ) || ( j > n )
         }
         int x = 0;
-        for (int i = 0; i < workers.length; i++) {
-            if (workers[i].working) {
-                x++;
-            }
+        for (DistPoolConnection c : connections) {
+            x += c.running;
         }
         if ((j + x) > n) {
             return true;
@@ -353,136 +462,93 @@ public class DistThreadPool /*extends ThreadPool*/{
 
 
 /**
- * Implements a shutdown task.
+ * Implements one pooled connection of the distributed thread pool.
  */
-class ShutdownRequest implements Runnable {
+class DistPoolConnection implements FrameHandler {
+
+
+    final DistThreadPool pool;
+
+
+    final String hostPort;
+
+
+    private static final Logger logger = Logger.getLogger(DistPoolConnection.class);
 
 
     /**
-     * Run the thread.
+     * Frame channel to the executable server.
      */
-    public void run() {
-        System.out.println("running ShutdownRequest");
-    }
+    volatile FrameChannel channel;
 
 
     /**
-     * toString.
-     * @see java.lang.Object#toString()
+     * Number of workers using this connection.
      */
-    @Override
-    public String toString() {
-        return "ShutdownRequest";
-    }
-
-}
+    int slots = 0;
 
 
-/**
- * Implements one local part of the distributed thread.
- */
-class DistPoolThread extends Thread {
+    /**
+     * Number of running jobs.
+     */
+    int running = 0;
 
 
-    final DistThreadPool pool;
+    /**
+     * Number of done jobs.
+     */
+    long done = 0;
 
 
-    final ExecutableChannels ec;
+    /**
+     * Stop requested.
+     */
+    boolean stopping = false;
 
 
-    final int myId;
+    /**
+     * @param pool DistThreadPool.
+     * @param hostPort host:port of the executable server.
+     */
+    DistPoolConnection(DistThreadPool pool, String hostPort) {
+        this.pool = pool;
+        this.hostPort = hostPort;
+    }
 
 
-    private static final Logger logger = Logger.getLogger(DistPoolThread.class);
+    /**
+     * Test if a job can be sent, called with the pool lock held.
+     */
+    boolean isReady() {
+        return channel != null && !channel.isClosed() && !stopping && running < slots;
+    }
 
 
-    private static final boolean debug = logger.isDebugEnabled();
+    public void opened(FrameChannel ch) {
+        logger.info("ready, " + this);
+    }
 
 
-    boolean working = false;
+    public void received(FrameChannel ch, Object o) {
+        if (ExecutableServer.DONE.equals(o)) {
+            pool.done(this);
+        } else {
+            logger.warn("invalid/unknown object: " + o + " from " + ch);
+        }
+    }
 
 
-    /**
-     * @param pool DistThreadPool.
-     */
-    public DistPoolThread(DistThreadPool pool, ExecutableChannels ec, int i) {
-        this.pool = pool;
-        this.ec = ec;
-        myId = i;
+    public void closed(FrameChannel ch) {
+        pool.closed(this);
     }
 
 
     /**
-     * Run the thread.
+     * String representation.
      */
     @Override
-    public void run() {
-        logger.info("ready, myId = " + myId);
-        Runnable job;
-        int done = 0;
-        long time = 0;
-        long t;
-        boolean running = true;
-        while (running) {
-            try {
-                logger.debug("looking for a job");
-                job = pool.getJob();
-                working = true;
-                if (debug) {
-                    logger.info("working " + myId + " on " + job);
-                }
-                t = System.currentTimeMillis();
-                // send and wait, like rmi
-                try {
-                    if (job instanceof ShutdownRequest) {
-                        ec.send(myId, ExecutableServer.STOP);
-                    } else {
-                        ec.send(myId, job);
-                    }
-                    if (debug) {
-                        logger.info("send " + myId + " at " + ec + " send job " + job);
-                    }
-                } catch (IOException e) {
-                    e.printStackTrace();
-                    logger.info("error send " + myId + " at " + ec + " e = " + e);
-                    working = false;
-                }
-                // remote: job.run(); 
-                Object o = null;
-                try {
-                    if (working) {
-                        logger.info("waiting " + myId + " on " + job);
-                        o = ec.receive(myId);
-                        if (debug) {
-                            logger.info("receive " + myId + " at " + ec + " send job " + job + " received " + o);
-                        }
-                    }
-                } catch (IOException e) {
-                    logger.info("receive exception " + myId + " send job " + job + ", " + e);
-                    //e.printStackTrace();
-                    running = false;
-                } catch (ClassNotFoundException e) {
-                    logger.info("receive exception " + myId + " send job " + job + ", " + e);
-                    //e.printStackTrace();
-                    running = false;
-                } finally {
-                    if (debug) {
-                        logger.info("receive finally " + myId + " at " + ec + " send job " + job + " received "
-                                    + o + " running " + running);
-                    }
-                }
-                working = false;
-                time += System.currentTimeMillis() - t;
-                done++;
-                if (debug) {
-                    logger.info("done " + myId + " with " + o);
-                }
-            } catch (InterruptedException e) {
-                running = false;
-                Thread.currentThread().interrupt();
-            }
-        }
-        logger.info("terminated " + myId + " , done " + done + " jobs in " + time + " milliseconds");
+    public String toString() {
+        return "DistPoolConnection(" + hostPort + ", slots=" + slots + ", running=" + running + ")";
     }
 
 }
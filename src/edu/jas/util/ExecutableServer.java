@@ -6,16 +6,32 @@ package edu.jas.util;
 
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.log4j.Logger;
 import org.apache.log4j.BasicConfigurator;
 
 
 /**
- * ExecutableServer is used to receive and execute classes.
+ * ExecutableServer is used to receive and execute classes. By default all
+ * connections are served by one non blocking <code>FrameSelector</code>
+ * thread and received <code>RemoteExecutable</code>s are run on a job pool,
+ * so idle connections need no thread. A bounded job pool applies
+ * backpressure: reading from connections is suspended while all job threads
+ * are busy. An ExecutableServer constructed with a ChannelFactory uses one
+ * blocking thread per connection.
  * @author Heinz Kredel
  */
 
@@ -29,7 +45,7 @@ public class ExecutableServer extends Thread {
 
 
     /**
-     * ChannelFactory to use.
+     * ChannelFactory to use, null for the non blocking transport.
      */
     protected final ChannelFactory cf;
 
@@ -40,6 +56,36 @@ public class ExecutableServer extends Thread {
     protected List<Executor> servers = null;
 
 
+    /**
+     * Non blocking transport, null if a ChannelFactory is used.
+     */
+    protected final FrameSelector fs;
+
+
+    /**
+     * Port of the non blocking transport.
+     */
+    protected final int port;
+
+
+    /**
+     * Pool for running the received jobs.
+     */
+    protected final ExecutorService jobs;
+
+
+    /**
+     * Maximal number of concurrently running jobs.
+     */
+    protected final int maxJobs;
+
+
+    /**
+     * Open channels of the non blocking transport.
+     */
+    protected final Set<FrameChannel> channels;
+
+
     /**
      * Default port to listen to.
      */
@@ -58,6 +104,18 @@ public class ExecutableServer extends Thread {
     public static final String STOP = "Stop";
 
 
+    /**
+     * Number of finished jobs.
+     */
+    protected final AtomicLong jobCount = new AtomicLong();
+
+
+    /**
+     * Sum of job run times in milliseconds.
+     */
+    protected final AtomicLong jobTime = new AtomicLong();
+
+
     private volatile boolean goon = true;
 
 
@@ -77,18 +135,57 @@ public class ExecutableServer extends Thread {
      * @param port
      */
     public ExecutableServer(int port) {
-        this(new ChannelFactory(port));
+        this(port, 0);
     }
 
 
     /**
      * ExecutableServer.
+     * @param port
+     * @param maxJobs maximal number of concurrently running jobs, 0 for no
+     *            limit.
+     */
+    public ExecutableServer(int port, int maxJobs) {
+        if (port <= 0) {
+            port = DEFAULT_PORT;
+        }
+        this.cf = null;
+        this.maxJobs = (maxJobs <= 0) ? Integer.MAX_VALUE : maxJobs;
+        if (maxJobs <= 0) {
+            jobs = Executors.newCachedThreadPool();
+        } else {
+            ThreadPoolExecutor tpe = new ThreadPoolExecutor(maxJobs, maxJobs, 60L, TimeUnit.SECONDS,
+                            new LinkedBlockingQueue<Runnable>());
+            tpe.allowCoreThreadTimeOut(true);
+            jobs = tpe;
+        }
+        channels = Collections.synchronizedSet(new HashSet<FrameChannel>());
+        FrameSelector s = null;
+        int p = port;
+        try {
+            s = new FrameSelector();
+            p = s.listen(port, new JobHandler());
+        } catch (IOException e) {
+            logger.warn("server not started, port " + port + ": " + e);
+        }
+        this.fs = s;
+        this.port = p;
+    }
+
+
+    /**
+     * ExecutableServer with one thread per connection.
      * @param cf channel factory to reuse.
      */
     public ExecutableServer(ChannelFactory cf) {
         this.cf = cf;
         cf.init();
         servers = new ArrayList<Executor>();
+        fs = null;
+        port = -1;
+        jobs = null;
+        maxJobs = Integer.MAX_VALUE;
+        channels = null;
     }
 
 
@@ -121,7 +218,7 @@ public class ExecutableServer extends Thread {
      */
     public void init() {
         this.start();
-        logger.info("ExecutableServer at " + cf);
+        logger.info("ExecutableServer at " + (cf != null ? cf : "port " + port));
     }
 
 
@@ -129,6 +226,9 @@ public class ExecutableServer extends Thread {
      * number of servers.
      */
     public int size() {
+        if (channels != null) {
+            return channels.size();
+        }
         if ( servers == null ) {
             return -1;
         }
@@ -136,14 +236,55 @@ public class ExecutableServer extends Thread {
     }
 
 
+    /**
+     * Get job and transport statistics. Jobs are counted for the non blocking
+     * transport, the transport statistics are the ones of this JVM.
+     * @return map with keys jobs, jobTime and the keys of
+     *         FrameChannel.getStatistics().
+     */
+    public SortedMap<String, Long> getStatistics() {
+        SortedMap<String, Long> st = FrameChannel.getStatistics();
+        st.put("jobs", jobCount.get());
+        st.put("jobTime", jobTime.get());
+        return st;
+    }
+
+
+    /**
+     * Clear the job statistics.
+     */
+    public void clearStatistics() {
+        jobCount.set(0L);
+        jobTime.set(0L);
+    }
+
+
     /**
      * run is main server method.
      */
     @Override
     public void run() {
+        mythread = Thread.currentThread();
+        if (cf == null) {
+            if (fs == null) {
+                return;
+            }
+            fs.start();
+            try {
+                while (goon && fs.isAlive()) {
+                    fs.join(1000);
+                }
+            } catch (InterruptedException e) {
+                goon = false;
+                Thread.currentThread().interrupt();
+            }
+            if (debug) {
+                logger.info("execute server " + this + " terminated");
+            }
+            return;
+        }
         SocketChannel channel = null;
         Executor s = null;
-        mythread = Thread.currentThread();
         while (goon) {
             if (debug) {
                 logger.info("execute server " + this + " go on");
@@ -188,6 +329,12 @@ public class ExecutableServer extends Thread {
         logger.debug("terminating ExecutableServer");
         if (cf != null)
             cf.terminate();
+        if (fs != null) {
+            fs.terminate();
+        }
+        if (jobs != null) {
+            jobs.shutdownNow();
+        }
         if (servers != null) {
             Iterator<Executor> it = servers.iterator();
             while (it.hasNext()) {
@@ -232,11 +379,153 @@ public class ExecutableServer extends Thread {
     @Override
     public String toString() {
         StringBuffer s = new StringBuffer("ExecutableServer(");
-        s.append(cf.toString());
+        if (cf != null) {
+            s.append(cf.toString());
+        } else {
+            s.append("port=" + port + ", " + fs);
+        }
         s.append(")");
         return s.toString();
     }
 
+
+    /**
+     * State of a connection of the non blocking transport.
+     */
+    static class JobState {
+
+
+        int running = 0;
+
+
+        boolean stopping = false;
+    }
+
+
+    /**
+     * Handler for the non blocking transport. Runs received
+     * RemoteExecutables on the job pool and replies DONE.
+     */
+    class JobHandler implements FrameHandler {
+
+
+        /**
+         * Number of running jobs of all channels.
+         */
+        int active = 0;
+
+
+        /**
+         * Channels suspended while all job threads are busy.
+         */
+        final List<FrameChannel> suspended = new ArrayList<FrameChannel>();
+
+
+        public void opened(FrameChannel ch) {
+            ch.attachment = new JobState();
+            channels.add(ch);
+            logger.debug("opened " + ch);
+        }
+
+
+        public void closed(FrameChannel ch) {
+            channels.remove(ch);
+            logger.debug("closed " + ch);
+        }
+
+
+        public void received(final FrameChannel ch, Object o) {
+            final JobState st = (JobState) ch.attachment;
+            if (debug) {
+                logger.info("receive: " + o + " from " + ch);
+            }
+            if (o instanceof String) {
+                String d = (String) o;
+                if (!STOP.equals(d)) {
+                    logger.warn("invalid/unknown String: " + d + " from " + ch);
+                }
+                synchronized (this) {
+                    st.stopping = true;
+                    ch.suspendRead();
+                    if (st.running == 0) {
+                        stop(ch);
+                    }
+                }
+                return;
+            }
+            if (!(o instanceof RemoteExecutable)) {
+                logger.warn("invalid/unknown object: " + o + " from " + ch);
+                return;
+            }
+            final RemoteExecutable re = (RemoteExecutable) o;
+            synchronized (this) {
+                st.running++;
+                active++;
+                if (active >= maxJobs) {
+                    ch.suspendRead();
+                    suspended.add(ch);
+                }
+            }
+            jobs.execute(new Runnable() {
+
+
+                public void run() {
+                    long t = System.currentTimeMillis();
+                    try {
+                        re.run();
+                    } catch (Exception e) {
+                        logger.info("Exception on re.run()" + e);
+                        e.printStackTrace();
+                    }
+                    jobTime.addAndGet(System.currentTimeMillis() - t);
+                    jobCount.incrementAndGet();
+                    if (debug) {
+                        logger.info("finished " + re);
+                    }
+                    finished(ch, st);
+                }
+            });
+        }
+
+
+        /**
+         * Job of a channel finished.
+         */
+        synchronized void finished(FrameChannel ch, JobState st) {
+            st.running--;
+            active--;
+            try {
+                ch.send(DONE);
+            } catch (IOException e) {
+                logger.info("send DONE to " + ch + ": " + e);
+            }
+            if (st.stopping && st.running == 0) {
+                stop(ch);
+            }
+            if (active < maxJobs && !suspended.isEmpty()) {
+                for (FrameChannel c : suspended) {
+                    if (!((JobState) c.attachment).stopping) {
+                        c.resumeRead();
+                    }
+                }
+                suspended.clear();
+            }
+        }
+
+
+        /**
+         * Confirm a stop request and close the channel.
+         */
+        void stop(FrameChannel ch) {
+            try {
+                ch.send(DONE);
+            } catch (IOException e) {
+                logger.info("send DONE to " + ch + ": " + e);
+            }
+            ch.closeAfterFlush();
+        }
+    }
+
 }
 
 
@@ -0,0 +1,452 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.util;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.util.LinkedList;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+
+/**
+ * FrameChannel is a non blocking communication channel for Java objects
+ * managed by a FrameSelector. Objects are transmitted as length prefixed
+ * frames: a 4 byte big endian length followed by the serialized object. The
+ * same frames are used by the blocking <code>SocketChannel</code>, so both
+ * can talk to each other. Sending is thread safe and blocks the caller only if
+ * more than <code>MAX_QUEUED</code> bytes are waiting to be written.
+ * @author agent
+ * @see FrameSelector
+ * @see SocketChannel
+ */
+
+public class FrameChannel {
+
+
+    private static final Logger logger = Logger.getLogger(FrameChannel.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Maximal size of a frame in bytes.
+     */
+    public static final int MAX_FRAME = 1 << 30;
+
+
+    /**
+     * Maximal number of queued output bytes before send() blocks.
+     */
+    public static final long MAX_QUEUED = 1L << 24;
+
+
+    /**
+     * Transport statistics of this JVM, including SocketChannels.
+     */
+    private static final AtomicLong bytesSent = new AtomicLong();
+
+
+    private static final AtomicLong bytesReceived = new AtomicLong();
+
+
+    private static final AtomicLong framesSent = new AtomicLong();
+
+
+    private static final AtomicLong framesReceived = new AtomicLong();
+
+
+    /**
+     * Underlying non blocking socket channel.
+     */
+    protected final java.nio.channels.SocketChannel sc;
+
+
+    /**
+     * Selector managing this channel.
+     */
+    protected final FrameSelector selector;
+
+
+    /**
+     * Handler for received objects.
+     */
+    protected final FrameHandler handler;
+
+
+    /**
+     * Selection key, set by the selector thread.
+     */
+    SelectionKey key;
+
+
+    /**
+     * Frame length buffer.
+     */
+    private final ByteBuffer head = ByteBuffer.allocate(4);
+
+
+    /**
+     * Frame body buffer.
+     */
+    private ByteBuffer body = null;
+
+
+    /**
+     * Output queue.
+     */
+    private final LinkedList<ByteBuffer> outq = new LinkedList<ByteBuffer>();
+
+
+    /**
+     * Number of queued output bytes.
+     */
+    private long queued = 0L;
+
+
+    /**
+     * Reading suspended.
+     */
+    private boolean suspended = false;
+
+
+    /**
+     * Close after all queued output is written.
+     */
+    private boolean closing = false;
+
+
+    private volatile boolean closed = false;
+
+
+    /**
+     * Attachment for the handler.
+     */
+    public volatile Object attachment;
+
+
+    /**
+     * Constructor.
+     * @param sc connected socket channel, will be set to non blocking.
+     * @param selector managing selector.
+     * @param handler for received objects.
+     */
+    FrameChannel(java.nio.channels.SocketChannel sc, FrameSelector selector, FrameHandler handler)
+                    throws IOException {
+        this.sc = sc;
+        this.selector = selector;
+        this.handler = handler;
+        sc.configureBlocking(false);
+        sc.socket().setTcpNoDelay(true);
+    }
+
+
+    /**
+     * Encode an object to a frame.
+     * @param o serializable object.
+     * @return length prefix and serialized object.
+     */
+    public static byte[] encode(Object o) throws IOException {
+        ByteArrayOutputStream bs = new ByteArrayOutputStream(256);
+        bs.write(new byte[4]);
+        ObjectOutputStream out = new ObjectOutputStream(bs);
+        out.writeObject(o);
+        out.close();
+        byte[] b = bs.toByteArray();
+        int n = b.length - 4;
+        b[0] = (byte) (n >>> 24);
+        b[1] = (byte) (n >>> 16);
+        b[2] = (byte) (n >>> 8);
+        b[3] = (byte) n;
+        return b;
+    }
+
+
+    /**
+     * Decode a frame body to an object.
+     * @param b serialized object without length prefix.
+     * @param off offset of the object in b.
+     * @param len length of the object.
+     * @return the object.
+     */
+    public static Object decode(byte[] b, int off, int len) throws IOException, ClassNotFoundException {
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(b, off, len));
+        try {
+            return in.readObject();
+        } finally {
+            in.close();
+        }
+    }
+
+
+    /**
+     * Count a sent frame.
+     * @param n frame length including prefix.
+     */
+    static void countSent(long n) {
+        bytesSent.addAndGet(n);
+        framesSent.incrementAndGet();
+    }
+
+
+    /**
+     * Count a received frame.
+     * @param n frame length including prefix.
+     */
+    static void countReceived(long n) {
+        bytesReceived.addAndGet(n);
+        framesReceived.incrementAndGet();
+    }
+
+
+    /**
+     * Get the transport statistics of this JVM. Counts all frames of
+     * FrameChannels and SocketChannels.
+     * @return map with keys bytesSent, bytesReceived, framesSent and
+     *         framesReceived.
+     */
+    public static SortedMap<String, Long> getStatistics() {
+        SortedMap<String, Long> st = new TreeMap<String, Long>();
+        st.put("bytesSent", bytesSent.get());
+        st.put("bytesReceived", bytesReceived.get());
+        st.put("framesSent", framesSent.get());
+        st.put("framesReceived", framesReceived.get());
+        return st;
+    }
+
+
+    /**
+     * Clear the transport statistics.
+     */
+    public static void clearStatistics() {
+        bytesSent.set(0L);
+        bytesReceived.set(0L);
+        framesSent.set(0L);
+        framesReceived.set(0L);
+    }
+
+
+    /**
+     * Check a frame length.
+     * @param n frame length.
+     */
+    static void checkLength(int n) throws IOException {
+        if (n < 0 || n > MAX_FRAME) {
+            throw new IOException("invalid frame length " + n);
+        }
+    }
+
+
+    /**
+     * Sends an object. The object is serialized in the calling thread and
+     * written by the selector thread.
+     * @param o serializable object.
+     */
+    public void send(Object o) throws IOException {
+        byte[] b = encode(o);
+        synchronized (outq) {
+            if (closed || closing) {
+                throw new IOException("channel closed " + this);
+            }
+            while (queued > MAX_QUEUED && !closed && !selector.isSelectorThread()) {
+                try {
+                    outq.wait(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("interrupted in send " + e);
+                }
+            }
+            if (closed) {
+                throw new IOException("channel closed " + this);
+            }
+            outq.addLast(ByteBuffer.wrap(b));
+            queued += b.length;
+        }
+        countSent(b.length);
+        selector.update(this);
+    }
+
+
+    /**
+     * Suspend reading from this channel.
+     */
+    public void suspendRead() {
+        synchronized (outq) {
+            suspended = true;
+        }
+        selector.update(this);
+    }
+
+
+    /**
+     * Resume reading from this channel.
+     */
+    public void resumeRead() {
+        synchronized (outq) {
+            suspended = false;
+        }
+        selector.update(this);
+    }
+
+
+    /**
+     * Close this channel after all queued objects are written.
+     */
+    public void closeAfterFlush() {
+        synchronized (outq) {
+            closing = true;
+        }
+        selector.update(this);
+    }
+
+
+    /**
+     * Get the address of the remote end.
+     * @return remote socket address or null if not connected.
+     */
+    public SocketAddress getRemoteAddress() {
+        return sc.socket().getRemoteSocketAddress();
+    }
+
+
+    /**
+     * Test if channel is closed.
+     * @return true, if the channel is closed.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+
+    /**
+     * Closes the channel.
+     */
+    public void close() {
+        synchronized (outq) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            outq.clear();
+            queued = 0L;
+            outq.notifyAll();
+        }
+        if (key != null) {
+            key.cancel();
+        }
+        try {
+            sc.close();
+        } catch (IOException ignored) {
+        }
+        handler.closed(this);
+    }
+
+
+    /**
+     * Interest operations, called in the selector thread.
+     * @return interest set for the selection key.
+     */
+    int interestOps() {
+        synchronized (outq) {
+            int ops = 0;
+            if (!suspended && !closing) {
+                ops |= SelectionKey.OP_READ;
+            }
+            if (!outq.isEmpty()) {
+                ops |= SelectionKey.OP_WRITE;
+            }
+            return ops;
+        }
+    }
+
+
+    /**
+     * Read available frames, called in the selector thread.
+     */
+    void read() throws IOException {
+        while (!closed) {
+            if (body == null) {
+                if (sc.read(head) < 0) {
+                    throw new IOException("end of stream");
+                }
+                if (head.hasRemaining()) {
+                    return;
+                }
+                head.flip();
+                int n = head.getInt();
+                head.clear();
+                checkLength(n);
+                body = ByteBuffer.allocate(n);
+            }
+            if (sc.read(body) < 0) {
+                throw new IOException("end of stream");
+            }
+            if (body.hasRemaining()) {
+                return;
+            }
+            Object o;
+            try {
+                o = decode(body.array(), 0, body.limit());
+            } catch (ClassNotFoundException e) {
+                throw new IOException("ClassNotFoundException " + e);
+            }
+            countReceived(4 + body.limit());
+            body = null;
+            if (debug) {
+                logger.debug("received " + o + " from " + this);
+            }
+            handler.received(this, o);
+            synchronized (outq) {
+                if (suspended || closing) {
+                    return;
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Write queued frames, called in the selector thread.
+     * @return true, if the channel should be closed.
+     */
+    boolean write() throws IOException {
+        synchronized (outq) {
+            while (!outq.isEmpty()) {
+                ByteBuffer b = outq.getFirst();
+                int n = sc.write(b);
+                queued -= n;
+                if (b.hasRemaining()) {
+                    break;
+                }
+                outq.removeFirst();
+            }
+            if (queued <= MAX_QUEUED) {
+                outq.notifyAll();
+            }
+            return closing && outq.isEmpty();
+        }
+    }
+
+
+    /**
+     * String representation.
+     */
+    @Override
+    public String toString() {
+        return "FrameChannel(" + sc.socket().getRemoteSocketAddress() + ")";
+    }
+
+}
@@ -0,0 +1,39 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.util;
+
+
+/**
+ * FrameHandler receives the objects and close events of frame channels. The
+ * methods are called from the selector thread and must not block.
+ * @author agent
+ * @see FrameSelector
+ */
+
+public interface FrameHandler {
+
+
+    /**
+     * New channel accepted or connected.
+     * @param ch frame channel.
+     */
+    public void opened(FrameChannel ch);
+
+
+    /**
+     * Object received.
+     * @param ch frame channel.
+     * @param o received object.
+     */
+    public void received(FrameChannel ch, Object o);
+
+
+    /**
+     * Channel closed by the peer, by an error or by close().
+     * @param ch frame channel.
+     */
+    public void closed(FrameChannel ch);
+
+}
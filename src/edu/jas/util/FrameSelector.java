@@ -0,0 +1,355 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.util;
+
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.apache.log4j.Logger;
+
+
+/**
+ * FrameSelector implements a non blocking transport for Java objects with one
+ * thread for any number of connections. It accepts connections on server ports
+ * and opens connections to other hosts. Objects are exchanged as length
+ * prefixed frames by <code>FrameChannel</code>s and delivered to
+ * <code>FrameHandler</code>s.
+ * @author agent
+ * @see FrameChannel
+ * @see FrameHandler
+ */
+
+public class FrameSelector extends Thread {
+
+
+    private static final Logger logger = Logger.getLogger(FrameSelector.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * NIO selector.
+     */
+    private final Selector selector;
+
+
+    /**
+     * Registration tasks to run in the selector thread.
+     */
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<Runnable>();
+
+
+    /**
+     * Channels with changed interest operations.
+     */
+    private final ConcurrentLinkedQueue<FrameChannel> updates = new ConcurrentLinkedQueue<FrameChannel>();
+
+
+    /**
+     * Listening server channels.
+     */
+    private final List<ServerSocketChannel> servers = new ArrayList<ServerSocketChannel>();
+
+
+    private volatile boolean running = true;
+
+
+    /**
+     * Constructor.
+     */
+    public FrameSelector() throws IOException {
+        super("FrameSelector");
+        selector = Selector.open();
+        setDaemon(true);
+    }
+
+
+    /**
+     * String representation.
+     */
+    @Override
+    public String toString() {
+        return "FrameSelector(" + servers.size() + " servers, " + selector.keys().size() + " keys)";
+    }
+
+
+    /**
+     * Test if called from the selector thread.
+     * @return true, if the current thread is the selector thread.
+     */
+    public boolean isSelectorThread() {
+        return Thread.currentThread() == this;
+    }
+
+
+    /**
+     * Accept connections on a port.
+     * @param port to listen to, 0 for any free port.
+     * @param handler for accepted channels.
+     * @return the local port.
+     */
+    public int listen(int port, final FrameHandler handler) throws IOException {
+        final ServerSocketChannel ssc = ServerSocketChannel.open();
+        ssc.socket().setReuseAddress(true);
+        ssc.socket().bind(new InetSocketAddress(port));
+        ssc.configureBlocking(false);
+        synchronized (servers) {
+            servers.add(ssc);
+        }
+        submit(new Runnable() {
+
+
+            public void run() {
+                try {
+                    ssc.register(selector, SelectionKey.OP_ACCEPT, handler);
+                } catch (IOException e) {
+                    logger.warn("register " + ssc + ": " + e);
+                }
+            }
+        });
+        logger.info("listening on port " + ssc.socket().getLocalPort());
+        return ssc.socket().getLocalPort();
+    }
+
+
+    /**
+     * Open a connection to a host. Retries until the remote server is ready.
+     * @param h host name.
+     * @param p port.
+     * @param handler for the channel.
+     * @return frame channel to h:p.
+     */
+    public FrameChannel connect(String h, int p, FrameHandler handler) throws IOException {
+        java.nio.channels.SocketChannel sc = null;
+        int i = 0;
+        int delay = 5;
+        while (sc == null) {
+            try {
+                sc = java.nio.channels.SocketChannel.open(new InetSocketAddress(h, p));
+            } catch (IOException e) {
+                i++;
+                if (i % 50 == 0) {
+                    delay += delay;
+                    logger.info("Server on " + h + ":" + p + " not ready in " + delay + "ms");
+                }
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException w) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted during IO wait " + w);
+                }
+            }
+        }
+        FrameChannel ch = new FrameChannel(sc, this, handler);
+        register(ch);
+        if (debug) {
+            logger.debug("connected " + ch + ", iter = " + i);
+        }
+        return ch;
+    }
+
+
+    /**
+     * Register a channel in the selector thread.
+     */
+    private void register(final FrameChannel ch) {
+        submit(new Runnable() {
+
+
+            public void run() {
+                try {
+                    ch.key = ch.sc.register(selector, ch.interestOps(), ch);
+                    ch.handler.opened(ch);
+                } catch (IOException e) {
+                    logger.info("register " + ch + ": " + e);
+                    ch.close();
+                }
+            }
+        });
+    }
+
+
+    /**
+     * Run a task in the selector thread.
+     */
+    private void submit(Runnable r) {
+        tasks.add(r);
+        if (!running) {
+            logger.info("selector not running " + this);
+        }
+        selector.wakeup();
+    }
+
+
+    /**
+     * Interest operations of a channel changed.
+     * @param ch frame channel.
+     */
+    void update(FrameChannel ch) {
+        updates.add(ch);
+        if (!isSelectorThread()) {
+            selector.wakeup();
+        }
+    }
+
+
+    /**
+     * Run the selector loop.
+     */
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+                Runnable r;
+                while ((r = tasks.poll()) != null) {
+                    r.run();
+                }
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey k = it.next();
+                    it.remove();
+                    handle(k);
+                }
+                FrameChannel ch;
+                while ((ch = updates.poll()) != null) {
+                    if (ch.isClosed() || ch.key == null) {
+                        continue;
+                    }
+                    try {
+                        if (ch.write()) {
+                            ch.close();
+                            continue;
+                        }
+                        ch.key.interestOps(ch.interestOps());
+                    } catch (IOException e) {
+                        logger.info("write " + ch + ": " + e);
+                        ch.close();
+                    } catch (CancelledKeyException e) {
+                        ch.close();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("selector terminated " + e);
+        } finally {
+            closeAll();
+        }
+    }
+
+
+    /**
+     * Handle a selected key.
+     */
+    private void handle(SelectionKey k) {
+        if (k.attachment() instanceof FrameHandler) { // server key
+            if (!k.isValid() || !k.isAcceptable()) {
+                return;
+            }
+            ServerSocketChannel ssc = (ServerSocketChannel) k.channel();
+            FrameHandler handler = (FrameHandler) k.attachment();
+            java.nio.channels.SocketChannel sc;
+            try {
+                while ((sc = ssc.accept()) != null) {
+                    FrameChannel ch = new FrameChannel(sc, this, handler);
+                    ch.key = sc.register(selector, ch.interestOps(), ch);
+                    if (debug) {
+                        logger.debug("accepted " + ch);
+                    }
+                    handler.opened(ch);
+                }
+            } catch (IOException e) {
+                logger.info("accept " + ssc + ": " + e);
+            }
+            return;
+        }
+        FrameChannel ch = (FrameChannel) k.attachment();
+        try {
+            if (k.isValid() && k.isReadable()) {
+                ch.read();
+            }
+            if (k.isValid() && k.isWritable()) {
+                if (ch.write()) {
+                    ch.close();
+                    return;
+                }
+            }
+            if (k.isValid()) {
+                k.interestOps(ch.interestOps());
+            }
+        } catch (IOException e) {
+            if (debug) {
+                logger.debug("closing " + ch + ": " + e);
+            }
+            ch.close();
+        } catch (CancelledKeyException e) {
+            ch.close();
+        }
+    }
+
+
+    /**
+     * Close all channels and the selector.
+     */
+    private void closeAll() {
+        synchronized (servers) {
+            for (ServerSocketChannel ssc : servers) {
+                try {
+                    ssc.close();
+                } catch (IOException ignored) {
+                }
+            }
+            servers.clear();
+        }
+        if (!selector.isOpen()) {
+            return;
+        }
+        for (SelectionKey k : new ArrayList<SelectionKey>(selector.keys())) {
+            if (k.attachment() instanceof FrameChannel) {
+                ((FrameChannel) k.attachment()).close();
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+
+    /**
+     * Terminate the selector thread and close all channels.
+     */
+    public void terminate() {
+        running = false;
+        selector.wakeup();
+        if (isSelectorThread()) {
+            return;
+        }
+        if (getState() == Thread.State.NEW) {
+            closeAll();
+            return;
+        }
+        try {
+            while (isAlive()) {
+                selector.wakeup();
+                join(100);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.debug("FrameSelector terminated");
+    }
+
+}
@@ -0,0 +1,256 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.util;
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.log4j.Logger;
+
+
+/**
+ * LRUCache is a bounded concurrent cache with approximate least recently used
+ * eviction. Lookups are lock free: they only read the backing map and stamp
+ * the entry with the current insertion clock. If the cache grows beyond its
+ * capacity, one inserting thread removes the least recently used quarter of
+ * the entries, other threads continue without waiting.
+ * @param <K> key type.
+ * @param <V> value type.
+ * @author agent
+ */
+
+public class LRUCache<K, V> {
+
+
+    private static final Logger logger = Logger.getLogger(LRUCache.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Default capacity.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+
+
+    /**
+     * Cache entry with time of last use.
+     */
+    static final class Entry<V> {
+
+
+        final V value;
+
+
+        volatile long used;
+
+
+        Entry(V value, long used) {
+            this.value = value;
+            this.used = used;
+        }
+    }
+
+
+    /**
+     * Backing map.
+     */
+    protected final ConcurrentHashMap<K, Entry<V>> map;
+
+
+    /**
+     * Maximal number of entries.
+     */
+    protected final int capacity;
+
+
+    /**
+     * Insertion clock for the time of last use.
+     */
+    private final AtomicLong clock = new AtomicLong();
+
+
+    /**
+     * Lock for the eviction, only acquired with tryLock().
+     */
+    private final ReentrantLock evictLock = new ReentrantLock();
+
+
+    private final AtomicLong hits = new AtomicLong();
+
+
+    private final AtomicLong misses = new AtomicLong();
+
+
+    private final AtomicLong evictions = new AtomicLong();
+
+
+    /**
+     * Constructor with default capacity.
+     */
+    public LRUCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+
+    /**
+     * Constructor.
+     * @param capacity maximal number of entries, at least 4.
+     */
+    public LRUCache(int capacity) {
+        if (capacity < 4) {
+            capacity = 4;
+        }
+        this.capacity = capacity;
+        map = new ConcurrentHashMap<K, Entry<V>>(Math.min(capacity, 1024));
+    }
+
+
+    /**
+     * Get a cached value.
+     * @param key the key.
+     * @return the value for key or null if not cached.
+     */
+    public V get(K key) {
+        Entry<V> e = map.get(key);
+        if (e == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        e.used = clock.get();
+        hits.incrementAndGet();
+        return e.value;
+    }
+
+
+    /**
+     * Put a value into the cache. An already cached value for key is kept.
+     * @param key the key.
+     * @param value the value, not null.
+     * @return the cached value for key.
+     */
+    public V put(K key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("null values not allowed");
+        }
+        Entry<V> e = map.putIfAbsent(key, new Entry<V>(value, clock.incrementAndGet()));
+        if (e != null) {
+            return e.value;
+        }
+        if (map.size() > capacity) {
+            evict();
+        }
+        return value;
+    }
+
+
+    /**
+     * Remove the least recently used entries down to 3/4 of the capacity.
+     */
+    protected void evict() {
+        if (!evictLock.tryLock()) {
+            return; // another thread is evicting
+        }
+        try {
+            int n = map.size() - (capacity - capacity / 4);
+            if (n <= 0) {
+                return;
+            }
+            List<Map.Entry<K, Long>> es = new ArrayList<Map.Entry<K, Long>>(map.size());
+            for (Map.Entry<K, Entry<V>> me : map.entrySet()) {
+                es.add(new MapEntry<K, Long>(me.getKey(), me.getValue().used));
+            }
+            Collections.sort(es, new Comparator<Map.Entry<K, Long>>() {
+
+
+                public int compare(Map.Entry<K, Long> a, Map.Entry<K, Long> b) {
+                    return a.getValue().compareTo(b.getValue());
+                }
+            });
+            n = Math.min(n, es.size());
+            for (int i = 0; i < n; i++) {
+                map.remove(es.get(i).getKey());
+            }
+            evictions.addAndGet(n);
+            if (debug) {
+                logger.debug("evicted " + n + " entries, " + this);
+            }
+        } finally {
+            evictLock.unlock();
+        }
+    }
+
+
+    /**
+     * Number of cached entries.
+     * @return number of entries.
+     */
+    public int size() {
+        return map.size();
+    }
+
+
+    /**
+     * Maximal number of cached entries.
+     * @return capacity.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+
+    /**
+     * Remove all entries.
+     */
+    public void clear() {
+        map.clear();
+    }
+
+
+    /**
+     * Number of successful lookups.
+     * @return hits.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+
+    /**
+     * Number of failed lookups.
+     * @return misses.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+
+    /**
+     * Number of evicted entries.
+     * @return evictions.
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+
+    /**
+     * String representation.
+     */
+    @Override
+    public String toString() {
+        return "LRUCache(size = " + size() + ", capacity = " + capacity + ", hits = " + hits.get()
+                        + ", misses = " + misses.get() + ", evictions = " + evictions.get() + ")";
+    }
+
+}
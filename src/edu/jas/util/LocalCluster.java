@@ -0,0 +1,548 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.util;
+
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+
+
+/**
+ * LocalCluster starts a number of ExecutableServers on loopback ports, either
+ * in this JVM or as forked JVMs, and writes a machine file for them. It is used
+ * to run the distributed algorithms, like the distributed Groebner bases, on
+ * one computer and to collect per node job timings and transport volumes.
+ * Usage:
+ *
+ * <pre>
+ * LocalCluster lc = new LocalCluster(2, true);
+ * lc.start();
+ * try {
+ *     GroebnerBaseDistributedEC bb = new GroebnerBaseDistributedEC(lc.getMachineFile(), 2, port);
+ *     ...
+ * } finally {
+ *     lc.terminate();
+ * }
+ * System.out.println(lc);
+ * </pre>
+ *
+ * A forked node runs main() of this class, it stops when its standard input
+ * is closed and then reports its statistics, so they are available after
+ * terminate(). Forked nodes also stop if the launching JVM dies. Transport
+ * statistics of in-process nodes are the totals of this JVM.
+ * @author agent
+ * @see ExecutableServer
+ * @see ExecutableChannels
+ */
+
+public class LocalCluster {
+
+
+    private static final Logger logger = Logger.getLogger(LocalCluster.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Host name for all nodes.
+     */
+    public static final String HOST = "localhost";
+
+
+    /**
+     * Prefix of the statistics line printed by a forked node at exit.
+     */
+    public static final String STATISTICS = "ExecutableServer statistics: ";
+
+
+    /**
+     * Time to wait for a forked node in milliseconds.
+     */
+    public static final long TIMEOUT = 30000L;
+
+
+    /**
+     * Number of nodes.
+     */
+    protected final int nodes;
+
+
+    /**
+     * Fork JVMs for the nodes.
+     */
+    protected final boolean fork;
+
+
+    /**
+     * Ports of the nodes.
+     */
+    protected final int[] ports;
+
+
+    /**
+     * In-process servers, null for forked nodes.
+     */
+    protected final ExecutableServer[] servers;
+
+
+    /**
+     * Forked node processes, null for in-process nodes.
+     */
+    protected final Process[] procs;
+
+
+    /**
+     * Readers of the forked node outputs.
+     */
+    protected final NodeReader[] readers;
+
+
+    /**
+     * Port of the master entry in the machine file.
+     */
+    protected int masterPort = -1;
+
+
+    /**
+     * Generated machine file.
+     */
+    protected File mfile = null;
+
+
+    /**
+     * Time of the last run in milliseconds.
+     */
+    protected long time = 0L;
+
+
+    /**
+     * Transport statistics of the last run in this JVM.
+     */
+    protected SortedMap<String, Long> transport = new TreeMap<String, Long>();
+
+
+    /**
+     * Constructor for in-process nodes.
+     * @param nodes number of ExecutableServers.
+     */
+    public LocalCluster(int nodes) {
+        this(nodes, false);
+    }
+
+
+    /**
+     * Constructor.
+     * @param nodes number of ExecutableServers.
+     * @param fork if true, each node is started in its own JVM.
+     */
+    public LocalCluster(int nodes, boolean fork) {
+        if (nodes < 1) {
+            nodes = 1;
+        }
+        this.nodes = nodes;
+        this.fork = fork;
+        ports = new int[nodes];
+        servers = new ExecutableServer[nodes];
+        procs = new Process[nodes];
+        readers = new NodeReader[nodes];
+    }
+
+
+    /**
+     * Main method of a forked node. Runs an ExecutableServer until the
+     * standard input is closed and prints the statistics line.
+     * @param args args[0] is the port.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: LocalCluster <port>");
+            return;
+        }
+        ExecutableServer es = new ExecutableServer(Integer.parseInt(args[0]));
+        es.init();
+        while (System.in.read() >= 0) { // until closed by the launcher
+        }
+        es.terminate();
+        System.out.println(STATISTICS + es.getStatistics());
+        System.out.flush();
+        System.exit(0);
+    }
+
+
+    /**
+     * Get a free port on this host.
+     * @return currently unused port.
+     */
+    public static int freePort() throws IOException {
+        ServerSocket s = new ServerSocket(0);
+        try {
+            s.setReuseAddress(true);
+            return s.getLocalPort();
+        } finally {
+            s.close();
+        }
+    }
+
+
+    /**
+     * Start all nodes and write the machine file.
+     */
+    public synchronized void start() throws IOException {
+        if (mfile != null) {
+            throw new IllegalStateException("cluster already started " + this);
+        }
+        masterPort = freePort();
+        for (int i = 0; i < nodes; i++) {
+            ports[i] = freePort();
+            if (fork) {
+                procs[i] = forkNode(ports[i]);
+                readers[i] = new NodeReader(procs[i]);
+                readers[i].start();
+            } else {
+                servers[i] = new ExecutableServer(ports[i]);
+                servers[i].init();
+            }
+        }
+        if (fork) {
+            for (int i = 0; i < nodes; i++) {
+                waitFor(i);
+            }
+        }
+        mfile = File.createTempFile("machines", ".local");
+        mfile.deleteOnExit();
+        PrintWriter pw = new PrintWriter(new OutputStreamWriter(new FileOutputStream(mfile),
+                        Charset.forName("UTF8")));
+        try {
+            pw.println("# machine file of " + this);
+            pw.println(HOST + ":" + masterPort + " # master");
+            for (int i = 0; i < nodes; i++) {
+                pw.println(HOST + ":" + ports[i]);
+            }
+        } finally {
+            pw.close();
+        }
+        logger.info("started " + this);
+    }
+
+
+    /**
+     * Fork a JVM running an ExecutableServer by main().
+     * @param port of the server.
+     * @return the process.
+     */
+    protected Process forkNode(int port) throws IOException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        List<String> cmd = new ArrayList<String>();
+        cmd.add(java);
+        cmd.add("-cp");
+        cmd.add(System.getProperty("java.class.path"));
+        cmd.add(LocalCluster.class.getName());
+        cmd.add("" + port);
+        ProcessBuilder pb = new ProcessBuilder(cmd);
+        pb.redirectErrorStream(true);
+        if (debug) {
+            logger.debug("fork " + cmd);
+        }
+        return pb.start();
+    }
+
+
+    /**
+     * Wait until a forked node accepts connections.
+     * @param i node number.
+     */
+    protected void waitFor(int i) throws IOException {
+        long t = System.currentTimeMillis() + TIMEOUT;
+        int delay = 10;
+        while (true) {
+            try {
+                Socket s = new Socket(HOST, ports[i]);
+                s.close();
+                return;
+            } catch (IOException e) {
+                if (!isAlive(procs[i]) || System.currentTimeMillis() > t) {
+                    terminate();
+                    throw new IOException("node " + i + " on port " + ports[i] + " not started");
+                }
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                terminate();
+                throw new IOException("interrupted waiting for node " + i);
+            }
+            if (delay < 200) {
+                delay += delay;
+            }
+        }
+    }
+
+
+    /**
+     * Test if a process is running.
+     */
+    private static boolean isAlive(Process p) {
+        try {
+            p.exitValue();
+            return false;
+        } catch (IllegalThreadStateException e) {
+            return true;
+        }
+    }
+
+
+    /**
+     * Get the machine file name.
+     * @return name of the generated machine file.
+     */
+    public String getMachineFile() {
+        if (mfile == null) {
+            throw new IllegalStateException("cluster not started");
+        }
+        return mfile.getPath();
+    }
+
+
+    /**
+     * Get the port of the master entry in the machine file.
+     * @return master port.
+     */
+    public int getMasterPort() {
+        return masterPort;
+    }
+
+
+    /**
+     * Get the port of a node.
+     * @param i node number.
+     * @return port of node i.
+     */
+    public int getPort(int i) {
+        return ports[i];
+    }
+
+
+    /**
+     * Get the number of nodes.
+     * @return number of ExecutableServers.
+     */
+    public int size() {
+        return nodes;
+    }
+
+
+    /**
+     * Run a computation on the cluster. The statistics of in-process nodes and
+     * of this JVM are cleared before the run.
+     * @param job computation using the machine file.
+     * @return the result of the job.
+     */
+    public <T> T run(Callable<T> job) throws Exception {
+        for (int i = 0; i < nodes; i++) {
+            if (servers[i] != null) {
+                servers[i].clearStatistics();
+            }
+        }
+        FrameChannel.clearStatistics();
+        long t = System.currentTimeMillis();
+        try {
+            return job.call();
+        } finally {
+            time = System.currentTimeMillis() - t;
+            transport = FrameChannel.getStatistics();
+        }
+    }
+
+
+    /**
+     * Get the time of the last run.
+     * @return wall time of the last run() in milliseconds.
+     */
+    public long getTime() {
+        return time;
+    }
+
+
+    /**
+     * Get the transport statistics of this JVM during the last run.
+     * @return map as in FrameChannel.getStatistics().
+     */
+    public SortedMap<String, Long> getTransportStatistics() {
+        return transport;
+    }
+
+
+    /**
+     * Get the statistics of a node. For forked nodes they are only available
+     * after terminate().
+     * @param i node number.
+     * @return map as in ExecutableServer.getStatistics(), empty if not
+     *         available.
+     */
+    public SortedMap<String, Long> getStatistics(int i) {
+        if (servers[i] != null) {
+            return servers[i].getStatistics();
+        }
+        if (readers[i] != null) {
+            return readers[i].getStatistics();
+        }
+        return new TreeMap<String, Long>();
+    }
+
+
+    /**
+     * Terminate all nodes and remove the machine file.
+     */
+    public synchronized void terminate() {
+        for (int i = 0; i < nodes; i++) {
+            if (servers[i] != null) {
+                servers[i].terminate();
+            }
+        }
+        for (int i = 0; i < nodes; i++) {
+            if (procs[i] != null) {
+                try {
+                    procs[i].getOutputStream().close(); // node reports and exits
+                } catch (IOException e) {
+                    procs[i].destroy();
+                }
+            }
+        }
+        for (int i = 0; i < nodes; i++) {
+            if (procs[i] == null) {
+                continue;
+            }
+            try {
+                if (!procs[i].waitFor(TIMEOUT, TimeUnit.MILLISECONDS)) { // no statistics
+                    logger.warn("killing node " + i + " on port " + ports[i]);
+                    procs[i].destroyForcibly();
+                    procs[i].waitFor();
+                }
+                readers[i].join(TIMEOUT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                procs[i].destroyForcibly();
+            }
+        }
+        if (mfile != null) {
+            mfile.delete();
+        }
+        logger.info("terminated " + this);
+    }
+
+
+    /**
+     * String representation with the statistics of the last run.
+     */
+    @Override
+    public String toString() {
+        StringBuffer s = new StringBuffer("LocalCluster(");
+        s.append(nodes + (fork ? " forked" : " in-process") + " nodes");
+        if (masterPort > 0) {
+            s.append(", master " + HOST + ":" + masterPort);
+        }
+        s.append(", time = " + time + " ms, transport = " + transport);
+        for (int i = 0; i < nodes; i++) {
+            s.append(", node " + i + " " + HOST + ":" + ports[i] + " = " + getStatistics(i));
+        }
+        s.append(")");
+        return s.toString();
+    }
+
+
+    /**
+     * Reader of a forked node output. Collects the statistics line.
+     */
+    static class NodeReader extends Thread {
+
+
+        private final BufferedReader in;
+
+
+        private final SortedMap<String, Long> stats = new TreeMap<String, Long>();
+
+
+        NodeReader(Process p) {
+            super("NodeReader");
+            in = new BufferedReader(new InputStreamReader(p.getInputStream(), Charset.forName("UTF8")));
+            setDaemon(true);
+        }
+
+
+        @Override
+        public void run() {
+            try {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (line.startsWith(STATISTICS)) {
+                        parse(line.substring(STATISTICS.length()));
+                    } else if (debug) {
+                        logger.debug("node: " + line);
+                    }
+                }
+            } catch (IOException e) {
+                logger.info("node output " + e);
+            } finally {
+                try {
+                    in.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+
+
+        /**
+         * Parse a map of the form {k1=v1, k2=v2}.
+         */
+        void parse(String s) {
+            s = s.trim();
+            if (s.startsWith("{")) {
+                s = s.substring(1);
+            }
+            if (s.endsWith("}")) {
+                s = s.substring(0, s.length() - 1);
+            }
+            synchronized (stats) {
+                for (String kv : s.split(",")) {
+                    int i = kv.indexOf("=");
+                    if (i < 0) {
+                        continue;
+                    }
+                    try {
+                        stats.put(kv.substring(0, i).trim(), Long.parseLong(kv.substring(i + 1).trim()));
+                    } catch (NumberFormatException e) {
+                        logger.info("invalid statistics " + kv);
+                    }
+                }
+            }
+        }
+
+
+        SortedMap<String, Long> getStatistics() {
+            synchronized (stats) {
+                return new TreeMap<String, Long>(stats);
+            }
+        }
+    }
+
+}
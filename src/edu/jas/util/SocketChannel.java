@@ -6,17 +6,22 @@
 package edu.jas.util;
 
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
-import java.io.ObjectInputStream;
 import java.net.Socket;
 
 
 /**
  * SocketChannel provides a communication channel for Java objects using TCP/IP
- * sockets. Refactored for java.util.concurrent.
+ * sockets. Refactored for java.util.concurrent. Objects are transmitted as
+ * length prefixed frames compatible with the non blocking
+ * <code>FrameChannel</code>.
  * @author Akitoshi Yoshida
  * @author Heinz Kredel
+ * @see FrameChannel
  */
 public class SocketChannel {
 
@@ -24,13 +29,13 @@ public class SocketChannel {
     /*
      * Input stream from the socket.
      */
-    private final ObjectInputStream in;
+    private final DataInputStream in;
 
 
     /*
      * Output stream to the socket.
      */
-    private final ObjectOutputStream out;
+    private final DataOutputStream out;
 
 
     /*
@@ -45,9 +50,9 @@ public class SocketChannel {
      */
     public SocketChannel(Socket s) throws IOException {
         soc = s;
-        out = new ObjectOutputStream(s.getOutputStream());
-        out.flush();
-        in = new ObjectInputStream(s.getInputStream());
+        s.setTcpNoDelay(true);
+        out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+        in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
     }
 
 
@@ -63,10 +68,21 @@ public class SocketChannel {
      * Sends an object
      */
     public void send(Object v) throws IOException {
+        sendFrame(FrameChannel.encode(v));
+    }
+
+
+    /**
+     * Sends an already encoded frame. Used to serialize an object only once
+     * for many channels.
+     * @param b frame from <code>FrameChannel.encode()</code>.
+     */
+    void sendFrame(byte[] b) throws IOException {
         synchronized (out) {
-            out.writeObject(v);
+            out.write(b);
             out.flush();
         }
+        FrameChannel.countSent(b.length);
     }
 
 
@@ -74,11 +90,15 @@ public class SocketChannel {
      * Receives an object
      */
     public Object receive() throws IOException, ClassNotFoundException {
-        Object v = null;
+        byte[] b;
         synchronized (in) {
-            v = in.readObject();
+            int n = in.readInt();
+            FrameChannel.checkLength(n);
+            b = new byte[n];
+            in.readFully(b);
         }
-        return v;
+        FrameChannel.countReceived(4 + b.length);
+        return FrameChannel.decode(b, 0, b.length);
     }
 
 
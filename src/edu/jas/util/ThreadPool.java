@@ -228,6 +228,11 @@ public class ThreadPool {
                 Thread.currentThread().interrupt();
             }
         }
+        synchronized (this) { // allow restart by addJob
+            workers = new PoolThread[0];
+            idleworkers = 0;
+            shutdown = false;
+        }
         return s;
     }
 
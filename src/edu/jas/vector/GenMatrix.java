@@ -12,6 +12,7 @@ import org.apache.log4j.Logger;
 
 import edu.jas.kern.PrettyPrint;
 import edu.jas.structure.AlgebraElem;
+import edu.jas.structure.NotInvertibleException;
 import edu.jas.structure.RingElem;
 
 
@@ -599,6 +600,10 @@ public class GenMatrix<C extends RingElem<C>> implements AlgebraElem<GenMatrix<C
      * @return this * S.
      */
     public GenMatrix<C> multiply(GenMatrix<C> S) {
+        if (LinAlg.isModLongField(ring.coFac)
+                        || LinAlg.parallel((long) ring.rows * ring.cols * S.ring.cols)) {
+            return new LinAlg<C>().multiply(this, S);
+        }
         int na = ring.blocksize;
         int nb = ring.blocksize;
         //System.out.println("#blocks = " + (matrix.size()/na) + ", na = " + na 
@@ -699,9 +704,28 @@ public class GenMatrix<C extends RingElem<C>> implements AlgebraElem<GenMatrix<C
     /**
      * Inverse of this.
      * @return x with this * x = 1, if it exists.
+     * @throws NotInvertibleException if this is not invertible.
      */
     public GenMatrix<C> inverse() {
-        throw new UnsupportedOperationException("inverse not yet implemented");
+        return new LinAlg<C>().inverse(this);
+    }
+
+
+    /**
+     * Determinant of this.
+     * @return det(this).
+     */
+    public C determinant() {
+        return new LinAlg<C>().determinant(this);
+    }
+
+
+    /**
+     * Rank of this.
+     * @return rank(this).
+     */
+    public int rank() {
+        return new LinAlg<C>().rank(this);
     }
 
 
@@ -0,0 +1,824 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.vector;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.arith.ArithUtil;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.structure.NotInvertibleException;
+import edu.jas.structure.RingElem;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * Linear algebra methods for GenMatrix. Blocked matrix multiplication and row
+ * operations of the elimination are executed in parallel with fork/join
+ * tasks for large matrices. Determinants, ranks, solutions of linear systems
+ * and inverses are computed with the fraction free Bareiss elimination, so
+ * all divisions are exact in integral domains. Matrices over
+ * <code>ModLong</code> fields are converted to <code>long</code> arrays and
+ * use Gaussian elimination with primitive arithmetic.
+ * @param <C> coefficient type
+ * @author agent
+ */
+
+public class LinAlg<C extends RingElem<C>> {
+
+
+    private static final Logger logger = Logger.getLogger(LinAlg.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Minimal number of element operations of a parallel task.
+     */
+    public static int PARALLEL_THRESHOLD = 1 << 14;
+
+
+    /**
+     * Constructor.
+     */
+    public LinAlg() {
+    }
+
+
+    /**
+     * Test if the fast path for ModLong fields applies.
+     * @param cf coefficient factory.
+     * @return true if cf is a ModLongRing field.
+     */
+    static boolean isModLongField(RingFactory<?> cf) {
+        return cf instanceof ModLongRing && cf.isField();
+    }
+
+
+    /**
+     * Test if parallel execution is useful.
+     * @param ops number of element operations.
+     * @return true if tasks should be split.
+     */
+    static boolean parallel(long ops) {
+        return !ComputerThreads.NO_THREADS && ops >= PARALLEL_THRESHOLD
+                        && ForkJoinPool.getCommonPoolParallelism() > 1;
+    }
+
+
+    /**
+     * Copy of the rows of a matrix.
+     * @param A matrix.
+     * @return mutable copy of A.matrix.
+     */
+    static <C extends RingElem<C>> ArrayList<ArrayList<C>> copyRows(GenMatrix<C> A) {
+        ArrayList<ArrayList<C>> m = new ArrayList<ArrayList<C>>(A.ring.rows);
+        for (ArrayList<C> r : A.matrix) {
+            m.add(new ArrayList<C>(r));
+        }
+        return m;
+    }
+
+
+    /**
+     * Matrix product with blocked fork/join parallel algorithm.
+     * @param A matrix.
+     * @param B matrix.
+     * @return A * B.
+     */
+    @SuppressWarnings("unchecked")
+    public GenMatrix<C> multiply(GenMatrix<C> A, GenMatrix<C> B) {
+        final GenMatrixRing<C> pr = A.ring.product(B.ring);
+        if (isModLongField(A.ring.coFac)) {
+            ModLongRing cf = (ModLongRing) A.ring.coFac;
+            long p = cf.getModul().longValue();
+            long[][] c = multiply(toLong((GenMatrix<ModLong>) (GenMatrix) A),
+                            toLong((GenMatrix<ModLong>) (GenMatrix) B), p);
+            return (GenMatrix<C>) (GenMatrix) fromLong((GenMatrixRing<ModLong>) (GenMatrixRing) pr, c);
+        }
+        final ArrayList<ArrayList<C>> a = A.matrix;
+        final ArrayList<ArrayList<C>> t = B.transpose(B.ring.transpose()).matrix;
+        final ArrayList<ArrayList<C>> c = copyRows(pr.getZERO());
+        final int bs = Math.max(1, A.ring.blocksize);
+        final int inner = A.ring.cols;
+        RecursiveAction task = new RowTask(0, pr.rows, (long) pr.cols * inner) {
+
+
+            @Override
+            void compute(int lo, int hi) {
+                C zero = pr.coFac.getZERO();
+                for (int jj = 0; jj < t.size(); jj += bs) {
+                    int je = Math.min(jj + bs, t.size());
+                    for (int i = lo; i < hi; i++) {
+                        ArrayList<C> ai = a.get(i);
+                        ArrayList<C> ci = c.get(i);
+                        for (int j = jj; j < je; j++) {
+                            ArrayList<C> bj = t.get(j);
+                            C s = zero;
+                            for (int k = 0; k < inner; k++) {
+                                C x = ai.get(k);
+                                if (x.isZERO()) {
+                                    continue;
+                                }
+                                s = s.sum(x.multiply(bj.get(k)));
+                            }
+                            ci.set(j, s);
+                        }
+                    }
+                }
+            }
+        };
+        invoke(task);
+        return new GenMatrix<C>(pr, c);
+    }
+
+
+    /**
+     * Fraction free Gaussian elimination (Bareiss) to row echelon form. The
+     * pivot of row i is the determinant of a leading i+1 minor of the row
+     * permuted matrix. Pivots are searched in the first cols columns, further
+     * columns are transformed accordingly.
+     * @param cf coefficient factory.
+     * @param m list of rows, will be modified.
+     * @param cols number of columns for pivots.
+     * @return row echelon form, pivot columns and sign of the row permutation.
+     */
+    Echelon<C> bareiss(RingFactory<C> cf, ArrayList<ArrayList<C>> m, int cols) {
+        final int rows = m.size();
+        C prev = cf.getONE();
+        int sign = 1;
+        List<Integer> pivots = new ArrayList<Integer>();
+        int r = 0;
+        for (int k = 0; k < cols && r < rows; k++) {
+            int i = r;
+            while (i < rows && m.get(i).get(k).isZERO()) {
+                i++;
+            }
+            if (i == rows) {
+                continue;
+            }
+            if (i != r) {
+                ArrayList<C> h = m.get(i);
+                m.set(i, m.get(r));
+                m.set(r, h);
+                sign = -sign;
+            }
+            final ArrayList<C> pr = m.get(r);
+            final C piv = pr.get(k);
+            final C pv = prev;
+            final C zero = cf.getZERO();
+            final int kk = k;
+            final ArrayList<ArrayList<C>> mm = m;
+            final int width = pr.size();
+            RecursiveAction task = new RowTask(r + 1, rows, (long) (width - k)) {
+
+
+                @Override
+                void compute(int lo, int hi) {
+                    for (int i = lo; i < hi; i++) {
+                        ArrayList<C> ri = mm.get(i);
+                        C f = ri.get(kk);
+                        for (int j = kk + 1; j < width; j++) {
+                            C x = piv.multiply(ri.get(j));
+                            if (!f.isZERO()) {
+                                x = x.subtract(f.multiply(pr.get(j)));
+                            }
+                            if (!pv.isONE()) {
+                                x = x.divide(pv);
+                            }
+                            ri.set(j, x);
+                        }
+                        ri.set(kk, zero);
+                    }
+                }
+            };
+            invoke(task);
+            prev = piv;
+            pivots.add(k);
+            r++;
+        }
+        if (debug) {
+            logger.debug("pivots = " + pivots + ", sign = " + sign);
+        }
+        return new Echelon<C>(m, pivots, sign);
+    }
+
+
+    /**
+     * Container for a fraction free row echelon form.
+     */
+    static final class Echelon<C extends RingElem<C>> {
+
+
+        final ArrayList<ArrayList<C>> rows;
+
+
+        final List<Integer> pivots;
+
+
+        final int sign;
+
+
+        Echelon(ArrayList<ArrayList<C>> rows, List<Integer> pivots, int sign) {
+            this.rows = rows;
+            this.pivots = pivots;
+            this.sign = sign;
+        }
+    }
+
+
+    /**
+     * Fraction free row echelon form.
+     * @param A matrix.
+     * @return fraction free row echelon form of a row permutation of A.
+     */
+    public GenMatrix<C> rowEchelonForm(GenMatrix<C> A) {
+        Echelon<C> e = bareiss(A.ring.coFac, copyRows(A), A.ring.cols);
+        return new GenMatrix<C>(A.ring, e.rows);
+    }
+
+
+    /**
+     * Determinant.
+     * @param A square matrix.
+     * @return det(A).
+     */
+    @SuppressWarnings("unchecked")
+    public C determinant(GenMatrix<C> A) {
+        int n = A.ring.rows;
+        if (n != A.ring.cols) {
+            throw new IllegalArgumentException("matrix not square: " + n + " x " + A.ring.cols);
+        }
+        if (isModLongField(A.ring.coFac)) {
+            ModLongRing cf = (ModLongRing) A.ring.coFac;
+            long p = cf.getModul().longValue();
+            long d = determinant(toLong((GenMatrix<ModLong>) (GenMatrix) A), p);
+            return (C) (RingElem) cf.fromInteger(d);
+        }
+        Echelon<C> e = bareiss(A.ring.coFac, copyRows(A), n);
+        if (e.pivots.size() < n) {
+            return A.ring.coFac.getZERO();
+        }
+        C d = e.rows.get(n - 1).get(n - 1);
+        if (e.sign < 0) {
+            d = d.negate();
+        }
+        return d;
+    }
+
+
+    /**
+     * Rank.
+     * @param A matrix.
+     * @return rank(A).
+     */
+    @SuppressWarnings("unchecked")
+    public int rank(GenMatrix<C> A) {
+        if (isModLongField(A.ring.coFac)) {
+            long p = ((ModLongRing) A.ring.coFac).getModul().longValue();
+            long[][] a = toLong((GenMatrix<ModLong>) (GenMatrix) A);
+            return gaussJordan(a, a[0].length, p, null);
+        }
+        return bareiss(A.ring.coFac, copyRows(A), A.ring.cols).pivots.size();
+    }
+
+
+    /**
+     * Fraction free solution of a linear system with non singular square
+     * matrix. Computes y with A y = det(A) b, all divisions are exact in
+     * integral domains.
+     * @param A non singular square matrix.
+     * @param B right hand sides as columns.
+     * @return [det(A), Y] with A Y = det(A) B.
+     */
+    @SuppressWarnings("unchecked")
+    public Object[] solveFractionFree(GenMatrix<C> A, GenMatrix<C> B) {
+        final int n = A.ring.rows;
+        if (n != A.ring.cols || n != B.ring.rows) {
+            throw new IllegalArgumentException("invalid dimensions: " + A.ring + ", " + B.ring);
+        }
+        final int mb = B.ring.cols;
+        ArrayList<ArrayList<C>> m = copyRows(A);
+        for (int i = 0; i < n; i++) {
+            m.get(i).addAll(B.matrix.get(i));
+        }
+        Echelon<C> e = bareiss(A.ring.coFac, m, n);
+        if (e.pivots.size() < n) {
+            throw new NotInvertibleException("singular matrix, rank = " + e.pivots.size());
+        }
+        final ArrayList<ArrayList<C>> u = e.rows;
+        final C det = u.get(n - 1).get(n - 1);
+        // back substitution, y_i = (det u_{i,n+l} - sum_{j>i} u_{ij} y_j) / u_{ii}
+        final ArrayList<ArrayList<C>> y = new ArrayList<ArrayList<C>>(n);
+        for (int i = 0; i < n; i++) {
+            y.add(new ArrayList<C>(B.matrix.get(i)));
+        }
+        RecursiveAction task = new RowTask(0, mb, (long) n * n) {
+
+
+            @Override
+            void compute(int lo, int hi) {
+                for (int l = lo; l < hi; l++) {
+                    for (int i = n - 1; i >= 0; i--) {
+                        ArrayList<C> ui = u.get(i);
+                        C s = det.multiply(ui.get(n + l));
+                        for (int j = i + 1; j < n; j++) {
+                            C x = ui.get(j);
+                            if (!x.isZERO()) {
+                                s = s.subtract(x.multiply(y.get(j).get(l)));
+                            }
+                        }
+                        y.get(i).set(l, s.divide(ui.get(i)));
+                    }
+                }
+            }
+        };
+        invoke(task);
+        C d = det;
+        if (e.sign < 0) {
+            d = d.negate();
+            for (ArrayList<C> yi : y) {
+                for (int l = 0; l < mb; l++) {
+                    yi.set(l, yi.get(l).negate());
+                }
+            }
+        }
+        return new Object[] { d, new GenMatrix<C>(B.ring, y) };
+    }
+
+
+    /**
+     * Solution of a linear system with non singular square matrix.
+     * @param A non singular square matrix.
+     * @param b right hand side.
+     * @return x with A x = b.
+     * @throws NotInvertibleException if A is singular or the solution does
+     *             not exist in the coefficient ring.
+     */
+    public GenVector<C> solve(GenMatrix<C> A, GenVector<C> b) {
+        GenMatrixRing<C> br = new GenMatrixRing<C>(A.ring.coFac, b.modul.cols, 1, A.ring.blocksize);
+        ArrayList<ArrayList<C>> bm = new ArrayList<ArrayList<C>>(b.modul.cols);
+        for (C c : b.val) {
+            ArrayList<C> r = new ArrayList<C>(1);
+            r.add(c);
+            bm.add(r);
+        }
+        GenMatrix<C> X = solve(A, new GenMatrix<C>(br, bm));
+        List<C> x = new ArrayList<C>(X.ring.rows);
+        for (ArrayList<C> r : X.matrix) {
+            x.add(r.get(0));
+        }
+        return new GenVector<C>(b.modul, x);
+    }
+
+
+    /**
+     * Solution of linear systems with non singular square matrix.
+     * @param A non singular square matrix.
+     * @param B right hand sides as columns.
+     * @return X with A X = B.
+     * @throws NotInvertibleException if A is singular or the solution does
+     *             not exist in the coefficient ring.
+     */
+    @SuppressWarnings("unchecked")
+    public GenMatrix<C> solve(GenMatrix<C> A, GenMatrix<C> B) {
+        if (isModLongField(A.ring.coFac)) {
+            int n = A.ring.rows;
+            if (n != A.ring.cols || n != B.ring.rows) {
+                throw new IllegalArgumentException("invalid dimensions: " + A.ring + ", " + B.ring);
+            }
+            long p = ((ModLongRing) A.ring.coFac).getModul().longValue();
+            long[][] x = solve(toLong((GenMatrix<ModLong>) (GenMatrix) A),
+                            toLong((GenMatrix<ModLong>) (GenMatrix) B), p);
+            return (GenMatrix<C>) (GenMatrix) fromLong((GenMatrixRing<ModLong>) (GenMatrixRing) B.ring, x);
+        }
+        Object[] dy = solveFractionFree(A, B);
+        C d = (C) dy[0];
+        GenMatrix<C> Y = (GenMatrix<C>) dy[1];
+        if (d.isONE()) {
+            return Y;
+        }
+        ArrayList<ArrayList<C>> x = copyRows(Y);
+        boolean field = A.ring.coFac.isField();
+        C di = null;
+        if (field || d.isUnit()) {
+            di = d.inverse();
+        }
+        for (ArrayList<C> xi : x) {
+            for (int l = 0; l < xi.size(); l++) {
+                C y = xi.get(l);
+                if (di != null) {
+                    xi.set(l, y.multiply(di));
+                    continue;
+                }
+                C q = y.divide(d);
+                if (!q.multiply(d).equals(y)) {
+                    throw new NotInvertibleException("solution not in coefficient ring, det = " + d);
+                }
+                xi.set(l, q);
+            }
+        }
+        return new GenMatrix<C>(B.ring, x);
+    }
+
+
+    /**
+     * Inverse matrix.
+     * @param A non singular square matrix.
+     * @return A^-1.
+     * @throws NotInvertibleException if A is not invertible.
+     */
+    public GenMatrix<C> inverse(GenMatrix<C> A) {
+        if (A.ring.rows != A.ring.cols) {
+            throw new IllegalArgumentException("matrix not square: " + A.ring);
+        }
+        return solve(A, A.ring.getONE());
+    }
+
+
+    /**
+     * Convert to long array.
+     * @param A matrix over ModLong.
+     * @return array of entries.
+     */
+    public static long[][] toLong(GenMatrix<ModLong> A) {
+        long[][] a = new long[A.ring.rows][A.ring.cols];
+        for (int i = 0; i < a.length; i++) {
+            ArrayList<ModLong> r = A.matrix.get(i);
+            for (int j = 0; j < a[i].length; j++) {
+                a[i][j] = r.get(j).getVal();
+            }
+        }
+        return a;
+    }
+
+
+    /**
+     * Convert from long array.
+     * @param mr matrix ring over ModLong.
+     * @param a array of entries modulo the modul of mr.
+     * @return matrix with entries a.
+     */
+    public static GenMatrix<ModLong> fromLong(GenMatrixRing<ModLong> mr, long[][] a) {
+        ModLongRing cf = (ModLongRing) mr.coFac;
+        ArrayList<ArrayList<ModLong>> m = new ArrayList<ArrayList<ModLong>>(a.length);
+        for (int i = 0; i < a.length; i++) {
+            ArrayList<ModLong> r = new ArrayList<ModLong>(a[i].length);
+            for (int j = 0; j < a[i].length; j++) {
+                r.add(new ModLong(cf, a[i][j]));
+            }
+            m.add(r);
+        }
+        return new GenMatrix<ModLong>(mr, m);
+    }
+
+
+    /**
+     * Matrix product modulo p, p &lt; 2<sup>31</sup>.
+     * @param a matrix.
+     * @param b matrix.
+     * @param p modulus.
+     * @return a * b mod p.
+     */
+    public static long[][] multiply(final long[][] a, long[][] b, final long p) {
+        final int n = a.length;
+        final int inner = b.length;
+        final int m = b[0].length;
+        final long[][] t = new long[m][inner];
+        for (int k = 0; k < inner; k++) {
+            for (int j = 0; j < m; j++) {
+                t[j][k] = b[k][j];
+            }
+        }
+        final long[][] c = new long[n][m];
+        invoke(new RowTask(0, n, (long) m * inner) {
+
+
+            @Override
+            void compute(int lo, int hi) {
+                for (int i = lo; i < hi; i++) {
+                    long[] ai = a[i];
+                    for (int j = 0; j < m; j++) {
+                        long[] tj = t[j];
+                        long s = 0L;
+                        for (int k = 0; k < inner; k++) {
+                            s += ai[k] * tj[k];
+                            if (s >= REDUCE) {
+                                s %= p;
+                            }
+                        }
+                        c[i][j] = s % p;
+                    }
+                }
+            }
+        });
+        return c;
+    }
+
+
+    /**
+     * Bound for lazy reductions of sums of products below 2<sup>62</sup>.
+     */
+    static final long REDUCE = 1L << 62;
+
+
+    /**
+     * Number of row operations with symmetric residues |x| &le; p/2 &lt;
+     * 2<sup>30</sup> which can be accumulated without overflow before a
+     * reduction is required.
+     */
+    static final int DELAY = 7;
+
+
+    /**
+     * Symmetric residue.
+     * @param x number.
+     * @param p modulus.
+     * @return x mod p with |x| &le; p/2.
+     */
+    static long symmetric(long x, long p) {
+        x %= p;
+        long h = p >> 1;
+        if (x > h) {
+            return x - p;
+        }
+        if (x < -h) {
+            return x + p;
+        }
+        return x;
+    }
+
+
+    /**
+     * Gauss-Jordan elimination modulo a prime p &lt; 2<sup>31</sup>. The
+     * first cols columns are reduced, further columns are transformed
+     * accordingly. Row operations use delayed reduction: pivot rows and
+     * factors are symmetric residues, so up to DELAY row operations are
+     * accumulated in the other rows before they are reduced. Mutates a, on
+     * return all entries are in the range 0 &le; a[i][j] &lt; p.
+     * @param a matrix.
+     * @param cols number of columns for pivots.
+     * @param p prime.
+     * @param det array of length 1 for the determinant of the leading square
+     *            part or null.
+     * @return rank of the first cols columns.
+     */
+    public static int gaussJordan(final long[][] a, int cols, final long p, long[] det) {
+        final int rows = a.length;
+        final int width = a[0].length;
+        long d = 1L;
+        int r = 0;
+        int steps = 0;
+        for (int k = 0; k < cols && r < rows; k++) {
+            int i = r;
+            while (i < rows && (a[i][k] %= p) == 0L) {
+                i++;
+            }
+            if (i == rows) {
+                d = 0L;
+                continue;
+            }
+            if (i != r) {
+                long[] h = a[i];
+                a[i] = a[r];
+                a[r] = h;
+                d = p - d;
+            }
+            final long[] ar = a[r];
+            long pk = (ar[k] < 0L ? ar[k] + p : ar[k]);
+            d = d * pk % p;
+            long inv = ArithUtil.modInverse(pk, p);
+            ar[k] = 1L;
+            for (int j = k + 1; j < width; j++) {
+                ar[j] = symmetric(ar[j] % p * inv, p);
+            }
+            final boolean reduce = (steps == DELAY);
+            steps = (reduce ? 1 : steps + 1);
+            final int kk = k;
+            final int rr = r;
+            invoke(new RowTask(0, rows, (long) (width - k)) {
+
+
+                @Override
+                void compute(int lo, int hi) {
+                    for (int i = lo; i < hi; i++) {
+                        if (i == rr) {
+                            continue;
+                        }
+                        long[] ai = a[i];
+                        if (reduce) {
+                            for (int j = kk + 1; j < width; j++) {
+                                ai[j] %= p;
+                            }
+                        }
+                        long f = symmetric(ai[kk], p);
+                        ai[kk] = 0L;
+                        if (f == 0L) {
+                            continue;
+                        }
+                        for (int j = kk + 1; j < width; j++) {
+                            ai[j] -= f * ar[j];
+                        }
+                    }
+                }
+            });
+            r++;
+        }
+        for (long[] ai : a) {
+            for (int j = 0; j < width; j++) {
+                long x = ai[j] % p;
+                ai[j] = (x < 0L ? x + p : x);
+            }
+        }
+        if (det != null) {
+            det[0] = (r < cols ? 0L : d % p);
+        }
+        return r;
+    }
+
+
+    /**
+     * Determinant modulo a prime. Forward elimination with delayed reduction
+     * in the row operations as in gaussJordan.
+     * @param a square matrix, not modified.
+     * @param p prime.
+     * @return det(a) mod p.
+     */
+    public static long determinant(long[][] a, final long p) {
+        final int n = a.length;
+        final long[][] b = new long[n][];
+        for (int i = 0; i < n; i++) {
+            b[i] = a[i].clone();
+        }
+        long d = 1L;
+        int steps = 0;
+        for (int k = 0; k < n; k++) {
+            int i = k;
+            while (i < n && (b[i][k] %= p) == 0L) {
+                i++;
+            }
+            if (i == n) {
+                return 0L;
+            }
+            if (i != k) {
+                long[] h = b[i];
+                b[i] = b[k];
+                b[k] = h;
+                d = p - d;
+            }
+            final long[] bk = b[k];
+            for (int j = k + 1; j < n; j++) {
+                bk[j] = symmetric(bk[j], p);
+            }
+            long pk = (bk[k] < 0L ? bk[k] + p : bk[k]);
+            d = d * pk % p;
+            final long inv = ArithUtil.modInverse(pk, p);
+            final boolean reduce = (steps == DELAY);
+            steps = (reduce ? 1 : steps + 1);
+            final int kk = k;
+            invoke(new RowTask(k + 1, n, (long) (n - k)) {
+
+
+                @Override
+                void compute(int lo, int hi) {
+                    for (int i = lo; i < hi; i++) {
+                        long[] bi = b[i];
+                        if (reduce) {
+                            for (int j = kk + 1; j < n; j++) {
+                                bi[j] %= p;
+                            }
+                        }
+                        long f = symmetric(bi[kk] % p * inv, p);
+                        if (f == 0L) {
+                            continue;
+                        }
+                        for (int j = kk + 1; j < n; j++) {
+                            bi[j] -= f * bk[j];
+                        }
+                    }
+                }
+            });
+        }
+        return d % p;
+    }
+
+
+    /**
+     * Solution of linear systems modulo a prime.
+     * @param a non singular square matrix, not modified.
+     * @param b right hand sides as columns, not modified.
+     * @param p prime.
+     * @return x with a x = b mod p.
+     */
+    public static long[][] solve(long[][] a, long[][] b, long p) {
+        int n = a.length;
+        int m = b[0].length;
+        long[][] ab = new long[n][n + m];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(a[i], 0, ab[i], 0, n);
+            System.arraycopy(b[i], 0, ab[i], n, m);
+        }
+        int r = gaussJordan(ab, n, p, null);
+        if (r < n) {
+            throw new NotInvertibleException("singular matrix, rank = " + r);
+        }
+        long[][] x = new long[n][m];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(ab[i], n, x[i], 0, m);
+        }
+        return x;
+    }
+
+
+    /**
+     * Run a task in the common fork/join pool or directly if it is small.
+     * @param task row task.
+     */
+    static void invoke(RecursiveAction task) {
+        RowTask t = (RowTask) task;
+        if (!parallel((long) (t.hi - t.lo) * t.work)) {
+            t.compute(t.lo, t.hi);
+            return;
+        }
+        ForkJoinPool.commonPool().invoke(task);
+    }
+
+
+    /**
+     * Fork/join task over a range of rows. The range is split until the
+     * work of a part is below PARALLEL_THRESHOLD.
+     */
+    static abstract class RowTask extends RecursiveAction {
+
+
+        private static final long serialVersionUID = 1L;
+
+
+        final int lo;
+
+
+        final int hi;
+
+
+        /**
+         * Number of element operations per row.
+         */
+        final long work;
+
+
+        RowTask(int lo, int hi, long work) {
+            this.lo = lo;
+            this.hi = hi;
+            this.work = Math.max(1L, work);
+        }
+
+
+        /**
+         * Sequential computation for rows lo &le; i &lt; hi.
+         */
+        abstract void compute(int lo, int hi);
+
+
+        @Override
+        protected void compute() {
+            split(lo, hi);
+        }
+
+
+        void split(int l, int h) {
+            if (h - l <= 1 || (h - l) * work < PARALLEL_THRESHOLD) {
+                compute(l, h);
+                return;
+            }
+            final int mid = (l + h) >>> 1;
+            final int ll = l;
+            final int hh = h;
+            invokeAll(new RecursiveAction() {
+
+
+                @Override
+                protected void compute() {
+                    split(ll, mid);
+                }
+            }, new RecursiveAction() {
+
+
+                @Override
+                protected void compute() {
+                    split(mid, hh);
+                }
+            });
+        }
+    }
+
+}
@@ -0,0 +1,753 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.vector;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.arith.ArithUtil;
+import edu.jas.arith.BigRational;
+import edu.jas.arith.Rational;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.structure.NotInvertibleException;
+import edu.jas.structure.RingElem;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * Multi-modular linear algebra for integer and rational matrices.
+ * Determinants, ranks, null spaces and solutions of linear systems are
+ * computed from images modulo word size primes with primitive arithmetic,
+ * the images of a batch of primes are computed in parallel fork/join tasks.
+ * The results are lifted with Chinese remaindering and rational
+ * reconstruction. Determinants terminate at the Hadamard bound or, if
+ * enabled, when the Chinese remainder is stable. Solutions and null spaces
+ * terminate when the reconstruction is stable and verified exactly.
+ * @param <C> coefficient type, BigInteger or BigRational
+ * @author agent
+ */
+
+public class LinAlgModular<C extends RingElem<C> & Rational> {
+
+
+    private static final Logger logger = Logger.getLogger(LinAlgModular.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Number of primes per parallel batch.
+     */
+    protected final int threads;
+
+
+    /**
+     * Number of consecutive unchanged Chinese remainders after which a
+     * determinant is returned before the Hadamard bound is reached. The
+     * default 0 uses only the Hadamard bound, the result is then proven.
+     */
+    public int stabilization = 0;
+
+
+    /**
+     * Constructor.
+     */
+    public LinAlgModular() {
+        this(ComputerThreads.NO_THREADS ? 1 : Math.max(1, ForkJoinPool.getCommonPoolParallelism()));
+    }
+
+
+    /**
+     * Constructor.
+     * @param threads number of primes per parallel batch.
+     */
+    public LinAlgModular(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+
+    /**
+     * Integral matrix with denominators cleared row by row.
+     */
+    static final class Integral {
+
+
+        /**
+         * Entries of the integral matrix.
+         */
+        final java.math.BigInteger[][] big;
+
+
+        /**
+         * Entries as long if all of them fit, else null.
+         */
+        final long[][] small;
+
+
+        /**
+         * Product of the row denominators.
+         */
+        final java.math.BigInteger den;
+
+
+        Integral(java.math.BigInteger[][] big, java.math.BigInteger den) {
+            this.big = big;
+            this.den = den;
+            long[][] s = new long[big.length][];
+            for (int i = 0; i < big.length && s != null; i++) {
+                s[i] = new long[big[i].length];
+                for (int j = 0; j < big[i].length; j++) {
+                    if (big[i][j].bitLength() > 62) {
+                        s = null;
+                        break;
+                    }
+                    s[i][j] = big[i][j].longValue();
+                }
+            }
+            this.small = s;
+        }
+
+
+        /**
+         * Image modulo a prime.
+         * @param p prime.
+         * @return this mod p.
+         */
+        long[][] mod(long p) {
+            long[][] a = new long[big.length][];
+            java.math.BigInteger P = java.math.BigInteger.valueOf(p);
+            for (int i = 0; i < big.length; i++) {
+                int m = big[i].length;
+                long[] ai = new long[m];
+                for (int j = 0; j < m; j++) {
+                    long x;
+                    if (small != null) {
+                        x = small[i][j] % p;
+                        if (x < 0L) {
+                            x += p;
+                        }
+                    } else {
+                        x = big[i][j].mod(P).longValue();
+                    }
+                    ai[j] = x;
+                }
+                a[i] = ai;
+            }
+            return a;
+        }
+
+
+        /**
+         * Number of columns.
+         */
+        int cols() {
+            return big.length == 0 ? 0 : big[0].length;
+        }
+    }
+
+
+    /**
+     * Clear the denominators of the rows of a matrix.
+     * @param A matrix.
+     * @param b right hand side or null, treated as additional column.
+     * @return integral matrix with rows of A, b multiplied by their
+     *         denominators.
+     */
+    Integral integral(GenMatrix<C> A, GenVector<C> b) {
+        int n = A.ring.rows;
+        int m = A.ring.cols + (b == null ? 0 : 1);
+        java.math.BigInteger[][] M = new java.math.BigInteger[n][m];
+        java.math.BigInteger D = java.math.BigInteger.ONE;
+        BigRational[] row = new BigRational[m];
+        for (int i = 0; i < n; i++) {
+            java.math.BigInteger d = java.math.BigInteger.ONE;
+            List<C> ai = A.matrix.get(i);
+            for (int j = 0; j < m; j++) {
+                C c = (j < ai.size() ? ai.get(j) : b.val.get(i));
+                BigRational r = c.getRational();
+                row[j] = r;
+                java.math.BigInteger e = r.denominator();
+                if (!e.equals(java.math.BigInteger.ONE)) {
+                    d = d.divide(d.gcd(e)).multiply(e);
+                }
+            }
+            for (int j = 0; j < m; j++) {
+                M[i][j] = row[j].numerator().multiply(d.divide(row[j].denominator()));
+            }
+            D = D.multiply(d);
+        }
+        return new Integral(M, D);
+    }
+
+
+    /**
+     * Bit size of the Hadamard bound for the determinant.
+     * @param M integral square matrix.
+     * @return h with |det(M)| &le; 2<sup>h</sup>.
+     */
+    static long hadamardBits(Integral M) {
+        int n = M.big.length;
+        long rb = 0L;
+        long cb = 0L;
+        for (int i = 0; i < n; i++) {
+            java.math.BigInteger r = java.math.BigInteger.ZERO;
+            java.math.BigInteger c = java.math.BigInteger.ZERO;
+            for (int j = 0; j < n; j++) {
+                r = r.add(M.big[i][j].multiply(M.big[i][j]));
+                c = c.add(M.big[j][i].multiply(M.big[j][i]));
+            }
+            rb += (r.bitLength() + 1) / 2;
+            cb += (c.bitLength() + 1) / 2;
+        }
+        return Math.min(rb, cb);
+    }
+
+
+    /**
+     * Determinant.
+     * @param A square matrix.
+     * @return det(A).
+     */
+    public C determinant(GenMatrix<C> A) {
+        if (A.ring.rows != A.ring.cols) {
+            throw new IllegalArgumentException("matrix not square: " + A.ring);
+        }
+        Integral M = integral(A, null);
+        java.math.BigInteger d = determinant(M);
+        return fromRational(A.ring.coFac, new BigRational(d).divide(new BigRational(M.den)));
+    }
+
+
+    /**
+     * Determinant of an integral matrix.
+     * @param M integral square matrix.
+     * @return det(M).
+     */
+    java.math.BigInteger determinant(final Integral M) {
+        long hb = hadamardBits(M) + 1;
+        java.math.BigInteger P = java.math.BigInteger.ONE;
+        java.math.BigInteger X = java.math.BigInteger.ZERO;
+        java.math.BigInteger last = null;
+        int same = 0;
+        int k = 0;
+        while (true) {
+            List<ModImage<Long>> tasks = new ArrayList<ModImage<Long>>(threads);
+            for (int t = 0; t < threads; t++) {
+                tasks.add(new ModImage<Long>(ArithUtil.prime(k++)) {
+
+
+                    @Override
+                    protected Long compute() {
+                        return LinAlg.determinant(M.mod(p), p);
+                    }
+                });
+            }
+            invoke(tasks);
+            for (ModImage<Long> t : tasks) {
+                X = ArithUtil.chineseRemainder(X, P, t.join(), t.p);
+                P = P.multiply(java.math.BigInteger.valueOf(t.p));
+                java.math.BigInteger s = symmetric(X, P);
+                if (P.bitLength() > hb) {
+                    if (debug) {
+                        logger.info("Hadamard bound " + hb + " reached with " + k + " primes");
+                    }
+                    return s;
+                }
+                if (stabilization > 0) {
+                    same = s.equals(last) ? same + 1 : 0;
+                    last = s;
+                    if (same >= stabilization) {
+                        if (debug) {
+                            logger.info("stable with " + P.bitLength() + " of " + hb + " bits");
+                        }
+                        return s;
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Rank. If a modular image has not full rank the result is certified by
+     * the null space computation.
+     * @param A matrix.
+     * @return rank(A).
+     */
+    public int rank(GenMatrix<C> A) {
+        final Integral M = integral(A, null);
+        int r = 0;
+        List<ModImage<Integer>> tasks = new ArrayList<ModImage<Integer>>(threads);
+        for (int t = 0; t < threads; t++) {
+            tasks.add(new ModImage<Integer>(ArithUtil.prime(t)) {
+
+
+                @Override
+                protected Integer compute() {
+                    long[][] a = M.mod(p);
+                    return LinAlg.gaussJordan(a, M.cols(), p, null);
+                }
+            });
+        }
+        invoke(tasks);
+        for (ModImage<Integer> t : tasks) {
+            r = Math.max(r, t.join());
+        }
+        // ranks of images are lower bounds
+        if (r == Math.min(A.ring.rows, A.ring.cols)) {
+            return r;
+        }
+        return A.ring.cols - nullSpace(M).size();
+    }
+
+
+    /**
+     * Null space.
+     * @param A matrix.
+     * @return basis of the vectors x with A x = 0 in reduced echelon form.
+     */
+    public List<GenVector<BigRational>> nullSpace(GenMatrix<C> A) {
+        return nullSpace(integral(A, null));
+    }
+
+
+    /**
+     * Reduced row echelon form modulo a prime.
+     */
+    static final class Echelon {
+
+
+        final long[][] rows;
+
+
+        final int[] pivots;
+
+
+        Echelon(long[][] a, int rank) {
+            rows = a;
+            pivots = new int[rank];
+            for (int i = 0; i < rank; i++) {
+                int j = 0;
+                while (a[i][j] == 0L) {
+                    j++;
+                }
+                pivots[i] = j;
+            }
+        }
+
+
+        /**
+         * Compare pivot columns, larger rank and lexicographically smaller
+         * pivots are better.
+         * @param e other echelon form.
+         * @return -1, 0 or 1 if this is better, equal or worse than e.
+         */
+        int compareTo(Echelon e) {
+            if (pivots.length != e.pivots.length) {
+                return pivots.length > e.pivots.length ? -1 : 1;
+            }
+            for (int i = 0; i < pivots.length; i++) {
+                if (pivots[i] != e.pivots[i]) {
+                    return pivots[i] < e.pivots[i] ? -1 : 1;
+                }
+            }
+            return 0;
+        }
+    }
+
+
+    /**
+     * Null space of an integral matrix.
+     * @param M integral matrix.
+     * @return basis of the null space in reduced echelon form.
+     */
+    List<GenVector<BigRational>> nullSpace(final Integral M) {
+        final int n = M.cols();
+        GenVectorModul<BigRational> vfac = new GenVectorModul<BigRational>(BigRational.ONE, n);
+        Echelon best = null;
+        java.math.BigInteger P = java.math.BigInteger.ONE;
+        java.math.BigInteger[][] X = null;
+        List<GenVector<BigRational>> last = null;
+        int k = 0;
+        while (true) {
+            List<ModImage<Echelon>> tasks = new ArrayList<ModImage<Echelon>>(threads);
+            for (int t = 0; t < threads; t++) {
+                tasks.add(new ModImage<Echelon>(ArithUtil.prime(k++)) {
+
+
+                    @Override
+                    protected Echelon compute() {
+                        long[][] a = M.mod(p);
+                        int r = LinAlg.gaussJordan(a, n, p, null);
+                        return new Echelon(a, r);
+                    }
+                });
+            }
+            invoke(tasks);
+            for (ModImage<Echelon> t : tasks) {
+                Echelon e = t.join();
+                if (e.pivots.length == n) {
+                    return new ArrayList<GenVector<BigRational>>();
+                }
+                int c = (best == null ? -1 : e.compareTo(best));
+                if (c > 0) {
+                    continue; // unlucky prime
+                }
+                if (c < 0) {
+                    best = e;
+                    P = java.math.BigInteger.ONE;
+                    X = new java.math.BigInteger[e.pivots.length][n];
+                    for (java.math.BigInteger[] x : X) {
+                        java.util.Arrays.fill(x, java.math.BigInteger.ZERO);
+                    }
+                    last = null;
+                }
+                for (int i = 0; i < X.length; i++) {
+                    for (int j = 0; j < n; j++) {
+                        X[i][j] = ArithUtil.chineseRemainder(X[i][j], P, e.rows[i][j], t.p);
+                    }
+                }
+                P = P.multiply(java.math.BigInteger.valueOf(t.p));
+            }
+            List<GenVector<BigRational>> N = nullSpace(vfac, best, X, P);
+            if (N == null || !N.equals(last)) {
+                last = N;
+                continue;
+            }
+            if (isNullSpace(M, N)) {
+                if (debug) {
+                    logger.info("null space of dimension " + N.size() + " with " + k + " primes");
+                }
+                return N;
+            }
+            last = N;
+        }
+    }
+
+
+    /**
+     * Null space basis from a reduced echelon form modulo P.
+     * @param vfac vector module.
+     * @param E pivot structure.
+     * @param X reduced echelon form modulo P.
+     * @param P modulus.
+     * @return basis vectors or null if some coefficient has no rational
+     *         reconstruction.
+     */
+    static List<GenVector<BigRational>> nullSpace(GenVectorModul<BigRational> vfac, Echelon E,
+                    java.math.BigInteger[][] X, java.math.BigInteger P) {
+        int n = vfac.cols;
+        java.math.BigInteger bound = ArithUtil.reconstructionBound(P);
+        boolean[] piv = new boolean[n];
+        for (int j : E.pivots) {
+            piv[j] = true;
+        }
+        List<GenVector<BigRational>> N = new ArrayList<GenVector<BigRational>>();
+        BigRational zero = vfac.coFac.getZERO();
+        for (int f = 0; f < n; f++) {
+            if (piv[f]) {
+                continue;
+            }
+            List<BigRational> v = new ArrayList<BigRational>(n);
+            for (int j = 0; j < n; j++) {
+                v.add(zero);
+            }
+            v.set(f, vfac.coFac.getONE());
+            for (int i = 0; i < E.pivots.length; i++) {
+                if (X[i][f].signum() == 0) {
+                    continue;
+                }
+                BigRational c = ArithUtil.rationalReconstruction(X[i][f], P, bound);
+                if (c == null) {
+                    return null;
+                }
+                v.set(E.pivots[i], c.negate());
+            }
+            N.add(new GenVector<BigRational>(vfac, v));
+        }
+        return N;
+    }
+
+
+    /**
+     * Test if vectors are in the null space of an integral matrix.
+     * @param M integral matrix.
+     * @param N list of vectors.
+     * @return true if M v = 0 for all v in N.
+     */
+    static boolean isNullSpace(Integral M, List<GenVector<BigRational>> N) {
+        for (GenVector<BigRational> v : N) {
+            java.math.BigInteger[] y = common(v.val);
+            for (int i = 0; i < M.big.length; i++) {
+                java.math.BigInteger s = java.math.BigInteger.ZERO;
+                for (int j = 0; j < y.length - 1; j++) {
+                    if (y[j].signum() != 0) {
+                        s = s.add(M.big[i][j].multiply(y[j]));
+                    }
+                }
+                if (s.signum() != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Integral numerators with common denominator.
+     * @param v list of rational numbers.
+     * @return [y_1, ..., y_n, d] with v_i = y_i / d.
+     */
+    static java.math.BigInteger[] common(List<BigRational> v) {
+        java.math.BigInteger d = java.math.BigInteger.ONE;
+        for (BigRational c : v) {
+            java.math.BigInteger e = c.denominator();
+            if (!e.equals(java.math.BigInteger.ONE)) {
+                d = d.divide(d.gcd(e)).multiply(e);
+            }
+        }
+        java.math.BigInteger[] y = new java.math.BigInteger[v.size() + 1];
+        for (int i = 0; i < v.size(); i++) {
+            BigRational c = v.get(i);
+            y[i] = c.numerator().multiply(d.divide(c.denominator()));
+        }
+        y[v.size()] = d;
+        return y;
+    }
+
+
+    /**
+     * Solution of a linear system with non singular square matrix.
+     * @param A non singular square matrix.
+     * @param b right hand side.
+     * @return x with A x = b.
+     * @throws NotInvertibleException if A is singular.
+     */
+    public GenVector<BigRational> solve(GenMatrix<C> A, GenVector<C> b) {
+        final int n = A.ring.rows;
+        if (n != A.ring.cols || n != b.modul.cols) {
+            throw new IllegalArgumentException("invalid dimensions: " + A.ring + ", " + b.modul.cols);
+        }
+        final Integral M = integral(A, b);
+        GenVectorModul<BigRational> vfac = vectorModul(b.modul);
+        java.math.BigInteger P = java.math.BigInteger.ONE;
+        java.math.BigInteger[] X = new java.math.BigInteger[n];
+        java.util.Arrays.fill(X, java.math.BigInteger.ZERO);
+        List<BigRational> last = null;
+        boolean regular = false;
+        int k = 0;
+        while (true) {
+            List<ModImage<long[]>> tasks = new ArrayList<ModImage<long[]>>(threads);
+            for (int t = 0; t < threads; t++) {
+                tasks.add(new ModImage<long[]>(ArithUtil.prime(k++)) {
+
+
+                    @Override
+                    protected long[] compute() {
+                        long[][] a = M.mod(p);
+                        int r = LinAlg.gaussJordan(a, n, p, null);
+                        if (r < n) {
+                            return null;
+                        }
+                        long[] x = new long[n];
+                        for (int i = 0; i < n; i++) {
+                            x[i] = a[i][n];
+                        }
+                        return x;
+                    }
+                });
+            }
+            invoke(tasks);
+            for (ModImage<long[]> t : tasks) {
+                long[] x = t.join();
+                if (x == null) {
+                    continue; // unlucky prime or singular matrix
+                }
+                regular = true;
+                ArithUtil.chineseRemainder(X, P, x, t.p);
+                P = P.multiply(java.math.BigInteger.valueOf(t.p));
+            }
+            if (!regular) {
+                // all images singular, decide with the determinant
+                if (determinant(new Integral(copy(M.big, n), java.math.BigInteger.ONE)).signum() == 0) {
+                    throw new NotInvertibleException("singular matrix");
+                }
+                continue;
+            }
+            List<BigRational> x = rationalReconstruction(X, P);
+            if (x == null || !x.equals(last)) {
+                last = x;
+                continue;
+            }
+            if (isSolution(M, x)) {
+                if (debug) {
+                    logger.info("solution with " + k + " primes, bits = " + P.bitLength());
+                }
+                return new GenVector<BigRational>(vfac, x);
+            }
+            last = x;
+        }
+    }
+
+
+    /**
+     * Test if x solves the integral system M.
+     * @param M integral matrix [A|b].
+     * @param x vector.
+     * @return true if A x = b.
+     */
+    static boolean isSolution(Integral M, List<BigRational> x) {
+        java.math.BigInteger[] y = common(x);
+        int n = x.size();
+        java.math.BigInteger d = y[n];
+        for (int i = 0; i < M.big.length; i++) {
+            java.math.BigInteger[] mi = M.big[i];
+            java.math.BigInteger s = d.multiply(mi[n]);
+            for (int j = 0; j < n; j++) {
+                if (y[j].signum() != 0) {
+                    s = s.subtract(mi[j].multiply(y[j]));
+                }
+            }
+            if (s.signum() != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Copy of the leading columns.
+     */
+    static java.math.BigInteger[][] copy(java.math.BigInteger[][] a, int m) {
+        java.math.BigInteger[][] b = new java.math.BigInteger[a.length][];
+        for (int i = 0; i < a.length; i++) {
+            b[i] = java.util.Arrays.copyOf(a[i], m);
+        }
+        return b;
+    }
+
+
+    /**
+     * Execute image computations, in parallel if more than one.
+     * @param tasks list of tasks.
+     */
+    static <T> void invoke(final List<ModImage<T>> tasks) {
+        if (tasks.size() == 1 || ComputerThreads.NO_THREADS) {
+            for (ModImage<T> t : tasks) {
+                t.invoke();
+            }
+            return;
+        }
+        ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+
+
+            @Override
+            protected void compute() {
+                invokeAll(tasks);
+            }
+        });
+    }
+
+
+    /**
+     * Computation of an image modulo a prime.
+     */
+    static abstract class ModImage<T> extends RecursiveTask<T> {
+
+
+        private static final long serialVersionUID = 1L;
+
+
+        final long p;
+
+
+        ModImage(long p) {
+            this.p = p;
+        }
+    }
+
+
+    /**
+     * Rational vector module.
+     * @param vm vector module.
+     * @return vm if it is over BigRational, else a rational vector module of
+     *         the same size.
+     */
+    @SuppressWarnings("unchecked")
+    static GenVectorModul<BigRational> vectorModul(GenVectorModul<?> vm) {
+        if (vm.coFac instanceof BigRational) {
+            return (GenVectorModul<BigRational>) vm;
+        }
+        return new GenVectorModul<BigRational>(BigRational.ONE, vm.cols);
+    }
+
+
+    /**
+     * Element of the coefficient ring.
+     * @param fac coefficient factory, BigInteger or BigRational.
+     * @param r rational number.
+     * @return r as element of fac.
+     */
+    @SuppressWarnings("unchecked")
+    static <C extends RingElem<C>> C fromRational(RingFactory<C> fac, BigRational r) {
+        if (fac instanceof BigRational) {
+            return (C) (Object) r;
+        }
+        if (!r.denominator().equals(java.math.BigInteger.ONE)) {
+            throw new IllegalArgumentException("no integral element " + r + " in " + fac);
+        }
+        return fac.fromInteger(r.numerator());
+    }
+
+
+    /**
+     * Symmetric residue.
+     * @param X residue with 0 &le; X &lt; P.
+     * @param P modulus.
+     * @return Y = X mod P with -P/2 &lt; Y &le; P/2.
+     */
+    static java.math.BigInteger symmetric(java.math.BigInteger X, java.math.BigInteger P) {
+        if (X.shiftLeft(1).compareTo(P) > 0) {
+            return X.subtract(P);
+        }
+        return X;
+    }
+
+
+    /**
+     * Rational reconstruction of a vector with accumulated common
+     * denominator.
+     * @param X residues modulo P.
+     * @param P modulus.
+     * @return rational vector congruent to X, or null if some element has
+     *         no reconstruction.
+     */
+    static List<BigRational> rationalReconstruction(java.math.BigInteger[] X, java.math.BigInteger P) {
+        java.math.BigInteger bound = ArithUtil.reconstructionBound(P);
+        java.math.BigInteger d = java.math.BigInteger.ONE;
+        List<BigRational> x = new ArrayList<BigRational>(X.length);
+        for (int i = 0; i < X.length; i++) {
+            java.math.BigInteger u = X[i].multiply(d).mod(P);
+            BigRational c = ArithUtil.rationalReconstruction(u, P, bound);
+            if (c == null) {
+                return null;
+            }
+            // x_i = c / d
+            x.add(c.divide(new BigRational(d)));
+            d = d.multiply(c.denominator());
+        }
+        return x;
+    }
+
+}
@@ -0,0 +1,640 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.vector;
+
+
+import java.util.Arrays;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.arith.ModLong;
+import edu.jas.kern.PrettyPrint;
+import edu.jas.structure.AlgebraElem;
+import edu.jas.structure.NotInvertibleException;
+
+
+/**
+ * ModLongMatrix implements a matrix algebra with ModLong entries stored in
+ * long arrays. The entries are in the range 0 &le; v &lt; modul.
+ * Multiplication and elimination use the primitive methods of LinAlg with
+ * delayed modular reduction. Inverse, determinant, rank and solve require a
+ * prime modul. Matrix has n columns and m rows over ModLongRing.
+ * @author agent
+ */
+
+public class ModLongMatrix implements AlgebraElem<ModLongMatrix, ModLong> {
+
+
+    private static final long serialVersionUID = 1L;
+
+
+    private static final Logger logger = Logger.getLogger(ModLongMatrix.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    public final ModLongMatrixRing ring;
+
+
+    /**
+     * Values of the entries, not to be modified except by setMutate.
+     */
+    public final long[][] matrix;
+
+
+    private int hashValue = 0;
+
+
+    /**
+     * Constructor for zero ModLongMatrix.
+     * @param r matrix ring
+     */
+    public ModLongMatrix(ModLongMatrixRing r) {
+        this(r, new long[r.rows][r.cols]);
+    }
+
+
+    /**
+     * Constructor for ModLongMatrix.
+     * @param r matrix ring
+     * @param m array of values in the range 0 &le; v &lt; r.modul, is not
+     *            copied.
+     */
+    public ModLongMatrix(ModLongMatrixRing r, long[][] m) {
+        if (r == null || m == null) {
+            throw new IllegalArgumentException("Empty r or m not allowed, r = " + r + ", m = " + m);
+        }
+        ring = r;
+        matrix = m;
+        if (debug) {
+            logger.debug(ring.rows + " x " + ring.cols + " matrix constructed");
+        }
+    }
+
+
+    /**
+     * Get element at row i, column j.
+     * @param i row index.
+     * @param j column index.
+     * @return this(i,j).
+     */
+    public ModLong get(int i, int j) {
+        return new ModLong(ring.coFac, matrix[i][j]);
+    }
+
+
+    /**
+     * Set element at row i, column j. Mutates this matrix.
+     * @param i row index.
+     * @param j column index.
+     * @param el element to set.
+     */
+    public void setMutate(int i, int j, ModLong el) {
+        matrix[i][j] = (el.ring.modul == ring.modul ? el.val : el.val % ring.modul);
+        hashValue = 0; // invalidate
+    }
+
+
+    /**
+     * Set element at row i, column j.
+     * @param i row index.
+     * @param j column index.
+     * @param el element to set.
+     * @return new matrix m, with m(i,j) == el.
+     */
+    public ModLongMatrix set(int i, int j, ModLong el) {
+        ModLongMatrix mat = this.copy();
+        mat.setMutate(i, j, el);
+        return mat;
+    }
+
+
+    /**
+     * Get the String representation as RingElem.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuffer s = new StringBuffer();
+        boolean firstRow = true;
+        s.append("[\n");
+        for (long[] val : matrix) {
+            if (firstRow) {
+                firstRow = false;
+            } else {
+                s.append(",\n");
+            }
+            boolean first = true;
+            s.append("[ ");
+            for (long c : val) {
+                if (first) {
+                    first = false;
+                } else {
+                    s.append(", ");
+                }
+                s.append(c);
+            }
+            s.append(" ]");
+        }
+        s.append(" ] ");
+        if (!PrettyPrint.isTrue()) {
+            s.append(":: " + ring.toString());
+            s.append("\n");
+        }
+        return s.toString();
+    }
+
+
+    /**
+     * Get a scripting compatible string representation.
+     * @return script compatible representation for this Element.
+     * @see edu.jas.structure.Element#toScript()
+     */
+    @Override
+    public String toScript() {
+        // Python case
+        StringBuffer s = new StringBuffer();
+        boolean firstRow = true;
+        s.append("( ");
+        for (long[] val : matrix) {
+            if (firstRow) {
+                firstRow = false;
+            } else {
+                s.append(", ");
+            }
+            boolean first = true;
+            s.append("( ");
+            for (long c : val) {
+                if (first) {
+                    first = false;
+                } else {
+                    s.append(", ");
+                }
+                s.append(c);
+            }
+            s.append(" )");
+        }
+        s.append(" ) ");
+        return s.toString();
+    }
+
+
+    /**
+     * Get a scripting compatible string representation of the factory.
+     * @return script compatible representation for this ElemFactory.
+     * @see edu.jas.structure.Element#toScriptFactory()
+     */
+    @Override
+    public String toScriptFactory() {
+        // Python case
+        return factory().toScript();
+    }
+
+
+    /**
+     * Get the corresponding element factory.
+     * @return factory for this Element.
+     * @see edu.jas.structure.Element#factory()
+     */
+    public ModLongMatrixRing factory() {
+        return ring;
+    }
+
+
+    /**
+     * clone method.
+     * @see java.lang.Object#clone()
+     */
+    @Override
+    public ModLongMatrix copy() {
+        return new ModLongMatrix(ring, copy(matrix));
+    }
+
+
+    /**
+     * Copy of a long array.
+     * @param a array.
+     * @return deep copy of a.
+     */
+    static long[][] copy(long[][] a) {
+        long[][] m = new long[a.length][];
+        for (int i = 0; i < a.length; i++) {
+            m[i] = a[i].clone();
+        }
+        return m;
+    }
+
+
+    /**
+     * Convert to generic matrix.
+     * @return GenMatrix with the entries of this.
+     */
+    public GenMatrix<ModLong> toGenMatrix() {
+        GenMatrixRing<ModLong> mr = new GenMatrixRing<ModLong>(ring.coFac, ring.rows, ring.cols);
+        return LinAlg.fromLong(mr, matrix);
+    }
+
+
+    /**
+     * Test if this is equal to a zero matrix.
+     */
+    public boolean isZERO() {
+        for (long[] row : matrix) {
+            for (long c : row) {
+                if (c != 0L) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Test if this is one.
+     * @return true if this is 1, else false.
+     */
+    public boolean isONE() {
+        return equals(ring.getONE());
+    }
+
+
+    /**
+     * Test if this is a unit. I.e. there exists x with this.multiply(x).isONE()
+     * == true.
+     * @return true if this is a non singular square matrix, else false.
+     */
+    public boolean isUnit() {
+        if (ring.rows != ring.cols) {
+            return false;
+        }
+        return LinAlg.determinant(matrix, ring.modul) != 0L;
+    }
+
+
+    /**
+     * Comparison with any other object.
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof ModLongMatrix)) {
+            return false;
+        }
+        ModLongMatrix om = (ModLongMatrix) other;
+        if (!ring.equals(om.ring)) {
+            return false;
+        }
+        return Arrays.deepEquals(matrix, om.matrix);
+    }
+
+
+    /**
+     * Hash code for this ModLongMatrix.
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        if (hashValue == 0) {
+            hashValue = 37 * Arrays.deepHashCode(matrix) + ring.hashCode();
+            if (hashValue == 0) {
+                hashValue = 1;
+            }
+        }
+        return hashValue;
+    }
+
+
+    /**
+     * compareTo, lexicogaphical comparison.
+     * @param b other
+     * @return 1 if (this &lt; b), 0 if (this == b) or -1 if (this &gt; b).
+     */
+    @Override
+    public int compareTo(ModLongMatrix b) {
+        if (!ring.equals(b.ring)) {
+            return -1;
+        }
+        for (int i = 0; i < matrix.length; i++) {
+            long[] v = matrix[i];
+            long[] ov = b.matrix[i];
+            for (int j = 0; j < v.length; j++) {
+                if (v[j] != ov[j]) {
+                    return v[j] > ov[j] ? 1 : -1;
+                }
+            }
+        }
+        return 0;
+    }
+
+
+    /**
+     * sign of matrix.
+     * @return 1 if (this &lt; 0), 0 if (this == 0) or -1 if (this &gt; 0).
+     */
+    public int signum() {
+        return compareTo(ring.getZERO());
+    }
+
+
+    /**
+     * Sum of matrices.
+     * @return this+b
+     */
+    public ModLongMatrix sum(ModLongMatrix b) {
+        long p = ring.modul;
+        long[][] m = new long[ring.rows][ring.cols];
+        for (int i = 0; i < m.length; i++) {
+            long[] v = matrix[i];
+            long[] ov = b.matrix[i];
+            for (int j = 0; j < v.length; j++) {
+                long e = v[j] + ov[j];
+                m[i][j] = (e >= p ? e - p : e);
+            }
+        }
+        return new ModLongMatrix(ring, m);
+    }
+
+
+    /**
+     * Difference of matrices.
+     * @return this-b
+     */
+    public ModLongMatrix subtract(ModLongMatrix b) {
+        long p = ring.modul;
+        long[][] m = new long[ring.rows][ring.cols];
+        for (int i = 0; i < m.length; i++) {
+            long[] v = matrix[i];
+            long[] ov = b.matrix[i];
+            for (int j = 0; j < v.length; j++) {
+                long e = v[j] - ov[j];
+                m[i][j] = (e < 0L ? e + p : e);
+            }
+        }
+        return new ModLongMatrix(ring, m);
+    }
+
+
+    /**
+     * Negative of this matrix.
+     * @return -this
+     */
+    public ModLongMatrix negate() {
+        long p = ring.modul;
+        long[][] m = new long[ring.rows][ring.cols];
+        for (int i = 0; i < m.length; i++) {
+            long[] v = matrix[i];
+            for (int j = 0; j < v.length; j++) {
+                m[i][j] = (v[j] == 0L ? 0L : p - v[j]);
+            }
+        }
+        return new ModLongMatrix(ring, m);
+    }
+
+
+    /**
+     * Absolute value of this matrix.
+     * @return abs(this)
+     */
+    public ModLongMatrix abs() {
+        if (signum() < 0) {
+            return negate();
+        }
+        return this;
+    }
+
+
+    /**
+     * Product of this matrix with scalar.
+     * @return this*s
+     */
+    public ModLongMatrix scalarMultiply(ModLong s) {
+        long p = ring.modul;
+        long t = (s.ring.modul == p ? s.val : s.val % p);
+        long[][] m = new long[ring.rows][ring.cols];
+        for (int i = 0; i < m.length; i++) {
+            long[] v = matrix[i];
+            for (int j = 0; j < v.length; j++) {
+                m[i][j] = v[j] * t % p;
+            }
+        }
+        return new ModLongMatrix(ring, m);
+    }
+
+
+    /**
+     * Left product of this matrix with scalar.
+     * @return s*this
+     */
+    public ModLongMatrix leftScalarMultiply(ModLong s) {
+        return scalarMultiply(s);
+    }
+
+
+    /**
+     * Linear compination of this matrix with scalar multiple of other matrix.
+     * @return this*s+b*t
+     */
+    public ModLongMatrix linearCombination(ModLong s, ModLongMatrix b, ModLong t) {
+        long p = ring.modul;
+        long x = (s.ring.modul == p ? s.val : s.val % p);
+        long y = (t.ring.modul == p ? t.val : t.val % p);
+        long[][] m = new long[ring.rows][ring.cols];
+        for (int i = 0; i < m.length; i++) {
+            long[] v = matrix[i];
+            long[] ov = b.matrix[i];
+            for (int j = 0; j < v.length; j++) {
+                // both products < 2^62, one reduction
+                m[i][j] = (v[j] * x + ov[j] * y) % p;
+            }
+        }
+        return new ModLongMatrix(ring, m);
+    }
+
+
+    /**
+     * Linear combination of this matrix with scalar multiple of other matrix.
+     * @return this+b*t
+     */
+    public ModLongMatrix linearCombination(ModLongMatrix b, ModLong t) {
+        long p = ring.modul;
+        long y = (t.ring.modul == p ? t.val : t.val % p);
+        long[][] m = copy(matrix);
+        for (int i = 0; i < m.length; i++) {
+            ModLongVector.axpy(m[i], y, b.matrix[i], p);
+        }
+        return new ModLongMatrix(ring, m);
+    }
+
+
+    /**
+     * Left linear combination of this matrix with scalar multiple of other
+     * matrix.
+     * @return this+t*b
+     */
+    public ModLongMatrix linearCombination(ModLong t, ModLongMatrix b) {
+        return linearCombination(b, t);
+    }
+
+
+    /**
+     * left linear compination of this matrix with scalar multiple of other
+     * matrix.
+     * @return s*this+t*b
+     */
+    public ModLongMatrix leftLinearCombination(ModLong s, ModLong t, ModLongMatrix b) {
+        return linearCombination(s, b, t);
+    }
+
+
+    /**
+     * Transposed matrix.
+     * @return transpose(this)
+     */
+    public ModLongMatrix transpose() {
+        ModLongMatrixRing tr = ring.transpose();
+        long[][] m = new long[tr.rows][tr.cols];
+        for (int i = 0; i < matrix.length; i++) {
+            long[] v = matrix[i];
+            for (int j = 0; j < v.length; j++) {
+                m[j][i] = v[j];
+            }
+        }
+        return new ModLongMatrix(tr, m);
+    }
+
+
+    /**
+     * Multiply this with S.
+     * @param S
+     * @return this * S.
+     */
+    public ModLongMatrix multiply(ModLongMatrix S) {
+        ModLongMatrixRing pr = ring.product(S.ring);
+        return new ModLongMatrix(pr, LinAlg.multiply(matrix, S.matrix, ring.modul));
+    }
+
+
+    /**
+     * Multiply this with column vector v.
+     * @param v vector with ring.cols entries.
+     * @return this * v.
+     */
+    public ModLongVector multiply(ModLongVector v) {
+        if (v.modul.cols != ring.cols) {
+            throw new IllegalArgumentException("invalid dimensions: " + ring + ", " + v.modul);
+        }
+        ModLongVectorModul vm = new ModLongVectorModul(ring.coFac, ring.rows);
+        long[] w = new long[ring.rows];
+        for (int i = 0; i < w.length; i++) {
+            w[i] = ModLongVector.dot(matrix[i], v.val, ring.modul);
+        }
+        return new ModLongVector(vm, w);
+    }
+
+
+    /**
+     * Divide this by S.
+     * @param S
+     * @return this / S.
+     */
+    public ModLongMatrix divide(ModLongMatrix S) {
+        throw new UnsupportedOperationException("divide not yet implemented");
+    }
+
+
+    /**
+     * Remainder after division of this by S.
+     * @param S
+     * @return this - (this / S) * S.
+     */
+    public ModLongMatrix remainder(ModLongMatrix S) {
+        throw new UnsupportedOperationException("remainder not implemented");
+    }
+
+
+    /**
+     * Inverse of this.
+     * @return x with this * x = 1, if it exists.
+     * @throws NotInvertibleException if this is not invertible.
+     */
+    public ModLongMatrix inverse() {
+        if (ring.rows != ring.cols) {
+            throw new IllegalArgumentException("matrix not square: " + ring);
+        }
+        return new ModLongMatrix(ring, LinAlg.solve(matrix, ring.getONE().matrix, ring.modul));
+    }
+
+
+    /**
+     * Determinant of this.
+     * @return det(this).
+     */
+    public ModLong determinant() {
+        if (ring.rows != ring.cols) {
+            throw new IllegalArgumentException("matrix not square: " + ring);
+        }
+        return new ModLong(ring.coFac, LinAlg.determinant(matrix, ring.modul));
+    }
+
+
+    /**
+     * Rank of this.
+     * @return rank(this).
+     */
+    public int rank() {
+        return LinAlg.gaussJordan(copy(matrix), ring.cols, ring.modul, null);
+    }
+
+
+    /**
+     * Solution of a linear system with this non singular square matrix.
+     * @param b right hand side.
+     * @return x with this * x = b.
+     * @throws NotInvertibleException if this is singular.
+     */
+    public ModLongVector solve(ModLongVector b) {
+        int n = ring.rows;
+        if (n != ring.cols || n != b.modul.cols) {
+            throw new IllegalArgumentException("invalid dimensions: " + ring + ", " + b.modul);
+        }
+        long[][] a = new long[n][n + 1];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(matrix[i], 0, a[i], 0, n);
+            a[i][n] = b.val[i];
+        }
+        int r = LinAlg.gaussJordan(a, n, ring.modul, null);
+        if (r < n) {
+            throw new NotInvertibleException("singular matrix, rank = " + r);
+        }
+        long[] x = new long[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = a[i][n];
+        }
+        return new ModLongVector(b.modul, x);
+    }
+
+
+    /**
+     * Greatest common divisor.
+     * @param b other element.
+     * @return gcd(this,b).
+     */
+    public ModLongMatrix gcd(ModLongMatrix b) {
+        throw new UnsupportedOperationException("gcd not implemented");
+    }
+
+
+    /**
+     * Extended greatest common divisor.
+     * @param b other element.
+     * @return [ gcd(this,b), c1, c2 ] with c1*this + c2*b = gcd(this,b).
+     */
+    public ModLongMatrix[] egcd(ModLongMatrix b) {
+        throw new UnsupportedOperationException("egcd not implemented");
+    }
+
+}
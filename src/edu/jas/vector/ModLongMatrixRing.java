@@ -0,0 +1,434 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.vector;
+
+
+import java.io.Reader;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.kern.StringUtil;
+import edu.jas.structure.AlgebraFactory;
+
+
+/**
+ * ModLongMatrixRing implements a matrix algebra factory with ModLong entries
+ * stored in long arrays. Matrices of n rows and m columns over ModLongRing.
+ * @author agent
+ */
+
+public class ModLongMatrixRing implements AlgebraFactory<ModLongMatrix, ModLong> {
+
+
+    private static final long serialVersionUID = 1L;
+
+
+    private static final Logger logger = Logger.getLogger(ModLongMatrixRing.class);
+
+
+    public final ModLongRing coFac;
+
+
+    /**
+     * Modulus of the coefficient ring.
+     */
+    public final long modul;
+
+
+    public final int rows;
+
+
+    public final int cols;
+
+
+    public final ModLongMatrix ZERO;
+
+
+    public final ModLongMatrix ONE;
+
+
+    private final static Random random = new Random();
+
+
+    public final static float DEFAULT_DENSITY = 0.5f;
+
+
+    private final float density = DEFAULT_DENSITY;
+
+
+    /**
+     * Constructor for ModLongMatrixRing.
+     * @param b coefficient factory.
+     * @param r number of rows.
+     * @param c number of colums.
+     */
+    public ModLongMatrixRing(ModLongRing b, int r, int c) {
+        if (b == null) {
+            throw new IllegalArgumentException("RingFactory is null");
+        }
+        if (r < 1) {
+            throw new IllegalArgumentException("rows < 1 " + r);
+        }
+        if (c < 1) {
+            throw new IllegalArgumentException("cols < 1 " + c);
+        }
+        coFac = b;
+        modul = b.getLongModul();
+        rows = r;
+        cols = c;
+        ZERO = new ModLongMatrix(this, new long[rows][cols]);
+        long[][] m = new long[rows][cols];
+        for (int i = 0; i < rows && i < cols; i++) {
+            m[i][i] = 1L % modul;
+        }
+        ONE = new ModLongMatrix(this, m);
+        logger.info(rows + " x " + cols + " matrix ring over " + coFac.toScript() + " constructed");
+    }
+
+
+    /**
+     * Get the String representation as RingElem.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuffer s = new StringBuffer();
+        s.append(coFac.getClass().getSimpleName());
+        s.append("[" + rows + "," + cols + "]");
+        return s.toString();
+    }
+
+
+    /**
+     * Get a scripting compatible string representation.
+     * @return script compatible representation for this ElemFactory.
+     * @see edu.jas.structure.ElemFactory#toScript()
+     */
+    @Override
+    public String toScript() {
+        // Python case
+        StringBuffer s = new StringBuffer("Mat(");
+        s.append(coFac.toScript() + "," + rows + "," + cols + ")");
+        return s.toString();
+    }
+
+
+    /**
+     * Get the constant zero for the ModLongMatrix.
+     * @return ZERO.
+     */
+    public ModLongMatrix getZERO() {
+        return ZERO;
+    }
+
+
+    /**
+     * Get the constant one for the ModLongMatrix.
+     * @return 1.
+     */
+    public ModLongMatrix getONE() {
+        return ONE;
+    }
+
+
+    /**
+     * Get a list of the generating elements.
+     * @return list of generators for the algebraic structure.
+     * @see edu.jas.structure.ElemFactory#generators()
+     */
+    public List<ModLongMatrix> generators() {
+        List<ModLongMatrix> gens = new ArrayList<ModLongMatrix>(rows * cols);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                gens.add(ZERO.set(i, j, coFac.getONE()));
+            }
+        }
+        return gens;
+    }
+
+
+    /**
+     * Is this structure finite or infinite.
+     * @return true if this structure is finite, else false.
+     * @see edu.jas.structure.ElemFactory#isFinite()
+     */
+    public boolean isFinite() {
+        return coFac.isFinite();
+    }
+
+
+    /**
+     * Comparison with any other object.
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof ModLongMatrixRing)) {
+            return false;
+        }
+        ModLongMatrixRing omod = (ModLongMatrixRing) other;
+        if (rows != omod.rows) {
+            return false;
+        }
+        if (cols != omod.cols) {
+            return false;
+        }
+        if (!coFac.equals(omod.coFac)) {
+            return false;
+        }
+        return true;
+    }
+
+
+    /**
+     * Hash code for this matrix ring.
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        int h;
+        h = rows * 17 + cols;
+        h = 37 * h + coFac.hashCode();
+        return h;
+    }
+
+
+    /**
+     * Query if this ring is a field.
+     * @return false.
+     */
+    public boolean isField() {
+        return false;
+    }
+
+
+    /**
+     * Query if this monoid is commutative.
+     * @return true if this monoid is commutative, else false.
+     */
+    public boolean isCommutative() {
+        return false;
+    }
+
+
+    /**
+     * Query if this ring is associative.
+     * @return true if this monoid is associative, else false.
+     */
+    public boolean isAssociative() {
+        return (rows == cols);
+    }
+
+
+    /**
+     * Characteristic of this ring.
+     * @return characteristic of this ring.
+     */
+    public java.math.BigInteger characteristic() {
+        return coFac.characteristic();
+    }
+
+
+    /**
+     * Transposed matrix ring.
+     * @return transposed ring factory.
+     */
+    public ModLongMatrixRing transpose() {
+        if (rows == cols) {
+            return this;
+        }
+        return new ModLongMatrixRing(coFac, cols, rows);
+    }
+
+
+    /**
+     * Product matrix ring for multiplication.
+     * @param other matrix ring factory.
+     * @return product ring factory.
+     */
+    public ModLongMatrixRing product(ModLongMatrixRing other) {
+        if (cols != other.rows) {
+            throw new IllegalArgumentException("invalid dimensions in product");
+        }
+        if (!coFac.equals(other.coFac)) {
+            throw new IllegalArgumentException("invalid coefficients in product");
+        }
+        if (rows == other.rows && cols == other.cols) {
+            return this;
+        }
+        return new ModLongMatrixRing(coFac, rows, other.cols);
+    }
+
+
+    /**
+     * Get the matrix for a.
+     * @param a long
+     * @return matrix corresponding to a.
+     */
+    public ModLongMatrix fromInteger(long a) {
+        ModLong c = coFac.fromInteger(a);
+        return ONE.scalarMultiply(c);
+    }
+
+
+    /**
+     * Get the matrix for a.
+     * @param a long
+     * @return matrix corresponding to a.
+     */
+    public ModLongMatrix fromInteger(BigInteger a) {
+        ModLong c = coFac.fromInteger(a);
+        return ONE.scalarMultiply(c);
+    }
+
+
+    /**
+     * From List of coefficients.
+     * @param om list of list of coefficients.
+     */
+    public ModLongMatrix fromList(List<List<ModLong>> om) {
+        if (om == null) {
+            return ZERO;
+        }
+        if (om.size() > rows) {
+            throw new IllegalArgumentException("size v > rows " + om + " > " + rows);
+        }
+        long[][] m = new long[rows][cols];
+        for (int i = 0; i < om.size(); i++) {
+            List<ModLong> ov = om.get(i);
+            if (ov == null) {
+                continue;
+            }
+            if (ov.size() > cols) {
+                throw new IllegalArgumentException("size v > cols " + ov + " > " + cols);
+            }
+            int j = 0;
+            for (ModLong c : ov) {
+                m[i][j++] = (c.ring.modul == modul ? c.val : c.val % modul);
+            }
+        }
+        return new ModLongMatrix(this, m);
+    }
+
+
+    /**
+     * From array of values.
+     * @param a array of values, will be reduced modulo the modul.
+     * @return matrix with entries a.
+     */
+    public ModLongMatrix fromArray(long[][] a) {
+        long[][] m = new long[rows][cols];
+        for (int i = 0; i < a.length; i++) {
+            for (int j = 0; j < a[i].length; j++) {
+                long x = a[i][j] % modul;
+                m[i][j] = (x < 0L ? x + modul : x);
+            }
+        }
+        return new ModLongMatrix(this, m);
+    }
+
+
+    /**
+     * From generic matrix.
+     * @param A generic matrix over ModLong.
+     * @return matrix with entries of A.
+     */
+    @SuppressWarnings("unchecked")
+    public ModLongMatrix fromGenMatrix(GenMatrix<ModLong> A) {
+        return fromList((List<List<ModLong>>) (List) A.matrix);
+    }
+
+
+    /**
+     * Random matrix.
+     * @param k size of random coefficients.
+     */
+    public ModLongMatrix random(int k) {
+        return random(k, density, random);
+    }
+
+
+    /**
+     * Random matrix.
+     * @param k size of random coefficients.
+     * @param q density of nozero coefficients.
+     */
+    public ModLongMatrix random(int k, float q) {
+        return random(k, q, random);
+    }
+
+
+    /**
+     * Random matrix.
+     * @param k size of random coefficients.
+     * @param random is a source for random bits.
+     * @return a random element.
+     */
+    public ModLongMatrix random(int k, Random random) {
+        return random(k, density, random);
+    }
+
+
+    /**
+     * Random matrix.
+     * @param k size of random coefficients.
+     * @param q density of nozero coefficients.
+     * @param random is a source for random bits.
+     * @return a random element.
+     */
+    public ModLongMatrix random(int k, float q, Random random) {
+        long[][] m = new long[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (random.nextFloat() < q) {
+                    m[i][j] = coFac.random(k, random).val;
+                }
+            }
+        }
+        return new ModLongMatrix(this, m);
+    }
+
+
+    /**
+     * Copy matrix.
+     * @param c matrix to copy.
+     * @return copy of the matrix
+     */
+    public ModLongMatrix copy(ModLongMatrix c) {
+        if (c == null) {
+            return c;
+        }
+        return c.copy();
+    }
+
+
+    /**
+     * Parse a matrix from a String. Syntax: [ [ c, ..., c ], ..., [ c, ..., c ]
+     * ]
+     * @param s input String.
+     * @return parsed matrix
+     */
+    public ModLongMatrix parse(String s) {
+        return fromGenMatrix(new GenMatrixRing<ModLong>(coFac, rows, cols).parse(s));
+    }
+
+
+    /**
+     * Parse a matrix from a Reader.
+     * @param r Reader.
+     * @return parsed matrix
+     */
+    public ModLongMatrix parse(Reader r) {
+        String s = StringUtil.nextPairedString(r, '[', ']');
+        return parse(s);
+    }
+
+}
@@ -0,0 +1,486 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.vector;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.arith.ModLong;
+import edu.jas.kern.PrettyPrint;
+import edu.jas.structure.ModulElem;
+
+
+/**
+ * ModLongVector implements vectors with ModLong entries stored in a long
+ * array. The entries are in the range 0 &le; v &lt; modul. Dot products are
+ * accumulated with delayed modular reduction. Vectors of n columns over
+ * ModLongRing.
+ * @author agent
+ */
+
+public class ModLongVector implements ModulElem<ModLongVector, ModLong> {
+
+
+    private static final long serialVersionUID = 1L;
+
+
+    private static final Logger logger = Logger.getLogger(ModLongVector.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Bound for delayed reductions of sums of products below 2<sup>62</sup>.
+     */
+    static final long REDUCE = LinAlg.REDUCE;
+
+
+    public final ModLongVectorModul modul;
+
+
+    /**
+     * Values of the entries, not to be modified.
+     */
+    public final long[] val;
+
+
+    /**
+     * Constructor for zero ModLongVector.
+     * @param m vector module.
+     */
+    public ModLongVector(ModLongVectorModul m) {
+        this(m, new long[m.cols]);
+    }
+
+
+    /**
+     * Constructor for ModLongVector.
+     * @param m vector module.
+     * @param v array of values in the range 0 &le; v &lt; m.modul, is not
+     *            copied.
+     */
+    public ModLongVector(ModLongVectorModul m, long[] v) {
+        if (m == null || v == null) {
+            throw new IllegalArgumentException("Empty m or v not allowed, m = " + m + ", v = " + v);
+        }
+        modul = m;
+        val = v;
+        if (debug) {
+            logger.debug(modul.cols + " vector constructed");
+        }
+    }
+
+
+    /**
+     * Get the String representation as RingElem.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuffer s = new StringBuffer();
+        s.append("[ ");
+        boolean first = true;
+        for (long c : val) {
+            if (first) {
+                first = false;
+            } else {
+                s.append(", ");
+            }
+            s.append(c);
+        }
+        s.append(" ]");
+        if (!PrettyPrint.isTrue()) {
+            s.append(" :: " + modul.toString());
+            s.append("\n");
+        }
+        return s.toString();
+    }
+
+
+    /**
+     * Get a scripting compatible string representation.
+     * @return script compatible representation for this Element.
+     * @see edu.jas.structure.Element#toScript()
+     */
+    @Override
+    public String toScript() {
+        // Python case
+        StringBuffer s = new StringBuffer();
+        s.append("( ");
+        boolean first = true;
+        for (long c : val) {
+            if (first) {
+                first = false;
+            } else {
+                s.append(", ");
+            }
+            s.append(c);
+        }
+        s.append(" )");
+        return s.toString();
+    }
+
+
+    /**
+     * Get a scripting compatible string representation of the factory.
+     * @return script compatible representation for this ElemFactory.
+     * @see edu.jas.structure.Element#toScriptFactory()
+     */
+    @Override
+    public String toScriptFactory() {
+        // Python case
+        return factory().toScript();
+    }
+
+
+    /**
+     * Get the corresponding element factory.
+     * @return factory for this Element.
+     * @see edu.jas.structure.Element#factory()
+     */
+    public ModLongVectorModul factory() {
+        return modul;
+    }
+
+
+    /**
+     * clone method.
+     * @see java.lang.Object#clone()
+     */
+    @Override
+    public ModLongVector copy() {
+        return new ModLongVector(modul, val.clone());
+    }
+
+
+    /**
+     * Get element at column i.
+     * @param i column index.
+     * @return this(i).
+     */
+    public ModLong get(int i) {
+        return new ModLong(modul.coFac, val[i]);
+    }
+
+
+    /**
+     * Convert to generic vector.
+     * @return GenVector with the entries of this.
+     */
+    public GenVector<ModLong> toGenVector() {
+        List<ModLong> v = new ArrayList<ModLong>(val.length);
+        for (long c : val) {
+            v.add(new ModLong(modul.coFac, c));
+        }
+        return new GenVector<ModLong>(new GenVectorModul<ModLong>(modul.coFac, modul.cols), v);
+    }
+
+
+    /**
+     * test if this is equal to a zero vector.
+     */
+    public boolean isZERO() {
+        for (long c : val) {
+            if (c != 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * equals method.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof ModLongVector)) {
+            return false;
+        }
+        ModLongVector ovec = (ModLongVector) other;
+        if (!modul.equals(ovec.modul)) {
+            return false;
+        }
+        return Arrays.equals(val, ovec.val);
+    }
+
+
+    /**
+     * Hash code for this ModLongVector.
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        return 37 * Arrays.hashCode(val) + modul.hashCode();
+    }
+
+
+    /**
+     * compareTo, lexicographical comparison.
+     * @param b other
+     * @return 1 if (this &lt; b), 0 if (this == b) or -1 if (this &gt; b).
+     */
+    @Override
+    public int compareTo(ModLongVector b) {
+        if (!modul.equals(b.modul)) {
+            return -1;
+        }
+        long[] oval = b.val;
+        for (int i = 0; i < val.length; i++) {
+            if (val[i] != oval[i]) {
+                return val[i] > oval[i] ? 1 : -1;
+            }
+        }
+        return 0;
+    }
+
+
+    /**
+     * sign of vector.
+     * @return 1 if (this &lt; 0), 0 if (this == 0) or -1 if (this &gt; 0).
+     */
+    public int signum() {
+        return compareTo(modul.getZERO());
+    }
+
+
+    /**
+     * Sum of vectors.
+     * @param b other vector.
+     * @return this+b
+     */
+    public ModLongVector sum(ModLongVector b) {
+        long p = modul.modul;
+        long[] oval = b.val;
+        long[] a = new long[val.length];
+        for (int i = 0; i < val.length; i++) {
+            long e = val[i] + oval[i];
+            a[i] = (e >= p ? e - p : e);
+        }
+        return new ModLongVector(modul, a);
+    }
+
+
+    /**
+     * Difference of vectors.
+     * @param b other vector.
+     * @return this-b
+     */
+    public ModLongVector subtract(ModLongVector b) {
+        long p = modul.modul;
+        long[] oval = b.val;
+        long[] a = new long[val.length];
+        for (int i = 0; i < val.length; i++) {
+            long e = val[i] - oval[i];
+            a[i] = (e < 0L ? e + p : e);
+        }
+        return new ModLongVector(modul, a);
+    }
+
+
+    /**
+     * Negative of this vector.
+     * @return -this
+     */
+    public ModLongVector negate() {
+        long p = modul.modul;
+        long[] a = new long[val.length];
+        for (int i = 0; i < val.length; i++) {
+            a[i] = (val[i] == 0L ? 0L : p - val[i]);
+        }
+        return new ModLongVector(modul, a);
+    }
+
+
+    /**
+     * Absolute value of this vector.
+     * @return abs(this)
+     */
+    public ModLongVector abs() {
+        if (signum() < 0) {
+            return negate();
+        }
+        return this;
+    }
+
+
+    /**
+     * Product of this vector with scalar.
+     * @param s scalar.
+     * @return this*s
+     */
+    public ModLongVector scalarMultiply(ModLong s) {
+        long p = modul.modul;
+        long t = modul.value(s);
+        long[] a = new long[val.length];
+        for (int i = 0; i < val.length; i++) {
+            a[i] = val[i] * t % p;
+        }
+        return new ModLongVector(modul, a);
+    }
+
+
+    /**
+     * Left product of this vector with scalar.
+     * @param s scalar.
+     * @return s*this
+     */
+    public ModLongVector leftScalarMultiply(ModLong s) {
+        return scalarMultiply(s);
+    }
+
+
+    /**
+     * Linear combination of this vector with scalar multiple of other vector.
+     * @param s scalar.
+     * @param b other vector.
+     * @param t scalar.
+     * @return this*s+b*t
+     */
+    public ModLongVector linearCombination(ModLong s, ModLongVector b, ModLong t) {
+        long p = modul.modul;
+        long x = modul.value(s);
+        long y = modul.value(t);
+        long[] oval = b.val;
+        long[] a = new long[val.length];
+        for (int i = 0; i < val.length; i++) {
+            // both products < 2^62, one reduction
+            a[i] = (val[i] * x + oval[i] * y) % p;
+        }
+        return new ModLongVector(modul, a);
+    }
+
+
+    /**
+     * Linear combination of this vector with scalar multiple of other vector.
+     * @param b other vector.
+     * @param t scalar.
+     * @return this+b*t
+     */
+    public ModLongVector linearCombination(ModLongVector b, ModLong t) {
+        long[] a = val.clone();
+        axpy(a, modul.value(t), b.val, modul.modul);
+        return new ModLongVector(modul, a);
+    }
+
+
+    /**
+     * Left linear combination of this vector with scalar multiple of other
+     * vector.
+     * @param t scalar.
+     * @param b other vector.
+     * @return this+t*b
+     */
+    public ModLongVector linearCombination(ModLong t, ModLongVector b) {
+        return linearCombination(b, t);
+    }
+
+
+    /**
+     * left linear combination of this vector with scalar multiple of other
+     * vector.
+     * @param s scalar.
+     * @param t scalar.
+     * @param b other vector.
+     * @return s*this+t*b
+     */
+    public ModLongVector leftLinearCombination(ModLong s, ModLong t, ModLongVector b) {
+        return linearCombination(s, b, t);
+    }
+
+
+    /**
+     * scalar / dot product of this vector with other vector.
+     * @param b other vector.
+     * @return this . b
+     */
+    public ModLong scalarProduct(ModLongVector b) {
+        return new ModLong(modul.coFac, dot(val, b.val, modul.modul));
+    }
+
+
+    /**
+     * scalar / dot product of this vector with list of other vectors.
+     * @param B list of vectors.
+     * @return this * b
+     */
+    public ModLongVector scalarProduct(List<ModLongVector> B) {
+        if (B.isEmpty()) {
+            return modul.getZERO();
+        }
+        ModLongVectorModul bm = B.get(0).modul;
+        long p = modul.modul;
+        long[] s = new long[bm.cols];
+        for (int i = 0; i < val.length; i++) {
+            long c = val[i];
+            if (c == 0L) {
+                continue;
+            }
+            long[] bv = B.get(i).val;
+            for (int j = 0; j < s.length; j++) {
+                long e = s[j] + c * bv[j];
+                s[j] = (e >= REDUCE ? e % p : e);
+            }
+        }
+        for (int j = 0; j < s.length; j++) {
+            s[j] %= p;
+        }
+        return new ModLongVector(bm, s);
+    }
+
+
+    /**
+     * right scalar / dot product of this vector with list of other vectors.
+     * @param B list of vectors.
+     * @return b * this
+     */
+    public ModLongVector rightScalarProduct(List<ModLongVector> B) {
+        return scalarProduct(B);
+    }
+
+
+    /**
+     * Dot product modulo p with delayed reduction.
+     * @param a array of values, 0 &le; a[i] &lt; p &lt; 2<sup>31</sup>.
+     * @param b array of values, 0 &le; b[i] &lt; p.
+     * @param p modulus.
+     * @return sum a[i] b[i] mod p.
+     */
+    public static long dot(long[] a, long[] b, long p) {
+        long s = 0L;
+        for (int i = 0; i < a.length; i++) {
+            s += a[i] * b[i];
+            if (s >= REDUCE) {
+                s %= p;
+            }
+        }
+        return s % p;
+    }
+
+
+    /**
+     * Row operation y = y + a x modulo p, mutates y.
+     * @param y array of values, 0 &le; y[i] &lt; p &lt; 2<sup>31</sup>.
+     * @param a scalar, 0 &le; a &lt; p.
+     * @param x array of values, 0 &le; x[i] &lt; p.
+     * @param p modulus.
+     */
+    public static void axpy(long[] y, long a, long[] x, long p) {
+        if (a == 0L) {
+            return;
+        }
+        for (int i = 0; i < y.length; i++) {
+            if (x[i] != 0L) {
+                y[i] = (y[i] + a * x[i]) % p;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,340 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.vector;
+
+
+import java.io.Reader;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.kern.StringUtil;
+import edu.jas.structure.ModulFactory;
+
+
+/**
+ * ModLongVectorModul implements a vector factory with ModLong entries stored
+ * in a long array. Vectors of n columns over ModLongRing.
+ * @author agent
+ */
+
+public class ModLongVectorModul implements ModulFactory<ModLongVector, ModLong> {
+
+
+    private static final long serialVersionUID = 1L;
+
+
+    private static final Logger logger = Logger.getLogger(ModLongVectorModul.class);
+
+
+    public final ModLongRing coFac;
+
+
+    /**
+     * Modulus of the coefficient ring.
+     */
+    public final long modul;
+
+
+    public final int cols;
+
+
+    public final ModLongVector ZERO;
+
+
+    public final List<ModLongVector> BASIS;
+
+
+    private final static Random random = new Random();
+
+
+    public final static float DEFAULT_DENSITY = 0.5f;
+
+
+    private final float density = DEFAULT_DENSITY;
+
+
+    /**
+     * Constructor for ModLongVectorModul.
+     * @param b coefficient factory.
+     * @param s number of columns.
+     */
+    public ModLongVectorModul(ModLongRing b, int s) {
+        coFac = b;
+        modul = b.getLongModul();
+        cols = s;
+        ZERO = new ModLongVector(this, new long[cols]);
+        BASIS = new ArrayList<ModLongVector>(cols);
+        for (int i = 0; i < cols; i++) {
+            long[] v = new long[cols];
+            v[i] = 1L % modul;
+            BASIS.add(new ModLongVector(this, v));
+        }
+        logger.info(cols + " module over " + coFac + " constructed");
+    }
+
+
+    /**
+     * Get the String representation as RingElem.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuffer s = new StringBuffer();
+        s.append(coFac.getClass().getSimpleName());
+        s.append("[" + cols + "]");
+        return s.toString();
+    }
+
+
+    /**
+     * Get a scripting compatible string representation.
+     * @return script compatible representation for this ElemFactory.
+     * @see edu.jas.structure.ElemFactory#toScript()
+     */
+    @Override
+    public String toScript() {
+        // Python case
+        StringBuffer s = new StringBuffer("Vec(");
+        s.append(coFac.toScript() + "," + cols + " )");
+        return s.toString();
+    }
+
+
+    /**
+     * getZERO.
+     * @return ZERO.
+     */
+    public ModLongVector getZERO() {
+        return ZERO;
+    }
+
+
+    /**
+     * Get a list of the generating elements.
+     * @return list of generators for the algebraic structure.
+     * @see edu.jas.structure.ElemFactory#generators()
+     */
+    public List<ModLongVector> generators() {
+        return BASIS;
+    }
+
+
+    /**
+     * Is this structure finite or infinite.
+     * @return true if this structure is finite, else false.
+     * @see edu.jas.structure.ElemFactory#isFinite()
+     */
+    public boolean isFinite() {
+        return coFac.isFinite();
+    }
+
+
+    /**
+     * Comparison with any other object.
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof ModLongVectorModul)) {
+            return false;
+        }
+        ModLongVectorModul omod = (ModLongVectorModul) other;
+        if (cols != omod.cols) {
+            return false;
+        }
+        if (!coFac.equals(omod.coFac)) {
+            return false;
+        }
+        return true;
+    }
+
+
+    /**
+     * Hash code for this vector module.
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        int h;
+        h = cols;
+        h = 37 * h + coFac.hashCode();
+        return h;
+    }
+
+
+    /**
+     * Get the vector for a.
+     * @param a long
+     * @return vector corresponding to a.
+     */
+    public ModLongVector fromInteger(long a) {
+        ModLong c = coFac.fromInteger(a);
+        return BASIS.get(0).scalarMultiply(c);
+    }
+
+
+    /**
+     * Get the vector for a.
+     * @param a long
+     * @return vector corresponding to a.
+     */
+    public ModLongVector fromInteger(BigInteger a) {
+        ModLong c = coFac.fromInteger(a);
+        return BASIS.get(0).scalarMultiply(c);
+    }
+
+
+    /**
+     * From List of coefficients.
+     * @param v list of coefficients.
+     * @return vector from v.
+     */
+    public ModLongVector fromList(List<ModLong> v) {
+        if (v == null) {
+            return ZERO;
+        }
+        if (v.size() > cols) {
+            throw new IllegalArgumentException("size v > cols " + v + " > " + cols);
+        }
+        long[] r = new long[cols];
+        int i = 0;
+        for (ModLong c : v) {
+            r[i++] = value(c);
+        }
+        return new ModLongVector(this, r);
+    }
+
+
+    /**
+     * From array of values.
+     * @param v array of values, will be reduced modulo the modul.
+     * @return vector from v.
+     */
+    public ModLongVector fromArray(long[] v) {
+        if (v.length > cols) {
+            throw new IllegalArgumentException("size v > cols " + v.length + " > " + cols);
+        }
+        long[] r = new long[cols];
+        for (int i = 0; i < v.length; i++) {
+            long x = v[i] % modul;
+            r[i] = (x < 0L ? x + modul : x);
+        }
+        return new ModLongVector(this, r);
+    }
+
+
+    /**
+     * From generic vector.
+     * @param v generic vector over ModLong.
+     * @return vector with entries of v.
+     */
+    public ModLongVector fromGenVector(GenVector<ModLong> v) {
+        return fromList(v.val);
+    }
+
+
+    /**
+     * Value of a coefficient in this module.
+     * @param c coefficient.
+     * @return c.val modulo modul.
+     */
+    long value(ModLong c) {
+        if (c.ring.modul == modul) {
+            return c.val;
+        }
+        return c.val % modul;
+    }
+
+
+    /**
+     * Random vector.
+     * @param k size of random coefficients.
+     * @return random vector.
+     */
+    public ModLongVector random(int k) {
+        return random(k, density, random);
+    }
+
+
+    /**
+     * Random vector.
+     * @param k size of random coefficients.
+     * @param q density of nonzero coefficients.
+     * @return random vector.
+     */
+    public ModLongVector random(int k, float q) {
+        return random(k, q, random);
+    }
+
+
+    /**
+     * Random vector.
+     * @param k size of random coefficients.
+     * @param random is a source for random bits.
+     * @return a random element.
+     */
+    public ModLongVector random(int k, Random random) {
+        return random(k, density, random);
+    }
+
+
+    /**
+     * Random vector.
+     * @param k size of random coefficients.
+     * @param q density of nonzero coefficients.
+     * @param random is a source for random bits.
+     * @return a random element.
+     */
+    public ModLongVector random(int k, float q, Random random) {
+        long[] r = new long[cols];
+        for (int i = 0; i < cols; i++) {
+            if (random.nextFloat() < q) {
+                r[i] = coFac.random(k, random).val;
+            }
+        }
+        return new ModLongVector(this, r);
+    }
+
+
+    /**
+     * copy vector.
+     * @param c vector.
+     * @return copy of vector c.
+     */
+    public ModLongVector copy(ModLongVector c) {
+        if (c == null) {
+            return c;
+        }
+        return c.copy();
+    }
+
+
+    /**
+     * Parse a vector from a String. Syntax: [ c, ..., c ]
+     * @param s String with vector.
+     * @return parsed vector.
+     */
+    public ModLongVector parse(String s) {
+        return fromGenVector(new GenVectorModul<ModLong>(coFac, cols).parse(s));
+    }
+
+
+    /**
+     * Parse a vector from a Reader.
+     * @param r Reader containing a vector.
+     * @return parsed vector.
+     */
+    public ModLongVector parse(Reader r) {
+        String s = StringUtil.nextPairedString(r, '[', ']');
+        return parse(s);
+    }
+
+}
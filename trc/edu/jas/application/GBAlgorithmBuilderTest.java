@@ -5,6 +5,7 @@
 package edu.jas.application;
 
 
+import java.util.ArrayList;
 import java.util.List;
 
 import junit.framework.Test;
@@ -36,6 +37,7 @@ import edu.jas.gbufd.GroebnerBaseRational;
 import edu.jas.kern.ComputerThreads;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.TermOrder;
 
 
 /**
@@ -400,6 +402,60 @@ public class GBAlgorithmBuilderTest extends TestCase {
     }
 
 
+    /**
+     * Test automatic selection for BigRational and compute.
+     */
+    public void testConstructionRationalAuto() {
+        List<GenPolynomial<BigRational>> cp = ExamplesGeoTheorems.getExample();
+        GenPolynomialRing<BigRational> pf = cp.get(0).ring;
+
+        GBAlgorithmBuilder<BigRational> ab = GBAlgorithmBuilder.<BigRational> polynomialRing(pf).auto(cp);
+        //System.out.println("reason = " + ab.getReason());
+        assertTrue("reason != null", ab.getReason() != null);
+        GroebnerBaseAbstract<BigRational> bb = ab.build();
+        List<GenPolynomial<BigRational>> gb = bb.GB(cp);
+        assertTrue("isGB: ", bb.isGB(gb));
+        bb.terminate();
+
+        GroebnerBaseAbstract<BigRational> db = GBFactory.getImplementation(new BigRational());
+        List<GenPolynomial<BigRational>> gd = db.GB(cp);
+        assertEquals("auto GB == GB", new Ideal<BigRational>(pf, gd, true), new Ideal<BigRational>(pf,
+                        gb, true));
+
+        ab = GBAlgorithmBuilder.<BigRational> polynomialRing(pf).auto(cp, 0L);
+        assertTrue("no probes: " + ab.getReason(), ab.getReason().contains("no probes"));
+        bb = ab.build();
+        assertTrue("isGB: ", bb.isGB(bb.GB(cp)));
+        bb.terminate();
+    }
+
+
+    /**
+     * Test automatic selection for lexicographical term orders.
+     */
+    public void testConstructionRationalAutoLex() {
+        BigRational bf = new BigRational(1);
+        String[] vars = new String[] { "a", "b", "c" };
+        GenPolynomialRing<BigRational> pf = new GenPolynomialRing<BigRational>(bf, vars, new TermOrder(
+                        TermOrder.INVLEX));
+        List<GenPolynomial<BigRational>> cp = new ArrayList<GenPolynomial<BigRational>>();
+        cp.add(pf.parse("a^2 + b^2 + c^2 - 1"));
+        cp.add(pf.parse("a^2 + c^2 - b"));
+        cp.add(pf.parse("a - c - 2 b^2"));
+
+        GBAlgorithmBuilder<BigRational> ab = GBAlgorithmBuilder.<BigRational> polynomialRing(pf).auto(cp);
+        //System.out.println("reason = " + ab.getReason());
+        assertTrue("graded probe: " + ab.getReason(), ab.getReason().contains("graded="));
+        GroebnerBaseAbstract<BigRational> bb = ab.build();
+        List<GenPolynomial<BigRational>> gb = bb.GB(cp);
+        assertTrue("isGB: ", bb.isGB(gb));
+        bb.terminate();
+        if (ab.getReason().contains("FGLM") && !ab.getReason().contains("parallel")) {
+            assertTrue("instance of " + bb, bb instanceof GroebnerBaseFGLM);
+        }
+    }
+
+
     /**
      * Test construction for BigRational and iterate.
      */
@@ -0,0 +1,146 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.arith;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+
+/**
+ * ArithUtil tests with JUnit.
+ * @author agent
+ */
+
+public class ArithUtilTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>ArithUtilTest</CODE> object.
+     * @param name String
+     */
+    public ArithUtilTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(ArithUtilTest.class);
+        return suite;
+    }
+
+
+    @Override
+    protected void setUp() {
+    }
+
+
+    @Override
+    protected void tearDown() {
+    }
+
+
+    /**
+     * Test primes.
+     */
+    public void testPrime() {
+        PrimeList pl = new PrimeList(PrimeList.Range.medium);
+        assertEquals("prime(0) = PrimeList.get(0)", pl.get(0).longValue(), ArithUtil.prime(0));
+        List<Long> ps = new ArrayList<Long>();
+        for (int i = 0; i < 30; i++) {
+            long p = ArithUtil.prime(i);
+            assertTrue("p < 2^31: " + p, p < (1L << 31));
+            assertTrue("isPrime(p): " + p, java.math.BigInteger.valueOf(p).isProbablePrime(30));
+            assertFalse("distinct primes: " + p, ps.contains(p));
+            ps.add(p);
+        }
+    }
+
+
+    /**
+     * Test modular inverse.
+     */
+    public void testModInverse() {
+        long p = ArithUtil.prime(3);
+        for (long a : new long[] { 1L, 2L, 12345L, p - 1L, -7L, p + 5L }) {
+            long b = ArithUtil.modInverse(a, p);
+            assertTrue("0 < b < p: " + b, 0L < b && b < p);
+            long c = (a % p + p) % p * b % p;
+            assertEquals("a * a^-1 = 1 mod p", 1L, c);
+        }
+        try {
+            ArithUtil.modInverse(p, p);
+            fail("p not invertible modulo p");
+        } catch (edu.jas.structure.NotInvertibleException e) {
+            // pass
+        }
+    }
+
+
+    /**
+     * Test Chinese remainder and rational reconstruction.
+     */
+    public void testReconstruction() {
+        BigRational[] R = new BigRational[] { new BigRational(-3, 7), new BigRational(1234567, 89),
+                new BigRational(0), new BigRational(5) };
+        java.math.BigInteger[] X = null;
+        java.math.BigInteger P = java.math.BigInteger.ONE;
+        for (int i = 0; i < 3; i++) {
+            long p = ArithUtil.prime(i);
+            java.math.BigInteger pp = java.math.BigInteger.valueOf(p);
+            long[] x = new long[R.length];
+            for (int j = 0; j < R.length; j++) {
+                java.math.BigInteger d = R[j].denominator().modInverse(pp);
+                x[j] = R[j].numerator().multiply(d).mod(pp).longValue();
+            }
+            if (X == null) {
+                X = new java.math.BigInteger[R.length];
+                for (int j = 0; j < R.length; j++) {
+                    X[j] = java.math.BigInteger.valueOf(x[j]);
+                }
+            } else {
+                java.math.BigInteger Y = ArithUtil.chineseRemainder(X[1], P, x[1], p);
+                ArithUtil.chineseRemainder(X, P, x, p);
+                assertEquals("scalar CRT = vector CRT", Y, X[1]);
+            }
+            P = P.multiply(pp);
+        }
+        java.math.BigInteger bound = ArithUtil.reconstructionBound(P);
+        for (int j = 0; j < R.length; j++) {
+            assertEquals("rr(crt(r)) = r", R[j], ArithUtil.rationalReconstruction(X[j], P, bound));
+        }
+        // no reconstruction within the bound
+        java.math.BigInteger p = java.math.BigInteger.valueOf(ArithUtil.prime(0));
+        java.math.BigInteger u = java.math.BigInteger.valueOf(2L);
+        assertNull("no rr(2)", ArithUtil.rationalReconstruction(u, p, java.math.BigInteger.ONE));
+    }
+
+
+    /**
+     * Test common denominator.
+     */
+    public void testCommonDenominator() {
+        List<BigRational> L = new ArrayList<BigRational>();
+        L.add(new BigRational(1, 6));
+        L.add(new BigRational(5, 4));
+        L.add(new BigRational(7));
+        assertEquals("lcm(6,4) = 12", java.math.BigInteger.valueOf(12), ArithUtil.commonDenominator(L));
+    }
+
+}
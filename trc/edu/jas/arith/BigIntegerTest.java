@@ -293,4 +293,34 @@ public class BigIntegerTest extends TestCase {
         assertEquals("j == 10 ", j, ten);
     }
 
+
+
+    /**
+     * Test long fast path and overflow to java.math.BigInteger.
+     */
+    public void testSmallOverflow() {
+        BigInteger m = new BigInteger(Long.MAX_VALUE / 2);
+        a = m.sum(m).sum(m);
+        b = new BigInteger(new java.math.BigInteger(m.toString()).multiply(java.math.BigInteger.valueOf(3)));
+        assertEquals("m+m+m = 3*m ", b, a);
+        c = m.multiply(m);
+        d = new BigInteger(m.getVal().multiply(m.getVal()));
+        assertEquals("m*m = m*m ", d, c);
+        assertEquals("m*m/m = m ", m, c.divide(m));
+        assertEquals("m*m-m*m = 0 ", BigInteger.ZERO, c.subtract(d));
+        a = new BigInteger(Long.MIN_VALUE);
+        assertEquals("min-1 ", new BigInteger("-9223372036854775809"), a.subtract(BigInteger.ONE));
+        assertEquals("gcd(12,-18) = 6 ", new BigInteger(6), new BigInteger(12).gcd(new BigInteger(-18)));
+        assertEquals("gcd(0,-5) = 5 ", new BigInteger(5), BigInteger.ZERO.gcd(new BigInteger(-5)));
+
+        // small results are shared
+        a = new BigInteger(700).sum(new BigInteger(-300));
+        assertTrue("700-300 cached ", a == BigInteger.valueOf(400));
+        a = new BigInteger(-32).multiply(new BigInteger(32));
+        assertTrue("-32*32 cached ", a == BigInteger.valueOf(-1024));
+        assertTrue("1 cached ", BigInteger.valueOf(1) == BigInteger.ONE);
+        b = new BigInteger(1000).sum(new BigInteger(25));
+        assertEquals("1000+25 = 1025 ", new BigInteger(1025), b);
+        assertFalse("1025 not cached ", b == BigInteger.valueOf(1025));
+    }
 }
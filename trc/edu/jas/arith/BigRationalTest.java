@@ -324,4 +324,32 @@ public class BigRationalTest extends TestCase {
         }
         assertEquals("a = decimal(d): " + d, as, ds);
     }
+
+
+    /**
+     * Test long fast path and overflow to BigInteger.
+     */
+    public void testSmallOverflow() {
+        long m = Long.MAX_VALUE / 3;
+        for (int i = 0; i < 20; i++) {
+            a = BigRational.RNRAND(20);
+            b = new BigRational(m - i, 7 + 2 * i);
+            c = a.multiply(b);
+            d = new BigRational(a.numerator().multiply(b.numerator()), a.denominator().multiply(
+                            b.denominator()));
+            d = BigRational.RNRED(d.numerator(), d.denominator());
+            assertEquals("a*b = a*b ", d, c);
+            assertEquals("a*b/b = a ", a, c.divide(b));
+
+            c = b.sum(b).sum(b).sum(a); // overflows
+            d = b.multiply(new BigRational(3)).sum(a);
+            assertEquals("b+b+b+a = 3*b+a ", d, c);
+            assertEquals("(3*b+a)-a-b-b = b ", b, c.subtract(a).subtract(b).subtract(b));
+            assertEquals("b < 3*b ", -1, b.compareTo(d.subtract(a)));
+        }
+        a = new BigRational(6, -4);
+        assertEquals("6/-4 = -3/2 ", new BigRational(-3, 2), a);
+        assertEquals("1/2 + 1/2 = 1 ", BigRational.ONE, BigRational.HALF.sum(BigRational.HALF));
+        assertEquals("1/2 - 1/2 = 0 ", BigRational.ZERO, BigRational.HALF.subtract(BigRational.HALF));
+    }
 }
@@ -20,6 +20,7 @@ import org.apache.log4j.Logger;
 
 import edu.jas.arith.BigRational;
 import edu.jas.kern.ComputerThreads;
+import edu.jas.kern.PortfolioRunner;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
 import edu.jas.poly.GenPolynomialTokenizer;
@@ -188,4 +189,42 @@ public class GBProxyTest extends TestCase {
         //System.out.println("G = " + trinks);
     }
 
+
+
+    /**
+     * Test Trinks7 GBase with a portfolio of three engines.
+     */
+    @SuppressWarnings({ "cast", "unchecked" })
+    public void testTrinks7GBasePortfolio() {
+        String exam = "(B,S,T,Z,P,W) L " + "( " + "( 45 P + 35 S - 165 B - 36 ), "
+                        + "( 35 P + 40 Z + 25 T - 27 S ), " + "( 15 W + 25 S P + 30 Z - 18 T - 165 B**2 ), "
+                        + "( - 9 W + 15 T P + 20 S Z ), " + "( P W + 2 T Z - 11 B**3 ), "
+                        + "( 99 W - 11 B S + 3 B**2 ), " + "( B**2 + 33/50 B + 2673/10000 ) " + ") ";
+        Reader source = new StringReader(exam);
+        GenPolynomialTokenizer parser = new GenPolynomialTokenizer(source);
+        try {
+            F = (PolynomialList<BigRational>) parser.nextPolynomialSet();
+        } catch (ClassCastException e) {
+            fail("" + e);
+        } catch (IOException e) {
+            fail("" + e);
+        }
+        List<GroebnerBaseAbstract<BigRational>> es = new ArrayList<GroebnerBaseAbstract<BigRational>>();
+        es.add(new GroebnerBaseSeq<BigRational>());
+        es.add(new GroebnerBaseSeq<BigRational>(new OrderedSyzPairlist<BigRational>()));
+        es.add(new GroebnerBaseParallel<BigRational>(2));
+        GBPortfolio<BigRational> bbp = new GBPortfolio<BigRational>(es);
+        for (int i = 0; i < 3; i++) {
+            G = bbp.GB(F.list);
+            assertEquals("#GB(Trinks7) == 6", 6, G.size());
+            assertTrue("isGB( GB(Trinks7) ) " + G, bb.isGB(G));
+        }
+        long w = 0;
+        for (GroebnerBaseAbstract<BigRational> e : es) {
+            w += PortfolioRunner.getWins(GBPortfolio.KEY, e.toString());
+        }
+        assertTrue("wins recorded: " + PortfolioRunner.getStatistics(), w >= 3);
+        bbp.terminate();
+    }
+
 }
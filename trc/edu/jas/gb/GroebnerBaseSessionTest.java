@@ -0,0 +1,163 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.log4j.BasicConfigurator;
+
+import edu.jas.arith.BigRational;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialTokenizer;
+import edu.jas.poly.PolynomialList;
+
+
+/**
+ * Groebner base session with checkpoints tests with JUnit.
+ * @author agent
+ */
+
+public class GroebnerBaseSessionTest extends TestCase {
+
+
+    /**
+     * main
+     */
+    public static void main(String[] args) {
+        BasicConfigurator.configure();
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>GroebnerBaseSessionTest</CODE> object.
+     * @param name String.
+     */
+    public GroebnerBaseSessionTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(GroebnerBaseSessionTest.class);
+        return suite;
+    }
+
+
+    PolynomialList<BigRational> F;
+
+
+    List<GenPolynomial<BigRational>> G, H;
+
+
+    GroebnerBaseAbstract<BigRational> bb;
+
+
+    File file;
+
+
+    @Override
+    @SuppressWarnings({ "unchecked", "cast" })
+    protected void setUp() {
+        String exam = "(B,S,T,Z,P,W) L " + "( " + "( 45 P + 35 S - 165 B - 36 ), "
+                        + "( 35 P + 40 Z + 25 T - 27 S ), " + "( 15 W + 25 S P + 30 Z - 18 T - 165 B**2 ), "
+                        + "( - 9 W + 15 T P + 20 S Z ), " + "( P W + 2 T Z - 11 B**3 ), "
+                        + "( 99 W - 11 B S + 3 B**2 ), " + "( B**2 + 33/50 B + 2673/10000 ) " + ") ";
+        Reader source = new StringReader(exam);
+        GenPolynomialTokenizer parser = new GenPolynomialTokenizer(source);
+        try {
+            F = (PolynomialList<BigRational>) parser.nextPolynomialSet();
+            file = File.createTempFile("gbsession", ".ser");
+        } catch (ClassCastException e) {
+            fail("" + e);
+        } catch (IOException e) {
+            fail("" + e);
+        }
+        bb = new GroebnerBaseSeq<BigRational>();
+        G = bb.GB(F.list);
+    }
+
+
+    @Override
+    protected void tearDown() {
+        bb = null;
+        if (file != null) {
+            file.delete();
+        }
+        file = null;
+    }
+
+
+    /**
+     * Test session without interruption.
+     */
+    public void testSession() {
+        GroebnerBaseSession<BigRational> gs = new GroebnerBaseSession<BigRational>(F.list);
+        H = gs.GB();
+        assertTrue("isDone()", gs.isDone());
+        assertTrue("isGB( GB(Trinks7) )", bb.isGB(H));
+        assertEquals("GB(Trinks7) == session GB", G, H);
+    }
+
+
+    /**
+     * Test session with checkpoint and restore.
+     */
+    public void testCheckpointRestore() throws IOException {
+        GroebnerBaseSession<BigRational> gs = new GroebnerBaseSession<BigRational>(F.list);
+        for (int i = 0; i < 10; i++) {
+            gs.step();
+        }
+        assertFalse("not isDone()", gs.isDone());
+        gs.checkpoint(file);
+        long steps = gs.getSteps();
+
+        GroebnerBaseSession<BigRational> rs = GroebnerBaseSession.<BigRational> restore(file);
+        assertEquals("steps == restored steps", steps, rs.getSteps());
+        assertEquals("list == restored list", gs.getList(), rs.getList());
+        H = rs.GB();
+        assertTrue("isGB( GB(Trinks7) )", bb.isGB(H));
+        assertEquals("GB(Trinks7) == restored GB", G, H);
+        assertEquals("session GB == restored GB", gs.GB(), H);
+        assertEquals("restored steps == session steps", gs.getSteps(), rs.getSteps());
+    }
+
+
+    /**
+     * Test session with periodic checkpoints and min pair list.
+     */
+    public void testPeriodicCheckpoint() throws IOException {
+        GroebnerBaseAbstract<BigRational> bbm = new GroebnerBaseSeq<BigRational>(
+                        new OrderedMinPairlist<BigRational>());
+        GroebnerBaseSession<BigRational> gs = new GroebnerBaseSession<BigRational>(bbm, 0, F.list);
+        gs.setCheckpoint(file, 0L);
+        H = gs.GB();
+        assertTrue("isGB( GB(Trinks7) )", bb.isGB(H));
+        assertEquals("GB(Trinks7) == session GB", G, H);
+
+        GroebnerBaseSession<BigRational> rs = GroebnerBaseSession.<BigRational> restore(file, bbm);
+        assertTrue("isDone()", rs.isDone());
+        assertEquals("GB(Trinks7) == restored GB", G, rs.GB());
+        try {
+            GroebnerBaseSession.<BigRational> restore(file);
+            fail("different pair list strategy");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+}
@@ -420,4 +420,66 @@ public class CharSetTest extends TestCase {
         assertTrue("isCharacteristicSet: " + G, cs.isCharacteristicSet(G));
     }
 
+
+    /**
+     * Test parallel characteristic set, example Circle of Apollonius.
+     */
+    public void testCharacteristicSetParallel() {
+        GenPolynomialRing<BigRational> dfac;
+        BigRational br = new BigRational();
+        to = new TermOrder(TermOrder.INVLEX);
+        String[] vars = new String[] { "u1", "u2", "x1", "x2", "x3", "x4", "x5", "x6", "x7", "x8" };
+        dfac = new GenPolynomialRing<BigRational>(br, to, vars);
+
+        List<GenPolynomial<BigRational>> F, G, E, P;
+        F = new ArrayList<GenPolynomial<BigRational>>();
+        F.add(dfac.parse(" 2 x1 - u1 "));
+        F.add(dfac.parse(" 2 x2 - u2 "));
+        F.add(dfac.parse(" 2 x3 - u1 "));
+        F.add(dfac.parse(" 2 x4 - u2 "));
+        F.add(dfac.parse(" u2 x5 + u1 x6 - u1 u2 "));
+        F.add(dfac.parse(" u1 x5 - u2 x6 "));
+        F.add(dfac.parse(" x1^2 - x2^2 - 2 x1 x7 + 2 x2 x8 "));
+        F.add(dfac.parse(" x1^2 - 2 x1 x7 - x3^2 + 2 x3 x7 - x4^2 + 2 x4 x8 "));
+
+        CharacteristicSetParallel<BigRational> csp = new CharacteristicSetParallel<BigRational>(2);
+        G = csp.characteristicSet(F);
+        //System.out.println("G = " + G);
+        assertTrue("isCharacteristicSet: " + G, csp.isCharacteristicSet(G));
+
+        GenPolynomial<BigRational> g, e;
+        g = dfac.parse("( ( x5 - x7 )**2 + ( x6 - x8 )**2 - ( x1 - x7 )**2 - x8^2 )");
+        e = csp.characteristicSetReduction(G, g);
+        assertTrue("g mod G: " + e, e.isZERO());
+
+        // cached and batch reduction agree with the sequential reduction
+        P = new ArrayList<GenPolynomial<BigRational>>(G);
+        P.add(g);
+        for (int i = 0; i < 3; i++) {
+            P.add(dfac.random(kl, ll, el, q));
+        }
+        E = csp.characteristicSetReduction(G, P);
+        assertEquals("#E == #P", P.size(), E.size());
+        for (int i = 0; i < P.size(); i++) {
+            assertEquals("csp(G,p) == cs(G,p)", cs.characteristicSetReduction(G, P.get(i)), E.get(i));
+        }
+        for (int i = 0; i < G.size(); i++) {
+            assertTrue("G_i mod G: " + E.get(i), E.get(i).isZERO());
+        }
+
+        // random characteristic set
+        F = new ArrayList<GenPolynomial<BigRational>>();
+        dfac = new GenPolynomialRing<BigRational>(br, rl, to);
+        for (int i = 0; i < 4; i++) {
+            F.add(dfac.random(kl, ll, el, q * 1.1f));
+        }
+        G = csp.characteristicSet(F);
+        assertTrue("isCharacteristicSet: " + G, csp.isCharacteristicSet(G));
+        for (GenPolynomial<BigRational> h : G) {
+            e = csp.characteristicSetReduction(G, h);
+            assertTrue("h mod G: " + e, e.isZERO());
+        }
+        ComputerThreads.terminate();
+    }
+
 }
@@ -0,0 +1,270 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gbufd;
+
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.log4j.BasicConfigurator;
+
+import edu.jas.arith.BigRational;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.gb.GroebnerBase;
+import edu.jas.gb.GroebnerBaseSeq;
+import edu.jas.gb.OrderedSyzPairlist;
+import edu.jas.gb.ReductionSeq;
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.GenPolynomialTokenizer;
+import edu.jas.poly.PolynomialList;
+import edu.jas.poly.TermOrder;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+
+/**
+ * Groebner base via sparse FGLM tests with JUnit.
+ * @author agent
+ */
+
+public class GroebnerBaseFGLMSparseTest extends TestCase {
+
+
+    /**
+     * main
+     */
+    public static void main(String[] args) {
+        BasicConfigurator.configure();
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>GroebnerBaseFGLMSparseTest</CODE> object.
+     * @param name String.
+     */
+    public GroebnerBaseFGLMSparseTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(GroebnerBaseFGLMSparseTest.class);
+        return suite;
+    }
+
+
+    PolynomialList<BigRational> F;
+
+
+    List<GenPolynomial<BigRational>> G, Gs;
+
+
+    GroebnerBaseFGLMSparse<BigRational> bb;
+
+
+    GroebnerBase<BigRational> bbs;
+
+
+    String exam = "(x,y,z) L " + "( " + "( z y**2 + 2 x + 1/2 )" + "( z x**2 - y**2 - 1/2 x )"
+                    + "( -z + y**2 x + 4 x**2 + 1/4 )" + " )";
+
+
+    String trinks7 = "(B,S,T,Z,P,W) L " + "( " + "( 45 P + 35 S - 165 B - 36 ), "
+                    + "( 35 P + 40 Z + 25 T - 27 S ), " + "( 15 W + 25 S P + 30 Z - 18 T - 165 B**2 ), "
+                    + "( - 9 W + 15 T P + 20 S Z ), " + "( P W + 2 T Z - 11 B**3 ), "
+                    + "( 99 W - 11 B S + 3 B**2 ), " + "( B**2 + 33/50 B + 2673/10000 ) " + ") ";
+
+
+    String noshape = "(x,y,z) L " + "( " + "( x**2 - 1 ), ( y**2 - 1 ), ( z - x y )" + " )";
+
+
+    @Override
+    protected void setUp() {
+        bb = new GroebnerBaseFGLMSparse<BigRational>();
+        bbs = new GroebnerBaseSeq<BigRational>(new ReductionSeq<BigRational>(),
+                        new OrderedSyzPairlist<BigRational>());
+    }
+
+
+    @Override
+    protected void tearDown() {
+        bb.terminate();
+        bb = null;
+        bbs = null;
+    }
+
+
+    @SuppressWarnings("unchecked")
+    PolynomialList<BigRational> parse(String s) {
+        Reader source = new StringReader(s);
+        GenPolynomialTokenizer parser = new GenPolynomialTokenizer(source);
+        PolynomialList<BigRational> P = null;
+        try {
+            P = (PolynomialList<BigRational>) parser.nextPolynomialSet();
+        } catch (ClassCastException e) {
+            fail("" + e);
+        } catch (IOException e) {
+            fail("" + e);
+        }
+        return P;
+    }
+
+
+    /**
+     * Test example GBase in shape position.
+     */
+    public void testExamGBase() {
+        F = parse(exam);
+        G = bb.GB(F.list);
+        assertTrue("isGB( GB(P) )", bb.isGB(G));
+        assertEquals("#GB(P) == 3", 3, G.size());
+
+        Gs = bbs.GB(F.list);
+        assertEquals("GB == FGLM", new PolynomialList<BigRational>(F.ring, Gs),
+                        new PolynomialList<BigRational>(F.ring, G));
+    }
+
+
+    /**
+     * Test Trinks7 GBase, shape position and linear algebra.
+     */
+    public void testTrinks7GBase() {
+        F = parse(trinks7);
+        G = bb.GB(F.list);
+        assertTrue("isGB( GB(Trinks7) )", bb.isGB(G));
+        assertEquals("#GB(Trinks7) == 6", 6, G.size());
+
+        bb.shape = false;
+        List<GenPolynomial<BigRational>> Gl = bb.GB(F.list);
+        assertEquals("shape == linear algebra", G, Gl);
+
+        Gs = bbs.GB(F.list);
+        assertEquals("GB == FGLM", new PolynomialList<BigRational>(F.ring, Gs),
+                        new PolynomialList<BigRational>(F.ring, G));
+    }
+
+
+    /**
+     * Test GBase not in shape position.
+     */
+    public void testNoShapeGBase() {
+        F = parse(noshape);
+        G = bb.GB(F.list);
+        assertTrue("isGB( GB(P) )", bb.isGB(G));
+        assertEquals("#GB(P) == 3", 3, G.size());
+
+        Gs = new GroebnerBaseFGLM<BigRational>().GB(F.list);
+        assertEquals("FGLM == sparse FGLM", Gs, G);
+    }
+
+
+    /**
+     * Test verification of reconstructed lexicographical bases.
+     */
+    public void testLexBaseVerification() {
+        F = parse(exam);
+        GenPolynomialRing<BigRational> gfac = new GenPolynomialRing<BigRational>(F.ring.coFac, F.ring.nvar,
+                        new TermOrder(TermOrder.IGRLEX), F.ring.getVars());
+        Gs = bbs.GB(gfac.copy(F.list));
+        List<ExpVector> leads = new ArrayList<ExpVector>();
+        for (GenPolynomial<BigRational> g : Gs) {
+            leads.add(g.leadingExpVector());
+        }
+        int dim = GroebnerBaseFGLMSparse.standardMonomials(leads, gfac.nvar, 1000);
+        assertTrue("dim > 0: " + dim, dim > 0 && dim < 1000);
+
+        G = bb.GB(F.list);
+        assertTrue("isLexBase(G)", GroebnerBaseFGLMSparse.isLexBase(Gs, G, dim));
+
+        // same leading terms, not in the ideal
+        List<GenPolynomial<BigRational>> L = new ArrayList<GenPolynomial<BigRational>>(G);
+        GenPolynomial<BigRational> g = L.get(0);
+        L.set(0, g.sum(g.ring.fromInteger(1).multiply(new BigRational(1, 7))));
+        assertFalse("isLexBase(G + 1/7)", GroebnerBaseFGLMSparse.isLexBase(Gs, L, dim));
+
+        // in the ideal, too many standard monomials
+        L = new ArrayList<GenPolynomial<BigRational>>(G.subList(1, G.size()));
+        assertFalse("isLexBase(G - g_0)", GroebnerBaseFGLMSparse.isLexBase(Gs, L, dim));
+    }
+
+
+    /**
+     * Test conversion modulo a prime.
+     */
+    public void testModLongGBase() {
+        F = parse(trinks7);
+        ModLongRing mi = new ModLongRing(32003);
+        GenPolynomialRing<ModLong> mfac = new GenPolynomialRing<ModLong>(mi, F.ring);
+        // clear denominators and map to mod p
+        List<GenPolynomial<ModLong>> L = new ArrayList<GenPolynomial<ModLong>>();
+        for (GenPolynomial<BigRational> p : F.list) {
+            java.math.BigInteger d = java.math.BigInteger.ONE;
+            for (BigRational c : p.getMap().values()) {
+                d = d.multiply(c.denominator());
+            }
+            GenPolynomial<BigRational> q = p.multiply(new BigRational(d));
+            GenPolynomial<ModLong> m = mfac.getZERO();
+            for (edu.jas.poly.Monomial<BigRational> mo : q) {
+                m = m.sum(mi.fromInteger(mo.coefficient().numerator()), mo.exponent());
+            }
+            L.add(m);
+        }
+        GroebnerBaseFGLMSparse<ModLong> mbb = new GroebnerBaseFGLMSparse<ModLong>();
+        List<GenPolynomial<ModLong>> M = mbb.GB(L);
+        assertTrue("isGB( GB(Trinks7) )", mbb.isGB(M));
+
+        List<GenPolynomial<ModLong>> Ms = new GroebnerBaseFGLM<ModLong>().GB(L);
+        assertEquals("FGLM == sparse FGLM", Ms, M);
+
+        // grevlex input
+        GenPolynomialRing<ModLong> gfac = new GenPolynomialRing<ModLong>(mi, mfac.nvar,
+                        new TermOrder(TermOrder.IGRLEX), mfac.getVars());
+        List<GenPolynomial<ModLong>> Lg = new ArrayList<GenPolynomial<ModLong>>();
+        for (GenPolynomial<ModLong> p : L) {
+            Lg.add(gfac.copy(p));
+        }
+        Lg = GBFactory.<ModLong> getImplementation(mi).GB(Lg);
+        assertEquals("convGroebnerToLex", M, mbb.convGroebnerToLex(Lg));
+    }
+
+
+    /**
+     * Test Berlekamp-Massey algorithm.
+     */
+    public void testBerlekampMassey() {
+        long p = 32003L;
+        // s_{i+2} = 3 s_{i+1} + 5 s_i
+        long[] s = new long[8];
+        s[0] = 1L;
+        s[1] = 2L;
+        for (int i = 2; i < s.length; i++) {
+            s[i] = (3L * s[i - 1] + 5L * s[i - 2]) % p;
+        }
+        long[] f = GroebnerBaseFGLMSparse.berlekampMassey(s, p);
+        assertEquals("deg(f) == 2", 3, f.length);
+        assertEquals("f = x^2 - 3 x - 5", p - 5L, f[0]);
+        assertEquals("f = x^2 - 3 x - 5", p - 3L, f[1]);
+        assertEquals("f = x^2 - 3 x - 5", 1L, f[2]);
+
+        long[] a = new long[] { 2L, 1L };
+        long[] b = GroebnerBaseFGLMSparse.polyInverse(a, f, p);
+        long[] c = GroebnerBaseFGLMSparse.polyRemainder(GroebnerBaseFGLMSparse.polyMultiply(a, b, p), f, p);
+        assertEquals("a b == 1 mod f", 1L, c[0]);
+        assertEquals("a b == 1 mod f", 0L, c[1]);
+    }
+
+}
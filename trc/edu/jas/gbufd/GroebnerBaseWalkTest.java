@@ -294,4 +294,58 @@ public class GroebnerBaseWalkTest extends TestCase {
         //Collections.reverse(G); // now in minimal
         assertEquals("G == Gp: ", G, Gp);
     }
+
+
+    /**
+     * Test parallel Groebner walk with Trinks and ISSAC examples.
+     */
+    @SuppressWarnings({ "unchecked", "cast" })
+    public void testParallelWalkGBase() {
+        String exam = "(B,S,T,Z,P,W) L " + "( " + "( 45 P + 35 S - 165 B - 36 ), "
+                        + "( 35 P + 40 Z + 25 T - 27 S ), " + "( 15 W + 25 S P + 30 Z - 18 T - 165 B**2 ), "
+                        + "( - 9 W + 15 T P + 20 S Z ), " + "( P W + 2 T Z - 11 B**3 ), "
+                        + "( 99 W - 11 B S + 3 B**2 ) " + ") ";
+        Reader source = new StringReader(exam);
+        GenPolynomialTokenizer parser = new GenPolynomialTokenizer(source);
+        try {
+            F = (PolynomialList<BigRational>) parser.nextPolynomialSet();
+        } catch (ClassCastException e) {
+            fail("" + e);
+        } catch (IOException e) {
+            fail("" + e);
+        }
+        GroebnerBaseWalkParallel<BigRational> bbp = new GroebnerBaseWalkParallel<BigRational>(2);
+        bbp.parallelThreshold = 1;
+        G = bb.GB(F.list);
+        Gp = bbp.GB(F.list);
+        assertTrue("isGB( GB(Trinks) )", bb.isGB(Gp));
+        assertTrue("isMinimalGB( GB(Trinks) )", bb.isMinimalGB(Gp));
+        assertEquals("G == Gp: ", new PolynomialList<BigRational>(F.ring, G),
+                        new PolynomialList<BigRational>(F.ring, Gp));
+        bbp.terminate();
+
+        exam = "Mod 32003 (w,z,y,x) L " + "( "
+                        + " (8*w^2 + 5*w*x - 4*w*y + 2*w*z + 3*w + 5*x^2 + 2*x*y - 7*x*z - 7*x + 7*y^2 -8*y*z - 7*y + 7*z^2 - 8*z + 8),"
+                        + "(3*w^2 - 5*w*x - 3*w*y - 6*w*z + 9*w + 4*x^2 + 2*x*y - 2*x*z + 7*x + 9*y^2 + 6*y*z + 5*y + 7*z^2 + 7*z + 5),"
+                        + "(-2*w^2 + 9*w*x + 9*w*y - 7*w*z - 4*w + 8*x^2 + 9*x*y - 3*x*z + 8*x + 6*y^2 - 7*y*z + 4*y - 6*z^2 + 8*z + 2),"
+                        + "(7*w^2 + 5*w*x + 3*w*y - 5*w*z - 5*w + 2*x^2 + 9*x*y - 7*x*z + 4*x -4*y^2 - 5*y*z + 6*y - 4*z^2 - 9*z + 2)"
+                        + " )";
+        source = new StringReader(exam);
+        parser = new GenPolynomialTokenizer(source);
+        try {
+            F = (PolynomialList<BigRational>) parser.nextPolynomialSet();
+        } catch (ClassCastException e) {
+            fail("" + e);
+        } catch (IOException e) {
+            fail("" + e);
+        }
+        bbp = new GroebnerBaseWalkParallel<BigRational>(2);
+        G = bb.GB(F.list);
+        Gp = bbp.GB(F.list);
+        assertTrue("isGB( GB() )", bb.isGB(Gp));
+        assertTrue("isMinimalGB( GB() )", bb.isMinimalGB(Gp));
+        assertEquals("G == Gp: ", new PolynomialList<BigRational>(F.ring, G),
+                        new PolynomialList<BigRational>(F.ring, Gp));
+        bbp.terminate();
+    }
 }
@@ -0,0 +1,251 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gbufd;
+
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.log4j.BasicConfigurator;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigRational;
+import edu.jas.arith.ModInteger;
+import edu.jas.arith.ModIntegerRing;
+import edu.jas.arith.Product;
+import edu.jas.arith.ProductRing;
+import edu.jas.gb.GroebnerBaseSeq;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.GenPolynomialTokenizer;
+import edu.jas.poly.PolyUtil;
+import edu.jas.poly.PolynomialList;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * R-Groebner base parallel tests with JUnit.
+ * @author agent
+ */
+
+public class RGroebnerBaseParallelTest extends TestCase {
+
+
+    /**
+     * main
+     */
+    public static void main(String[] args) {
+        BasicConfigurator.configure();
+        junit.textui.TestRunner.run(suite());
+        ComputerThreads.terminate();
+    }
+
+
+    /**
+     * Constructs a <CODE>RGroebnerBaseParallelTest</CODE> object.
+     * @param name String.
+     */
+    public RGroebnerBaseParallelTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(RGroebnerBaseParallelTest.class);
+        return suite;
+    }
+
+
+    ProductRing<BigRational> pfac;
+
+
+    GenPolynomialRing<Product<BigRational>> fac;
+
+
+    List<GenPolynomial<Product<BigRational>>> L, G;
+
+
+    RGroebnerBaseParallel<BigRational> bbpar;
+
+
+    RGroebnerBaseSeq<Product<BigRational>> bbseq;
+
+
+    GenPolynomial<Product<BigRational>> a, b, c, d;
+
+
+    int threads = 2;
+
+
+    int rl = 3;
+
+
+    int kl = 10;
+
+
+    int ll = 7;
+
+
+    int el = 3;
+
+
+    float q = 0.2f;
+
+
+    @Override
+    protected void setUp() {
+        BigRational coeff = new BigRational(9);
+        pfac = new ProductRing<BigRational>(coeff, 4);
+        fac = new GenPolynomialRing<Product<BigRational>>(pfac, rl);
+        a = b = c = d = null;
+        bbpar = new RGroebnerBaseParallel<BigRational>(pfac, threads);
+        bbseq = new RGroebnerBaseSeq<Product<BigRational>>();
+    }
+
+
+    @Override
+    protected void tearDown() {
+        a = b = c = d = null;
+        fac = null;
+        bbpar = null;
+        bbseq = null;
+        ComputerThreads.terminate();
+    }
+
+
+    /**
+     * Test parallel GBase against component GBases.
+     */
+    public void testParallelGBase() {
+        L = new ArrayList<GenPolynomial<Product<BigRational>>>();
+        a = fac.random(kl, ll, el, q);
+        b = fac.random(kl, ll, el, q);
+        c = fac.random(kl, ll, el, q);
+        d = fac.random(kl, ll, el, q);
+        if (a.isZERO() || b.isZERO() || c.isZERO() || d.isZERO()) {
+            return;
+        }
+        L.add(a);
+        L.add(b);
+        L.add(c);
+        L.add(d);
+
+        G = bbpar.GB(L);
+        assertTrue("isGB( G )", bbpar.isGB(G));
+        assertTrue("isGB_seq( G )", bbseq.isGB(G));
+
+        RReductionSeq<Product<BigRational>> rred = new RReductionSeq<Product<BigRational>>();
+        for (GenPolynomial<Product<BigRational>> p : L) {
+            assertTrue("nf(L,G) == 0", rred.normalform(G, p).isZERO());
+        }
+        GroebnerBaseSeq<BigRational> cbb = new GroebnerBaseSeq<BigRational>();
+        GenPolynomialRing<BigRational> cfac = new GenPolynomialRing<BigRational>(new BigRational(), fac);
+        for (int i = 0; i < pfac.length(); i++) {
+            List<GenPolynomial<BigRational>> Li = PolyUtil.<BigRational> fromProductComponent(cfac, L, i);
+            List<GenPolynomial<BigRational>> Gi = PolyUtil.<BigRational> fromProductComponent(cfac, G, i);
+            Li = cbb.GB(Li);
+            assertEquals("GB(L_i) == G_i", new PolynomialList<BigRational>(cfac, Li),
+                            new PolynomialList<BigRational>(cfac, cbb.GB(Gi)));
+        }
+    }
+
+
+    /**
+     * Test parallel R-reduction against sequential R-reduction.
+     */
+    public void testParallelReduction() {
+        L = new ArrayList<GenPolynomial<Product<BigRational>>>();
+        a = fac.random(kl, ll, el, q);
+        b = fac.random(kl, ll, el, q);
+        c = fac.random(kl, ll, el, q);
+        if (a.isZERO() || b.isZERO()) {
+            return;
+        }
+        L.add(a);
+        L.add(b);
+        G = bbpar.GB(L);
+
+        RReductionSeq<Product<BigRational>> rred = new RReductionSeq<Product<BigRational>>();
+        RReductionPar<BigRational> pred = new RReductionPar<BigRational>(threads);
+        d = pred.normalform(G, c);
+        assertTrue("isNF( nf(c) )", rred.isNormalform(G, d));
+        assertTrue("nf(c)-nf_seq(c) in ideal", rred.normalform(G, d.subtract(rred.normalform(G, c)))
+                        .isZERO());
+
+        d = a.multiply(c).sum(b.multiply(b));
+        assertTrue("nf(a c + b b) == 0", pred.normalform(G, d).isZERO());
+    }
+
+
+    /**
+     * Test parallel pseudo GBase over integers.
+     */
+    public void testParallelPseudoGBase() {
+        ProductRing<BigInteger> ifac = new ProductRing<BigInteger>(new BigInteger(1), 3);
+        GenPolynomialRing<Product<BigInteger>> pifac = new GenPolynomialRing<Product<BigInteger>>(ifac, rl);
+        RGroebnerBaseParallel<BigInteger> bbi = new RGroebnerBaseParallel<BigInteger>(ifac, threads);
+        RGroebnerBasePseudoSeq<Product<BigInteger>> bbis = new RGroebnerBasePseudoSeq<Product<BigInteger>>(
+                        ifac);
+        List<GenPolynomial<Product<BigInteger>>> Li = new ArrayList<GenPolynomial<Product<BigInteger>>>();
+        for (int i = 0; i < 3; i++) {
+            GenPolynomial<Product<BigInteger>> p = pifac.random(kl, ll, el, q);
+            if (!p.isZERO()) {
+                Li.add(p);
+            }
+        }
+        List<GenPolynomial<Product<BigInteger>>> Gi = bbi.GB(Li);
+        assertTrue("isGB( Gi )", bbi.isGB(Gi));
+        assertTrue("isGB_seq( Gi )", bbis.isGB(Gi));
+    }
+
+
+    /**
+     * Test Trinks7 GBase.
+     */
+    @SuppressWarnings({ "unchecked", "cast" })
+    public void testTrinks7() {
+        String exam = "Z(B,S,T,Z,P,W) L " + "( " + "( 45 P + 35 S - 165 B - 36 ), "
+                        + "( 35 P + 40 Z + 25 T - 27 S ), " + "( 15 W + 25 S P + 30 Z - 18 T - 165 B**2 ), "
+                        + "( - 9 W + 15 T P + 20 S Z ), " + "( P W + 2 T Z - 11 B**3 ), "
+                        + "( 99 W - 11 B S + 3 B**2 ), " + "( 10000 B**2 + 6600 B + 2673 ) " + ") ";
+        Reader source = new StringReader(exam);
+        GenPolynomialTokenizer parser = new GenPolynomialTokenizer(source);
+        PolynomialList<BigInteger> F = null;
+        try {
+            F = (PolynomialList<BigInteger>) parser.nextPolynomialSet();
+        } catch (ClassCastException e) {
+            fail("" + e);
+        } catch (IOException e) {
+            fail("" + e);
+        }
+        List<RingFactory<ModInteger>> colist = new ArrayList<RingFactory<ModInteger>>();
+        colist.add(new ModIntegerRing(19));
+        colist.add(new ModIntegerRing(23));
+        colist.add(new ModIntegerRing(29));
+        ProductRing<ModInteger> mfac = new ProductRing<ModInteger>(colist);
+        GenPolynomialRing<Product<ModInteger>> pmfac = new GenPolynomialRing<Product<ModInteger>>(mfac,
+                        F.ring.nvar, F.ring.tord, F.ring.getVars());
+        List<GenPolynomial<Product<ModInteger>>> Fp = PolyUtil.toProduct(pmfac, F.list);
+
+        RGroebnerBaseParallel<ModInteger> bbm = new RGroebnerBaseParallel<ModInteger>(mfac, threads);
+        List<GenPolynomial<Product<ModInteger>>> Gp = bbm.GB(Fp);
+        assertTrue("isGB( GB(Trinks7) )", bbm.isGB(Gp));
+        assertTrue("isGB_seq( GB(Trinks7) )", new RGroebnerBaseSeq<Product<ModInteger>>().isGB(Gp));
+        // Trinks7 has 6 polynomials in the Groebner base for each prime
+        assertEquals("#GB(Trinks7) == 6", 6, Gp.size());
+    }
+
+}
@@ -0,0 +1,239 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gbufd;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.log4j.BasicConfigurator;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigRational;
+import edu.jas.arith.ModInteger;
+import edu.jas.arith.ModIntegerRing;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.ModuleList;
+import edu.jas.poly.PolynomialList;
+import edu.jas.poly.TermOrder;
+
+
+/**
+ * SyzygySchreyer tests with JUnit.
+ * @author agent
+ */
+
+public class SyzygySchreyerTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        BasicConfigurator.configure();
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>SyzygySchreyerTest</CODE> object.
+     * @param name String.
+     */
+    public SyzygySchreyerTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(SyzygySchreyerTest.class);
+        return suite;
+    }
+
+
+    GenPolynomialRing<BigRational> fac;
+
+
+    SyzygySchreyer<BigRational> sz;
+
+
+    GenPolynomial<BigRational> a, b, c, d;
+
+
+    int rl = 3;
+
+
+    int kl = 3;
+
+
+    int ll = 5;
+
+
+    int el = 2;
+
+
+    float q = 0.3f;
+
+
+    @Override
+    protected void setUp() {
+        BigRational coeff = new BigRational(9);
+        fac = new GenPolynomialRing<BigRational>(coeff, rl, new TermOrder());
+        sz = new SyzygySchreyer<BigRational>(coeff, 3);
+        do {
+            a = fac.random(kl, ll, el, q);
+            b = fac.random(kl, ll, el, q);
+            c = fac.random(kl, ll, el, q);
+            d = fac.random(kl, ll, el, q);
+        } while (a.isZERO() || b.isZERO() || c.isZERO() || d.isZERO());
+    }
+
+
+    @Override
+    protected void tearDown() {
+        a = b = c = d = null;
+        fac = null;
+        sz = null;
+    }
+
+
+    /**
+     * Check a resolution: each syzygy module consists of relations of the
+     * previous Groebner base and the ranks agree with the Betti numbers.
+     */
+    @SuppressWarnings("unchecked")
+    void checkResolution(List<?> R, List<Integer> B) {
+        assertTrue("length " + R.size() + " <= " + (rl + 1), R.size() <= rl + 1);
+        assertEquals("length of Betti numbers", R.size() + 1, B.size());
+        for (int i = 0; i < R.size(); i++) {
+            Object o = R.get(i);
+            if (o instanceof ResPolPart) {
+                ResPolPart<BigRational> p = (ResPolPart<BigRational>) o;
+                assertTrue("is ZR " + p, sz.isZeroRelation(p.syzygy.list, p.GB.list));
+                assertEquals("rank GB", (int) B.get(i + 1), p.GB.list.size());
+            } else {
+                ResPart<BigRational> p = (ResPart<BigRational>) o;
+                assertTrue("is ZR " + p, sz.isZeroRelation(p.syzygy, p.GB));
+                assertEquals("rank GB", (int) B.get(i + 1), p.GB.rows);
+            }
+        }
+        Object o = R.get(R.size() - 1);
+        if (o instanceof ResPart) {
+            assertTrue("last syzygy empty", ((ResPart<BigRational>) o).syzygy.list.isEmpty());
+        }
+    }
+
+
+    /**
+     * Test Koszul complex of the variables.
+     */
+    public void testKoszul() {
+        List<GenPolynomial<BigRational>> L = new ArrayList<GenPolynomial<BigRational>>(fac.univariateList());
+        PolynomialList<BigRational> F = new PolynomialList<BigRational>(fac, L);
+        List<Integer> B = sz.bettiNumbers(F);
+        //System.out.println("B = " + B);
+        assertEquals("Koszul", "[1, 3, 3, 1]", B.toString());
+
+        List<SortedMap<Long, Integer>> G = sz.gradedBettiNumbers(F);
+        //System.out.println("G = " + G);
+        assertEquals("graded Koszul", "[{1=3}, {2=3}, {3=1}]", G.toString());
+
+        List<Object> R = sz.resolution(F);
+        //System.out.println("R = " + R);
+        checkResolution(R, B);
+    }
+
+
+    /**
+     * Test resolution of a polynomial list.
+     */
+    public void testPolynomialResolution() {
+        List<GenPolynomial<BigRational>> L = new ArrayList<GenPolynomial<BigRational>>();
+        L.add(a);
+        L.add(b);
+        L.add(c);
+        L.add(d);
+        PolynomialList<BigRational> F = new PolynomialList<BigRational>(fac, L);
+
+        List<Object> R = sz.resolution(F);
+        //System.out.println("R = " + R);
+        List<Integer> B = sz.bettiNumbers(F);
+        //System.out.println("B = " + B);
+        checkResolution(R, B);
+
+        SyzygySchreyer<BigRational> sz1 = new SyzygySchreyer<BigRational>(fac.coFac, 1);
+        List<Object> R1 = sz1.resolution(F);
+        assertEquals("sequential == parallel", R.toString(), R1.toString());
+    }
+
+
+    /**
+     * Test resolution of a module.
+     */
+    public void testModuleResolution() {
+        List<List<GenPolynomial<BigRational>>> W = new ArrayList<List<GenPolynomial<BigRational>>>();
+        List<GenPolynomial<BigRational>> V = new ArrayList<GenPolynomial<BigRational>>();
+        V.add(a);
+        V.add(fac.getZERO());
+        V.add(b);
+        W.add(V);
+        V = new ArrayList<GenPolynomial<BigRational>>();
+        V.add(c);
+        V.add(d);
+        V.add(fac.getZERO());
+        W.add(V);
+        V = new ArrayList<GenPolynomial<BigRational>>();
+        V.add(b);
+        V.add(a.multiply(c));
+        V.add(d);
+        W.add(V);
+        ModuleList<BigRational> M = new ModuleList<BigRational>(fac, W);
+
+        List<ResPart<BigRational>> R = sz.resolution(M);
+        //System.out.println("R = " + R);
+        List<Integer> B = sz.bettiNumbers(M);
+        //System.out.println("B = " + B);
+        assertEquals("rank of M", 3, (int) B.get(0));
+        checkResolution(R, B);
+
+        // the first Groebner base generates the same module as M
+        ModuleList<BigRational> G = R.get(0).GB;
+        SyzygySeq<BigRational> ss = new SyzygySeq<BigRational>(fac.coFac);
+        assertEquals("GB(M) == GB(G)", ss.bb.GB(M), ss.bb.GB(G));
+    }
+
+
+    /**
+     * Test modular coefficients and exception for non-fields.
+     */
+    public void testCoefficients() {
+        ModIntegerRing mi = new ModIntegerRing(19);
+        GenPolynomialRing<ModInteger> mfac = new GenPolynomialRing<ModInteger>(mi, fac);
+        List<GenPolynomial<ModInteger>> L = new ArrayList<GenPolynomial<ModInteger>>();
+        for (int i = 0; i < 4; i++) {
+            L.add(mfac.random(kl, ll, el, q));
+        }
+        PolynomialList<ModInteger> F = new PolynomialList<ModInteger>(mfac, L);
+        SyzygySchreyer<ModInteger> msz = new SyzygySchreyer<ModInteger>(mi);
+        List<Object> R = msz.resolution(F);
+        List<Integer> B = msz.bettiNumbers(F);
+        assertEquals("length of Betti numbers", R.size() + 1, B.size());
+
+        try {
+            new SyzygySchreyer<BigInteger>(new BigInteger());
+            fail("no field");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+}
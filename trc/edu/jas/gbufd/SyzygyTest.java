@@ -5,6 +5,7 @@
 package edu.jas.gbufd;
 
 
+import java.io.File;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
@@ -26,6 +27,7 @@ import edu.jas.gbufd.SyzygySeq;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
 import edu.jas.poly.GenPolynomialTokenizer;
+import edu.jas.poly.MappedModuleList;
 import edu.jas.poly.ModuleList;
 import edu.jas.poly.PolynomialList;
 import edu.jas.poly.TermOrder;
@@ -399,4 +401,33 @@ public class SyzygyTest extends TestCase {
 
     }
 
+
+
+    /**
+     * Test sequential Syzygy stored in a memory mapped file.
+     */
+    public void testMappedSyzygy() throws IOException {
+        L = new ArrayList<GenPolynomial<BigRational>>();
+        L.add(a);
+        L.add(b);
+        L.add(c);
+        L = bb.GB(L);
+        assertTrue("isGB( { a, b, c } )", bb.isGB(L));
+        K = sz.zeroRelations(L);
+
+        File file = File.createTempFile("syzygy", ".dat");
+        file.delete();
+        try {
+            MappedModuleList<BigRational> Z = new MappedModuleList<BigRational>(fac, L.size(), file);
+            SyzygySeq<BigRational> szs = new SyzygySeq<BigRational>(fac.coFac);
+            List<List<GenPolynomial<BigRational>>> S = szs.zeroRelations(0, L, Z);
+            assertTrue("S == Z", S == Z);
+            assertTrue("is ZR( { a, b, c } )", sz.isZeroRelation(Z, L));
+            assertEquals("mapped ZR == ZR", K, Z);
+            Z.close();
+        } finally {
+            file.delete();
+        }
+    }
+
 }
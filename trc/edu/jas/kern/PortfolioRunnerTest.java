@@ -0,0 +1,154 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.kern;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.log4j.BasicConfigurator;
+
+
+/**
+ * PortfolioRunner tests with JUnit.
+ * @author agent
+ */
+public class PortfolioRunnerTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        BasicConfigurator.configure();
+        junit.textui.TestRunner.run(suite());
+        ComputerThreads.terminate();
+    }
+
+
+    /**
+     * Constructs a <CODE>PortfolioRunnerTest</CODE> object.
+     * @param name String.
+     */
+    public PortfolioRunnerTest(String name) {
+        super(name);
+    }
+
+
+    /*
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(PortfolioRunnerTest.class);
+        return suite;
+    }
+
+
+    @Override
+    protected void setUp() {
+        PortfolioRunner.clearStatistics();
+    }
+
+
+    @Override
+    protected void tearDown() {
+        PortfolioRunner.clearStatistics();
+    }
+
+
+    /**
+     * Task sleeping for some time, or failing if time is negative.
+     */
+    static Callable<Integer> task(final int value, final long time) {
+        return new Callable<Integer>() {
+
+
+            public Integer call() throws Exception {
+                if (time < 0) {
+                    throw new ArithmeticException("task " + value + " failed");
+                }
+                Thread.sleep(time);
+                return value;
+            }
+        };
+    }
+
+
+    /**
+     * Test race with three tasks and win statistics.
+     */
+    public void testRace() {
+        PortfolioRunner pr = new PortfolioRunner("test", 1);
+        List<String> names = Arrays.asList("slow", "fast", "failing");
+        final AtomicBoolean cancelled = new AtomicBoolean(false);
+        List<Runnable> cancels = new ArrayList<Runnable>();
+        cancels.add(new Runnable() {
+
+
+            public void run() {
+                cancelled.set(true);
+            }
+        });
+        cancels.add(null);
+        cancels.add(null);
+        for (int i = 0; i < 3; i++) {
+            List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+            tasks.add(task(1, 10000));
+            tasks.add(task(2, 10));
+            tasks.add(task(3, -1));
+            long t = System.currentTimeMillis();
+            Integer r = pr.race(names, tasks, cancels);
+            t = System.currentTimeMillis() - t;
+            assertEquals("fast wins", 2, (int) r);
+            assertTrue("slow is cancelled: " + t, t < 5000);
+        }
+        assertTrue("cancel action run", cancelled.get());
+        assertEquals("wins(fast) = 3", 3L, PortfolioRunner.getWins("test", "fast"));
+        assertEquals("races(fast) = 3", 3L, PortfolioRunner.getRaces("test", "fast"));
+        assertEquals("wins(slow) = 0", 0L, PortfolioRunner.getWins("test", "slow"));
+        assertEquals("wins(failing) = 0", 0L, PortfolioRunner.getWins("test", "failing"));
+        assertEquals("wins(test:fast) = 3/3", "3/3", PortfolioRunner.getStatistics().get("test:fast"));
+
+        // fast is ranked first and wins before the others are started
+        pr = new PortfolioRunner("test", 1000);
+        List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+        tasks.add(task(1, 10000));
+        tasks.add(task(2, 10));
+        tasks.add(task(3, -1));
+        long races = PortfolioRunner.getRaces("test", "slow");
+        assertEquals("fast wins", 2, (int) pr.race(names, tasks));
+        assertEquals("slow not started", races, PortfolioRunner.getRaces("test", "slow"));
+    }
+
+
+    /**
+     * Test race with failing tasks.
+     */
+    public void testFailures() {
+        PortfolioRunner pr = new PortfolioRunner("test");
+        List<String> names = Arrays.asList("a", "b");
+        List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+        tasks.add(task(1, -1));
+        tasks.add(task(2, 20));
+        assertEquals("b wins", 2, (int) pr.race(names, tasks));
+
+        tasks = new ArrayList<Callable<Integer>>();
+        tasks.add(task(1, -1));
+        tasks.add(task(2, -1));
+        try {
+            Integer r = pr.race(names, tasks);
+            fail("all tasks fail: " + r);
+        } catch (RuntimeException e) {
+            assertTrue("cause " + e.getCause(), e.getCause() instanceof ArithmeticException);
+        }
+    }
+
+}
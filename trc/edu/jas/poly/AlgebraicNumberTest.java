@@ -252,6 +252,47 @@ public class AlgebraicNumberTest extends TestCase {
     }
 
 
+    /**
+     * Test table reduction and modular inverse.
+     */
+    public void testReduction() {
+        GenPolynomial<BigRational> mo = mfac.random(kl, ll, 9, q).sum(mfac.univariate(0, 10).multiply(
+                        new BigRational(3, 7)));
+        AlgebraicNumberRing<BigRational> rfac = new AlgebraicNumberRing<BigRational>(mo);
+        AlgebraicNumberReduction<BigRational> red = rfac.getReduction();
+        assertTrue("applicable: " + mo, red != null);
+        assertTrue("rational: " + mo, red.isRational());
+        for (int i = 0; i < 5; i++) {
+            a = rfac.random(kl);
+            b = rfac.random(kl);
+            GenPolynomial<BigRational> p = a.val.multiply(b.val).remainder(mo);
+            assertEquals("a*b = a.val*b.val mod m", p, a.multiply(b).val);
+            assertEquals("a*b = a.val*b.val mod m", p, red.multiply(a.val, b.val));
+            if (a.isZERO()) {
+                continue;
+            }
+            GenPolynomial<BigRational> ai = red.modularInverse(a.val);
+            GenPolynomial<BigRational> ae;
+            try {
+                ae = a.val.modInverse(mo);
+            } catch (NotInvertibleException e) {
+                assertTrue("a not invertible: " + a, ai == null);
+                continue;
+            }
+            assertEquals("modularInverse(a) = modInverse(a)", ae, ai);
+            assertEquals("a*1/a = 1", rfac.getONE(), a.multiply(a.inverse()));
+        }
+        // not invertible
+        a = new AlgebraicNumber<BigRational>(fac, fac.modul.subtract(fac.ring.univariate(0, 2)));
+        b = new AlgebraicNumber<BigRational>(fac, fac.ring.univariate(0));
+        if (fac.modul.trailingBaseCoefficient().isZERO()) {
+            assertTrue("x not invertible mod " + fac.modul, fac.getReduction().modularInverse(b.val) == null);
+        }
+        assertEquals("x^2 * x = x^3", fac.ring.univariate(0, 3).remainder(fac.modul), a.negate()
+                        .multiply(b).val);
+    }
+
+
     /**
      * Test distributive law.
      */
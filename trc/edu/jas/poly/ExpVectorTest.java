@@ -5,6 +5,11 @@
 package edu.jas.poly;
 
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -573,4 +578,84 @@ public class ExpVectorTest extends TestCase {
         }
     }
 
+
+    /**
+     * Test comparisons with cached total and weighted degrees.
+     */
+    public void testCachedDegreeCompare() {
+        float q = (float) 0.5;
+        int rl = 7;
+        long[][] w = new long[][] { { 1, 2, 3, 4, 5, 6, 7 }, { 7, 6, 5, 4, 3, 2, 1 } };
+        ExpVector[] ev = new ExpVector[30];
+        for (int i = 0; i < ev.length; i++) {
+            ev[i] = ExpVector.random(rl, 5, q);
+        }
+        for (int i = 0; i < ev.length; i++) {
+            a = ev[i];
+            for (int j = 0; j < ev.length; j++) {
+                b = ev[j];
+                assertEquals("invGrad(a,b)", a.invGradCompareTo(b, 0, rl), a.invGradCompareTo(b));
+                assertEquals("revInvGrad(a,b)", a.revInvGradCompareTo(b, 0, rl), a.revInvGradCompareTo(b));
+                assertEquals("invWeight(a,b)", a.invWeightCompareTo(w, b, 0, rl), a.invWeightCompareTo(w, b));
+                long s = a.totalDeg() - b.totalDeg();
+                int t = (s > 0 ? 1 : (s < 0 ? -1 : -a.invLexCompareTo(b)));
+                assertEquals("invTdeg(a,b)", t, a.invTdegCompareTo(b));
+                t = (s > 0 ? 1 : (s < 0 ? -1 : -a.revInvLexCompareTo(b)));
+                assertEquals("revLexInvTdeg(a,b)", t, a.revLexInvTdegCompareTo(b));
+            }
+            assertEquals("weightDeg(w) == weightDeg(w[0]) + weightDeg(w[1])", a.weightDeg(w),
+                            a.weightDeg(w[0]) + a.weightDeg(w[1]));
+        }
+
+        a = ExpVector.create(rl, 1, 3);
+        assertEquals("tdeg(a) = 3", 3, a.totalDeg());
+        a.setVal(2, 4);
+        assertEquals("tdeg(a) = 7 after setVal", 7, a.totalDeg());
+        assertEquals("wdeg(a) = 3*2+4*3 after setVal", 18, a.weightDegrees(w)[0]);
+    }
+
+
+
+    /**
+     * Test comparisons after serialization and deserialization.
+     */
+    public void testSerializedCompare() {
+        float q = (float) 0.5;
+        int rl = 7;
+        long[][] w = new long[][] { { 1, 2, 3, 4, 5, 6, 7 } };
+        for (int i = 0; i < 10; i++) {
+            a = ExpVector.random(rl, 5, q);
+            b = ExpVector.random(rl, 5, q);
+            a.totalDeg(); // fill caches before serialization
+            a.weightDegrees(w);
+            ExpVector[] ab = null;
+            try {
+                ByteArrayOutputStream bout = new ByteArrayOutputStream();
+                ObjectOutputStream out = new ObjectOutputStream(bout);
+                out.writeObject(new ExpVector[] { a, b });
+                out.close();
+                ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bout.toByteArray()));
+                ab = (ExpVector[]) in.readObject();
+                in.close();
+            } catch (IOException e) {
+                fail("" + e);
+            } catch (ClassNotFoundException e) {
+                fail("" + e);
+            }
+            c = ab[0];
+            d = ab[1];
+            assertEquals("deserial(a) == a", a, c);
+            assertEquals("deserial(b) == b", b, d);
+            assertEquals("tdeg(deserial(a)) == tdeg(a)", a.totalDeg(), c.totalDeg());
+            assertEquals("bitLength(deserial(a)) == bitLength(a)", a.bitLength(), c.bitLength());
+            assertEquals("wdeg(deserial(a)) == wdeg(a)", a.weightDeg(w), c.weightDeg(w));
+            assertEquals("invGrad(deserial(a),b)", a.invGradCompareTo(b), c.invGradCompareTo(b));
+            assertEquals("invGrad(b,deserial(a))", b.invGradCompareTo(a), b.invGradCompareTo(c));
+            assertEquals("invGrad(deserial(a),deserial(b))", a.invGradCompareTo(b), c.invGradCompareTo(d));
+            assertEquals("revInvGrad(deserial(a),b)", a.revInvGradCompareTo(b), c.revInvGradCompareTo(b));
+            assertEquals("invTdeg(deserial(a),b)", a.invTdegCompareTo(b), c.invTdegCompareTo(b));
+            assertEquals("invWeight(deserial(a),b)", a.invWeightCompareTo(w, b), c.invWeightCompareTo(w, b));
+        }
+    }
+
 }
@@ -0,0 +1,211 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigRational;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+
+
+/**
+ * GenPolynomialStreamParser tests with JUnit.
+ * @author agent
+ */
+
+public class GenPolynomialStreamParserTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>GenPolynomialStreamParserTest</CODE> object.
+     * @param name String.
+     */
+    public GenPolynomialStreamParserTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(GenPolynomialStreamParserTest.class);
+        return suite;
+    }
+
+
+    String[] vars = new String[] { "x", "y", "z", "w1" };
+
+
+    int kl = 10;
+
+
+    int ll = 20;
+
+
+    int el = 5;
+
+
+    float q = 0.5f;
+
+
+    static String cyclic = "# cyclic equations for N = 4:\n" + "Mod 32003 (a,b,c,d) G \n" + "(\n"
+                    + " ( a + b + c + d ), \n" + " ( a*b + b*c + c*d + d*a ), # second\n"
+                    + " ( a b c + b c d + c d a + d a b ), \n" + " ( a*b*c*d - 1 )\n" + ")\n";
+
+
+    /**
+     * Test rational polynomials.
+     */
+    public void testRational() throws IOException {
+        GenPolynomialRing<BigRational> fac = new GenPolynomialRing<BigRational>(new BigRational(1), vars);
+        for (int i = 0; i < 10; i++) {
+            GenPolynomial<BigRational> a = fac.random(kl * (i + 1), ll, el, q);
+            GenPolynomialStreamParser<BigRational> sp = new GenPolynomialStreamParser<BigRational>(fac,
+                            a.toString());
+            GenPolynomial<BigRational> b = sp.nextPolynomial();
+            assertEquals("parse(a.toString()) = a", a, b);
+            assertEquals("parse(a.toString()) = tokenizer(a.toString())", fac.parse(a.toString()), b);
+        }
+        String s = "(x + 1)^2 - 2 x**2 * y + {1/2} z^3 + /3 x - .5 w1 - (x - y) 3 "
+                        + "+ 123456789012345678901234567890/7";
+        GenPolynomialStreamParser<BigRational> sp = new GenPolynomialStreamParser<BigRational>(fac, s);
+        GenPolynomial<BigRational> b = sp.nextPolynomial();
+        GenPolynomial<BigRational> c = fac.parse(s);
+        assertEquals("parse(s) = tokenizer(s)", c, b);
+    }
+
+
+    /**
+     * Test integer and modular polynomials.
+     */
+    public void testIntegerModular() throws IOException {
+        GenPolynomialRing<BigInteger> ifac = new GenPolynomialRing<BigInteger>(new BigInteger(1), vars);
+        GenPolynomialRing<ModLong> mfac = new GenPolynomialRing<ModLong>(new ModLongRing(32003), vars);
+        StringBuffer s = new StringBuffer("( ");
+        StringBuffer t = new StringBuffer("( ");
+        List<GenPolynomial<BigInteger>> L = new ArrayList<GenPolynomial<BigInteger>>();
+        List<GenPolynomial<ModLong>> M = new ArrayList<GenPolynomial<ModLong>>();
+        for (int i = 0; i < 10; i++) {
+            GenPolynomial<BigInteger> a = ifac.random(kl * (i + 1), ll, el, q);
+            L.add(a);
+            s.append(i == 0 ? "( " : ", ( ").append(a.toString()).append(" )");
+            GenPolynomial<ModLong> b = mfac.random(kl, ll, el, q);
+            M.add(b);
+            t.append(i == 0 ? "" : ", ").append(b.toString());
+        }
+        s.append(" )");
+        t.append(" )");
+        GenPolynomialStreamParser<BigInteger> ip = new GenPolynomialStreamParser<BigInteger>(ifac, s);
+        assertEquals("parse(L.toString()) = L", L, ip.nextPolynomialList());
+        GenPolynomialStreamParser<ModLong> mp = new GenPolynomialStreamParser<ModLong>(mfac,
+                        new StringReader(t.toString()));
+        Iterator<GenPolynomial<ModLong>> it = mp.polynomialIterator();
+        for (GenPolynomial<ModLong> b : M) {
+            assertTrue("hasNext()", it.hasNext());
+            assertEquals("next() = b", b, it.next());
+        }
+        assertFalse("!hasNext()", it.hasNext());
+    }
+
+
+    /**
+     * Test polynomial sets from readers and files.
+     */
+    @SuppressWarnings("unchecked")
+    public void testPolynomialSet() throws IOException {
+        GenPolynomialTokenizer tok = new GenPolynomialTokenizer(new StringReader(cyclic));
+        PolynomialList<ModLong> L = (PolynomialList<ModLong>) tok.nextPolynomialSet();
+        assertEquals("#L = 4", 4, L.list.size());
+
+        GenPolynomialStreamParser<ModLong> sp = new GenPolynomialStreamParser<ModLong>(new StringReader(
+                        cyclic));
+        PolynomialList<ModLong> S = sp.nextPolynomialSet();
+        assertEquals("S = L", L, S);
+        assertEquals("S.ring = L.ring", L.ring, sp.getRing());
+
+        String exam = "Rat(x,y,z) L ( ( 1 ), ( 0 ), ( 3/4 - 6/8 ), ( 1 x + x^3 + 1/3 y z - x^3 ) )";
+        tok = new GenPolynomialTokenizer(new StringReader(exam));
+        PolynomialList<BigRational> R = (PolynomialList<BigRational>) tok.nextPolynomialSet();
+        GenPolynomialStreamParser<BigRational> rp = new GenPolynomialStreamParser<BigRational>(
+                        new StringReader(exam));
+        assertEquals("parser = tokenizer", R, rp.nextPolynomialSet());
+
+        File file = File.createTempFile("polyparse", ".jas");
+        try {
+            Writer w = new OutputStreamWriter(new FileOutputStream(file), Charset.forName("UTF-8"));
+            w.write(cyclic);
+            w.close();
+            sp = new GenPolynomialStreamParser<ModLong>(null, file);
+            S = sp.nextPolynomialSet();
+            sp.close();
+            assertEquals("file S = L", L, S);
+        } finally {
+            file.delete();
+        }
+    }
+
+
+    /**
+     * Test syntax errors.
+     */
+    public void testErrors() throws IOException {
+        GenPolynomialRing<BigRational> fac = new GenPolynomialRing<BigRational>(new BigRational(1), vars);
+        String[] bad = new String[] { "x + * y", "(x + y", "x^", "{1/2 x", "x - " };
+        for (String s : bad) {
+            GenPolynomialStreamParser<BigRational> sp = new GenPolynomialStreamParser<BigRational>(fac, s);
+            try {
+                GenPolynomial<BigRational> a = sp.nextPolynomial();
+                fail("invalid expression " + s + " parsed to " + a);
+            } catch (InvalidExpressionException expected) {
+                // pass
+            }
+        }
+        GenPolynomialStreamParser<BigRational> sp = new GenPolynomialStreamParser<BigRational>(fac, "");
+        assertTrue("parse('') = 0", sp.nextPolynomial().isZERO());
+    }
+
+
+    /**
+     * Test that parsing zero powers does not modify the ring constants.
+     */
+    public void testZeroPower() throws IOException {
+        GenPolynomialRing<BigRational> fac = new GenPolynomialRing<BigRational>(new BigRational(1), vars);
+        String[] zp = new String[] { "(x)^0 + y", "(x + y)^0", "-(x)^0 + y", "(x + y)^0 - z + 1" };
+        for (String s : zp) {
+            GenPolynomialStreamParser<BigRational> sp = new GenPolynomialStreamParser<BigRational>(fac, s);
+            GenPolynomial<BigRational> a = sp.nextPolynomial();
+            assertEquals("parse(s) = tokenizer(s)", fac.parse(s), a);
+            assertTrue("ONE.isONE() after " + s, fac.getONE().isONE());
+            a = a.sum(fac.univariate(0));
+            assertTrue("ONE.isONE() after sum", fac.getONE().isONE());
+        }
+    }
+
+}
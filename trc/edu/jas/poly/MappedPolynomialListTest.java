@@ -0,0 +1,228 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigRational;
+import edu.jas.arith.ModInteger;
+import edu.jas.arith.ModIntegerRing;
+
+
+/**
+ * MappedPolynomialList Test using JUnit.
+ * @author agent
+ */
+
+public class MappedPolynomialListTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>MappedPolynomialListTest</CODE> object.
+     * @param name String.
+     */
+    public MappedPolynomialListTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(MappedPolynomialListTest.class);
+        return suite;
+    }
+
+
+    File file;
+
+
+    int rl = 4;
+
+
+    int kl = 40;
+
+
+    int ll = 10;
+
+
+    int el = 5;
+
+
+    float q = 0.5f;
+
+
+    @Override
+    protected void setUp() {
+        try {
+            file = File.createTempFile("polystore", ".dat");
+            file.delete();
+        } catch (IOException e) {
+            fail("" + e);
+        }
+    }
+
+
+    @Override
+    protected void tearDown() {
+        file.delete();
+        file = null;
+    }
+
+
+    /**
+     * Test rational polynomials, append and reopen.
+     */
+    public void testRationalStore() throws IOException {
+        GenPolynomialRing<BigRational> fac = new GenPolynomialRing<BigRational>(new BigRational(1), rl);
+        List<GenPolynomial<BigRational>> l = new ArrayList<GenPolynomial<BigRational>>();
+        MappedPolynomialList<BigRational> m = new MappedPolynomialList<BigRational>(fac, file);
+        assertTrue("isEmpty()", m.isEmpty());
+        for (int i = 0; i < 50; i++) {
+            GenPolynomial<BigRational> a = fac.random(kl, ll + i, el, q);
+            l.add(a);
+            m.add(a);
+            assertEquals("a == m.get(i)", a, m.get(i));
+        }
+        l.add(fac.getZERO());
+        m.add(fac.getZERO());
+        l.add(fac.getONE().negate());
+        m.add(fac.getONE().negate());
+        assertEquals("l == m", l, m);
+        m.close();
+
+        m = new MappedPolynomialList<BigRational>(fac, file);
+        assertEquals("size", l.size(), m.size());
+        assertEquals("l == reopened m", l, m);
+        GenPolynomial<BigRational> b = fac.random(kl, ll, el, q);
+        m.add(b);
+        assertEquals("b == m.get(size-1)", b, m.get(m.size() - 1));
+        try {
+            m.set(0, b);
+            fail("set not supported");
+        } catch (UnsupportedOperationException e) {
+            // pass
+        }
+        m.close();
+
+        GenPolynomialRing<BigRational> fac2 = new GenPolynomialRing<BigRational>(new BigRational(1),
+                        rl + 1);
+        try {
+            m = new MappedPolynomialList<BigRational>(fac2, file);
+            fail("ring does not match");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+
+    /**
+     * Test integer polynomials with big coefficients.
+     */
+    public void testIntegerStore() throws IOException {
+        GenPolynomialRing<BigInteger> fac = new GenPolynomialRing<BigInteger>(new BigInteger(1), rl);
+        MappedPolynomialList<BigInteger> m = new MappedPolynomialList<BigInteger>(fac, file);
+        List<GenPolynomial<BigInteger>> l = new ArrayList<GenPolynomial<BigInteger>>();
+        for (int i = 0; i < 20; i++) {
+            GenPolynomial<BigInteger> a = fac.random(kl * (i + 1), ll, el, q);
+            l.add(a);
+            m.add(a);
+        }
+        assertEquals("l == m", l, m);
+        PolynomialList<BigInteger> p = new PolynomialList<BigInteger>(fac, m);
+        assertEquals("PolynomialList(l) == PolynomialList(m)", new PolynomialList<BigInteger>(fac, l), p);
+        m.close();
+    }
+
+
+    /**
+     * Test modular polynomials with string encoded coefficients.
+     */
+    public void testModularStore() throws IOException {
+        ModIntegerRing cf = new ModIntegerRing(19);
+        GenPolynomialRing<ModInteger> fac = new GenPolynomialRing<ModInteger>(cf, rl);
+        MappedPolynomialList<ModInteger> m = new MappedPolynomialList<ModInteger>(fac, file);
+        List<GenPolynomial<ModInteger>> l = new ArrayList<GenPolynomial<ModInteger>>();
+        for (int i = 0; i < 20; i++) {
+            GenPolynomial<ModInteger> a = fac.random(kl, ll, el, q);
+            l.add(a);
+            m.add(a);
+        }
+        assertEquals("l == m", l, m);
+        m.close();
+    }
+
+
+
+    /**
+     * Test module elements, append and reopen.
+     */
+    public void testModuleStore() throws IOException {
+        GenPolynomialRing<BigRational> fac = new GenPolynomialRing<BigRational>(new BigRational(1), rl);
+        int cols = 3;
+        List<List<GenPolynomial<BigRational>>> l = new ArrayList<List<GenPolynomial<BigRational>>>();
+        MappedModuleList<BigRational> m = new MappedModuleList<BigRational>(fac, cols, file);
+        assertTrue("isEmpty()", m.isEmpty());
+        for (int i = 0; i < 10; i++) {
+            List<GenPolynomial<BigRational>> row = new ArrayList<GenPolynomial<BigRational>>(cols);
+            for (int j = 0; j < cols; j++) {
+                row.add(fac.random(kl, ll, el, q));
+            }
+            l.add(row);
+            m.add(row);
+            assertEquals("row == m.get(i)", row, m.get(i));
+        }
+        List<GenPolynomial<BigRational>> row = new ArrayList<GenPolynomial<BigRational>>(cols);
+        row.add(fac.getONE());
+        m.add(row);
+        row.add(fac.getZERO());
+        row.add(fac.getZERO());
+        l.add(row);
+        assertEquals("l == m", l, m);
+        assertEquals("ModuleList(l) == ModuleList(m)", new ModuleList<BigRational>(fac, l),
+                        m.getModuleList());
+        m.close();
+
+        // incomplete last module element
+        MappedPolynomialList<BigRational> p = new MappedPolynomialList<BigRational>(fac, file, cols);
+        assertEquals("#p == cols #m", cols * l.size(), p.size());
+        p.add(fac.getONE());
+        p.close();
+        m = new MappedModuleList<BigRational>(fac, cols, file);
+        assertEquals("l == reopened m", l, m);
+        m.close();
+
+        try {
+            m = new MappedModuleList<BigRational>(fac, cols + 1, file);
+            fail("columns do not match");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+        try {
+            p = new MappedPolynomialList<BigRational>(fac, file);
+            fail("module store opened as polynomial list");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+}
@@ -17,6 +17,7 @@ import edu.jas.arith.BigDecimal;
 import edu.jas.arith.BigRational;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.PolyUtil;
 import edu.jas.poly.TermOrder;
 import edu.jas.structure.Power;
 
@@ -540,4 +541,46 @@ public class RealRootTest extends TestCase {
         assertTrue("some |a(dd)| < eps ", t);
     }
 
+
+
+    /**
+     * Test interval evaluator and refinement to 50 digits.
+     * p = x^2 - 2, and random polynomials.
+     */
+    public void testIntervalRefinement() {
+        a = dfac.parse("x^2 - 2");
+        IntervalEvaluator<BigRational> ev = new IntervalEvaluator<BigRational>(a);
+        assertTrue("rational ", ev.isRational());
+        assertEquals("sign(a(1)) = -1 ", -1, ev.signum(BigRational.ONE));
+        assertEquals("sign(a(3/2)) = 1 ", 1, ev.signum(new BigRational(3, 2)));
+        assertEquals("sign(a(0)) = -1 ", -1, ev.decimalSignum(BigRational.ZERO));
+
+        RealRootsAbstract<BigRational> rr = new RealRootsSturm<BigRational>();
+        BigRational eps50 = Power.positivePower(new BigRational(1L, 10L), 50);
+        List<Interval<BigRational>> R = rr.refineIntervals(rr.realRoots(a), a, eps50);
+        //System.out.println("R = " + R);
+        assertTrue("#roots == 2 ", R.size() == 2);
+        for (Interval<BigRational> v : R) {
+            assertTrue("|v| < eps ", v.rationalLength().compareTo(eps50) < 0);
+            assertTrue("sign change ", rr.signChange(v, a) || v.left.equals(v.right));
+        }
+
+        for (int i = 0; i < 3; i++) {
+            a = dfac.random(kl, ll, el, q);
+            if (a.isZERO() || a.isConstant()) {
+                continue;
+            }
+            ev = new IntervalEvaluator<BigRational>(a);
+            for (int j = 0; j < 10; j++) {
+                ai = ai == null ? new BigRational(1, 3) : ai.multiply(new BigRational(-7, 5));
+                int s = PolyUtil.<BigRational> evaluateMain(dfac.coFac, a, ai).signum();
+                assertEquals("sign(a(ai)) ", s, ev.signum(ai));
+            }
+            R = rr.refineIntervals(rr.realRoots(a), a, eps50);
+            for (Interval<BigRational> v : R) {
+                assertTrue("|v| < eps ", v.rationalLength().compareTo(eps50) < 0);
+            }
+        }
+    }
+
 }
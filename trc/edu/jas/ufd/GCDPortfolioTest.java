@@ -0,0 +1,187 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.ufd;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.log4j.BasicConfigurator;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.ModLong;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.kern.PortfolioRunner;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.PolyUtil;
+import edu.jas.poly.TermOrder;
+
+
+/**
+ * GreatestCommonDivisor and Factorization portfolio tests with JUnit.
+ * @author agent
+ */
+
+public class GCDPortfolioTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        BasicConfigurator.configure();
+        junit.textui.TestRunner.run(suite());
+        ComputerThreads.terminate();
+    }
+
+
+    /**
+     * Constructs a <CODE>GCDPortfolioTest</CODE> object.
+     * @param name String.
+     */
+    public GCDPortfolioTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(GCDPortfolioTest.class);
+        return suite;
+    }
+
+
+    TermOrder to = new TermOrder(TermOrder.INVLEX);
+
+
+    GenPolynomial<BigInteger> a, b, c, d, e;
+
+
+    int kl = 5;
+
+
+    int ll = 7;
+
+
+    int el = 3;
+
+
+    float q = 0.3f;
+
+
+    @Override
+    protected void setUp() {
+        a = b = c = d = e = null;
+        PortfolioRunner.clearStatistics();
+    }
+
+
+    @Override
+    protected void tearDown() {
+        a = b = c = d = e = null;
+        PortfolioRunner.clearStatistics();
+        ComputerThreads.terminate();
+    }
+
+
+    /**
+     * Test BigInteger gcd portfolio of three engines.
+     */
+    public void testBigInteger() {
+        List<GreatestCommonDivisorAbstract<BigInteger>> es = new ArrayList<GreatestCommonDivisorAbstract<BigInteger>>();
+        es.add(new GreatestCommonDivisorSubres<BigInteger>());
+        es.add(new GreatestCommonDivisorModular<ModLong>());
+        es.add(new GreatestCommonDivisorPrimitive<BigInteger>());
+        GreatestCommonDivisorAbstract<BigInteger> ufd = new GCDPortfolio<BigInteger>(es);
+        GreatestCommonDivisorAbstract<BigInteger> sufd = es.get(0);
+
+        GenPolynomialRing<BigInteger> dfac = new GenPolynomialRing<BigInteger>(new BigInteger(1), 3, to);
+        int n = 0;
+        for (int i = 0; i < 3; i++) {
+            a = dfac.random(kl, ll, el, q);
+            b = dfac.random(kl, ll, el, q);
+            c = sufd.primitivePart(dfac.random(kl, ll, el, q)).abs();
+            if (a.isZERO() || b.isZERO() || c.isZERO()) {
+                continue;
+            }
+            n++;
+            a = a.multiply(c);
+            b = b.multiply(c);
+            d = ufd.gcd(a, b);
+            e = sufd.gcd(a, b);
+            assertEquals("gcd(a,b) = subres(a,b)", e.abs(), d.abs());
+            e = PolyUtil.<BigInteger> baseSparsePseudoRemainder(d, c);
+            assertTrue("c | gcd(a,b): " + e, e.isZERO());
+
+            d = ufd.resultant(a, b);
+            e = sufd.resultant(a, b);
+            assertEquals("res(a,b) = subres(a,b)", e, d);
+        }
+        long w = 0, r = 0;
+        for (GreatestCommonDivisorAbstract<BigInteger> u : es) {
+            w += PortfolioRunner.getWins(GCDPortfolio.KEY, u.toString() + ".gcd");
+            r += PortfolioRunner.getRaces(GCDPortfolio.KEY, u.toString() + ".gcd");
+        }
+        assertEquals("one win per gcd race", n, w);
+        // only the started engines of a race are recorded
+        assertTrue("races recorded", r >= n);
+    }
+
+
+    /**
+     * Test BigInteger factorization portfolio of Zassenhaus and Kronecker.
+     */
+    public void testFactorInteger() {
+        BigInteger bi = new BigInteger(1);
+        List<FactorAbstract<BigInteger>> es = new ArrayList<FactorAbstract<BigInteger>>();
+        es.add(new FactorInteger<ModLong>());
+        es.add(new FactorInteger<ModLong>() {
+
+
+            @Override
+            public List<GenPolynomial<BigInteger>> factorsSquarefree(GenPolynomial<BigInteger> P) {
+                return factorsSquarefreeKronecker(P);
+            }
+        });
+        FactorAbstract<BigInteger> fac = new FactorPortfolio<BigInteger>(bi, es);
+
+        GenPolynomialRing<BigInteger> pfac = new GenPolynomialRing<BigInteger>(bi, 2, to);
+        for (int i = 0; i < 3; i++) {
+            a = pfac.random(kl, 3, 2, q);
+            b = pfac.random(kl, 3, 2, q);
+            if (a.isZERO() || a.isConstant() || b.isZERO() || b.isConstant()) {
+                continue;
+            }
+            c = a.multiply(b);
+            SortedMap<GenPolynomial<BigInteger>, Long> F = fac.factors(c);
+            assertTrue("prod(factor(c)) = c: " + F, fac.isFactorization(c, F));
+            assertEquals("#factors = #factors(e0)", nonConstantFactors(es.get(0).factors(c)), nonConstantFactors(F));
+        }
+    }
+
+
+    /**
+     * Number of non constant factors with multiplicities, the constant
+     * factors may differ between the engines.
+     */
+    static long nonConstantFactors(SortedMap<GenPolynomial<BigInteger>, Long> F) {
+        long n = 0;
+        for (Map.Entry<GenPolynomial<BigInteger>, Long> me : F.entrySet()) {
+            if (!me.getKey().isConstant()) {
+                n += me.getValue();
+            }
+        }
+        return n;
+    }
+
+}
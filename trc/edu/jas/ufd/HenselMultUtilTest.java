@@ -274,6 +274,79 @@ public class HenselMultUtilTest extends TestCase {
     }
 
 
+    /**
+     * Test parallel multivariate Hensel lifting monic case list.
+     */
+    public void testHenselLiftingParallelList() {
+        java.math.BigInteger p = new java.math.BigInteger("19");
+        long k = 5L;
+        java.math.BigInteger pk = p.pow((int) k);
+        // dense kernel with ModLong and generic with ModInteger
+        ModLongRing pkl = new ModLongRing(pk, false);
+        ModIntegerRing pki = new ModIntegerRing(pk.multiply(pk), false);
+
+        GenPolynomialRing<ModLong> pkfac = new GenPolynomialRing<ModLong>(pkl, 3, tord, new String[] { "x",
+                "y", "z" });
+        GenPolynomialRing<ModInteger> qkfac = new GenPolynomialRing<ModInteger>(pki, pkfac);
+        dfac = new GenPolynomialRing<BigInteger>(new BigInteger(), pkfac);
+        List<BigInteger> V = new ArrayList<BigInteger>(2);
+        V.add(new BigInteger(3L));
+        V.add(new BigInteger(5L));
+
+        List<GenPolynomial<BigInteger>> A = new ArrayList<GenPolynomial<BigInteger>>();
+        A.add(dfac.parse(" ( x^2 + y z + 3 ) "));
+        A.add(dfac.parse(" ( x + y^2 - z + 1 ) "));
+        A.add(dfac.parse(" ( x^3 + y z^2 - 2 y + 5 ) "));
+        A.add(dfac.parse(" ( x^2 - x + z^3 + y + 7 ) "));
+        c = dfac.getONE();
+        for (GenPolynomial<BigInteger> ai : A) {
+            c = c.multiply(ai);
+        }
+        //System.out.println("c = " + c);
+
+        GenPolynomial<ModLong> cp = PolyUtil.<ModLong> fromIntegerCoefficients(pkfac, c);
+        List<GenPolynomial<ModLong>> Ae = PolyUtil.<ModLong> fromIntegerCoefficients(pkfac, A);
+        GenPolynomial<ModInteger> cq = PolyUtil.<ModInteger> fromIntegerCoefficients(qkfac, c);
+        List<GenPolynomial<ModInteger>> Aq = PolyUtil.<ModInteger> fromIntegerCoefficients(qkfac, A);
+        GenPolynomialRing<ModLong> ckfac = pkfac;
+        GenPolynomialRing<ModInteger> cqfac = qkfac;
+        for (int j = V.size() - 1; j >= 0; j--) {
+            ckfac = ckfac.contract(1);
+            cqfac = cqfac.contract(1);
+            List<GenPolynomial<ModLong>> Ae1 = new ArrayList<GenPolynomial<ModLong>>(A.size());
+            for (GenPolynomial<ModLong> a : Ae) {
+                Ae1.add(PolyUtil.<ModLong> evaluateMain(ckfac, a, pkl.fromInteger(V.get(j).getVal())));
+            }
+            Ae = Ae1;
+            List<GenPolynomial<ModInteger>> Aq1 = new ArrayList<GenPolynomial<ModInteger>>(A.size());
+            for (GenPolynomial<ModInteger> a : Aq) {
+                Aq1.add(PolyUtil.<ModInteger> evaluateMain(cqfac, a, pki.fromInteger(V.get(j).getVal())));
+            }
+            Aq = Aq1;
+        }
+        //System.out.println("A(v,v) mod p^k = " + Ae);
+
+        try {
+            List<GenPolynomial<ModLong>> lift = HenselMultUtil.<ModLong> liftHenselMonic(c, cp, Ae, V, k);
+            List<GenPolynomial<ModLong>> plift = HenselMultUtil.<ModLong> liftHenselMonicParallel(c, cp, Ae,
+                            V, k);
+            //System.out.println("plift = " + plift);
+            assertTrue("isHenselLift: ", HenselMultUtil.<ModLong> isHenselLift(c, cp, Ae, plift));
+            assertEquals("lift == parallel lift", lift, plift);
+            assertEquals("lift == A", PolyUtil.<ModLong> fromIntegerCoefficients(pkfac, A), plift);
+
+            List<GenPolynomial<ModInteger>> qlift = HenselMultUtil.<ModInteger> liftHenselMonic(c, cq, Aq, V,
+                            2 * k);
+            List<GenPolynomial<ModInteger>> pqlift = HenselMultUtil.<ModInteger> liftHenselMonicParallel(c,
+                            cq, Aq, V, 2 * k);
+            assertTrue("isHenselLift: ", HenselMultUtil.<ModInteger> isHenselLift(c, cq, Aq, pqlift));
+            assertEquals("lift == parallel lift", qlift, pqlift);
+        } catch (NoLiftingException e) {
+            fail("" + e);
+        }
+    }
+
+
     /**
      * Test multivariate Hensel lifting list, 2 variables.
      */
@@ -6,7 +6,10 @@ package edu.jas.ufd;
 
 
 import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigRational;
 import edu.jas.kern.ComputerThreads;
+import edu.jas.poly.AlgebraicNumber;
+import edu.jas.poly.AlgebraicNumberRing;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
 import edu.jas.poly.PolyUtil;
@@ -287,4 +290,54 @@ public class PolyUfdUtilTest extends TestCase {
         assertEquals("dp = qp: ", qp.monic(), dp.monic()); // ??
     }
 
+
+    /**
+     * Test norm with modular resultants.
+     */
+    public void testNormModular() {
+        GenPolynomialRing<BigRational> qfac = new GenPolynomialRing<BigRational>(new BigRational(1), 1, to,
+                        new String[] { "alpha" });
+        for (int i = 0; i < 3; i++) {
+            GenPolynomial<BigRational> mo = qfac.random(kl, ll, el + 2 + i, q);
+            mo = mo.sum(qfac.univariate(0, el + 3 + i)).monic();
+            AlgebraicNumberRing<BigRational> afac = new AlgebraicNumberRing<BigRational>(mo);
+            GenPolynomialRing<AlgebraicNumber<BigRational>> pfac = new GenPolynomialRing<AlgebraicNumber<BigRational>>(
+                            afac, 1, to, new String[] { "x" });
+            GenPolynomial<AlgebraicNumber<BigRational>> ap = pfac.random(kl, ll, el + i, q);
+            ap = ap.sum(pfac.univariate(0, el + i + 1));
+            GenPolynomialRing<GenPolynomial<BigRational>> prfac = new GenPolynomialRing<GenPolynomial<BigRational>>(
+                            qfac, pfac);
+            GenPolynomial<GenPolynomial<BigRational>> Ac = PolyUfdUtil.<BigRational> introduceLowerVariable(
+                            prfac, mo);
+            GreatestCommonDivisorSimple<BigRational> engine = new GreatestCommonDivisorSimple<BigRational>();
+            for (long k = -1; k <= 1; k++) {
+                GenPolynomial<GenPolynomial<BigRational>> Pc = PolyUfdUtil
+                                .<BigRational> substituteFromAlgebraicCoefficients(prfac, ap.monic(), k);
+                GenPolynomial<BigRational> rm = NormModular.resultant(Pc, Ac);
+                GenPolynomial<BigRational> nm = PolyUfdUtil.<BigRational> norm(ap, k);
+                assertEquals("norm(a) == res_modular", nm, rm.monic());
+                assertEquals("deg(norm(a)) == deg(a) deg(m)", ap.degree(0) * mo.degree(0), nm.degree(0));
+
+                // compare with univariate resultants at some points
+                BigRational r0 = null;
+                for (int t = 1; t < 5; t++) {
+                    BigRational bt = new BigRational(t);
+                    GenPolynomial<BigRational> pt = PolyUtil.<BigRational> evaluateFirstRec(
+                                    (GenPolynomialRing<BigRational>) prfac.coFac, qfac, Pc, bt);
+                    BigRational rt = engine.baseResultant(pt, mo).leadingBaseCoefficient();
+                    BigRational rmt = PolyUtil.<BigRational> evaluateMain(rm.ring.coFac, rm, bt);
+                    if (rt.isZERO()) {
+                        assertTrue("res(t) == 0: " + rmt, rmt.isZERO());
+                        continue;
+                    }
+                    BigRational rq = rmt.divide(rt).abs();
+                    if (r0 == null) {
+                        r0 = rq;
+                    }
+                    assertEquals("res_modular(t) / res(t) == const", r0, rq);
+                }
+            }
+        }
+    }
+
 }
@@ -315,4 +315,69 @@ public class DistHashTableTest extends TestCase {
         assertTrue("#l2=="+loops, l2.size() == loops );
     }
 
+
+
+    /**
+     * Tests blocking getWait() and concurrent puts coalesced to batches.
+     */
+    public void testDistHashTable7() throws InterruptedException {
+        l1 = new DistHashTable<Integer,Integer>(host);
+        l1.init();
+        l2 = new DistHashTable<Integer,Integer>(host);
+        l2.init();
+
+        final int loops = 100;
+        final Integer[] last = new Integer[1];
+        Thread waiter = new Thread() {
+                public void run() {
+                    last[0] = l2.getWait( Integer.valueOf(loops) );
+                }
+            };
+        waiter.start();
+
+        Thread[] ts = new Thread[4];
+        for ( int t = 0; t < ts.length; t++ ) {
+            final int s = t;
+            ts[t] = new Thread() {
+                    public void run() {
+                        for ( int i = s + 1; i <= loops; i += 4 ) {
+                            Integer x = Integer.valueOf( i );
+                            l1.put( x, x );
+                        }
+                    }
+                };
+            ts[t].start();
+        }
+        for ( int t = 0; t < ts.length; t++ ) {
+            ts[t].join();
+        }
+        waiter.join(10000);
+        assertFalse("waiter done", waiter.isAlive() );
+        assertEquals("l2(loops)==loops", Integer.valueOf(loops), last[0] );
+
+        for ( int i = 1; i <= loops; i++ ) {
+            Integer x = Integer.valueOf( i );
+            assertEquals("l1(i)==i", x, l1.getWait(x) );
+            assertEquals("l2(i)==i", x, l2.getWait(x) );
+        }
+        assertTrue("#l1=="+loops, l1.size() == loops );
+        assertTrue("#batches <= " + loops, l1.getBatches() <= loops );
+    }
+
+
+    /**
+     * Tests that a late acknowledgement after clear() does not restore a value.
+     */
+    public void testDistHashTable8() {
+        l1 = new DistHashTable<Integer,Integer>(host);
+        l1.init();
+
+        Integer x = Integer.valueOf( 8 );
+        l1.pending.put( x, x ); // sent, not yet acknowledged
+        l1.clear();
+        l1.known( x );
+        assertNull("l1(8)==null", l1.get(x) );
+        assertTrue("#l1==0", l1.size() == 0 );
+    }
+
 }
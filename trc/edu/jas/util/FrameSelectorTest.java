@@ -0,0 +1,219 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.util;
+
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.log4j.BasicConfigurator;
+
+
+/**
+ * FrameSelector, FrameChannel and non blocking ExecutableServer tests with
+ * JUnit.
+ * @author agent
+ */
+
+public class FrameSelectorTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        BasicConfigurator.configure();
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>FrameSelectorTest</CODE> object.
+     * @param name String.
+     */
+    public FrameSelectorTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(FrameSelectorTest.class);
+        return suite;
+    }
+
+
+    private static final String host = "localhost";
+
+
+    private FrameSelector fs;
+
+
+    @Override
+    protected void setUp() {
+        try {
+            fs = new FrameSelector();
+        } catch (IOException e) {
+            fail("IOException " + e);
+        }
+        fs.start();
+    }
+
+
+    @Override
+    protected void tearDown() {
+        fs.terminate();
+        fs = null;
+    }
+
+
+    /**
+     * Handler collecting received objects, optionally replies to Strings.
+     */
+    static class Collector implements FrameHandler {
+
+
+        final boolean echo;
+
+
+        Collector(boolean echo) {
+            this.echo = echo;
+        }
+
+
+        final BlockingQueue<Object> recv = new LinkedBlockingQueue<Object>();
+
+
+        final AtomicInteger open = new AtomicInteger();
+
+
+        public void opened(FrameChannel ch) {
+            open.incrementAndGet();
+        }
+
+
+        public void received(FrameChannel ch, Object o) {
+            recv.add(o);
+            if (echo && o instanceof String) {
+                try {
+                    ch.send("echo " + o);
+                } catch (IOException e) {
+                    recv.add(e);
+                }
+            }
+        }
+
+
+        public void closed(FrameChannel ch) {
+            open.decrementAndGet();
+        }
+    }
+
+
+    /**
+     * Test frames between FrameChannels and blocking SocketChannels.
+     */
+    public void testFrames() throws Exception {
+        Collector srv = new Collector(true);
+        int port = fs.listen(0, srv);
+        Collector cli = new Collector(false);
+        FrameChannel ch = fs.connect(host, port, cli);
+        int[] big = new int[1 << 20];
+        big[big.length - 1] = 42;
+        ch.send(big);
+        ch.send("hello");
+        Object o = srv.recv.poll(10, TimeUnit.SECONDS);
+        assertTrue("int[] received " + o, o instanceof int[]);
+        assertEquals("big[n-1] = 42", 42, ((int[]) o)[big.length - 1]);
+        assertEquals("hello", srv.recv.poll(10, TimeUnit.SECONDS));
+        assertEquals("echo hello", cli.recv.poll(10, TimeUnit.SECONDS));
+
+        SocketChannel sc = new SocketChannel(new Socket(host, port));
+        for (int i = 0; i < 10; i++) {
+            sc.send("x" + i);
+        }
+        for (int i = 0; i < 10; i++) {
+            assertEquals("echo x" + i, sc.receive());
+        }
+        sc.close();
+        ch.close();
+        assertTrue("channel closed", ch.isClosed());
+    }
+
+
+    /**
+     * Job counting concurrent executions.
+     */
+    static class CountingJob implements RemoteExecutable {
+
+
+        private static final long serialVersionUID = 1L;
+
+
+        static final AtomicInteger running = new AtomicInteger();
+
+
+        static final AtomicInteger max = new AtomicInteger();
+
+
+        public void run() {
+            int r = running.incrementAndGet();
+            synchronized (max) {
+                if (r > max.get()) {
+                    max.set(r);
+                }
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+        }
+    }
+
+
+    /**
+     * Test bounded ExecutableServer with many connections.
+     */
+    public void testExecutableServer() throws Exception {
+        ExecutableServer es = new ExecutableServer(0, 2);
+        es.init();
+        int port = es.port;
+        Collector cli = new Collector(false);
+        int n = 20;
+        FrameChannel[] chs = new FrameChannel[n];
+        for (int i = 0; i < n; i++) {
+            chs[i] = fs.connect(host, port, cli);
+        }
+        for (int i = 0; i < n; i++) {
+            chs[i].send(new CountingJob());
+            chs[i].send(new CountingJob());
+        }
+        for (int i = 0; i < 2 * n; i++) {
+            assertEquals("DONE " + i, ExecutableServer.DONE, cli.recv.poll(10, TimeUnit.SECONDS));
+        }
+        assertTrue("at most 2 jobs concurrently: " + CountingJob.max, CountingJob.max.get() <= 2);
+        assertEquals("connections", n, es.size());
+        for (int i = 0; i < n; i++) {
+            chs[i].send(ExecutableServer.STOP);
+        }
+        for (int i = 0; i < n; i++) {
+            assertEquals("DONE stop " + i, ExecutableServer.DONE, cli.recv.poll(10, TimeUnit.SECONDS));
+        }
+        es.terminate();
+    }
+
+}
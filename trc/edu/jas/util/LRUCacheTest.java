@@ -0,0 +1,96 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.util;
+
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.log4j.BasicConfigurator;
+
+
+/**
+ * LRUCache tests with JUnit.
+ * @author agent
+ */
+
+public class LRUCacheTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        BasicConfigurator.configure();
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>LRUCacheTest</CODE> object.
+     * @param name String.
+     */
+    public LRUCacheTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(LRUCacheTest.class);
+        return suite;
+    }
+
+
+    /**
+     * Test get and put.
+     */
+    public void testGetPut() {
+        LRUCache<String, Integer> c = new LRUCache<String, Integer>(10);
+        assertNull("empty cache", c.get("a"));
+        assertEquals("put(a,1)", Integer.valueOf(1), c.put("a", 1));
+        assertEquals("put(a,2) keeps 1", Integer.valueOf(1), c.put("a", 2));
+        assertEquals("get(a)", Integer.valueOf(1), c.get("a"));
+        assertEquals("size", 1, c.size());
+        assertEquals("hits", 1, c.getHits());
+        assertEquals("misses", 1, c.getMisses());
+        c.clear();
+        assertNull("cleared cache", c.get("a"));
+        try {
+            c.put("b", null);
+            fail("null value allowed");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+
+    /**
+     * Test eviction of least recently used entries.
+     */
+    public void testEviction() {
+        int n = 100;
+        LRUCache<Integer, Integer> c = new LRUCache<Integer, Integer>(n);
+        for (int i = 0; i < n; i++) {
+            c.put(i, i);
+        }
+        assertEquals("full cache", n, c.size());
+        for (int i = 0; i < 10; i++) {
+            assertNotNull("used " + i, c.get(i));
+        }
+        c.put(n, n);
+        assertTrue("evicted " + c, c.size() <= n);
+        assertTrue("evictions " + c, c.getEvictions() > 0);
+        for (int i = 0; i < 10; i++) {
+            assertNotNull("recently used " + i + " kept", c.get(i));
+        }
+        assertNull("least recently used 10 evicted", c.get(10));
+        assertNotNull("last put kept", c.get(n));
+    }
+
+}
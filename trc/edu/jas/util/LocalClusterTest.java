@@ -0,0 +1,139 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.util;
+
+
+import java.io.File;
+import java.util.SortedMap;
+import java.util.concurrent.Callable;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.log4j.BasicConfigurator;
+
+
+/**
+ * LocalCluster tests with JUnit.
+ * @author agent
+ */
+
+public class LocalClusterTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        BasicConfigurator.configure();
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>LocalClusterTest</CODE> object.
+     * @param name String.
+     */
+    public LocalClusterTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(LocalClusterTest.class);
+        return suite;
+    }
+
+
+    static final int JOBS = 10;
+
+
+    /**
+     * Run JOBS jobs on the cluster.
+     */
+    static Integer runJobs(LocalCluster lc) throws Exception {
+        final String mfile = lc.getMachineFile();
+        final int n = lc.size();
+        return lc.run(new Callable<Integer>() {
+
+
+            public Integer call() {
+                DistThreadPool pool = new DistThreadPool(n, mfile);
+                for (int i = 0; i < JOBS; i++) {
+                    pool.addJob(new EmptyJob());
+                }
+                pool.terminate();
+                return JOBS;
+            }
+        });
+    }
+
+
+    /**
+     * Job without work.
+     */
+    static class EmptyJob implements RemoteExecutable {
+
+
+        private static final long serialVersionUID = 1L;
+
+
+        public void run() {
+        }
+    }
+
+
+    /**
+     * Test in-process cluster.
+     */
+    public void testInProcess() throws Exception {
+        LocalCluster lc = new LocalCluster(2);
+        lc.start();
+        String mfile = lc.getMachineFile();
+        try {
+            assertTrue("machine file exists", new File(mfile).exists());
+            ExecutableChannels ec = new ExecutableChannels(mfile);
+            assertEquals("master + nodes", 3, ec.numServers());
+            assertEquals("master port", lc.getMasterPort(), ec.getMasterPort());
+
+            assertEquals("jobs", Integer.valueOf(JOBS), runJobs(lc));
+            long jobs = 0L;
+            for (int i = 0; i < lc.size(); i++) {
+                jobs += lc.getStatistics(i).get("jobs");
+            }
+            assertEquals("jobs on nodes", JOBS, jobs);
+            assertTrue("time >= 0", lc.getTime() >= 0L);
+            SortedMap<String, Long> ts = lc.getTransportStatistics();
+            assertTrue("frames sent " + ts, ts.get("framesSent") >= JOBS);
+            assertTrue("bytes received " + ts, ts.get("bytesReceived") > 0L);
+        } finally {
+            lc.terminate();
+        }
+        assertFalse("machine file removed", new File(mfile).exists());
+    }
+
+
+    /**
+     * Test forked cluster.
+     */
+    public void testForked() throws Exception {
+        LocalCluster lc = new LocalCluster(1, true);
+        lc.start();
+        try {
+            assertEquals("jobs", Integer.valueOf(JOBS), runJobs(lc));
+        } finally {
+            lc.terminate();
+        }
+        SortedMap<String, Long> st = lc.getStatistics(0);
+        assertEquals("jobs on node " + st, Long.valueOf(JOBS), st.get("jobs"));
+        assertTrue("frames received on node " + st, st.get("framesReceived") >= JOBS);
+        assertTrue("report " + lc, lc.toString().indexOf("forked") >= 0);
+    }
+
+}
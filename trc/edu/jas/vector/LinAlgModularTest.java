@@ -0,0 +1,175 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.vector;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigRational;
+import edu.jas.structure.NotInvertibleException;
+
+
+/**
+ * LinAlgModular tests with JUnit.
+ * @author agent
+ */
+
+public class LinAlgModularTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>LinAlgModularTest</CODE> object.
+     * @param name String.
+     */
+    public LinAlgModularTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(LinAlgModularTest.class);
+        return suite;
+    }
+
+
+    int kl = 30;
+
+
+    float q = 0.8f;
+
+
+    int rows = 12;
+
+
+    @Override
+    protected void setUp() {
+    }
+
+
+    @Override
+    protected void tearDown() {
+    }
+
+
+    /**
+     * Test determinant of integer matrices.
+     */
+    public void testIntegerDeterminant() {
+        BigInteger cfac = new BigInteger(1);
+        GenMatrixRing<BigInteger> mfac = new GenMatrixRing<BigInteger>(cfac, rows, rows);
+        LinAlgModular<BigInteger> lm = new LinAlgModular<BigInteger>(3);
+        LinAlg<BigInteger> la = new LinAlg<BigInteger>();
+
+        assertTrue("det(1) == 1", lm.determinant(mfac.getONE()).isONE());
+        assertTrue("det(0) == 0", lm.determinant(mfac.getZERO()).isZERO());
+
+        GenMatrix<BigInteger> a = mfac.random(kl, q);
+        BigInteger d = la.determinant(a);
+        //System.out.println("d = " + d);
+        assertEquals("det modular == det Bareiss", d, lm.determinant(a));
+        assertEquals("det(-a) == det(a)", d, lm.determinant(a.negate()));
+
+        lm.stabilization = 2;
+        assertEquals("det stabilized == det Bareiss", d, lm.determinant(a));
+
+        // large entries without long representation
+        a = mfac.random(3 * kl, q);
+        assertEquals("det modular == det Bareiss", la.determinant(a), lm.determinant(a));
+
+        // sequential batches
+        lm = new LinAlgModular<BigInteger>(1);
+        assertEquals("det modular == det Bareiss", la.determinant(a), lm.determinant(a));
+    }
+
+
+    /**
+     * Test determinant and solve of rational matrices.
+     */
+    public void testRationalSolve() {
+        BigRational cfac = new BigRational(1);
+        GenMatrixRing<BigRational> mfac = new GenMatrixRing<BigRational>(cfac, rows, rows);
+        GenVectorModul<BigRational> vfac = new GenVectorModul<BigRational>(cfac, rows);
+        LinAlgModular<BigRational> lm = new LinAlgModular<BigRational>(3);
+        LinAlg<BigRational> la = new LinAlg<BigRational>();
+
+        GenMatrix<BigRational> a;
+        BigRational d;
+        do {
+            a = mfac.random(kl, q);
+            d = la.determinant(a);
+        } while (d.isZERO());
+        assertEquals("det modular == det Bareiss", d, lm.determinant(a));
+
+        GenVector<BigRational> b = vfac.random(kl, q);
+        GenVector<BigRational> x = lm.solve(a, b);
+        //System.out.println("x = " + x);
+        assertEquals("solve modular == solve Bareiss", la.solve(a, b), x);
+
+        a = mfac.getONE();
+        a.matrix.get(1).set(1, cfac.getZERO());
+        try {
+            lm.solve(a, b);
+            fail("singular matrix");
+        } catch (NotInvertibleException e) {
+            // pass
+        }
+    }
+
+
+    /**
+     * Test rank and null space.
+     */
+    public void testNullSpace() {
+        BigInteger cfac = new BigInteger(1);
+        int r = 5;
+        GenMatrixRing<BigInteger> lfac = new GenMatrixRing<BigInteger>(cfac, rows, r);
+        GenMatrixRing<BigInteger> rfac = new GenMatrixRing<BigInteger>(cfac, r, rows + 2);
+        LinAlgModular<BigInteger> lm = new LinAlgModular<BigInteger>(2);
+        LinAlg<BigInteger> la = new LinAlg<BigInteger>();
+
+        GenMatrix<BigInteger> a;
+        do {
+            a = lfac.random(kl, q).multiply(rfac.random(kl, q));
+        } while (la.rank(a) != r);
+        assertEquals("rank modular == rank Bareiss", r, lm.rank(a));
+
+        List<GenVector<BigRational>> N = lm.nullSpace(a);
+        //System.out.println("N = " + N);
+        assertEquals("dim(N) == cols - rank", rows + 2 - r, N.size());
+        for (GenVector<BigRational> v : N) {
+            for (int i = 0; i < rows; i++) {
+                BigRational s = new BigRational();
+                for (int j = 0; j < rows + 2; j++) {
+                    s = s.sum(a.matrix.get(i).get(j).getRational().multiply(v.val.get(j)));
+                }
+                assertTrue("a v == 0", s.isZERO());
+            }
+        }
+
+        GenMatrixRing<BigInteger> mfac = new GenMatrixRing<BigInteger>(cfac, rows, rows);
+        assertTrue("N(1) == 0", lm.nullSpace(mfac.getONE()).isEmpty());
+        assertEquals("rank(1) == n", rows, lm.rank(mfac.getONE()));
+        assertEquals("rank(0) == 0", 0, lm.rank(mfac.getZERO()));
+        List<GenVector<BigRational>> E = new ArrayList<GenVector<BigRational>>(lm.nullSpace(mfac.getZERO()));
+        assertEquals("N(0) == unit vectors", rows, E.size());
+    }
+
+}
@@ -0,0 +1,256 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.vector;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigRational;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.structure.NotInvertibleException;
+import edu.jas.structure.RingElem;
+
+
+/**
+ * LinAlg tests with JUnit.
+ * @author agent
+ */
+
+public class LinAlgTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>LinAlgTest</CODE> object.
+     * @param name String.
+     */
+    public LinAlgTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(LinAlgTest.class);
+        return suite;
+    }
+
+
+    int kl = 10;
+
+
+    float q = 0.7f;
+
+
+    int rows = 7;
+
+
+    @Override
+    protected void setUp() {
+    }
+
+
+    @Override
+    protected void tearDown() {
+    }
+
+
+    /**
+     * Product of the diagonal elements.
+     */
+    <C extends RingElem<C>> C diagonal(GenMatrix<C> a) {
+        C d = a.ring.coFac.getONE();
+        for (int i = 0; i < a.ring.rows; i++) {
+            d = d.multiply(a.matrix.get(i).get(i));
+        }
+        return d;
+    }
+
+
+    /**
+     * Test determinant and rank over the integers.
+     */
+    public void testIntegerDeterminant() {
+        BigInteger cfac = new BigInteger(1);
+        GenMatrixRing<BigInteger> mfac = new GenMatrixRing<BigInteger>(cfac, rows, rows);
+        LinAlg<BigInteger> la = new LinAlg<BigInteger>();
+
+        assertTrue("det(1) == 1", la.determinant(mfac.getONE()).isONE());
+        assertTrue("det(0) == 0", la.determinant(mfac.getZERO()).isZERO());
+        assertEquals("rank(0) == 0", 0, la.rank(mfac.getZERO()));
+        assertEquals("rank(1) == n", rows, la.rank(mfac.getONE()));
+
+        for (int i = 0; i < 5; i++) {
+            GenMatrix<BigInteger> l = mfac.randomLower(kl, q);
+            GenMatrix<BigInteger> u = mfac.randomUpper(kl, q);
+            GenMatrix<BigInteger> a = l.multiply(u);
+            BigInteger d = diagonal(l).multiply(diagonal(u));
+            //System.out.println("d = " + d);
+            assertEquals("det(l u) == det(l) det(u)", d, la.determinant(a));
+            assertEquals("det(a) == det(a^t)", d, la.determinant(a.transpose(mfac)));
+            if (!d.isZERO()) {
+                assertEquals("rank(a) == n", rows, la.rank(a));
+            }
+        }
+
+        // rank of product of rank 1 matrices
+        GenMatrixRing<BigInteger> cr = new GenMatrixRing<BigInteger>(cfac, rows, 1);
+        GenMatrixRing<BigInteger> rr = new GenMatrixRing<BigInteger>(cfac, 1, rows + 2);
+        GenMatrix<BigInteger> c, r;
+        do {
+            c = cr.random(kl, q);
+            r = rr.random(kl, q);
+        } while (c.isZERO() || r.isZERO());
+        GenMatrix<BigInteger> a = c.multiply(r);
+        assertEquals("rank(c r) == 1", 1, la.rank(a));
+        assertEquals("rank(c r + c r) == 1", 1, la.rank(a.sum(a)));
+    }
+
+
+    /**
+     * Test solve and inverse over the rational numbers.
+     */
+    public void testRationalInverse() {
+        BigRational cfac = new BigRational(1);
+        GenMatrixRing<BigRational> mfac = new GenMatrixRing<BigRational>(cfac, rows, rows);
+        LinAlg<BigRational> la = new LinAlg<BigRational>();
+
+        GenMatrix<BigRational> a;
+        do {
+            a = mfac.random(kl, q);
+        } while (la.determinant(a).isZERO());
+        GenMatrix<BigRational> b = a.inverse();
+        //System.out.println("b = " + b);
+        assertTrue("a a^-1 == 1", a.multiply(b).isONE());
+        assertTrue("a^-1 a == 1", b.multiply(a).isONE());
+        assertEquals("det(a^-1) == 1/det(a)", a.determinant().inverse(), b.determinant());
+
+        GenVectorModul<BigRational> vfac = new GenVectorModul<BigRational>(cfac, rows);
+        GenVector<BigRational> v = vfac.random(kl, q);
+        GenVector<BigRational> x = la.solve(a, v);
+        List<BigRational> av = new ArrayList<BigRational>();
+        for (int i = 0; i < rows; i++) {
+            BigRational s = cfac.getZERO();
+            for (int j = 0; j < rows; j++) {
+                s = s.sum(a.matrix.get(i).get(j).multiply(x.val.get(j)));
+            }
+            av.add(s);
+        }
+        assertEquals("a x == v", v, new GenVector<BigRational>(vfac, av));
+
+        a = mfac.getONE();
+        a.matrix.get(0).set(0, cfac.getZERO());
+        try {
+            a.inverse();
+            fail("singular matrix");
+        } catch (NotInvertibleException e) {
+            // pass
+        }
+    }
+
+
+    /**
+     * Test fraction free solve over the integers.
+     */
+    public void testIntegerSolve() {
+        BigInteger cfac = new BigInteger(1);
+        GenMatrixRing<BigInteger> mfac = new GenMatrixRing<BigInteger>(cfac, rows, rows);
+        GenMatrixRing<BigInteger> bfac = new GenMatrixRing<BigInteger>(cfac, rows, 2);
+        LinAlg<BigInteger> la = new LinAlg<BigInteger>();
+
+        GenMatrix<BigInteger> a;
+        BigInteger d;
+        do {
+            a = mfac.random(kl, q);
+            d = la.determinant(a);
+        } while (d.isZERO());
+        GenMatrix<BigInteger> x = bfac.random(kl, q);
+        GenMatrix<BigInteger> b = a.multiply(x);
+        assertEquals("solve(a, a x) == x", x, la.solve(a, b));
+
+        Object[] dy = la.solveFractionFree(a, bfac.random(kl, q));
+        assertEquals("det(a)", d, dy[0]);
+
+        if (!d.abs().isONE()) {
+            try {
+                la.inverse(a);
+                fail("not unimodular");
+            } catch (NotInvertibleException e) {
+                // pass
+            }
+        }
+    }
+
+
+    /**
+     * Test parallel multiplication.
+     */
+    public void testParallelMultiply() {
+        int save = LinAlg.PARALLEL_THRESHOLD;
+        try {
+            LinAlg.PARALLEL_THRESHOLD = 1;
+            BigInteger cfac = new BigInteger(1);
+            GenMatrixRing<BigInteger> afac = new GenMatrixRing<BigInteger>(cfac, 23, 17);
+            GenMatrixRing<BigInteger> bfac = new GenMatrixRing<BigInteger>(cfac, 17, 29);
+            GenMatrix<BigInteger> a = afac.random(kl, q);
+            GenMatrix<BigInteger> b = bfac.random(kl, q);
+            LinAlg<BigInteger> la = new LinAlg<BigInteger>();
+            assertEquals("a*b == a*b", a.multiplySimple(b), la.multiply(a, b));
+            assertEquals("a*b == a*b", a.multiplySimple(b), a.multiply(b));
+
+            GenMatrixRing<BigInteger> mfac = new GenMatrixRing<BigInteger>(cfac, 23, 23);
+            GenMatrix<BigInteger> l = mfac.randomLower(kl, 1.0f);
+            GenMatrix<BigInteger> u = mfac.randomUpper(kl, 1.0f);
+            assertEquals("det(l u)", diagonal(l).multiply(diagonal(u)), la.determinant(l.multiply(u)));
+        } finally {
+            LinAlg.PARALLEL_THRESHOLD = save;
+        }
+    }
+
+
+    /**
+     * Test primitive array methods over ModLong.
+     */
+    public void testModLong() {
+        ModLongRing cfac = new ModLongRing(2147483647L, true);
+        GenMatrixRing<ModLong> mfac = new GenMatrixRing<ModLong>(cfac, rows, rows);
+        GenMatrixRing<ModLong> bfac = new GenMatrixRing<ModLong>(cfac, rows, 3);
+        LinAlg<ModLong> la = new LinAlg<ModLong>();
+
+        GenMatrix<ModLong> a = mfac.random(kl, q);
+        GenMatrix<ModLong> b = bfac.random(kl, q);
+        assertEquals("a*b == a*b", a.multiplySimple(b), la.multiply(a, b));
+
+        GenMatrix<ModLong> l = mfac.randomLower(kl, q);
+        GenMatrix<ModLong> u = mfac.randomUpper(kl, q);
+        a = l.multiply(u);
+        ModLong d = diagonal(l).multiply(diagonal(u));
+        assertEquals("det(l u) == det(l) det(u)", d, la.determinant(a));
+
+        do {
+            a = mfac.random(kl, q);
+        } while (la.determinant(a).isZERO());
+        assertEquals("rank(a) == n", rows, la.rank(a));
+        assertTrue("a a^-1 == 1", a.multiply(a.inverse()).isONE());
+        GenMatrix<ModLong> x = la.solve(a, b);
+        assertEquals("a x == b", b, a.multiplySimple(x));
+    }
+
+}
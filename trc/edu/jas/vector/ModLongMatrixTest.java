@@ -0,0 +1,200 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.vector;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.structure.NotInvertibleException;
+
+
+/**
+ * ModLongMatrix and ModLongVector tests with JUnit.
+ * @author agent
+ */
+
+public class ModLongMatrixTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>ModLongMatrixTest</CODE> object.
+     * @param name String.
+     */
+    public ModLongMatrixTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(ModLongMatrixTest.class);
+        return suite;
+    }
+
+
+    int kl = 10;
+
+
+    float q = 0.7f;
+
+
+    int rows = 9;
+
+
+    int cols = 7;
+
+
+    ModLongRing cfac;
+
+
+    @Override
+    protected void setUp() {
+        cfac = new ModLongRing(2147483629L, true);
+    }
+
+
+    @Override
+    protected void tearDown() {
+        cfac = null;
+    }
+
+
+    /**
+     * Test vector arithmetic against generic vectors.
+     */
+    public void testVector() {
+        ModLongVectorModul vfac = new ModLongVectorModul(cfac, cols);
+        GenVectorModul<ModLong> gfac = new GenVectorModul<ModLong>(cfac, cols);
+        ModLongVector a, b, c;
+        a = vfac.random(kl, q);
+        b = vfac.random(kl, q);
+        GenVector<ModLong> ga = a.toGenVector();
+        GenVector<ModLong> gb = b.toGenVector();
+        assertEquals("a == a", a, vfac.fromGenVector(ga));
+        assertTrue("0 == 0", vfac.getZERO().isZERO());
+        assertEquals("parse(a) == a", a, vfac.parse(a.toString()));
+
+        assertEquals("a+b", ga.sum(gb), a.sum(b).toGenVector());
+        assertEquals("a-b", ga.subtract(gb), a.subtract(b).toGenVector());
+        assertTrue("a-a == 0", a.subtract(a).isZERO());
+        assertTrue("a+(-a) == 0", a.sum(a.negate()).isZERO());
+
+        ModLong s = cfac.random(kl);
+        ModLong t = cfac.random(kl);
+        assertEquals("a*s", ga.scalarMultiply(s), a.scalarMultiply(s).toGenVector());
+        assertEquals("a*s+b*t", ga.linearCombination(s, gb, t), a.linearCombination(s, b, t).toGenVector());
+        assertEquals("a+b*t", ga.linearCombination(gb, t), a.linearCombination(b, t).toGenVector());
+        assertEquals("a . b", ga.scalarProduct(gb), a.scalarProduct(b));
+
+        // dot product with many large entries, delayed reduction
+        ModLongVectorModul lfac = new ModLongVectorModul(cfac, 1000);
+        long[] m = new long[1000];
+        java.util.Arrays.fill(m, cfac.modul - 1L);
+        ModLongVector e = new ModLongVector(lfac, m);
+        assertEquals("(-1,...,-1)^2 == 1000", cfac.fromInteger(1000), e.scalarProduct(e));
+
+        List<ModLongVector> B = new ArrayList<ModLongVector>();
+        List<GenVector<ModLong>> gB = new ArrayList<GenVector<ModLong>>();
+        for (int i = 0; i < cols; i++) {
+            c = vfac.random(kl, q);
+            B.add(c);
+            gB.add(c.toGenVector());
+        }
+        assertEquals("a * B", ga.scalarProduct(gB), a.scalarProduct(B).toGenVector());
+        assertTrue("gfac", gfac.equals(ga.modul));
+    }
+
+
+    /**
+     * Test matrix arithmetic against generic matrices.
+     */
+    public void testMatrix() {
+        ModLongMatrixRing mfac = new ModLongMatrixRing(cfac, rows, cols);
+        ModLongMatrixRing nfac = new ModLongMatrixRing(cfac, cols, rows);
+        ModLongMatrix a, b, c;
+        a = mfac.random(kl, q);
+        b = mfac.random(kl, q);
+        c = nfac.random(kl, q);
+        GenMatrix<ModLong> ga = a.toGenMatrix();
+        GenMatrix<ModLong> gb = b.toGenMatrix();
+        GenMatrix<ModLong> gc = c.toGenMatrix();
+        assertEquals("a == a", a, mfac.fromGenMatrix(ga));
+        assertEquals("parse(a) == a", a, mfac.parse(a.toString()));
+
+        assertEquals("a+b", ga.sum(gb), a.sum(b).toGenMatrix());
+        assertEquals("a-b", ga.subtract(gb), a.subtract(b).toGenMatrix());
+        assertTrue("a+(-a) == 0", a.sum(a.negate()).isZERO());
+        ModLong s = cfac.random(kl);
+        ModLong t = cfac.random(kl);
+        assertEquals("a*s+b*t", ga.linearCombination(s, gb, t), a.linearCombination(s, b, t).toGenMatrix());
+        assertEquals("a+b*t", ga.linearCombination(gb, t), a.linearCombination(b, t).toGenMatrix());
+
+        assertEquals("a*c", ga.multiplySimple(gc), a.multiply(c).toGenMatrix());
+        assertEquals("(a*c)^t == c^t*a^t", a.multiply(c).transpose(),
+                        c.transpose().multiply(a.transpose()));
+
+        ModLongVectorModul vfac = new ModLongVectorModul(cfac, cols);
+        ModLongVector v = vfac.random(kl, q);
+        ModLongMatrixRing cfac1 = new ModLongMatrixRing(cfac, cols, 1);
+        long[][] vc = new long[cols][1];
+        for (int i = 0; i < cols; i++) {
+            vc[i][0] = v.val[i];
+        }
+        ModLongMatrix av = a.multiply(new ModLongMatrix(cfac1, vc));
+        ModLongVector w = a.multiply(v);
+        for (int i = 0; i < rows; i++) {
+            assertEquals("a*v", av.matrix[i][0], w.val[i]);
+        }
+    }
+
+
+    /**
+     * Test inverse, determinant, rank and solve.
+     */
+    public void testLinearAlgebra() {
+        ModLongMatrixRing mfac = new ModLongMatrixRing(cfac, rows, rows);
+        LinAlg<ModLong> la = new LinAlg<ModLong>();
+        ModLongMatrix a;
+        do {
+            a = mfac.random(kl, q);
+        } while (!a.isUnit());
+        assertEquals("det(a)", la.determinant(a.toGenMatrix()), a.determinant());
+        assertEquals("rank(a)", rows, a.rank());
+        assertTrue("a*a^-1 == 1", a.multiply(a.inverse()).isONE());
+        assertTrue("a^-1*a == 1", a.inverse().multiply(a).isONE());
+
+        ModLongVectorModul vfac = new ModLongVectorModul(cfac, rows);
+        ModLongVector b = vfac.random(kl, q);
+        ModLongVector x = a.solve(b);
+        assertEquals("a x == b", b, a.multiply(x));
+
+        a = mfac.getONE().set(2, 2, cfac.getZERO());
+        assertTrue("det(a) == 0", a.determinant().isZERO());
+        assertEquals("rank(a) == n-1", rows - 1, a.rank());
+        try {
+            a.inverse();
+            fail("singular matrix");
+        } catch (NotInvertibleException e) {
+            // pass
+        }
+    }
+
+}